@@ -0,0 +1,47 @@
+package com.trading.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * 冷热数据分层配置属性类
+ * 已结束的订单（含商品项）和资金流水超过保留期后分批移入归档表，列表查询翻过热数据后继续读取归档表
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "trading.archive")
+public class ArchiveProperties {
+
+    /**
+     * 是否定时归档
+     */
+    private boolean enabled = true;
+
+    /**
+     * 归档任务的执行时间
+     */
+    @NotBlank
+    private String cron = "0 30 3 * * ?";
+
+    /**
+     * 热表保留期：已完成、已退款、已取消的订单按最后更新时间，资金流水按创建时间，超过该时长即归档。
+     * 结算重算、补算和对账只读取热表，含已归档数据的日期会被拒绝，需先恢复该日期范围；保留期应长于通常需要重算的时间范围
+     */
+    @NotNull
+    private Duration maxAge = Duration.ofDays(400);
+
+    /**
+     * 每批移动的订单或流水行数，每批一个事务
+     */
+    @NotNull
+    @Min(1)
+    private Integer batchSize = 500;
+}
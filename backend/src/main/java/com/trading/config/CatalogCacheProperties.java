@@ -0,0 +1,87 @@
+package com.trading.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * 商品目录本地缓存配置属性类
+ * 商品详情、商家名称和SKU库存缓存在各节点内存中，写入时精确失效，
+ * 其他节点通过定期拉取缓存失效表同步
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "trading.catalog-cache")
+public class CatalogCacheProperties {
+
+    /**
+     * 是否启用本地缓存，关闭后所有读取直接访问数据库
+     */
+    @NotNull
+    private Boolean enabled = true;
+
+    /**
+     * 商品详情缓存的最大条目数
+     */
+    @NotNull
+    @Min(1)
+    private Long productMaxSize = 10000L;
+
+    /**
+     * 商品详情缓存条目写入后的有效期，作为失效同步异常时的兜底
+     */
+    @NotNull
+    private Duration productTtl = Duration.ofMinutes(10);
+
+    /**
+     * 商家名称缓存的最大条目数
+     */
+    @NotNull
+    @Min(1)
+    private Long merchantNameMaxSize = 10000L;
+
+    /**
+     * 商家名称缓存条目写入后的有效期
+     */
+    @NotNull
+    private Duration merchantNameTtl = Duration.ofMinutes(30);
+
+    /**
+     * SKU库存缓存的最大条目数
+     */
+    @NotNull
+    @Min(1)
+    private Long inventoryMaxSize = 50000L;
+
+    /**
+     * SKU库存缓存条目写入后的有效期，库存随下单变化，取较短的值
+     */
+    @NotNull
+    private Duration inventoryTtl = Duration.ofMinutes(1);
+
+    /**
+     * 拉取其他节点缓存失效记录的间隔（毫秒），即跨节点读到旧数据的最长时间
+     */
+    @NotNull
+    @Min(100)
+    private Long pollInterval = 5000L;
+
+    /**
+     * 缓存失效记录的保留时长，需远大于拉取间隔
+     */
+    @NotNull
+    private Duration retention = Duration.ofHours(1);
+
+    /**
+     * 清理过期缓存失效记录的Cron表达式，每个周期只在一个节点上执行
+     */
+    @NotBlank
+    private String purgeCron = "0 15 * * * ?";
+}
@@ -0,0 +1,62 @@
+package com.trading.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * JFR（Java Flight Recorder）配置属性类
+ * 业务事件（下单、支付、库存乐观锁冲突、商家结算、JWT验证）始终定义，
+ * 只有在录制开启时才产生开销；录制可由JVM参数-XX:StartFlightRecording启动，
+ * 也可由本配置在应用启动时开启一个进程内的持续录制，通过/actuator/flightrecording导出
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "trading.flight-recording")
+public class FlightRecordingProperties {
+
+    /**
+     * 是否在启动时开启持续录制
+     */
+    @NotNull
+    private Boolean continuous = false;
+
+    /**
+     * 持续录制使用的JFR配置（JDK自带default或profile，或.jfc文件路径）
+     */
+    @NotBlank
+    private String settings = "default";
+
+    /**
+     * 持续录制保留的最长时间
+     */
+    @NotNull
+    private Duration maxAge = Duration.ofMinutes(30);
+
+    /**
+     * 持续录制保留的最大字节数
+     */
+    @NotNull
+    @Min(1048576)
+    private Long maxSize = 100L * 1024 * 1024;
+
+    /**
+     * 导出.jfr文件的目录
+     */
+    @NotBlank
+    private String dumpDirectory = System.getProperty("java.io.tmpdir");
+
+    /**
+     * 导出目录中保留的最近.jfr文件数，更早的导出文件在每次导出后删除
+     */
+    @NotNull
+    @Min(1)
+    private Integer retainedDumps = 5;
+}
@@ -5,10 +5,12 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.annotation.Validated;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
+import java.time.LocalDateTime;
 
 /**
  * JWT配置属性类
@@ -68,6 +70,21 @@ public class JwtProperties {
     @Pattern(regexp = "^(HS256|HS384|HS512)$", message = "JWT algorithm must be one of: HS256, HS384, HS512")
     private String algorithm = "HS256";
     
+    /**
+     * 已验证令牌缓存的最大条目数，命中时跳过解析和验签；0表示禁用缓存
+     * 缓存条目在令牌过期时失效
+     */
+    @NotNull(message = "JWT verified token cache size cannot be null")
+    @Min(value = 0, message = "JWT verified token cache size must not be negative")
+    private Integer verifiedTokenCacheSize = 10000;
+    
+    /**
+     * 令牌吊销配置
+     */
+    @Valid
+    @NotNull
+    private RevocationConfig revocation = new RevocationConfig();
+    
     /**
      * 验证密钥长度是否足够安全
      */
@@ -89,4 +106,46 @@ public class JwtProperties {
                !secretKey.contains("development") &&
                !secretKey.contains("testing");
     }
-}
\ No newline at end of file
+    
+    @Data
+    public static class RevocationConfig {
+        /**
+         * 是否启用令牌吊销检查，禁用时登出只记录日志
+         */
+        @NotNull
+        private Boolean enabled = true;
+        
+        /**
+         * 从吊销表拉取其他节点新增吊销记录的间隔（毫秒）
+         */
+        @NotNull
+        @Min(value = 100, message = "Revocation poll interval must be at least 100ms")
+        private Long pollInterval = 5000L;
+        
+        /**
+         * 清理已过期吊销记录的cron表达式，集群中每个周期只由一个节点执行
+         */
+        @NotBlank
+        private String purgeCron = "0 5 * * * ?";
+        
+        /**
+         * 是否在内存吊销集合前使用布隆过滤器，未吊销的令牌无需查找集合
+         * 吊销集合本身是哈希查找，只有集合很大、超出CPU缓存时布隆过滤器才有收益，默认关闭
+         */
+        @NotNull
+        private Boolean bloomFilterEnabled = false;
+        
+        /**
+         * 布隆过滤器按此吊销数量设计容量（误判率约1%），超出后误判率上升但结果仍正确
+         */
+        @NotNull
+        @Min(value = 1, message = "Expected revocations must be at least 1")
+        private Integer expectedRevocations = 100000;
+        
+        /**
+         * 没有令牌ID（jti）的旧令牌无法吊销，只接受到此时间为止，之后一律拒绝
+         * 未配置时为节点启动时间加一个令牌有效期，届时升级前签发的令牌均已过期
+         */
+        private LocalDateTime legacyTokensAcceptedUntil;
+    }
+}
@@ -0,0 +1,48 @@
+package com.trading.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * 商家统计计数器配置属性类
+ * 仪表盘统计由内存计数器提供，写入路径实时累加，定时与数据库对账
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "trading.merchant-stats")
+public class MerchantStatsProperties {
+
+    /**
+     * 库存数量不高于该值的SKU计为低库存
+     */
+    @NotNull
+    @Min(0)
+    private Integer lowStockThreshold = 10;
+
+    /**
+     * 内存中同时保留计数器的最大商家数
+     */
+    @NotNull
+    @Min(1)
+    private Long maxCachedMerchants = 10000L;
+
+    /**
+     * 商家计数器在无访问时的保留时长，过期后下次访问从数据库重新加载
+     */
+    @NotNull
+    private Duration idleExpiry = Duration.ofMinutes(30);
+
+    /**
+     * 与数据库对账的间隔（毫秒），用于纠正其他节点写入及加载期间并发写入造成的偏差
+     */
+    @NotNull
+    @Min(1000)
+    private Long reconcileInterval = 600000L;
+}
@@ -0,0 +1,93 @@
+package com.trading.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * 订单事件推送配置属性类
+ * 商家通过SSE订阅本节点产生的订单事件（已支付、已退款、已取消），替代轮询订单列表和统计接口
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "trading.order-events")
+public class OrderEventProperties {
+
+    /**
+     * 心跳间隔，保持代理和负载均衡器上的空闲连接不被断开，同时清理已断开的订阅
+     */
+    @NotNull
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /**
+     * 单个SSE连接的最长时长，到期后客户端携带Last-Event-ID重连
+     */
+    @NotNull
+    private Duration emitterTimeout = Duration.ofMinutes(30);
+
+    /**
+     * 建议客户端断线后的重连等待时间
+     */
+    @NotNull
+    private Duration reconnectDelay = Duration.ofSeconds(3);
+
+    /**
+     * 每个商家保留的最近事件数，用于按Last-Event-ID补发
+     */
+    @NotNull
+    @Min(1)
+    private Integer replayBufferSize = 256;
+
+    /**
+     * 没有订阅者的商家事件保留时长，超时后释放其补发缓冲
+     */
+    @NotNull
+    private Duration replayRetention = Duration.ofMinutes(10);
+
+    /**
+     * 每个商家同时打开的SSE连接上限
+     */
+    @NotNull
+    @Min(1)
+    private Integer maxSubscribersPerMerchant = 32;
+
+    /**
+     * 推送线程数；同一商家的事件始终由同一线程按顺序推送
+     */
+    @NotNull
+    @Min(1)
+    private Integer dispatchThreads = 2;
+
+    /**
+     * 每个推送线程的待处理任务上限，超出后丢弃事件并计数
+     */
+    @NotNull
+    @Min(1)
+    private Integer dispatchQueueCapacity = 10000;
+
+    /**
+     * 写入SSE连接的线程数；推送线程只把事件放入各订阅者的发送队列，慢客户端不会阻塞同一推送线程上的其他商家
+     */
+    @NotNull
+    @Min(1)
+    private Integer sendThreads = 8;
+
+    /**
+     * 每个订阅者待发送的事件上限，超出后断开该订阅者，客户端携带Last-Event-ID重连补发；
+     * 应大于replayBufferSize，以容纳重连时的补发
+     */
+    @NotNull
+    @Min(1)
+    private Integer subscriberQueueCapacity = 512;
+
+    /**
+     * 单次写入SSE连接的最长时长，超时的订阅者在下一次心跳时断开
+     */
+    private Duration sendTimeout = Duration.ofSeconds(10);
+}
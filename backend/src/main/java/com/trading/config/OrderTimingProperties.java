@@ -0,0 +1,41 @@
+package com.trading.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 订单关键路径分阶段计时配置属性类
+ * 下单、支付和退款的各阶段耗时以直方图发布到/actuator/metrics，
+ * 超过阈值的单次操作在DEBUG日志中输出各阶段明细
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "trading.order-timing")
+public class OrderTimingProperties {
+
+    /**
+     * 是否启用分阶段计时
+     */
+    @NotNull
+    private Boolean enabled = true;
+
+    /**
+     * 单次操作（含事务提交）超过此耗时时，在DEBUG日志中输出各阶段明细
+     */
+    @NotNull
+    private Duration slowThreshold = Duration.ofMillis(500);
+
+    /**
+     * 发布的百分位数
+     */
+    @NotEmpty
+    private List<Double> percentiles = List.of(0.5, 0.95, 0.99);
+}
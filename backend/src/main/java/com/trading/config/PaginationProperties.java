@@ -0,0 +1,35 @@
+package com.trading.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * 分片列表配置属性类
+ * 分片接口只多读一行判断是否有下一页，不执行COUNT查询；
+ * 调用方要求总数时返回近似值，优先取商家统计计数器，否则取缓存的计数结果
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "trading.pagination")
+public class PaginationProperties {
+
+    /**
+     * 近似总数缓存的有效期，有效期内的总数可能与实际行数有偏差
+     */
+    @NotNull
+    private Duration approximateCountTtl = Duration.ofMinutes(5);
+
+    /**
+     * 近似总数缓存的最大条目数（每个用户、商家或搜索条件一条）
+     */
+    @NotNull
+    @Min(1)
+    private Long approximateCountMaxSize = 100000L;
+}
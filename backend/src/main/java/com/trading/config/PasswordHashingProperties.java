@@ -0,0 +1,88 @@
+package com.trading.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * 密码哈希配置属性类
+ * BCrypt计算在专用的有界线程池中执行，并按用户名和客户端IP限流，
+ * 登录洪峰不会占满Tomcat请求线程而拖慢下单等其他请求
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "trading.security.password-hashing")
+public class PasswordHashingProperties {
+    
+    /**
+     * 哈希线程数，默认为CPU核数的一半（至少1）
+     */
+    @NotNull
+    @Min(1)
+    private Integer threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    
+    /**
+     * 等待队列容量，队列满时立即拒绝（503）
+     */
+    @NotNull
+    @Min(0)
+    private Integer queueCapacity = 16;
+    
+    /**
+     * 请求线程等待哈希结果的最长时间，超时返回503
+     */
+    @NotNull
+    private Duration waitTimeout = Duration.ofSeconds(5);
+    
+    /**
+     * 每个用户名的登录尝试限流
+     */
+    @Valid
+    @NotNull
+    private LimitConfig perUsername = new LimitConfig(5, Duration.ofMinutes(1));
+    
+    /**
+     * 每个客户端IP的登录和注册限流
+     */
+    @Valid
+    @NotNull
+    private LimitConfig perIp = new LimitConfig(30, Duration.ofMinutes(1));
+    
+    /**
+     * 限流器同时跟踪的最大键数（用户名或IP），超出后淘汰最少使用的桶
+     */
+    @NotNull
+    @Min(1)
+    private Long maxTrackedKeys = 100000L;
+    
+    @Data
+    public static class LimitConfig {
+        /**
+         * 桶容量，即允许的突发次数
+         */
+        @NotNull
+        @Min(1)
+        private Integer capacity;
+        
+        /**
+         * 空桶完全补满所需时间
+         */
+        @NotNull
+        private Duration refillPeriod;
+        
+        public LimitConfig() {
+        }
+        
+        public LimitConfig(Integer capacity, Duration refillPeriod) {
+            this.capacity = capacity;
+            this.refillPeriod = refillPeriod;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.trading.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * 商品读模型配置属性类
+ * 商品目录读取使用冗余的读模型表，写入后刷新，并定时与商品、库存、商家表核对
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "trading.product-view")
+public class ProductViewProperties {
+
+    /**
+     * 一致性核对的cron表达式，集群中每个周期只由一个节点执行
+     */
+    @NotBlank
+    private String verifyCron = "0 30 * * * ?";
+
+    /**
+     * 一致性核对每批处理的商品数，每批在独立事务中完成
+     */
+    @NotNull
+    @Min(1)
+    @Max(5000)
+    private Integer verifyBatchSize = 500;
+}
@@ -0,0 +1,55 @@
+package com.trading.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * SQL语句统计配置属性类
+ * 按HTTP请求和服务方法统计执行的SQL语句数和JDBC耗时，超过阈值的请求记录警告日志，
+ * 用于发现循环中逐条查询（N+1）的代码
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "trading.query-tracking")
+public class QueryTrackingProperties {
+
+    /**
+     * 是否启用统计，关闭后数据源不再包装，请求和服务方法不再记录
+     */
+    @NotNull
+    private Boolean enabled = true;
+
+    /**
+     * 单个请求的SQL语句数阈值，超过时记录警告日志
+     */
+    @NotNull
+    @Min(1)
+    private Integer requestStatementThreshold = 20;
+
+    /**
+     * 单个请求的JDBC总耗时阈值，超过时记录警告日志
+     */
+    @NotNull
+    private Duration requestJdbcTimeThreshold = Duration.ofMillis(500);
+
+    /**
+     * 单次服务方法调用的SQL语句数阈值（含其调用的其他服务方法），超过时记录警告日志
+     */
+    @NotNull
+    @Min(1)
+    private Integer methodStatementThreshold = 10;
+
+    /**
+     * 统计端点返回的请求端点和服务方法条数
+     */
+    @NotNull
+    @Min(1)
+    private Integer topLimit = 20;
+}
@@ -0,0 +1,82 @@
+package com.trading.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * 只读副本数据源配置属性类
+ * 启用后只读事务（@Transactional(readOnly = true)）路由到副本连接池，其余事务仍使用spring.datasource主库；
+ * 副本延迟超过maxLag或无法测量时回退到主库，用户写入后的stickyWindow内其只读事务也走主库（读己之写）
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "trading.datasource.replica")
+public class ReplicaProperties {
+
+    /**
+     * 是否启用读写分离
+     */
+    @NotNull
+    private Boolean enabled = false;
+
+    /**
+     * 副本JDBC URL
+     */
+    private String url;
+
+    /**
+     * 副本用户名，为空时使用主库用户名
+     */
+    private String username;
+
+    /**
+     * 副本密码，为空时使用主库密码
+     */
+    private String password;
+
+    /**
+     * 副本驱动类名，为空时使用主库驱动
+     */
+    private String driverClassName;
+
+    /**
+     * 副本连接池的最大连接数
+     */
+    @NotNull
+    @Min(1)
+    private Integer maximumPoolSize = 10;
+
+    /**
+     * 允许的最大副本延迟，超过时只读事务回退到主库；
+     * 测得的延迟包含最多一个心跳间隔，应大于heartbeatInterval
+     */
+    @NotNull
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * 主库写心跳和测量副本延迟的间隔（毫秒）
+     */
+    @NotNull
+    @Min(100)
+    private Long heartbeatInterval = 1000L;
+
+    /**
+     * 用户提交写事务后，其只读事务继续走主库的时长
+     */
+    @NotNull
+    private Duration stickyWindow = Duration.ofSeconds(5);
+
+    /**
+     * 记录最近写入用户的最大条目数
+     */
+    @NotNull
+    @Min(1)
+    private Long stickyMaxSize = 100000L;
+}
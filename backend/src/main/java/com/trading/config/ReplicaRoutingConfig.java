@@ -0,0 +1,89 @@
+package com.trading.config;
+
+import com.trading.datasource.ReadWriteRoutingDataSource;
+import com.trading.datasource.ReadYourWritesTracker;
+import com.trading.datasource.ReplicaLag;
+import com.trading.datasource.ReplicaPools;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * 读写分离数据源配置
+ * trading.datasource.replica.enabled为true时替换Spring Boot自动配置的数据源：
+ * 主库连接池沿用spring.datasource和spring.datasource.hikari配置，副本连接池使用trading.datasource.replica配置
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "trading.datasource.replica", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReplicaPools replicaPools(DataSourceProperties dataSourceProperties, ReplicaProperties replicaProperties,
+                                     Environment environment, MeterRegistry meterRegistry) {
+        if (!StringUtils.hasText(replicaProperties.getUrl())) {
+            throw new IllegalStateException("trading.datasource.replica.url is required when read replicas are enabled");
+        }
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replicaProperties.getUrl())
+                .username(StringUtils.hasText(replicaProperties.getUsername())
+                        ? replicaProperties.getUsername() : dataSourceProperties.determineUsername())
+                .password(StringUtils.hasText(replicaProperties.getPassword())
+                        ? replicaProperties.getPassword() : dataSourceProperties.determinePassword())
+                .driverClassName(StringUtils.hasText(replicaProperties.getDriverClassName())
+                        ? replicaProperties.getDriverClassName() : dataSourceProperties.determineDriverClassName())
+                .build();
+        replica.setPoolName("replica");
+        replica.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+        replica.setReadOnly(true);
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new ReplicaPools(primary, replica);
+    }
+
+    @Bean
+    public ReplicaLag replicaLag(ReplicaProperties replicaProperties, MeterRegistry meterRegistry) {
+        ReplicaLag replicaLag = new ReplicaLag(replicaProperties.getMaxLag());
+        Gauge.builder("datasource.replica.lag", replicaLag, ReplicaLag::getLagMillis)
+                .description("Last measured replication lag of the read replica in milliseconds, -1 when unknown")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        return replicaLag;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReplicaProperties replicaProperties) {
+        return new ReadYourWritesTracker(replicaProperties.getStickyWindow(), replicaProperties.getStickyMaxSize());
+    }
+
+    /**
+     * 应用使用的数据源；延迟获取连接，使路由时事务的只读标志已经设置
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaPools replicaPools, ReplicaLag replicaLag,
+                                 ReadYourWritesTracker readYourWritesTracker, MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(
+                replicaPools.getPrimary(), replicaPools.getReplica(), replicaLag, readYourWritesTracker, meterRegistry));
+    }
+}
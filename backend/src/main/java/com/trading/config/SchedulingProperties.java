@@ -0,0 +1,32 @@
+package com.trading.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+
+/**
+ * 定时任务调度配置属性类
+ * 用于配置多节点部署时定时任务的数据库租约
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "trading.scheduling")
+public class SchedulingProperties {
+    
+    /**
+     * 当前节点ID，为空时由主机名、进程号和随机后缀生成
+     */
+    private String nodeId;
+    
+    /**
+     * 租约有效期，持有节点每隔三分之一有效期续期一次；
+     * 节点宕机后其他节点最迟在该时长后可接管
+     */
+    @NotNull
+    private Duration leaseTtl = Duration.ofMinutes(5);
+}
@@ -0,0 +1,23 @@
+package com.trading.config;
+
+import com.trading.datasource.SchemaMigrator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * 数据库迁移配置
+ * 迁移器登记为数据库初始化器（见SchemaMigratorDatabaseInitializerDetector），
+ * 在JPA校验表结构（ddl-auto: validate）和data.sql之前建表、建索引
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "trading.schema-migrations", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SchemaMigrationConfig {
+
+    @Bean(initMethod = "migrate")
+    public SchemaMigrator schemaMigrator(DataSource dataSource, SchemaMigrationProperties properties) {
+        return new SchemaMigrator(dataSource, properties.getLocations(), properties.getStaleAfter());
+    }
+}
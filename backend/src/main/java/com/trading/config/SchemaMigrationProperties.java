@@ -0,0 +1,40 @@
+package com.trading.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 数据库迁移配置属性类
+ * 表结构和索引都由版本化迁移脚本创建，JPA只校验实体与表结构一致（ddl-auto: validate）
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "trading.schema-migrations")
+public class SchemaMigrationProperties {
+
+    /**
+     * 启动时是否执行未执行过的迁移脚本；关闭时表结构须由其他方式预先建好
+     */
+    private boolean enabled = true;
+
+    /**
+     * 迁移脚本所在位置，文件名格式为V{版本号}__{描述}.sql，{vendor}替换为数据库类型（h2、mysql）；
+     * 各位置的版本号不可重复
+     */
+    @NotEmpty
+    private List<String> locations = List.of("classpath:db/migration/common", "classpath:db/migration/{vendor}");
+
+    /**
+     * 未完成的迁移记录超过此时长视为执行节点已退出，由其他节点重新执行；须大于最慢脚本的执行时间
+     */
+    @NotNull
+    private Duration staleAfter = Duration.ofMinutes(10);
+}
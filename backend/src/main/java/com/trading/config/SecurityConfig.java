@@ -2,6 +2,7 @@ package com.trading.config;
 
 import com.trading.security.JwtAuthenticationEntryPoint;
 import com.trading.security.JwtAuthenticationFilter;
+import com.trading.security.RateLimitFilter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
@@ -39,12 +40,13 @@ import java.util.List;
 public class SecurityConfig {
     
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
     private final SecurityProperties securityProperties;
     
     /**
      * 配置安全过滤器链
-     * 定义公开和受保护的端点，添加JWT认证过滤器
+     * 定义公开和受保护的端点，添加限流过滤器和JWT认证过滤器
      * 
      * @param http HttpSecurity配置对象
      * @return SecurityFilterChain
@@ -94,7 +96,10 @@ public class SecurityConfig {
             })
             
             // 添加JWT认证过滤器（如果认证启用）
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            
+            // 限流过滤器放在JWT认证之前，超限请求不再解析令牌
+            .addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class);
         
         log.info("Security filter chain configured successfully");
         return http.build();
@@ -141,9 +146,17 @@ public class SecurityConfig {
         List<String> publicEndpoints = securityProperties.getEndpoints().getPublicEndpoints();
         List<String> protectedEndpoints = securityProperties.getEndpoints().getProtectedEndpoints();
         
+        List<String> adminEndpoints = securityProperties.getEndpoints().getAdminEndpoints();
+        
         log.debug("Public endpoints from config: {}", publicEndpoints);
         log.debug("Protected endpoints from config: {}", protectedEndpoints);
         
+        // 配置管理端点：先于其他规则匹配，仅ADMIN角色可访问
+        if (adminEndpoints != null && !adminEndpoints.isEmpty()) {
+            authz.requestMatchers(adminEndpoints.toArray(new String[0])).hasRole("ADMIN");
+            log.info("Configured {} admin endpoints: {}", adminEndpoints.size(), adminEndpoints);
+        }
+        
         // 配置公开端点
         if (publicEndpoints != null && !publicEndpoints.isEmpty()) {
             String[] publicArray = publicEndpoints.toArray(new String[0]);
@@ -8,7 +8,11 @@ import org.springframework.validation.annotation.Validated;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -41,6 +45,10 @@ public class SecurityProperties {
     @NotNull
     private HeadersConfig headers = new HeadersConfig();
     
+    @Valid
+    @NotNull
+    private RateLimitConfig rateLimit = new RateLimitConfig();
+    
     @Valid
     @NotNull
     private AuditConfig audit = new AuditConfig();
@@ -85,6 +93,11 @@ public class SecurityProperties {
     public static class EndpointsConfig {
         private List<String> publicEndpoints;
         private List<String> protectedEndpoints;
+        
+        /**
+         * 仅ADMIN角色可访问的端点，优先于公开和受保护端点匹配
+         */
+        private List<String> adminEndpoints;
     }
     
     @Data
@@ -103,4 +116,54 @@ public class SecurityProperties {
         private Boolean logFailedAuth = true;
         private Boolean logAccessDenied = true;
     }
-}
\ No newline at end of file
+    
+    @Data
+    public static class RateLimitConfig {
+        @NotNull
+        private Boolean enabled = true;
+        
+        /**
+         * 未单独配置容量的端点分组每分钟允许的请求数
+         */
+        @NotNull
+        @Min(1)
+        private Integer requestsPerMinute = 60;
+        
+        /**
+         * 每个端点分组同时跟踪的最大客户端数，超出后淘汰最少使用的桶
+         */
+        @NotNull
+        @Min(1)
+        private Long maxTrackedClients = 200000L;
+        
+        /**
+         * 端点分组，按顺序匹配，第一个匹配的分组生效；未匹配任何分组的请求不限流
+         */
+        @Valid
+        private List<EndpointGroup> groups = new ArrayList<>();
+    }
+    
+    @Data
+    public static class EndpointGroup {
+        @NotBlank
+        private String name;
+        
+        /**
+         * 路径模式，如 /api/v1/products/**
+         */
+        @NotEmpty
+        private List<String> patterns = new ArrayList<>();
+        
+        /**
+         * 桶容量，即允许的突发请求数；为空时使用requestsPerMinute
+         */
+        @Min(1)
+        private Integer capacity;
+        
+        /**
+         * 空桶完全补满所需时间
+         */
+        @NotNull
+        private Duration refillPeriod = Duration.ofMinutes(1);
+    }
+}
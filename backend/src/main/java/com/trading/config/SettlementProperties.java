@@ -0,0 +1,108 @@
+package com.trading.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * 结算配置属性类
+ * 用于从application.yml中读取结算任务相关配置
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "trading.settlement")
+public class SettlementProperties {
+    
+    /**
+     * 日结算任务的cron表达式
+     */
+    private String cron = "0 0 0 * * ?";
+    
+    /**
+     * 失败结算的重试cron表达式：上次执行失败或执行节点中途退出的结算日在此时重新执行未完成的分片
+     */
+    private String retryCron = "0 */15 * * * ?";
+    
+    @Valid
+    @NotNull
+    private RunnerConfig runner = new RunnerConfig();
+    
+    @Valid
+    @NotNull
+    private CountersConfig counters = new CountersConfig();
+    
+    @Valid
+    @NotNull
+    private BackfillConfig backfill = new BackfillConfig();
+    
+    @Data
+    public static class RunnerConfig {
+        /**
+         * 每个分片包含的商家数量，每个分片在独立事务中结算
+         */
+        @NotNull
+        @Min(value = 1, message = "Settlement chunk size must be at least 1")
+        private Integer chunkSize = 100;
+        
+        /**
+         * 并行处理分片的工作线程数
+         */
+        @NotNull
+        @Min(value = 1, message = "Settlement parallelism must be at least 1")
+        private Integer parallelism = 4;
+        
+        /**
+         * 工作线程池的等待队列容量，队列满时由提交线程执行
+         */
+        @NotNull
+        @Min(value = 1, message = "Settlement queue capacity must be at least 1")
+        private Integer queueCapacity = 16;
+    }
+    
+    @Data
+    public static class CountersConfig {
+        /**
+         * 审计模式：结算时同时从原始订单和流水全量重算，与计数器比对并标记偏差，
+         * 以重算结果为准
+         */
+        private boolean auditEnabled = false;
+        
+        /**
+         * 每个商家每天的计数器槽位数，写入随机分散到各槽位行，避免繁忙商家的计数器行成为热点；
+         * 调小后原有槽位行仍会被汇总读取
+         */
+        @NotNull
+        @Min(value = 1, message = "Settlement counter slots must be at least 1")
+        private Integer slots = 8;
+    }
+    
+    @Data
+    public static class BackfillConfig {
+        /**
+         * 补算任务并行处理的最大天数（每天一个事务）
+         */
+        @NotNull
+        @Min(value = 1, message = "Backfill parallelism must be at least 1")
+        private Integer parallelism = 4;
+        
+        /**
+         * 单次补算允许的最大日期跨度（天）
+         */
+        @NotNull
+        @Min(value = 1, message = "Backfill max days must be at least 1")
+        private Integer maxDays = 366;
+        
+        /**
+         * 进度报告中列出的差异明细上限，超出部分只计数
+         */
+        @NotNull
+        @Min(value = 0, message = "Backfill max reported mismatches must not be negative")
+        private Integer maxReportedMismatches = 200;
+    }
+}
@@ -65,7 +65,7 @@ public class AuthController {
      * 登出
      * POST /api/v1/auth/logout
      * 
-     * 注意：由于JWT是无状态的，登出主要是客户端删除令牌
+     * 吊销请求携带的令牌，使其在过期前即失效（集群内其他节点通过吊销表同步）
      * 服务端记录登出事件用于审计
      * 
      * @param request HTTP请求，用于获取令牌信息
@@ -75,7 +75,7 @@ public class AuthController {
     public ResponseEntity<ApiResponse<Void>> logout(HttpServletRequest request) {
         log.debug("Processing logout request");
         
-        // 从请求头中提取令牌信息用于日志记录
+        // 从请求头中提取令牌，记录登出事件并吊销令牌
         String authHeader = request.getHeader("Authorization");
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
@@ -86,6 +86,9 @@ public class AuthController {
             } catch (Exception e) {
                 log.debug("Could not extract merchant info during logout: {}", e.getMessage());
             }
+            
+            // 吊销令牌
+            authenticationService.logout(token);
         }
         
         return ResponseEntity.ok(ApiResponse.success("Logout successful", null));
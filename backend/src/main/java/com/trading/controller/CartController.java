@@ -4,6 +4,7 @@ import com.trading.dto.request.CartAddRequest;
 import com.trading.dto.request.CartUpdateRequest;
 import com.trading.dto.response.ApiResponse;
 import com.trading.dto.response.CartResponse;
+import com.trading.security.RequireUserOwnership;
 import com.trading.service.CartService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -23,6 +24,7 @@ public class CartController {
      * POST /api/v1/users/{userId}/cart/items
      */
     @PostMapping("/items")
+    @RequireUserOwnership("user cart")
     public ResponseEntity<ApiResponse<Void>> addItem(
             @PathVariable Long userId,
             @Valid @RequestBody CartAddRequest request) {
@@ -36,6 +38,7 @@ public class CartController {
      * PUT /api/v1/users/{userId}/cart/items/{sku}
      */
     @PutMapping("/items/{sku}")
+    @RequireUserOwnership("user cart")
     public ResponseEntity<ApiResponse<Void>> updateQuantity(
             @PathVariable Long userId,
             @PathVariable String sku,
@@ -49,6 +52,7 @@ public class CartController {
      * DELETE /api/v1/users/{userId}/cart/items/{sku}
      */
     @DeleteMapping("/items/{sku}")
+    @RequireUserOwnership("user cart")
     public ResponseEntity<ApiResponse<Void>> removeItem(
             @PathVariable Long userId,
             @PathVariable String sku) {
@@ -61,6 +65,7 @@ public class CartController {
      * GET /api/v1/users/{userId}/cart
      */
     @GetMapping
+    @RequireUserOwnership("user cart")
     public ResponseEntity<ApiResponse<CartResponse>> getCart(
             @PathVariable Long userId) {
         CartResponse cart = cartService.getCart(userId);
@@ -72,6 +77,7 @@ public class CartController {
      * DELETE /api/v1/users/{userId}/cart
      */
     @DeleteMapping
+    @RequireUserOwnership("user cart")
     public ResponseEntity<ApiResponse<Void>> clearCart(
             @PathVariable Long userId) {
         cartService.clearCart(userId);
@@ -10,15 +10,19 @@ import com.trading.dto.response.InventoryResponse;
 import com.trading.dto.response.MerchantBalanceResponse;
 import com.trading.dto.response.MerchantResponse;
 import com.trading.dto.response.MerchantStatsResponse;
+import com.trading.dto.response.ReconciliationReportResponse;
 import com.trading.dto.response.SettlementResponse;
+import com.trading.dto.response.SliceResponse;
 import com.trading.security.RequireMerchantOwnership;
 import com.trading.service.InventoryService;
 import com.trading.service.MerchantService;
+import com.trading.service.ReconciliationService;
 import com.trading.service.SettlementService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
@@ -35,6 +39,7 @@ public class MerchantController {
     private final MerchantService merchantService;
     private final InventoryService inventoryService;
     private final SettlementService settlementService;
+    private final ReconciliationService reconciliationService;
 
     /**
      * 注册新商家
@@ -142,6 +147,25 @@ public class MerchantController {
         return ResponseEntity.ok(ApiResponse.success(inventory));
     }
 
+    /**
+     * 分片获取商家库存，不统计总数；withTotal=true时附带近似总数
+     * GET /api/v1/merchants/{id}/inventory/slice
+     */
+    @GetMapping("/{id}/inventory/slice")
+    @RequireMerchantOwnership("inventory access")
+    public ResponseEntity<ApiResponse<SliceResponse<InventoryResponse>>> getInventorySlice(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            @PageableDefault(size = 20) Pageable pageable) {
+        // 管理员可以查看所有库存（当id为0时）
+        boolean all = id == 0 && com.trading.security.SecurityContextUtil.isAdmin();
+        Slice<InventoryResponse> inventory = all
+                ? inventoryService.getSliceAll(pageable)
+                : inventoryService.getSliceByMerchant(id, pageable);
+        Long total = withTotal ? inventoryService.getApproximateCountByMerchant(all ? null : id) : null;
+        return ResponseEntity.ok(ApiResponse.success(SliceResponse.of(inventory, total)));
+    }
+
     /**
      * 获取商家结算历史
      * GET /api/v1/merchants/{id}/settlements
@@ -155,6 +179,20 @@ public class MerchantController {
         return ResponseEntity.ok(ApiResponse.success(settlements));
     }
 
+    /**
+     * 获取商家指定日期的逐单对账明细，用于定位结算差异
+     * GET /api/v1/merchants/{id}/settlements/reconciliation
+     */
+    @GetMapping("/{id}/settlements/reconciliation")
+    @RequireMerchantOwnership("settlement records")
+    public ResponseEntity<ApiResponse<ReconciliationReportResponse>> getReconciliation(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "100") int limit) {
+        ReconciliationReportResponse report = reconciliationService.reconcile(id, date, limit);
+        return ResponseEntity.ok(ApiResponse.success(report));
+    }
+
     /**
      * 为商家在指定日期运行结算
      * POST /api/v1/merchants/{id}/settlements/run
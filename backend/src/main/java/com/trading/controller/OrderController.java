@@ -3,17 +3,23 @@ package com.trading.controller;
 import com.trading.dto.request.DirectPurchaseRequest;
 import com.trading.dto.response.ApiResponse;
 import com.trading.dto.response.OrderResponse;
+import com.trading.dto.response.SliceResponse;
 import com.trading.enums.OrderStatus;
 import com.trading.security.RequireMerchantOwnership;
+import com.trading.security.RequireUserOwnership;
+import com.trading.service.OrderEventService;
 import com.trading.service.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/v1")
@@ -21,12 +27,14 @@ import org.springframework.web.bind.annotation.*;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderEventService orderEventService;
 
     /**
      * 从购物车创建订单
      * POST /api/v1/users/{userId}/orders/from-cart
      */
     @PostMapping("/users/{userId}/orders/from-cart")
+    @RequireUserOwnership("user orders")
     public ResponseEntity<ApiResponse<OrderResponse>> createFromCart(
             @PathVariable Long userId) {
         OrderResponse order = orderService.createFromCart(userId);
@@ -39,6 +47,7 @@ public class OrderController {
      * POST /api/v1/users/{userId}/orders/direct
      */
     @PostMapping("/users/{userId}/orders/direct")
+    @RequireUserOwnership("user orders")
     public ResponseEntity<ApiResponse<OrderResponse>> createDirect(
             @PathVariable Long userId,
             @Valid @RequestBody DirectPurchaseRequest request) {
@@ -118,6 +127,7 @@ public class OrderController {
      * GET /api/v1/users/{userId}/orders
      */
     @GetMapping("/users/{userId}/orders")
+    @RequireUserOwnership("user orders")
     public ResponseEntity<ApiResponse<Page<OrderResponse>>> getByUser(
             @PathVariable Long userId,
             @PageableDefault(size = 10) Pageable pageable) {
@@ -143,4 +153,50 @@ public class OrderController {
         }
         return ResponseEntity.ok(ApiResponse.success(orders));
     }
+
+    /**
+     * 分片获取用户的订单列表，不统计总数；withTotal=true时附带近似总数
+     * GET /api/v1/users/{userId}/orders/slice
+     */
+    @GetMapping("/users/{userId}/orders/slice")
+    @RequireUserOwnership("user orders")
+    public ResponseEntity<ApiResponse<SliceResponse<OrderResponse>>> getSliceByUser(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            @PageableDefault(size = 10) Pageable pageable) {
+        Slice<OrderResponse> orders = orderService.getSliceByUser(userId, pageable);
+        Long total = withTotal ? orderService.getApproximateCountByUser(userId) : null;
+        return ResponseEntity.ok(ApiResponse.success(SliceResponse.of(orders, total)));
+    }
+
+    /**
+     * 分片获取商家的订单列表，不统计总数；withTotal=true时附带商家统计计数器中的订单数
+     * GET /api/v1/merchants/{merchantId}/orders/slice
+     */
+    @GetMapping("/merchants/{merchantId}/orders/slice")
+    @RequireMerchantOwnership("merchant orders")
+    public ResponseEntity<ApiResponse<SliceResponse<OrderResponse>>> getSliceByMerchant(
+            @PathVariable Long merchantId,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            @PageableDefault(size = 10) Pageable pageable) {
+        Slice<OrderResponse> orders = status != null
+                ? orderService.getSliceByMerchantAndStatus(merchantId, status, pageable)
+                : orderService.getSliceByMerchant(merchantId, pageable);
+        Long total = withTotal ? orderService.getApproximateCountByMerchant(merchantId, status) : null;
+        return ResponseEntity.ok(ApiResponse.success(SliceResponse.of(orders, total)));
+    }
+
+    /**
+     * 订阅商家的订单事件流（SSE），推送已支付、已退款、已取消事件，替代轮询订单列表
+     * 断线重连时浏览器自动携带Last-Event-ID，从断点补发
+     * GET /api/v1/merchants/{merchantId}/orders/events
+     */
+    @GetMapping(value = "/merchants/{merchantId}/orders/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @RequireMerchantOwnership("merchant order events")
+    public SseEmitter streamMerchantOrderEvents(
+            @PathVariable Long merchantId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return orderEventService.subscribe(merchantId, lastEventId);
+    }
 }
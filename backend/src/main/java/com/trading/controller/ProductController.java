@@ -1,29 +1,53 @@
 package com.trading.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.trading.dto.request.ProductCreateRequest;
 import com.trading.dto.response.ApiResponse;
 import com.trading.dto.response.InventoryResponse;
 import com.trading.dto.response.ProductResponse;
+import com.trading.dto.response.SliceResponse;
 import com.trading.service.InventoryService;
 import com.trading.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/v1/products")
 @RequiredArgsConstructor
 public class ProductController {
 
+    /**
+     * 商品详情：短时间内可直接使用缓存，过期后用ETag重新验证
+     */
+    private static final CacheControl PRODUCT_CACHE = CacheControl.maxAge(30, TimeUnit.SECONDS).cachePublic();
+    
+    /**
+     * 商品搜索：短时间内可直接使用缓存，过期后用分页数据的内容哈希ETag重新验证
+     */
+    private static final CacheControl SEARCH_CACHE = CacheControl.maxAge(15, TimeUnit.SECONDS).cachePublic();
+    
+    /**
+     * 库存（数量和价格变化频繁）：每次都用ETag重新验证
+     */
+    private static final CacheControl INVENTORY_CACHE = CacheControl.noCache().cachePublic();
+    
     private final ProductService productService;
     private final InventoryService inventoryService;
+    private final ObjectMapper objectMapper;
 
     /**
      * 创建新商品
@@ -46,7 +70,8 @@ public class ProductController {
             @RequestParam(required = false) String keyword,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) Long merchantId,
-            @PageableDefault(size = 20) Pageable pageable) {
+            @PageableDefault(size = 20) Pageable pageable,
+            WebRequest webRequest) {
         Page<ProductResponse> products;
         if (merchantId != null) {
             // 如果指定了商家ID，只返回该商家的商品
@@ -54,7 +79,46 @@ public class ProductController {
         } else {
             products = productService.search(keyword, category, pageable);
         }
-        return ResponseEntity.ok(ApiResponse.success(products));
+        // 搜索结果涉及商品、库存和商家多张表，没有单一版本号；
+        // 按分页数据（不含响应时间戳）的内容哈希生成ETag，未变化时不再传输响应体
+        String etag = contentEtag(products);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(SEARCH_CACHE).eTag(etag).build();
+        }
+        return ResponseEntity.ok().cacheControl(SEARCH_CACHE).eTag(etag).body(ApiResponse.success(products));
+    }
+
+    /**
+     * 分片搜索商品，不统计匹配总数；withTotal=true时附带近似总数
+     * GET /api/v1/products/slice
+     */
+    @GetMapping("/slice")
+    public ResponseEntity<ApiResponse<SliceResponse<ProductResponse>>> searchSlice(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Long merchantId,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            @PageableDefault(size = 20) Pageable pageable,
+            WebRequest webRequest) {
+        Slice<ProductResponse> products;
+        Long total = null;
+        if (merchantId != null) {
+            products = productService.getSliceByMerchant(merchantId, pageable);
+            if (withTotal) {
+                total = productService.getApproximateCountByMerchant(merchantId);
+            }
+        } else {
+            products = productService.searchSlice(keyword, category, pageable);
+            if (withTotal) {
+                total = productService.getApproximateSearchCount(keyword, category);
+            }
+        }
+        SliceResponse<ProductResponse> slice = SliceResponse.of(products, total);
+        String etag = contentEtag(slice);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(SEARCH_CACHE).eTag(etag).build();
+        }
+        return ResponseEntity.ok().cacheControl(SEARCH_CACHE).eTag(etag).body(ApiResponse.success(slice));
     }
 
     /**
@@ -63,9 +127,15 @@ public class ProductController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<ProductResponse>> getById(
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest webRequest) {
+        // 先用版本戳比较ETag，未变化时直接返回304，不加载实体也不序列化
+        String etag = etag("product", productService.getVersionTag(id));
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(PRODUCT_CACHE).eTag(etag).build();
+        }
         ProductResponse product = productService.getById(id);
-        return ResponseEntity.ok(ApiResponse.success(product));
+        return ResponseEntity.ok().cacheControl(PRODUCT_CACHE).eTag(etag).body(ApiResponse.success(product));
     }
 
     /**
@@ -74,8 +144,38 @@ public class ProductController {
      */
     @GetMapping("/{id}/inventory")
     public ResponseEntity<ApiResponse<List<InventoryResponse>>> getProductInventory(
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest webRequest) {
+        String etag = etag("inventory", productService.getVersionTag(id));
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(INVENTORY_CACHE).eTag(etag).build();
+        }
         List<InventoryResponse> inventory = inventoryService.getByProductId(id);
-        return ResponseEntity.ok(ApiResponse.success(inventory));
+        return ResponseEntity.ok().cacheControl(INVENTORY_CACHE).eTag(etag).body(ApiResponse.success(inventory));
+    }
+    
+    /**
+     * 由版本戳生成弱ETag（同一版本的不同编码或压缩形式视为等价）
+     * 
+     * @param resource 资源类型
+     * @param versionTag 版本戳，资源不存在时为null
+     * @return ETag，资源不存在时返回null
+     */
+    private static String etag(String resource, String versionTag) {
+        return versionTag != null ? "W/\"" + resource + "-" + versionTag + "\"" : null;
+    }
+    
+    /**
+     * 由响应数据的内容哈希生成弱ETag
+     * 
+     * @param data 响应数据
+     * @return ETag，序列化失败时返回null
+     */
+    private String contentEtag(Object data) {
+        try {
+            return "W/\"search-" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(data)) + "\"";
+        } catch (JsonProcessingException e) {
+            return null;
+        }
     }
 }
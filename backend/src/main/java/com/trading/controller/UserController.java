@@ -5,15 +5,17 @@ import com.trading.dto.request.LoginRequest;
 import com.trading.dto.request.UserRegisterRequest;
 import com.trading.dto.response.ApiResponse;
 import com.trading.dto.response.BalanceResponse;
+import com.trading.dto.response.SliceResponse;
 import com.trading.dto.response.TransactionResponse;
 import com.trading.dto.response.UserResponse;
-import com.trading.security.SecurityContextUtil;
+import com.trading.security.RequireUserOwnership;
 import com.trading.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -54,11 +56,9 @@ public class UserController {
      * GET /api/v1/users/{id}/balance
      */
     @GetMapping("/{id}/balance")
+    @RequireUserOwnership("user balance")
     public ResponseEntity<ApiResponse<BalanceResponse>> getBalance(
             @PathVariable Long id) {
-        // 验证用户只能访问自己的余额信息
-        validateUserAccess(id);
-        
         BalanceResponse balance = userService.getBalance(id);
         return ResponseEntity.ok(ApiResponse.success(balance));
     }
@@ -68,12 +68,10 @@ public class UserController {
      * POST /api/v1/users/{id}/deposit
      */
     @PostMapping("/{id}/deposit")
+    @RequireUserOwnership("user deposit")
     public ResponseEntity<ApiResponse<BalanceResponse>> deposit(
             @PathVariable Long id,
             @Valid @RequestBody DepositRequest request) {
-        // 验证用户只能为自己充值
-        validateUserAccess(id);
-        
         BalanceResponse balance = userService.deposit(id, request);
         return ResponseEntity.ok(ApiResponse.success("Deposit successful", balance));
     }
@@ -83,11 +81,9 @@ public class UserController {
      * GET /api/v1/users/{id}
      */
     @GetMapping("/{id}")
+    @RequireUserOwnership("user profile")
     public ResponseEntity<ApiResponse<UserResponse>> getUser(
             @PathVariable Long id) {
-        // 验证用户只能访问自己的信息
-        validateUserAccess(id);
-        
         UserResponse user = userService.getById(id);
         return ResponseEntity.ok(ApiResponse.success(user));
     }
@@ -97,13 +93,11 @@ public class UserController {
      * GET /api/v1/users/{id}/transactions
      */
     @GetMapping("/{id}/transactions")
+    @RequireUserOwnership("user transactions")
     public ResponseEntity<ApiResponse<Page<TransactionResponse>>> getTransactions(
             @PathVariable Long id,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
-        // 验证用户只能访问自己的交易记录
-        validateUserAccess(id);
-        
         // 按创建时间倒序排列（最新的在前）
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
         Page<TransactionResponse> transactions = userService.getTransactions(id, pageable);
@@ -112,28 +106,19 @@ public class UserController {
     }
     
     /**
-     * 验证用户访问权限
-     * 确保用户只能访问自己的资源
-     * 
-     * @param requestedUserId 请求访问的用户ID
+     * 分片获取用户交易记录，不统计总数；withTotal=true时附带近似总数
+     * GET /api/v1/users/{id}/transactions/slice
      */
-    private void validateUserAccess(Long requestedUserId) {
-        // 管理员可以访问所有用户资源
-        if (SecurityContextUtil.isAdmin()) {
-            return;
-        }
-        
-        // 普通用户只能访问自己的资源
-        if (SecurityContextUtil.isUser()) {
-            Long currentUserId = SecurityContextUtil.getCurrentUserId();
-            if (!currentUserId.equals(requestedUserId)) {
-                throw new com.trading.exception.UnauthorizedAccessException(
-                    "Access denied: Users can only access their own resources");
-            }
-        } else {
-            // 商家不能访问用户资源
-            throw new com.trading.exception.UnauthorizedAccessException(
-                "Access denied: Merchants cannot access user resources");
-        }
+    @GetMapping("/{id}/transactions/slice")
+    @RequireUserOwnership("user transactions")
+    public ResponseEntity<ApiResponse<SliceResponse<TransactionResponse>>> getTransactionSlice(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        Slice<TransactionResponse> transactions = userService.getTransactionSlice(id, pageable);
+        Long total = withTotal ? userService.getApproximateTransactionCount(id) : null;
+        return ResponseEntity.ok(ApiResponse.success(SliceResponse.of(transactions, total)));
     }
 }
@@ -0,0 +1,100 @@
+package com.trading.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * 读写分离路由数据源
+ * 只读事务路由到副本，以下情况回退到主库：副本延迟超限或未知、当前用户刚提交过写事务；
+ * 其他事务和事务外的连接都走主库，写事务提交后记录当前用户以实现读己之写
+ *
+ * 事务开始时只读标志尚未设置，必须由LazyConnectionDataSourceProxy包装，
+ * 使实际获取连接推迟到第一条语句执行时
+ *
+ * 指标：datasource.routing{target, reason}  各路由结果的连接数
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * 路由目标
+     */
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private final ReplicaLag replicaLag;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final Counter toReplica;
+    private final Counter writes;
+    private final Counter lagging;
+    private final Counter sticky;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLag replicaLag,
+                                      ReadYourWritesTracker readYourWritesTracker, MeterRegistry meterRegistry) {
+        this.replicaLag = replicaLag;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.toReplica = counter(meterRegistry, Target.REPLICA, "read-only");
+        this.writes = counter(meterRegistry, Target.PRIMARY, "read-write");
+        this.lagging = counter(meterRegistry, Target.PRIMARY, "replica-lag");
+        this.sticky = counter(meterRegistry, Target.PRIMARY, "read-your-writes");
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return route();
+    }
+
+    /**
+     * 为当前线程的连接请求选择目标
+     */
+    Target route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                writes.increment();
+                rememberWriter();
+            }
+            return Target.PRIMARY;
+        }
+        String user = ReadYourWritesTracker.currentUser();
+        if (user != null && readYourWritesTracker.wroteRecently(user)) {
+            sticky.increment();
+            return Target.PRIMARY;
+        }
+        if (!replicaLag.isAcceptable()) {
+            lagging.increment();
+            return Target.PRIMARY;
+        }
+        toReplica.increment();
+        return Target.REPLICA;
+    }
+
+    private void rememberWriter() {
+        String user = ReadYourWritesTracker.currentUser();
+        if (user == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWritesTracker.recordWrite(user);
+            }
+        });
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, Target target, String reason) {
+        return Counter.builder("datasource.routing")
+                .description("Connections routed to the primary or the read replica, by reason")
+                .tag("target", target.name().toLowerCase())
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,54 @@
+package com.trading.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+
+/**
+ * 记录最近提交过写事务的用户，使其在时间窗口内的只读事务走主库，读到自己刚写入的数据
+ * 按当前认证用户名区分用户；记录只在本节点内存中，多节点部署时其他节点不共享
+ */
+public class ReadYourWritesTracker {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window, long maxSize) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * 记录用户提交了一次写事务
+     *
+     * @param user 用户名
+     */
+    public void recordWrite(String user) {
+        recentWriters.put(user, Boolean.TRUE);
+    }
+
+    /**
+     * @param user 用户名
+     * @return 用户在时间窗口内提交过写事务
+     */
+    public boolean wroteRecently(String user) {
+        return recentWriters.getIfPresent(user) != null;
+    }
+
+    /**
+     * @return 当前认证用户名，未认证或匿名时返回null
+     */
+    public static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
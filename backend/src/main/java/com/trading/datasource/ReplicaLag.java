@@ -0,0 +1,50 @@
+package com.trading.datasource;
+
+import java.time.Duration;
+
+/**
+ * 最近一次测得的副本复制延迟
+ * 尚未测得或测量失败时视为不可用，只读事务回退到主库
+ */
+public class ReplicaLag {
+
+    private static final long UNKNOWN = -1;
+
+    private final Duration maxLag;
+    private volatile long lagMillis = UNKNOWN;
+
+    public ReplicaLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    /**
+     * 记录测得的延迟
+     *
+     * @param lag 副本延迟
+     */
+    public void update(Duration lag) {
+        this.lagMillis = Math.max(0, lag.toMillis());
+    }
+
+    /**
+     * 记录测量失败（副本不可达或尚无心跳）
+     */
+    public void unknown() {
+        this.lagMillis = UNKNOWN;
+    }
+
+    /**
+     * @return 副本延迟在允许范围内
+     */
+    public boolean isAcceptable() {
+        long lag = lagMillis;
+        return lag != UNKNOWN && lag <= maxLag.toMillis();
+    }
+
+    /**
+     * @return 最近测得的延迟（毫秒），未知时为-1
+     */
+    public long getLagMillis() {
+        return lagMillis;
+    }
+}
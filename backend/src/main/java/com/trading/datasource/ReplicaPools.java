@@ -0,0 +1,33 @@
+package com.trading.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * 读写分离时的主库和副本连接池
+ * 两个连接池不注册为DataSource Bean，应用只看到包装后的路由数据源；
+ * 心跳任务直接使用两个连接池以分别访问主库和副本
+ */
+public class ReplicaPools implements AutoCloseable {
+
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+
+    public ReplicaPools(HikariDataSource primary, HikariDataSource replica) {
+        this.primary = primary;
+        this.replica = replica;
+    }
+
+    public HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    public HikariDataSource getReplica() {
+        return replica;
+    }
+
+    @Override
+    public void close() {
+        replica.close();
+        primary.close();
+    }
+}
@@ -0,0 +1,314 @@
+package com.trading.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * 版本化数据库迁移
+ * 按版本号顺序执行各位置下尚未记录在schema_migrations中的V{版本号}__{描述}.sql脚本，
+ * 文件命名与Flyway一致，位置中的{vendor}替换为数据库类型（h2、mysql）；已执行脚本的校验和不一致时拒绝启动
+ *
+ * 执行前先写入迁移记录占位，多个节点同时启动时只有写入成功的节点执行该脚本，其他节点等待其完成。
+ * MySQL的DDL会隐式提交，因此脚本须可在中途失败后重新执行：建表使用IF NOT EXISTS，已存在的索引跳过，
+ * 只添加一列的ALTER TABLE ... ADD COLUMN在该列已存在时跳过（MySQL不支持ADD COLUMN IF NOT EXISTS）。
+ * 脚本执行失败时删除占位记录并使启动失败；执行节点中途退出留下的占位记录超过staleAfter后由其他节点接管重新执行
+ */
+@Slf4j
+public class SchemaMigrator {
+
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "create\\s+(?:unique\\s+)?index\\s+(\\w+)\\s+on\\s+(\\w+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ADD_COLUMN = Pattern.compile(
+            "alter\\s+table\\s+(\\w+)\\s+add\\s+column\\s+(?!if\\s)(\\w+)[^,]*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern PARENTHESES = Pattern.compile("\\([^()]*\\)");
+    private static final Duration POLL_INTERVAL = Duration.ofSeconds(1);
+
+    private static final String CREATE_HISTORY_TABLE = """
+            CREATE TABLE IF NOT EXISTS schema_migrations (
+                version integer not null,
+                description varchar(200) not null,
+                script varchar(200) not null,
+                checksum bigint not null,
+                installed_at datetime(6) not null,
+                installed_by varchar(100) not null,
+                execution_millis bigint,
+                primary key (version)
+            )""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final List<String> locations;
+    private final Duration staleAfter;
+    private final String owner = UUID.randomUUID().toString();
+
+    public SchemaMigrator(DataSource dataSource, List<String> locations, Duration staleAfter) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.locations = locations;
+        this.staleAfter = staleAfter;
+    }
+
+    /**
+     * 执行尚未执行的迁移脚本
+     *
+     * @return 本次执行的脚本版本号
+     */
+    public List<Integer> migrate() throws IOException {
+        jdbcTemplate.execute(CREATE_HISTORY_TABLE);
+        List<Integer> executed = new ArrayList<>();
+        for (Script script : scripts()) {
+            if (migrate(script)) {
+                executed.add(script.version());
+            }
+        }
+        if (!executed.isEmpty()) {
+            log.info("Applied schema migrations {}", executed);
+        }
+        return executed;
+    }
+
+    /**
+     * 确保单个脚本已执行
+     *
+     * @return 脚本是否由本节点执行
+     */
+    private boolean migrate(Script script) {
+        while (true) {
+            Applied applied = find(script.version());
+            if (applied == null) {
+                if (claim(script)) {
+                    run(script);
+                    return true;
+                }
+                continue;
+            }
+            if (applied.executionMillis() != null) {
+                if (applied.checksum() != script.checksum()) {
+                    throw new IllegalStateException("Migration " + script.name() + " was changed after it was applied"
+                            + " (checksum " + applied.checksum() + " -> " + script.checksum() + ")");
+                }
+                return false;
+            }
+            if (applied.installedAt().isBefore(LocalDateTime.now().minus(staleAfter))) {
+                if (takeOver(script, applied)) {
+                    log.warn("Migration {} started by {} at {} never finished, applying it again",
+                            script.name(), applied.installedBy(), applied.installedAt());
+                    run(script);
+                    return true;
+                }
+                continue;
+            }
+            log.info("Waiting for migration {} being applied by {} since {}",
+                    script.name(), applied.installedBy(), applied.installedAt());
+            pause();
+        }
+    }
+
+    private Applied find(int version) {
+        return jdbcTemplate.query("SELECT checksum, installed_at, installed_by, execution_millis " +
+                                "FROM schema_migrations WHERE version = ?",
+                        (rs, rowNum) -> new Applied(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime(),
+                                rs.getString(3), rs.getObject(4, Long.class)),
+                        version)
+                .stream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    private boolean claim(Script script) {
+        try {
+            jdbcTemplate.update("INSERT INTO schema_migrations " +
+                            "(version, description, script, checksum, installed_at, installed_by) VALUES (?, ?, ?, ?, ?, ?)",
+                    script.version(), script.description(), script.name(), script.checksum(),
+                    Timestamp.valueOf(LocalDateTime.now()), owner);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private boolean takeOver(Script script, Applied applied) {
+        return jdbcTemplate.update("UPDATE schema_migrations SET description = ?, script = ?, checksum = ?, " +
+                        "installed_at = ?, installed_by = ? " +
+                        "WHERE version = ? AND installed_by = ? AND execution_millis IS NULL",
+                script.description(), script.name(), script.checksum(), Timestamp.valueOf(LocalDateTime.now()), owner,
+                script.version(), applied.installedBy()) == 1;
+    }
+
+    private void run(Script script) {
+        long start = System.currentTimeMillis();
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    for (String sql : statements(script.sql())) {
+                        if (indexExists(connection, sql)) {
+                            log.debug("Migration {}: index already exists, skipping {}", script.name(), sql);
+                            continue;
+                        }
+                        if (columnExists(connection, sql)) {
+                            log.debug("Migration {}: column already exists, skipping {}", script.name(), sql);
+                            continue;
+                        }
+                        statement.execute(sql);
+                    }
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            jdbcTemplate.update("DELETE FROM schema_migrations WHERE version = ? AND installed_by = ?",
+                    script.version(), owner);
+            throw new IllegalStateException("Migration " + script.name() + " failed: " + e.getMessage(), e);
+        }
+        jdbcTemplate.update("UPDATE schema_migrations SET execution_millis = ? WHERE version = ? AND installed_by = ?",
+                System.currentTimeMillis() - start, script.version(), owner);
+    }
+
+    /**
+     * CREATE INDEX语句要创建的索引是否已存在
+     */
+    private static boolean indexExists(Connection connection, String sql) throws SQLException {
+        Matcher matcher = CREATE_INDEX.matcher(sql);
+        if (!matcher.lookingAt()) {
+            return false;
+        }
+        DatabaseMetaData metaData = connection.getMetaData();
+        String table = identifier(metaData, matcher.group(2));
+        try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), table, false, false)) {
+            while (indexes.next()) {
+                if (matcher.group(1).equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 只添加一列的ALTER TABLE语句要添加的列是否已存在
+     */
+    private static boolean columnExists(Connection connection, String sql) throws SQLException {
+        // 去掉类型中的括号，如decimal(19,2)，剩余部分含逗号时是多个子句的ALTER，整条执行
+        Matcher matcher = ADD_COLUMN.matcher(PARENTHESES.matcher(sql).replaceAll(""));
+        if (!matcher.matches()) {
+            return false;
+        }
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet columns = metaData.getColumns(connection.getCatalog(), connection.getSchema(),
+                identifier(metaData, matcher.group(1)), identifier(metaData, matcher.group(2)))) {
+            return columns.next();
+        }
+    }
+
+    /**
+     * 按数据库存储标识符的大小写转换表名或列名，供元数据查询使用
+     */
+    private static String identifier(DatabaseMetaData metaData, String name) throws SQLException {
+        if (metaData.storesUpperCaseIdentifiers()) {
+            return name.toUpperCase(Locale.ROOT);
+        }
+        if (metaData.storesLowerCaseIdentifiers()) {
+            return name.toLowerCase(Locale.ROOT);
+        }
+        return name;
+    }
+
+    /**
+     * 拆分脚本语句：语句以分号结尾，整行以--开头的为注释
+     */
+    static List<String> statements(String script) {
+        StringBuilder sql = new StringBuilder();
+        for (String line : script.split("\\R")) {
+            if (!line.trim().startsWith("--")) {
+                sql.append(line).append('\n');
+            }
+        }
+        List<String> statements = new ArrayList<>();
+        for (String statement : sql.toString().split(";")) {
+            if (!statement.isBlank()) {
+                statements.add(statement.trim());
+            }
+        }
+        return statements;
+    }
+
+    private List<Script> scripts() throws IOException {
+        String vendor = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).replace(" ", ""));
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        List<Script> scripts = new ArrayList<>();
+        for (String location : locations) {
+            location = location.replace("{vendor}", vendor);
+            Resource[] resources;
+            try {
+                resources = resolver.getResources(location + "/V*__*.sql");
+            } catch (FileNotFoundException e) {
+                log.warn("No schema migrations found at {}", location);
+                continue;
+            }
+            for (Resource resource : resources) {
+                Matcher matcher = SCRIPT_NAME.matcher(resource.getFilename());
+                if (matcher.matches()) {
+                    scripts.add(script(Integer.parseInt(matcher.group(1)), matcher.group(2).replace('_', ' '), resource));
+                }
+            }
+        }
+        scripts.sort(Comparator.comparingInt(Script::version));
+        for (int i = 1; i < scripts.size(); i++) {
+            if (scripts.get(i).version() == scripts.get(i - 1).version()) {
+                throw new IllegalStateException("Duplicate migration version " + scripts.get(i).version());
+            }
+        }
+        return scripts;
+    }
+
+    private static Script script(int version, String description, Resource resource) throws IOException {
+        byte[] content;
+        try (InputStream in = resource.getInputStream()) {
+            content = in.readAllBytes();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return new Script(version, description, resource.getFilename(), crc.getValue(),
+                new String(content, StandardCharsets.UTF_8));
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(POLL_INTERVAL.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a schema migration", e);
+        }
+    }
+
+    private record Script(int version, String description, String name, long checksum, String sql) {
+    }
+
+    private record Applied(long checksum, LocalDateTime installedAt, String installedBy, Long executionMillis) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.trading.datasource;
+
+import org.springframework.boot.sql.init.dependency.AbstractBeansOfTypeDatabaseInitializerDetector;
+import org.springframework.core.Ordered;
+
+import java.util.Set;
+
+/**
+ * 将SchemaMigrator登记为数据库初始化器
+ * 迁移先于data.sql执行，EntityManagerFactory（ddl-auto: validate）、JdbcTemplate等依赖数据库初始化的Bean
+ * 在两者完成后才创建；因此不能开启spring.jpa.defer-datasource-initialization
+ */
+class SchemaMigratorDatabaseInitializerDetector extends AbstractBeansOfTypeDatabaseInitializerDetector {
+
+    @Override
+    protected Set<Class<?>> getDatabaseInitializerBeanTypes() {
+        return Set.of(SchemaMigrator.class);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+}
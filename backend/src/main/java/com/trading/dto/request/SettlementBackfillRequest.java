@@ -0,0 +1,46 @@
+package com.trading.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementBackfillRequest {
+    
+    /**
+     * First day to settle
+     */
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+    
+    /**
+     * Last day to settle, inclusive
+     */
+    @NotNull(message = "End date is required")
+    private LocalDate endDate;
+    
+    /**
+     * Merchants to settle; all merchants when empty
+     */
+    private List<Long> merchantIds;
+    
+    /**
+     * Recompute and overwrite settlements that already exist instead of skipping them
+     */
+    private boolean force;
+    
+    /**
+     * Days processed concurrently; capped by trading.settlement.backfill.parallelism
+     */
+    @Min(value = 1, message = "Parallelism must be at least 1")
+    private Integer parallelism;
+}
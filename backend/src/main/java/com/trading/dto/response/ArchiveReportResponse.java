@@ -0,0 +1,34 @@
+package com.trading.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveReportResponse {
+    
+    /**
+     * "archive" (hot to archive) or "restore" (archive to hot)
+     */
+    private String direction;
+    /**
+     * Rows last updated (orders) or created (ledger) in [from, to) were moved; from is null for archive runs
+     */
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Long orders;
+    private Long orderItems;
+    private Long transactionRecords;
+    private Long durationMillis;
+    /**
+     * Row counts per table and tier after the run
+     */
+    private Map<String, Map<String, Long>> tiers;
+}
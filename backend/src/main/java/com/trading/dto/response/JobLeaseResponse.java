@@ -0,0 +1,25 @@
+package com.trading.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobLeaseResponse {
+    
+    private String jobName;
+    private String holder;
+    private String tick;
+    private boolean active;
+    private boolean heldByThisNode;
+    private LocalDateTime acquiredAt;
+    private LocalDateTime expiresAt;
+    private LocalDateTime completedAt;
+    private String lastError;
+}
@@ -1,10 +1,14 @@
 package com.trading.dto.response;
 
+import com.trading.enums.OrderStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+import java.util.Map;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -20,4 +24,19 @@ public class MerchantStatsResponse {
      * 待处理订单数量（状态为PAID的订单）
      */
     private Long pendingOrders;
+    
+    /**
+     * 各状态订单数量
+     */
+    private Map<OrderStatus, Long> ordersByStatus;
+    
+    /**
+     * 当日营业额（当日支付减当日退款）
+     */
+    private BigDecimal todayRevenue;
+    
+    /**
+     * 低库存SKU数量（库存不高于阈值）
+     */
+    private Long lowStockSkus;
 }
@@ -0,0 +1,34 @@
+package com.trading.dto.response;
+
+import com.trading.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEventResponse {
+
+    /**
+     * 事件ID，单调递增，同时作为SSE的id字段供Last-Event-ID续传
+     */
+    private Long eventId;
+
+    /**
+     * 订单变更后的状态：PAID、REFUNDED或CANCELLED
+     */
+    private OrderStatus status;
+
+    private Long orderId;
+    private String orderNumber;
+    private Long merchantId;
+    private Long userId;
+    private BigDecimal totalAmount;
+    private LocalDateTime occurredAt;
+}
@@ -1,5 +1,6 @@
 package com.trading.dto.response;
 
+import com.trading.entity.OrderItem;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,4 +20,15 @@ public class OrderItemResponse {
     private Integer quantity;
     private BigDecimal unitPrice;
     private BigDecimal subtotal;
+    
+    public static OrderItemResponse fromEntity(OrderItem item) {
+        return OrderItemResponse.builder()
+                .id(item.getId())
+                .sku(item.getSku())
+                .productName(item.getProductName())
+                .quantity(item.getQuantity())
+                .unitPrice(item.getUnitPrice())
+                .subtotal(item.getSubtotal())
+                .build();
+    }
 }
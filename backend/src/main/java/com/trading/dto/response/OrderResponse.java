@@ -1,5 +1,6 @@
 package com.trading.dto.response;
 
+import com.trading.entity.Order;
 import com.trading.enums.OrderStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -9,6 +10,7 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Data
 @Builder
@@ -26,4 +28,25 @@ public class OrderResponse {
     private List<OrderItemResponse> items;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    
+    public static OrderResponse fromEntity(Order order) {
+        return fromEntity(order, null);
+    }
+    
+    public static OrderResponse fromEntity(Order order, String username) {
+        return OrderResponse.builder()
+                .id(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .userId(order.getUserId())
+                .username(username)
+                .merchantId(order.getMerchantId())
+                .totalAmount(order.getTotalAmount())
+                .status(order.getStatus())
+                .items(order.getItems().stream()
+                        .map(OrderItemResponse::fromEntity)
+                        .collect(Collectors.toList()))
+                .createdAt(order.getCreatedAt())
+                .updatedAt(order.getUpdatedAt())
+                .build();
+    }
 }
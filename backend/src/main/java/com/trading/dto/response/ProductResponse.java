@@ -1,6 +1,7 @@
 package com.trading.dto.response;
 
 import com.trading.entity.Product;
+import com.trading.entity.ProductView;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -49,4 +50,18 @@ public class ProductResponse {
                 .maxPrice(maxPrice)
                 .build();
     }
+    
+    public static ProductResponse fromView(ProductView view) {
+        return ProductResponse.builder()
+                .id(view.getId())
+                .name(view.getName())
+                .description(view.getDescription())
+                .category(view.getCategory())
+                .merchantId(view.getMerchantId())
+                .merchantName(view.getMerchantName())
+                .createdAt(view.getCreatedAt())
+                .minPrice(view.getMinPrice())
+                .maxPrice(view.getMaxPrice())
+                .build();
+    }
 }
@@ -0,0 +1,54 @@
+package com.trading.dto.response;
+
+import com.trading.enums.OrderStatus;
+import com.trading.enums.ReconciliationIssue;
+import com.trading.enums.SettlementStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationReportResponse {
+    
+    private Long merchantId;
+    private LocalDate date;
+    private SettlementStatus settlementStatus;
+    private BigDecimal settlementDiscrepancy;
+    private Long ordersChecked;
+    private Long ledgerEntriesChecked;
+    private Long matchedOrders;
+    private Long issueCount;
+    /**
+     * Sum of (expected - actual) over all orders; together with unlinkedLedgerAmount
+     * this accounts for the settlement discrepancy
+     */
+    private BigDecimal totalDifference;
+    /**
+     * Net SALE - REFUND_OUT amount of ledger entries without a related order
+     */
+    private BigDecimal unlinkedLedgerAmount;
+    private boolean truncated;
+    private List<Entry> entries;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private Long orderId;
+        private String orderNumber;
+        private OrderStatus orderStatus;
+        private BigDecimal expectedLedgerAmount;
+        private BigDecimal actualLedgerAmount;
+        private BigDecimal difference;
+        private ReconciliationIssue issue;
+    }
+}
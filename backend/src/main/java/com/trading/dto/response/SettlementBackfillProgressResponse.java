@@ -0,0 +1,60 @@
+package com.trading.dto.response;
+
+import com.trading.enums.SettlementRunStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementBackfillProgressResponse {
+    
+    private SettlementRunStatus status;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Integer merchantFilterSize;
+    private boolean force;
+    private Integer parallelism;
+    private Integer totalDays;
+    private Integer completedDays;
+    private Integer failedDays;
+    private Long settlementsCreated;
+    private Long settlementsRecomputed;
+    private Long settlementsSkipped;
+    private Long mismatchCount;
+    private BigDecimal totalDiscrepancy;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Long elapsedMillis;
+    private List<Mismatch> mismatches;
+    private List<DayFailure> failures;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Mismatch {
+        private Long merchantId;
+        private LocalDate settlementDate;
+        private BigDecimal netAmount;
+        private BigDecimal balanceChange;
+        private BigDecimal discrepancy;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DayFailure {
+        private LocalDate settlementDate;
+        private String error;
+    }
+}
@@ -25,5 +25,6 @@ public class SettlementResponse {
     private BigDecimal balanceChange;
     private BigDecimal discrepancy;
     private SettlementStatus status;
+    private Boolean counterDrift;
     private LocalDateTime createdAt;
 }
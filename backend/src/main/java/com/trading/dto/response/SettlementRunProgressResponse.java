@@ -0,0 +1,49 @@
+package com.trading.dto.response;
+
+import com.trading.enums.SettlementRunStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementRunProgressResponse {
+    
+    private Long runId;
+    private LocalDate settlementDate;
+    private SettlementRunStatus status;
+    private int totalChunks;
+    private int completedChunks;
+    private int failedChunks;
+    private int pendingChunks;
+    private long merchantsProcessed;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long elapsedMillis;
+    
+    /**
+     * 结算吞吐量（商家数/秒）
+     */
+    private double merchantsPerSecond;
+    
+    private List<ChunkFailure> failures;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChunkFailure {
+        private int chunkIndex;
+        private Long firstMerchantId;
+        private Long lastMerchantId;
+        private int attempts;
+        private String error;
+    }
+}
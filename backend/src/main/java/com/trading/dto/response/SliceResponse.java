@@ -0,0 +1,47 @@
+package com.trading.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SliceResponse<T> {
+
+    private List<T> content;
+
+    /**
+     * 页码（从0开始）
+     */
+    private int page;
+
+    private int size;
+
+    /**
+     * 是否还有下一页
+     */
+    private boolean hasNext;
+
+    /**
+     * 近似总数，仅在请求withTotal=true时返回；来自计数器或缓存，可能与实际行数略有偏差
+     */
+    private Long approximateTotal;
+
+    public static <T> SliceResponse<T> of(Slice<T> slice, Long approximateTotal) {
+        return SliceResponse.<T>builder()
+                .content(slice.getContent())
+                .page(slice.getNumber())
+                .size(slice.getSize())
+                .hasNext(slice.hasNext())
+                .approximateTotal(approximateTotal)
+                .build();
+    }
+}
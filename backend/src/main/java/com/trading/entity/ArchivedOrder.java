@@ -0,0 +1,111 @@
+package com.trading.entity;
+
+import com.trading.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 归档订单实体类
+ * 已完成、已退款、已取消且超过保留期的订单从orders表移入此表，字段与订单一致并保留原ID，
+ * 恢复时按原ID写回orders表
+ */
+@Entity
+@Table(name = "orders_archive")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedOrder {
+    
+    /**
+     * 可归档的订单状态，处于这些状态的订单不会再变更
+     */
+    public static final Set<OrderStatus> STATUSES =
+            Collections.unmodifiableSet(EnumSet.of(OrderStatus.COMPLETED, OrderStatus.REFUNDED, OrderStatus.CANCELLED));
+    
+    /**
+     * 原订单ID
+     */
+    @Id
+    private Long id;
+    
+    /**
+     * 订单号
+     */
+    @Column(unique = true, nullable = false)
+    private String orderNumber;
+    
+    /**
+     * 下单用户ID
+     */
+    @Column(nullable = false)
+    private Long userId;
+    
+    /**
+     * 商家ID
+     */
+    @Column(nullable = false)
+    private Long merchantId;
+    
+    /**
+     * 订单总金额，精度19位，小数点后2位
+     */
+    @Column(precision = 19, scale = 2, nullable = false)
+    private BigDecimal totalAmount;
+    
+    /**
+     * 归档时的订单状态：COMPLETED、REFUNDED或CANCELLED
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+    
+    /**
+     * 订单创建时间
+     */
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    /**
+     * 订单最后更新时间
+     */
+    private LocalDateTime updatedAt;
+    
+    /**
+     * 归档时间
+     */
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+    
+    /**
+     * 转换为订单实体（不受持久化上下文管理），用于与热数据统一生成响应
+     * @param items 该订单的归档商品项
+     * @return 订单实体
+     */
+    public Order toOrder(List<ArchivedOrderItem> items) {
+        Order order = Order.builder()
+                .id(id)
+                .orderNumber(orderNumber)
+                .userId(userId)
+                .merchantId(merchantId)
+                .totalAmount(totalAmount)
+                .status(status)
+                .items(new ArrayList<>())
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+        items.forEach(item -> order.addItem(item.toOrderItem()));
+        return order;
+    }
+}
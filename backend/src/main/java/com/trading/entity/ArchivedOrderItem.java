@@ -0,0 +1,79 @@
+package com.trading.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * 归档订单商品项实体类
+ * 随所属订单一起归档，保留原ID和订单ID
+ */
+@Entity
+@Table(name = "order_items_archive")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedOrderItem {
+    
+    /**
+     * 原订单项ID
+     */
+    @Id
+    private Long id;
+    
+    /**
+     * 所属订单ID，关联orders_archive表
+     */
+    @Column(nullable = false)
+    private Long orderId;
+    
+    /**
+     * 商品SKU
+     */
+    @Column(nullable = false)
+    private String sku;
+    
+    /**
+     * 商品名称（下单时的快照）
+     */
+    @Column(nullable = false)
+    private String productName;
+    
+    /**
+     * 购买数量
+     */
+    @Column(nullable = false)
+    private Integer quantity;
+    
+    /**
+     * 单价（下单时的快照），精度19位，小数点后2位
+     */
+    @Column(precision = 19, scale = 2, nullable = false)
+    private BigDecimal unitPrice;
+    
+    /**
+     * 小计金额，精度19位，小数点后2位
+     */
+    @Column(precision = 19, scale = 2, nullable = false)
+    private BigDecimal subtotal;
+    
+    /**
+     * 转换为订单项实体（不受持久化上下文管理）
+     * @return 订单项实体
+     */
+    public OrderItem toOrderItem() {
+        return OrderItem.builder()
+                .id(id)
+                .sku(sku)
+                .productName(productName)
+                .quantity(quantity)
+                .unitPrice(unitPrice)
+                .subtotal(subtotal)
+                .build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.trading.entity;
+
+import com.trading.enums.TransactionType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 归档交易记录实体类
+ * 超过保留期的资金流水从transaction_records表移入此表，字段与交易记录一致并保留原ID
+ */
+@Entity
+@Table(name = "transaction_records_archive")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedTransactionRecord {
+    
+    /**
+     * 原交易记录ID
+     */
+    @Id
+    private Long id;
+    
+    /**
+     * 交易流水号
+     */
+    @Column(unique = true, nullable = false)
+    private String transactionId;
+    
+    /**
+     * 账户类型：USER（用户）或 MERCHANT（商家）
+     */
+    @Column(nullable = false)
+    private String accountType;
+    
+    /**
+     * 账户ID
+     */
+    @Column(nullable = false)
+    private Long accountId;
+    
+    /**
+     * 交易类型
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionType type;
+    
+    /**
+     * 交易金额，精度19位，小数点后2位
+     */
+    @Column(precision = 19, scale = 2, nullable = false)
+    private BigDecimal amount;
+    
+    /**
+     * 交易前余额，精度19位，小数点后2位
+     */
+    @Column(precision = 19, scale = 2, nullable = false)
+    private BigDecimal balanceBefore;
+    
+    /**
+     * 交易后余额，精度19位，小数点后2位
+     */
+    @Column(precision = 19, scale = 2, nullable = false)
+    private BigDecimal balanceAfter;
+    
+    /**
+     * 关联的订单ID
+     */
+    private Long relatedOrderId;
+    
+    /**
+     * 交易创建时间
+     */
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    /**
+     * 归档时间
+     */
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+    
+    /**
+     * 转换为交易记录实体（不受持久化上下文管理），用于与热数据统一生成响应
+     * @return 交易记录实体
+     */
+    public TransactionRecord toRecord() {
+        return TransactionRecord.builder()
+                .id(id)
+                .transactionId(transactionId)
+                .accountType(accountType)
+                .accountId(accountId)
+                .type(type)
+                .amount(amount)
+                .balanceBefore(balanceBefore)
+                .balanceAfter(balanceAfter)
+                .relatedOrderId(relatedOrderId)
+                .createdAt(createdAt)
+                .build();
+    }
+}
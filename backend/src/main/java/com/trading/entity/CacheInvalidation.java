@@ -0,0 +1,53 @@
+package com.trading.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 缓存失效记录实体类
+ * 写入商品、商家或库存时在同一事务中记录，集群中其他节点定期拉取新增记录并清除本地缓存
+ */
+@Entity
+@Table(name = "cache_invalidations")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidation {
+
+    /**
+     * 记录唯一标识ID
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 失效的实体类型，例如PRODUCT、MERCHANT、INVENTORY
+     */
+    @Column(nullable = false, length = 20)
+    private String entityType;
+
+    /**
+     * 失效的实体键（商品ID、商家ID或SKU）
+     */
+    @Column(nullable = false, length = 100)
+    private String entityKey;
+
+    /**
+     * 产生该记录的节点ID，节点拉取时跳过自己的记录
+     */
+    @Column(nullable = false, length = 100)
+    private String nodeId;
+
+    /**
+     * 记录时间，各节点按此时间增量拉取
+     */
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
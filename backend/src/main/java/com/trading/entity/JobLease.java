@@ -0,0 +1,70 @@
+package com.trading.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 定时任务租约实体类
+ * 多节点部署时保证同一任务在每个调度周期只由一个节点执行，租约过期后可被其他节点接管
+ */
+@Entity
+@Table(name = "job_leases")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobLease {
+    
+    /**
+     * 租约唯一标识ID
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    /**
+     * 任务名称，每个任务只有一条租约记录
+     */
+    @Column(nullable = false, unique = true, length = 100)
+    private String jobName;
+    
+    /**
+     * 当前（或最近一次）持有租约的节点ID
+     */
+    @Column(nullable = false, length = 200)
+    private String holder;
+    
+    /**
+     * 调度周期标识，例如日结算任务对应的结算日期
+     */
+    @Column(nullable = false, length = 100)
+    private String tick;
+    
+    /**
+     * 获取租约时间
+     */
+    @Column(nullable = false)
+    private LocalDateTime acquiredAt;
+    
+    /**
+     * 租约过期时间，持有节点执行期间定期续期
+     */
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+    
+    /**
+     * 本周期任务执行结束时间，执行中为空
+     */
+    private LocalDateTime completedAt;
+    
+    /**
+     * 本周期任务失败时的错误信息
+     */
+    @Column(length = 1000)
+    private String lastError;
+}
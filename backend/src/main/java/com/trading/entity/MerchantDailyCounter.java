@@ -0,0 +1,80 @@
+package com.trading.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 商家日累计计数器实体类
+ * 由订单完成、退款及商家流水写入路径实时累加，日结算直接读取
+ * 每个商家每天分为多个槽位行，写入随机选择槽位以分散行锁，读取时汇总全部槽位
+ */
+@Entity
+@Table(name = "merchant_daily_counters", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"merchant_id", "counter_date", "slot"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MerchantDailyCounter {
+    
+    /**
+     * 计数器唯一标识ID
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    /**
+     * 商家ID，关联merchants表
+     */
+    @Column(nullable = false)
+    private Long merchantId;
+    
+    /**
+     * 计数日期
+     */
+    @Column(nullable = false)
+    private LocalDate counterDate;
+    
+    /**
+     * 槽位号，从0开始
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer slot = 0;
+    
+    /**
+     * 当日已完成订单销售额累计，精度19位，小数点后2位
+     */
+    @Column(precision = 19, scale = 2, nullable = false)
+    @Builder.Default
+    private BigDecimal salesAmount = BigDecimal.ZERO;
+    
+    /**
+     * 当日已退款订单金额累计，精度19位，小数点后2位
+     */
+    @Column(precision = 19, scale = 2, nullable = false)
+    @Builder.Default
+    private BigDecimal refundAmount = BigDecimal.ZERO;
+    
+    /**
+     * 当日商家流水入账（SALE）累计，精度19位，小数点后2位
+     */
+    @Column(precision = 19, scale = 2, nullable = false)
+    @Builder.Default
+    private BigDecimal ledgerCredits = BigDecimal.ZERO;
+    
+    /**
+     * 当日商家流水出账（REFUND_OUT）累计，精度19位，小数点后2位
+     */
+    @Column(precision = 19, scale = 2, nullable = false)
+    @Builder.Default
+    private BigDecimal ledgerDebits = BigDecimal.ZERO;
+}
@@ -57,6 +57,12 @@ public class Product {
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
+    /**
+     * 乐观锁版本号，每次更新递增，同时用于生成商品读取接口的ETag
+     */
+    @Version
+    private Long version;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,90 @@
+package com.trading.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 商品读模型实体类
+ * 冗余保存商品目录读取所需的全部字段（商品信息、商家名称、在售价格区间），
+ * 一次查询即可返回商品详情或搜索结果；由商品、库存和商家的写入在提交后刷新
+ */
+@Entity
+@Table(name = "product_views")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductView {
+
+    /**
+     * 商品ID，与products表主键相同
+     */
+    @Id
+    private Long id;
+
+    /**
+     * 商品名称
+     */
+    @Column(nullable = false)
+    private String name;
+
+    /**
+     * 商品描述，最大长度1000字符
+     */
+    @Column(length = 1000)
+    private String description;
+
+    /**
+     * 商品分类
+     */
+    @Column(nullable = false)
+    private String category;
+
+    /**
+     * 所属商家ID
+     */
+    @Column(nullable = false)
+    private Long merchantId;
+
+    /**
+     * 商家名称（商家名称为空时为用户名）
+     */
+    @Column(nullable = false)
+    private String merchantName;
+
+    /**
+     * 在售SKU（库存大于0）的最低价格，没有在售SKU时为0
+     */
+    @Column(precision = 19, scale = 2, nullable = false)
+    private BigDecimal minPrice;
+
+    /**
+     * 在售SKU（库存大于0）的最高价格，没有在售SKU时为0
+     */
+    @Column(precision = 19, scale = 2, nullable = false)
+    private BigDecimal maxPrice;
+
+    /**
+     * 商品创建时间
+     */
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * 最近一次内容变化的刷新时间
+     */
+    @Column(nullable = false)
+    private LocalDateTime refreshedAt;
+
+    /**
+     * 版本号，每次内容变化时递增；为空表示尚未保存
+     */
+    @Version
+    private Long version;
+}
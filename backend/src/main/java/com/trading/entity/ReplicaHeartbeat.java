@@ -0,0 +1,34 @@
+package com.trading.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 副本延迟心跳实体类
+ * 启用读写分离时各节点定期在主库更新自己的一行时间戳，再从副本读取同一行，
+ * 两者之差即为副本复制延迟；与数据库类型无关，MySQL和本地H2均适用
+ */
+@Entity
+@Table(name = "replica_heartbeat")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplicaHeartbeat {
+    
+    /**
+     * 写入心跳的节点ID，与任务租约的节点ID相同
+     */
+    @Id
+    @Column(length = 200)
+    private String nodeId;
+    
+    /**
+     * 主库写入心跳时的时间戳（毫秒）
+     */
+    @Column(nullable = false)
+    private Long beatAtMillis;
+}
@@ -0,0 +1,59 @@
+package com.trading.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 已吊销令牌实体类
+ * 登出或泄露的令牌在过期前记录于此，集群中各节点定期拉取新增记录到内存
+ */
+@Entity
+@Table(name = "revoked_tokens")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+    
+    /**
+     * 记录唯一标识ID
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    /**
+     * 令牌ID（jti声明）
+     */
+    @Column(nullable = false, unique = true, length = 64)
+    private String tokenId;
+    
+    /**
+     * 令牌主体（用户名），用于审计
+     */
+    @Column(length = 100)
+    private String subject;
+    
+    /**
+     * 吊销原因，例如LOGOUT
+     */
+    @Column(nullable = false, length = 50)
+    private String reason;
+    
+    /**
+     * 吊销时间，各节点按此时间增量拉取
+     */
+    @Column(nullable = false)
+    private LocalDateTime revokedAt;
+    
+    /**
+     * 令牌原本的过期时间，过期后记录可以删除
+     */
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,64 @@
+package com.trading.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 已执行的数据库迁移脚本记录
+ * 表由SchemaMigrator在执行脚本前创建；db/migration下的V{版本号}__{描述}.sql按版本号顺序执行一次，
+ * 已执行的脚本内容被修改时启动失败
+ */
+@Entity
+@Table(name = "schema_migrations")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchemaMigration {
+    
+    /**
+     * 脚本版本号
+     */
+    @Id
+    private Integer version;
+    
+    /**
+     * 脚本描述（文件名中的描述部分）
+     */
+    @Column(nullable = false, length = 200)
+    private String description;
+    
+    /**
+     * 脚本文件名
+     */
+    @Column(nullable = false, length = 200)
+    private String script;
+    
+    /**
+     * 脚本内容的CRC32校验和
+     */
+    @Column(nullable = false)
+    private Long checksum;
+    
+    /**
+     * 开始执行时间
+     */
+    @Column(nullable = false)
+    private LocalDateTime installedAt;
+    
+    /**
+     * 执行该脚本的节点（每次启动随机生成）
+     */
+    @Column(nullable = false, length = 100)
+    private String installedBy;
+    
+    /**
+     * 执行耗时（毫秒），执行中为null
+     */
+    private Long executionMillis;
+}
@@ -81,6 +81,11 @@ public class Settlement {
     @Column(nullable = false)
     private SettlementStatus status;
     
+    /**
+     * 审计模式下计数器与全量重算结果是否存在偏差，未审计时为空
+     */
+    private Boolean counterDrift;
+    
     /**
      * 结算记录创建时间，不可更新
      */
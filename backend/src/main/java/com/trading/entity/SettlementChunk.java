@@ -0,0 +1,93 @@
+package com.trading.entity;
+
+import com.trading.enums.SettlementChunkStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 结算分片实体类
+ * 一个分片覆盖一段连续的商家ID区间，在独立事务中完成结算
+ */
+@Entity
+@Table(name = "settlement_chunks", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"run_id", "chunk_index"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementChunk {
+    
+    /**
+     * 分片唯一标识ID
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    /**
+     * 所属结算批次ID，关联settlement_runs表
+     */
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+    
+    /**
+     * 分片序号，从0开始
+     */
+    @Column(name = "chunk_index", nullable = false)
+    private Integer chunkIndex;
+    
+    /**
+     * 分片覆盖的起始商家ID（含）
+     */
+    @Column(nullable = false)
+    private Long firstMerchantId;
+    
+    /**
+     * 分片覆盖的结束商家ID（含）
+     */
+    @Column(nullable = false)
+    private Long lastMerchantId;
+    
+    /**
+     * 分片状态：PENDING（待处理）、RUNNING（处理中）、COMPLETED（已完成）、FAILED（失败）
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SettlementChunkStatus status;
+    
+    /**
+     * 已结算的商家数量
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer processedMerchants = 0;
+    
+    /**
+     * 已尝试执行的次数
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+    
+    /**
+     * 最近一次失败的错误信息
+     */
+    @Column(length = 1000)
+    private String lastError;
+    
+    /**
+     * 分片开始处理时间
+     */
+    private LocalDateTime startedAt;
+    
+    /**
+     * 分片结束处理时间
+     */
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,61 @@
+package com.trading.entity;
+
+import com.trading.enums.SettlementRunStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 结算批次实体类
+ * 记录一次日结算任务的整体执行状态，用于崩溃后断点续跑
+ */
+@Entity
+@Table(name = "settlement_runs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementRun {
+    
+    /**
+     * 结算批次唯一标识ID
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    /**
+     * 结算日期
+     */
+    @Column(nullable = false)
+    private LocalDate settlementDate;
+    
+    /**
+     * 批次状态：RUNNING（执行中）、COMPLETED（已完成）、FAILED（部分分片失败）
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SettlementRunStatus status;
+    
+    /**
+     * 分片总数
+     */
+    @Column(nullable = false)
+    private Integer totalChunks;
+    
+    /**
+     * 批次开始时间
+     */
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+    
+    /**
+     * 批次结束时间
+     */
+    private LocalDateTime finishedAt;
+}
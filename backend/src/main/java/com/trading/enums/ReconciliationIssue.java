@@ -0,0 +1,7 @@
+package com.trading.enums;
+
+public enum ReconciliationIssue {
+    MISSING_LEDGER_ENTRY,
+    EXTRA_LEDGER_ENTRY,
+    AMOUNT_MISMATCH
+}
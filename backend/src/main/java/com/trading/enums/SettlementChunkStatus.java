@@ -0,0 +1,8 @@
+package com.trading.enums;
+
+public enum SettlementChunkStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
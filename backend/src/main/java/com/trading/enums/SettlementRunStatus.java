@@ -0,0 +1,7 @@
+package com.trading.enums;
+
+public enum SettlementRunStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
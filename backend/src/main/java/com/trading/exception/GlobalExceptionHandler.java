@@ -4,11 +4,13 @@ import com.trading.dto.response.ApiResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.stream.Collectors;
 
@@ -114,6 +116,14 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(e.getCode(), "Security violation"));
     }
     
+    @ExceptionHandler(ThrottledException.class)
+    public ResponseEntity<ApiResponse<?>> handleThrottled(ThrottledException e, HttpServletRequest request) {
+        logSecurityEvent("THROTTLED", request, e.getMessage());
+        return ResponseEntity.status(e.getCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(ApiResponse.error(e.getCode(), e.getMessage()));
+    }
+    
     @ExceptionHandler(BusinessException.class)
     public ResponseEntity<ApiResponse<?>> handleBusinessException(BusinessException e) {
         log.warn("Business exception: {}", e.getMessage());
@@ -121,6 +131,17 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(e.getCode(), e.getMessage()));
     }
     
+    /**
+     * 保留框架异常自带的状态码，如Actuator端点的请求参数错误（400）
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ApiResponse<?>> handleResponseStatusException(ResponseStatusException e) {
+        int code = e.getStatusCode().value();
+        log.warn("Request rejected with status {}: {}", code, e.getReason());
+        return ResponseEntity.status(code)
+                .body(ApiResponse.error(code, e.getReason() != null ? e.getReason() : e.getMessage()));
+    }
+    
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<?>> handleGenericException(Exception e) {
         log.error("Unexpected error occurred", e);
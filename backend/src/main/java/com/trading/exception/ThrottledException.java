@@ -0,0 +1,17 @@
+package com.trading.exception;
+
+import lombok.Getter;
+
+/**
+ * 请求被限流或服务繁忙时抛出，响应中携带Retry-After
+ */
+@Getter
+public class ThrottledException extends BusinessException {
+    
+    private final long retryAfterSeconds;
+    
+    public ThrottledException(int code, String message, long retryAfterSeconds) {
+        super(code, message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
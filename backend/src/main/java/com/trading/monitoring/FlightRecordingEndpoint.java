@@ -0,0 +1,43 @@
+package com.trading.monitoring;
+
+import com.trading.exception.BusinessException;
+import com.trading.service.FlightRecordingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JFR录制的Actuator端点
+ * GET  /actuator/flightrecording   当前的录制
+ * POST /actuator/flightrecording   将正在运行的录制导出为.jfr文件，返回文件路径和大小（仅ADMIN）
+ * 导出目录只保留最近的若干个文件；分析由JfrAnalyzer离线进行，不占用请求线程
+ */
+@Component
+@Endpoint(id = "flightrecording")
+@RequiredArgsConstructor
+public class FlightRecordingEndpoint {
+
+    private final FlightRecordingService flightRecordingService;
+
+    @ReadOperation
+    public Map<String, Object> recordings() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("recordings", flightRecordingService.getRecordings());
+        return status;
+    }
+
+    @WriteOperation
+    public Map<String, Object> dump() {
+        try {
+            return flightRecordingService.dump();
+        } catch (BusinessException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.trading.monitoring;
+
+import ch.qos.logback.classic.pattern.ThrowableProxyConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.LayoutBase;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * 每条日志输出为一行JSON的Logback Layout
+ * 字段：timestamp（ISO-8601，UTC）、level、thread、logger、message（已格式化）、
+ * 非空时附带mdc和exception（含堆栈）；app为配置的应用名，便于日志平台按应用过滤
+ */
+public class JsonLogLayout extends LayoutBase<ILoggingEvent> {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final ThrowableProxyConverter throwableConverter = new ThrowableProxyConverter();
+
+    private String app;
+
+    @Override
+    public void start() {
+        throwableConverter.setContext(getContext());
+        throwableConverter.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        throwableConverter.stop();
+        super.stop();
+    }
+
+    @Override
+    public String doLayout(ILoggingEvent event) {
+        StringWriter line = new StringWriter(256);
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(line)) {
+            json.writeStartObject();
+            json.writeStringField("timestamp", Instant.ofEpochMilli(event.getTimeStamp()).toString());
+            json.writeStringField("level", event.getLevel().toString());
+            json.writeStringField("thread", event.getThreadName());
+            json.writeStringField("logger", event.getLoggerName());
+            json.writeStringField("message", event.getFormattedMessage());
+            if (app != null && !app.isEmpty()) {
+                json.writeStringField("app", app);
+            }
+            Map<String, String> mdc = event.getMDCPropertyMap();
+            if (mdc != null && !mdc.isEmpty()) {
+                json.writeObjectFieldStart("mdc");
+                for (Map.Entry<String, String> entry : mdc.entrySet()) {
+                    json.writeStringField(entry.getKey(), entry.getValue());
+                }
+                json.writeEndObject();
+            }
+            if (event.getThrowableProxy() != null) {
+                json.writeStringField("exception", throwableConverter.convert(event));
+            }
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return line.append(CoreConstants.LINE_SEPARATOR).toString();
+    }
+
+    /**
+     * @param app 应用名
+     */
+    public void setApp(String app) {
+        this.app = app;
+    }
+}
@@ -0,0 +1,71 @@
+package com.trading.monitoring;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 按logger抽样高频日志的Logback TurboFilter
+ * 对配置的logger，每条消息模板（而非每次格式化后的文本）的INFO及以下日志只输出第1条和之后每rate条中的1条；
+ * WARN和ERROR不抽样。被丢弃的日志在格式化参数和进入异步队列之前就被拒绝
+ *
+ * 在logback配置中使用：
+ * &lt;turboFilter class="com.trading.monitoring.LogSamplingFilter"&gt;
+ *     &lt;loggers&gt;com.trading.service.impl.OrderServiceImpl,SECURITY&lt;/loggers&gt;
+ *     &lt;rate&gt;100&lt;/rate&gt;
+ * &lt;/turboFilter&gt;
+ */
+public class LogSamplingFilter extends TurboFilter {
+
+    /**
+     * 各logger下每条消息模板的计数，消息模板是代码中的常量，数量有限
+     */
+    private final ConcurrentMap<String, ConcurrentMap<String, AtomicLong>> counters = new ConcurrentHashMap<>();
+
+    private Set<String> loggers = Set.of();
+    private int rate = 100;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == null || level.isGreaterOrEqual(Level.WARN) || !loggers.contains(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        // 未启用的级别交给Logback自身的级别判断，不计入抽样
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        long count = counters.computeIfAbsent(logger.getName(), name -> new ConcurrentHashMap<>())
+                .computeIfAbsent(format != null ? format : "", key -> new AtomicLong())
+                .getAndIncrement();
+        return count % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    /**
+     * @param loggers 逗号分隔的logger名
+     */
+    public void setLoggers(String loggers) {
+        this.loggers = Arrays.stream(loggers.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * @param rate 每rate条输出1条，1表示不抽样
+     */
+    public void setRate(int rate) {
+        if (rate < 1) {
+            throw new IllegalArgumentException("Sampling rate must be at least 1");
+        }
+        this.rate = rate;
+    }
+}
@@ -0,0 +1,49 @@
+package com.trading.monitoring;
+
+/**
+ * 当前线程执行的SQL语句数和JDBC耗时的累计计数器
+ * 由QueryCountingDataSource在每条语句执行后累加；请求过滤器和服务方法切面在开始和结束时各取一次快照，
+ * 两者之差即该请求或方法调用执行的语句数和耗时。计数只增不减，嵌套的统计范围互不影响
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[2]);
+
+    private QueryCounter() {
+    }
+
+    /**
+     * 记录一条已执行的语句（批量执行按一次记录）
+     *
+     * @param nanos 执行耗时（纳秒）
+     */
+    static void record(long nanos) {
+        long[] counts = COUNTS.get();
+        counts[0]++;
+        counts[1] += nanos;
+    }
+
+    /**
+     * 当前线程的累计计数
+     */
+    public static Snapshot snapshot() {
+        long[] counts = COUNTS.get();
+        return new Snapshot(counts[0], counts[1]);
+    }
+
+    /**
+     * 累计计数快照
+     *
+     * @param statements 已执行的语句数
+     * @param jdbcNanos JDBC执行总耗时（纳秒）
+     */
+    public record Snapshot(long statements, long jdbcNanos) {
+
+        /**
+         * 从较早的快照到此快照之间执行的语句数和耗时
+         */
+        public Snapshot since(Snapshot earlier) {
+            return new Snapshot(statements - earlier.statements, jdbcNanos - earlier.jdbcNanos);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.trading.monitoring;
+
+import com.trading.config.QueryTrackingProperties;
+import com.trading.service.QueryStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 本节点SQL语句统计的Actuator端点
+ * GET /actuator/querystats      语句数最多的请求端点和服务方法
+ * DELETE /actuator/querystats   清空统计，便于对比修改前后的结果
+ */
+@Component
+@Endpoint(id = "querystats")
+@RequiredArgsConstructor
+public class QueryStatsEndpoint {
+
+    private final QueryTrackingProperties properties;
+    private final QueryStatsService queryStatsService;
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requestStatementThreshold", properties.getRequestStatementThreshold());
+        stats.put("requestJdbcTimeThreshold", properties.getRequestJdbcTimeThreshold().toString());
+        stats.put("methodStatementThreshold", properties.getMethodStatementThreshold());
+        stats.put("endpoints", queryStatsService.getTopEndpoints(properties.getTopLimit()));
+        stats.put("methods", queryStatsService.getTopMethods(properties.getTopLimit()));
+        return stats;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        queryStatsService.reset();
+    }
+}
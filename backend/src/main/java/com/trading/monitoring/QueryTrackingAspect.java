@@ -0,0 +1,40 @@
+package com.trading.monitoring;
+
+import com.trading.config.QueryTrackingProperties;
+import com.trading.service.QueryStatsService;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 按服务方法统计SQL语句数和JDBC耗时的切面
+ * 拦截各ServiceImpl的公共方法；外层方法的计数包含其调用的其他服务方法
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class QueryTrackingAspect {
+
+    private final QueryTrackingProperties properties;
+    private final QueryStatsService queryStatsService;
+
+    @Around("execution(public * com.trading.service.impl.*ServiceImpl.*(..)) "
+            + "&& !within(com.trading.service.impl.QueryStatsServiceImpl)")
+    public Object track(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!properties.getEnabled()) {
+            return joinPoint.proceed();
+        }
+        QueryCounter.Snapshot start = QueryCounter.snapshot();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            QueryCounter.Snapshot executed = QueryCounter.snapshot().since(start);
+            String method = joinPoint.getTarget().getClass().getSimpleName() + "." + joinPoint.getSignature().getName();
+            queryStatsService.recordMethod(method, executed.statements(), Duration.ofNanos(executed.jdbcNanos()));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.trading.monitoring;
+
+import com.trading.config.QueryTrackingProperties;
+import com.trading.service.QueryStatsService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * 按请求统计SQL语句数和JDBC耗时的过滤器
+ * 位于所有过滤器之前，统计范围包括安全过滤器链中的查询（如令牌吊销检查）；
+ * 按HTTP方法和路由模板（而不是实际路径）汇总，未匹配到控制器的请求归入(unmapped)
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class QueryTrackingFilter extends OncePerRequestFilter {
+
+    private final QueryTrackingProperties properties;
+    private final QueryStatsService queryStatsService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.getEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        QueryCounter.Snapshot start = QueryCounter.snapshot();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryCounter.Snapshot executed = QueryCounter.snapshot().since(start);
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String endpoint = request.getMethod() + " " + (pattern != null ? pattern : "(unmapped)");
+            queryStatsService.recordRequest(endpoint, executed.statements(), Duration.ofNanos(executed.jdbcNanos()));
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.trading.monitoring;
+
+import com.trading.config.OrderTimingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 订单关键路径的分阶段计时器工厂
+ *
+ * 指标（均可在/actuator/metrics查看，百分位数以.percentile后缀的指标发布）：
+ * order.stage.duration{operation, stage, skus, items}  各阶段耗时
+ * order.operation.duration{operation, skus, items, outcome}  含事务提交的总耗时
+ *
+ * skus为订单中的SKU种数，items为商品总件数，均按1、2-5、6-20、21+分桶以控制标签基数；
+ * 在读出订单之前失败的操作记为0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StageTimers {
+
+    private final OrderTimingProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 开始计时一次操作；在事务中调用时，事务完成后记录提交阶段和总耗时
+     *
+     * @param operation 操作名，如confirmPayment
+     * @return 计时器，每完成一个阶段调用一次stage
+     */
+    public StageTimer start(String operation) {
+        double[] percentiles = properties.getPercentiles().stream().mapToDouble(Double::doubleValue).toArray();
+        StageTimer timer = new StageTimer(operation, properties.getEnabled(), percentiles);
+        if (timer.enabled && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    timer.finish(status == STATUS_COMMITTED ? "committed" : "rolled_back");
+                }
+            });
+        }
+        return timer;
+    }
+
+    /**
+     * 按数量分桶
+     */
+    static String bucket(int count) {
+        if (count <= 0) {
+            return "0";
+        } else if (count <= 1) {
+            return "1";
+        } else if (count <= 5) {
+            return "2-5";
+        } else if (count <= 20) {
+            return "6-20";
+        }
+        return "21+";
+    }
+
+    /**
+     * 一次操作的分阶段计时器，每个阶段的耗时为距上一阶段结束（或开始计时）的时间
+     */
+    public class StageTimer {
+
+        private final String operation;
+        private final boolean enabled;
+        private final double[] percentiles;
+        private final long startNanos = System.nanoTime();
+        private final List<String> breakdown = new ArrayList<>();
+        private long lastNanos = startNanos;
+        private String skus = bucket(0);
+        private String items = bucket(0);
+        private int skuCount;
+        private int itemCount;
+
+        private StageTimer(String operation, boolean enabled, double[] percentiles) {
+            this.operation = operation;
+            this.enabled = enabled;
+            this.percentiles = percentiles;
+        }
+
+        /**
+         * 设置订单规模，用作之后各阶段指标的标签
+         *
+         * @param skuCount SKU种数
+         * @param itemCount 商品总件数
+         */
+        public StageTimer items(int skuCount, int itemCount) {
+            this.skuCount = skuCount;
+            this.itemCount = itemCount;
+            this.skus = bucket(skuCount);
+            this.items = bucket(itemCount);
+            return this;
+        }
+
+        /**
+         * 记录刚完成的阶段
+         *
+         * @param stage 阶段名
+         */
+        public void stage(String stage) {
+            if (!enabled) {
+                return;
+            }
+            long now = System.nanoTime();
+            record(stage, now - lastNanos);
+            lastNanos = now;
+        }
+
+        private void record(String stage, long nanos) {
+            Timer.builder("order.stage.duration")
+                    .description("Duration of each stage of order creation, payment and refund")
+                    .tag("operation", operation)
+                    .tag("stage", stage)
+                    .tag("skus", skus)
+                    .tag("items", items)
+                    .publishPercentiles(percentiles)
+                    .register(meterRegistry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+            breakdown.add(stage + " " + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms");
+        }
+
+        /**
+         * 事务完成后记录提交阶段（写入延迟到提交时执行的语句）和总耗时
+         */
+        private void finish(String outcome) {
+            long now = System.nanoTime();
+            record("commit", now - lastNanos);
+            Duration total = Duration.ofNanos(now - startNanos);
+            Timer.builder("order.operation.duration")
+                    .description("Total duration of order creation, payment and refund including commit")
+                    .tag("operation", operation)
+                    .tag("skus", skus)
+                    .tag("items", items)
+                    .tag("outcome", outcome)
+                    .publishPercentiles(percentiles)
+                    .register(meterRegistry)
+                    .record(total);
+            if (log.isDebugEnabled() && total.compareTo(properties.getSlowThreshold()) > 0) {
+                log.debug("{} took {} ms ({} SKUs, {} items, {}): {}",
+                        operation, total.toMillis(), skuCount, itemCount, outcome, String.join(", ", breakdown));
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.trading.monitoring.jfr;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.time.Duration;
+
+/**
+ * 库存乐观锁冲突事件：支付扣减库存时SKU已被其他事务更新
+ * 冲突的支付整体回滚，由客户端重试；retries为同一订单此前已冲突的次数
+ */
+@Name(InventoryConflictEvent.NAME)
+@Label("Inventory Conflict")
+@Category({"Trading", "Contention"})
+@Description("Optimistic-lock conflict on a SKU while confirming a payment")
+public class InventoryConflictEvent extends Event {
+
+    public static final String NAME = "com.trading.InventoryConflict";
+
+    /**
+     * 各订单的冲突次数，仅在录制时更新
+     */
+    private static final Cache<Long, Integer> CONFLICTS_BY_ORDER = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    @Label("SKU")
+    public String sku;
+
+    @Label("Order ID")
+    public long orderId;
+
+    @Label("Merchant ID")
+    public long merchantId;
+
+    @Label("Retries")
+    @Description("Earlier conflicted payment attempts of the same order")
+    public int retries;
+
+    /**
+     * 记录一次冲突
+     *
+     * @param sku 冲突的SKU，冲突发生在逐个扣减库存之后时为null
+     * @param orderId 订单ID
+     * @param merchantId 商家ID
+     */
+    public static void record(String sku, long orderId, long merchantId) {
+        InventoryConflictEvent event = new InventoryConflictEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+        Integer conflicts = CONFLICTS_BY_ORDER.asMap().merge(orderId, 1, Integer::sum);
+        event.sku = sku;
+        event.orderId = orderId;
+        event.merchantId = merchantId;
+        event.retries = conflicts - 1;
+        event.commit();
+    }
+}
@@ -0,0 +1,206 @@
+package com.trading.monitoring.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 业务JFR事件的离线分析器
+ * 汇总.jfr文件中各类业务操作的次数、失败数和耗时分布，列出最慢的单次操作和冲突最多的SKU；
+ * 只依赖JDK，可直接对编译输出运行：
+ * java -cp target/classes com.trading.monitoring.jfr.JfrAnalyzer recording.jfr [条数]
+ */
+public final class JfrAnalyzer {
+
+    private static final Set<String> OPERATIONS = Set.of(
+            OrderCreationEvent.NAME,
+            PaymentEvent.NAME,
+            MerchantSettlementEvent.NAME,
+            JwtValidationEvent.NAME);
+
+    private static final Set<String> SUCCESS_OUTCOMES = Set.of("committed", "valid");
+
+    private JfrAnalyzer() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: JfrAnalyzer <recording.jfr> [top]");
+            System.exit(2);
+        }
+        int top = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        System.out.print(analyze(Path.of(args[0]), top).toText());
+    }
+
+    /**
+     * 分析一个录制文件
+     *
+     * @param file .jfr文件
+     * @param top 最慢操作和冲突SKU各列出的条数
+     * @return 分析摘要
+     */
+    public static Summary analyze(Path file, int top) throws IOException {
+        Map<String, List<Duration>> durations = new TreeMap<>();
+        Map<String, Long> failures = new TreeMap<>();
+        // 最慢的top条，堆顶为其中最快的一条
+        PriorityQueue<SlowOperation> slowest = new PriorityQueue<>(Comparator.comparingDouble(SlowOperation::millis));
+        Map<String, SkuTally> conflicts = new TreeMap<>();
+
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                String name = event.getEventType().getName();
+                if (OPERATIONS.contains(name)) {
+                    String label = event.getEventType().getLabel();
+                    durations.computeIfAbsent(label, key -> new ArrayList<>()).add(event.getDuration());
+                    String outcome = outcome(event);
+                    if (outcome != null && !SUCCESS_OUTCOMES.contains(outcome) && !isSettled(outcome)) {
+                        failures.merge(label, 1L, Long::sum);
+                    }
+                    double millis = millis(event.getDuration());
+                    if (slowest.size() < top || millis > slowest.peek().millis()) {
+                        slowest.add(new SlowOperation(label, millis, event.getStartTime().toString(), describe(event)));
+                        if (slowest.size() > top) {
+                            slowest.poll();
+                        }
+                    }
+                } else if (InventoryConflictEvent.NAME.equals(name)) {
+                    String sku = event.getString("sku");
+                    conflicts.computeIfAbsent(sku != null ? sku : "(after inventory)", key -> new SkuTally())
+                            .add(event.getLong("orderId"), event.getInt("retries"));
+                }
+            }
+        }
+
+        List<OperationStats> operations = new ArrayList<>();
+        durations.forEach((label, values) -> {
+            values.sort(Comparator.naturalOrder());
+            operations.add(new OperationStats(label, values.size(), failures.getOrDefault(label, 0L),
+                    millis(percentile(values, 0.5)), millis(percentile(values, 0.99)),
+                    millis(values.get(values.size() - 1))));
+        });
+        List<SlowOperation> slowestFirst = new ArrayList<>(slowest);
+        slowestFirst.sort(Comparator.comparingDouble(SlowOperation::millis).reversed());
+        List<ContendedSku> skus = conflicts.entrySet().stream()
+                .map(entry -> new ContendedSku(entry.getKey(), entry.getValue().conflicts,
+                        entry.getValue().orders.size(), entry.getValue().maxRetries))
+                .sorted(Comparator.comparingLong(ContendedSku::conflicts).reversed())
+                .limit(top)
+                .toList();
+        return new Summary(operations, slowestFirst, skus);
+    }
+
+    private static String outcome(RecordedEvent event) {
+        if (event.hasField("outcome")) {
+            return event.getString("outcome");
+        }
+        return event.hasField("status") ? event.getString("status") : null;
+    }
+
+    /**
+     * 结算事件的status为结算结果而非失败原因，只有FAILED算失败
+     */
+    private static boolean isSettled(String status) {
+        return "MATCHED".equals(status) || "MISMATCHED".equals(status) || "EXISTING".equals(status);
+    }
+
+    private static String describe(RecordedEvent event) {
+        StringBuilder description = new StringBuilder();
+        for (String field : List.of("source", "orderId", "merchantId", "settlementDate",
+                "skuCount", "itemCount", "outcome", "status", "cached")) {
+            if (event.hasField(field)) {
+                Object value = event.getValue(field);
+                if (value != null) {
+                    description.append(description.length() > 0 ? " " : "").append(field).append('=').append(value);
+                }
+            }
+        }
+        return description.toString();
+    }
+
+    private static Duration percentile(List<Duration> sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000.0;
+    }
+
+    private static final class SkuTally {
+        private long conflicts;
+        private int maxRetries;
+        private final Set<Long> orders = new HashSet<>();
+
+        void add(long orderId, int retries) {
+            conflicts++;
+            maxRetries = Math.max(maxRetries, retries);
+            orders.add(orderId);
+        }
+    }
+
+    /**
+     * 一类操作的统计（耗时单位毫秒）
+     */
+    public record OperationStats(String operation, long count, long failures,
+                                 double p50Millis, double p99Millis, double maxMillis) {
+    }
+
+    /**
+     * 一次较慢的操作
+     */
+    public record SlowOperation(String operation, double millis, String startTime, String details) {
+    }
+
+    /**
+     * 一个SKU的乐观锁冲突统计
+     */
+    public record ContendedSku(String sku, long conflicts, int orders, int maxRetries) {
+    }
+
+    /**
+     * 分析摘要
+     */
+    public record Summary(List<OperationStats> operations, List<SlowOperation> slowest,
+                          List<ContendedSku> contendedSkus) {
+
+        /**
+         * 以文本表格输出
+         */
+        public String toText() {
+            StringBuilder text = new StringBuilder();
+            text.append("Operations\n");
+            text.append(String.format("  %-20s %8s %8s %10s %10s %10s%n",
+                    "operation", "count", "failed", "p50 ms", "p99 ms", "max ms"));
+            for (OperationStats stats : operations) {
+                text.append(String.format("  %-20s %8d %8d %10.2f %10.2f %10.2f%n", stats.operation(),
+                        stats.count(), stats.failures(), stats.p50Millis(), stats.p99Millis(), stats.maxMillis()));
+            }
+            text.append("\nSlowest operations\n");
+            for (SlowOperation operation : slowest) {
+                text.append(String.format("  %10.2f ms  %-20s %s  %s%n", operation.millis(),
+                        operation.operation(), operation.startTime(), operation.details()));
+            }
+            text.append("\nMost contended SKUs\n");
+            if (contendedSkus.isEmpty()) {
+                text.append("  (no inventory conflicts)\n");
+            }
+            for (ContendedSku sku : contendedSkus) {
+                text.append(String.format("  %-30s %6d conflicts  %6d orders  max retries %d%n",
+                        sku.sku(), sku.conflicts(), sku.orders(), sku.maxRetries()));
+            }
+            return text.toString();
+        }
+    }
+}
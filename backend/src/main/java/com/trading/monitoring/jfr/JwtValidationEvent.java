@@ -0,0 +1,28 @@
+package com.trading.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JWT验证事件：解析验签或命中已验证令牌缓存
+ */
+@Name(JwtValidationEvent.NAME)
+@Label("JWT Validation")
+@Category({"Trading", "Security"})
+@Description("Verifying a JWT, either parsed and signature-checked or served from the verified-token cache")
+@StackTrace(false)
+public class JwtValidationEvent extends Event {
+
+    public static final String NAME = "com.trading.JwtValidation";
+
+    @Label("Cached")
+    public boolean cached;
+
+    @Label("Outcome")
+    @Description("valid, expired or invalid")
+    public String outcome;
+}
@@ -0,0 +1,38 @@
+package com.trading.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 单个商家单日结算事件
+ * 每日结算按分片在同一事务中结算多个商家，持续时间只含本商家的计算和写入，不含分片事务提交
+ */
+@Name(MerchantSettlementEvent.NAME)
+@Label("Merchant Settlement")
+@Category({"Trading", "Settlement"})
+@Description("Settling one merchant for one day")
+@StackTrace(false)
+public class MerchantSettlementEvent extends Event {
+
+    public static final String NAME = "com.trading.MerchantSettlement";
+
+    @Label("Merchant ID")
+    public long merchantId;
+
+    @Label("Settlement Date")
+    public String settlementDate;
+
+    @Label("Status")
+    @Description("MATCHED, MISMATCHED, EXISTING when the day was already settled, or FAILED")
+    public String status;
+
+    @Label("Net Amount")
+    public double netAmount;
+
+    @Label("Discrepancy")
+    public double discrepancy;
+}
@@ -0,0 +1,42 @@
+package com.trading.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 下单事件：从购物车或直接购买创建订单，持续时间含事务提交
+ */
+@Name(OrderCreationEvent.NAME)
+@Label("Order Creation")
+@Category({"Trading", "Orders"})
+@Description("Creating an order from a cart or a direct purchase, including the commit")
+@StackTrace(false)
+public class OrderCreationEvent extends TransactionalEvent {
+
+    public static final String NAME = "com.trading.OrderCreation";
+
+    @Label("Source")
+    @Description("cart or direct")
+    public String source;
+
+    @Label("Order ID")
+    public long orderId;
+
+    @Label("User ID")
+    public long userId;
+
+    @Label("Merchant ID")
+    public long merchantId;
+
+    @Label("SKUs")
+    public int skuCount;
+
+    @Label("Items")
+    public int itemCount;
+
+    @Label("Total Amount")
+    public double totalAmount;
+}
@@ -0,0 +1,38 @@
+package com.trading.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 支付确认事件：扣减库存、转移余额、写流水，持续时间含事务提交
+ */
+@Name(PaymentEvent.NAME)
+@Label("Payment")
+@Category({"Trading", "Orders"})
+@Description("Confirming the payment of an order, including the commit")
+@StackTrace(false)
+public class PaymentEvent extends TransactionalEvent {
+
+    public static final String NAME = "com.trading.Payment";
+
+    @Label("Order ID")
+    public long orderId;
+
+    @Label("User ID")
+    public long userId;
+
+    @Label("Merchant ID")
+    public long merchantId;
+
+    @Label("SKUs")
+    public int skuCount;
+
+    @Label("Items")
+    public int itemCount;
+
+    @Label("Amount")
+    public double amount;
+}
@@ -0,0 +1,50 @@
+package com.trading.monitoring.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 在事务完成时提交的JFR事件基类
+ * 持续时间覆盖从beginInTransaction到事务提交或回滚，包括提交时才刷新的写入；
+ * 未设置outcome时按事务结果记为committed或rolled_back
+ */
+public abstract class TransactionalEvent extends Event {
+
+    @Label("Outcome")
+    @Description("committed, rolled_back, or the business reason the operation failed")
+    public String outcome;
+
+    /**
+     * 开始计时，并在当前事务完成时提交事件；没有事务或未在录制时不注册回调
+     */
+    public void beginInTransaction() {
+        if (!isEnabled()) {
+            return;
+        }
+        begin();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (outcome == null) {
+                    outcome = status == STATUS_COMMITTED ? "committed" : "rolled_back";
+                }
+                commit();
+            }
+        });
+    }
+
+    /**
+     * 记录失败原因，事件仍在事务回滚后提交
+     *
+     * @param reason 失败原因，如insufficient_stock
+     */
+    public void fail(String reason) {
+        this.outcome = reason;
+    }
+}
@@ -0,0 +1,32 @@
+package com.trading.repository;
+
+import com.trading.entity.ArchivedOrderItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedOrderItemRepository extends JpaRepository<ArchivedOrderItem, Long> {
+    
+    List<ArchivedOrderItem> findByOrderIdIn(Collection<Long> orderIds);
+    
+    /**
+     * Copy the items of the given orders from the hot table, keeping their IDs
+     */
+    @Modifying
+    @Query(value = "INSERT INTO order_items_archive " +
+                   "(id, order_id, sku, product_name, quantity, unit_price, subtotal) " +
+                   "SELECT id, order_id, sku, product_name, quantity, unit_price, subtotal " +
+                   "FROM order_items WHERE order_id IN (:orderIds)",
+           nativeQuery = true)
+    int copyFromOrderItems(@Param("orderIds") Collection<Long> orderIds);
+    
+    @Modifying
+    @Query("DELETE FROM ArchivedOrderItem i WHERE i.orderId IN :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+}
@@ -0,0 +1,73 @@
+package com.trading.repository;
+
+import com.trading.entity.ArchivedOrder;
+import com.trading.enums.OrderStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+    
+    Page<ArchivedOrder> findByUserId(Long userId, Pageable pageable);
+    
+    long countByUserId(Long userId);
+    
+    Page<ArchivedOrder> findByMerchantId(Long merchantId, Pageable pageable);
+    
+    long countByMerchantId(Long merchantId);
+    
+    Page<ArchivedOrder> findByMerchantIdAndStatus(Long merchantId, OrderStatus status, Pageable pageable);
+    
+    long countByMerchantIdAndStatus(Long merchantId, OrderStatus status);
+    
+    Slice<ArchivedOrder> findSliceByUserId(Long userId, Pageable pageable);
+    
+    Slice<ArchivedOrder> findSliceByMerchantId(Long merchantId, Pageable pageable);
+    
+    Slice<ArchivedOrder> findSliceByMerchantIdAndStatus(Long merchantId, OrderStatus status, Pageable pageable);
+    
+    /**
+     * Count a merchant's archived orders per status.
+     * Rows are [status, count].
+     */
+    @Query("SELECT a.status, COUNT(a) FROM ArchivedOrder a WHERE a.merchantId = :merchantId GROUP BY a.status")
+    List<Object[]> countByMerchantIdGroupByStatus(@Param("merchantId") Long merchantId);
+    
+    /**
+     * IDs of archived orders last updated in [from, to), in ID order
+     */
+    @Query("SELECT a.id FROM ArchivedOrder a WHERE a.updatedAt >= :from AND a.updatedAt < :to ORDER BY a.id")
+    List<Long> findIdsUpdatedBetween(@Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to,
+                                     Pageable pageable);
+    
+    /**
+     * Whether any archived order was last updated in [from, to)
+     */
+    boolean existsByUpdatedAtGreaterThanEqualAndUpdatedAtLessThan(LocalDateTime from, LocalDateTime to);
+    
+    /**
+     * Copy orders from the hot table, keeping their IDs
+     */
+    @Modifying
+    @Query(value = "INSERT INTO orders_archive " +
+                   "(id, order_number, user_id, merchant_id, total_amount, status, created_at, updated_at, archived_at) " +
+                   "SELECT id, order_number, user_id, merchant_id, total_amount, status, created_at, updated_at, :archivedAt " +
+                   "FROM orders WHERE id IN (:ids)",
+           nativeQuery = true)
+    int copyFromOrders(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+    
+    @Modifying
+    @Query("DELETE FROM ArchivedOrder a WHERE a.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,55 @@
+package com.trading.repository;
+
+import com.trading.entity.ArchivedTransactionRecord;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedTransactionRecordRepository extends JpaRepository<ArchivedTransactionRecord, Long> {
+    
+    Page<ArchivedTransactionRecord> findByAccountTypeAndAccountId(String accountType, Long accountId, Pageable pageable);
+    
+    long countByAccountTypeAndAccountId(String accountType, Long accountId);
+    
+    Slice<ArchivedTransactionRecord> findSliceByAccountTypeAndAccountId(String accountType, Long accountId, Pageable pageable);
+    
+    /**
+     * IDs of archived transactions created in [from, to), in ID order
+     */
+    @Query("SELECT t.id FROM ArchivedTransactionRecord t WHERE t.createdAt >= :from AND t.createdAt < :to ORDER BY t.id")
+    List<Long> findIdsCreatedBetween(@Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to,
+                                     Pageable pageable);
+    
+    /**
+     * Whether any archived transaction was created in [from, to)
+     */
+    boolean existsByCreatedAtGreaterThanEqualAndCreatedAtLessThan(LocalDateTime from, LocalDateTime to);
+    
+    /**
+     * Copy transactions from the hot table, keeping their IDs
+     */
+    @Modifying
+    @Query(value = "INSERT INTO transaction_records_archive " +
+                   "(id, transaction_id, account_type, account_id, type, amount, balance_before, balance_after, " +
+                   "related_order_id, created_at, archived_at) " +
+                   "SELECT id, transaction_id, account_type, account_id, type, amount, balance_before, balance_after, " +
+                   "related_order_id, created_at, :archivedAt " +
+                   "FROM transaction_records WHERE id IN (:ids)",
+           nativeQuery = true)
+    int copyFromTransactionRecords(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+    
+    @Modifying
+    @Query("DELETE FROM ArchivedTransactionRecord t WHERE t.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -3,12 +3,14 @@ package com.trading.repository;
 import com.trading.entity.Inventory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,22 +19,43 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     
     Optional<Inventory> findBySku(String sku);
     
+    /**
+     * 批量按SKU查询库存，不存在的SKU不返回
+     */
+    List<Inventory> findBySkuIn(Collection<String> skus);
+    
     boolean existsBySku(String sku);
     
     Page<Inventory> findByMerchantId(Long merchantId, Pageable pageable);
     
     List<Inventory> findByMerchantId(Long merchantId);
     
+    /**
+     * 分片查询：多读一行判断是否有下一页，不执行COUNT查询
+     */
+    Slice<Inventory> findSliceByMerchantId(Long merchantId, Pageable pageable);
+    
+    Slice<Inventory> findSliceBy(Pageable pageable);
+    
+    long countByMerchantId(Long merchantId);
+    
     Optional<Inventory> findByMerchantIdAndSku(Long merchantId, String sku);
     
     List<Inventory> findByProductId(Long productId);
     
+    long countByMerchantIdAndQuantityLessThanEqual(Long merchantId, Integer quantity);
+    
     @Query("SELECT MIN(i.price) FROM Inventory i WHERE i.productId = :productId AND i.quantity > 0")
     Optional<BigDecimal> findMinPriceByProductId(@Param("productId") Long productId);
     
     @Query("SELECT MAX(i.price) FROM Inventory i WHERE i.productId = :productId AND i.quantity > 0")
     Optional<BigDecimal> findMaxPriceByProductId(@Param("productId") Long productId);
     
-    @Query("SELECT MIN(i.price), MAX(i.price) FROM Inventory i WHERE i.productId IN :productIds AND i.quantity > 0 GROUP BY i.productId")
-    List<Object[]> findPriceRangesByProductIds(@Param("productIds") List<Long> productIds);
+    /**
+     * 批量查询商品的在售价格区间
+     * 每行为[商品ID, 最低价, 最高价]，没有在售SKU的商品不返回
+     */
+    @Query("SELECT i.productId, MIN(i.price), MAX(i.price) FROM Inventory i " +
+           "WHERE i.productId IN :productIds AND i.quantity > 0 GROUP BY i.productId")
+    List<Object[]> findPriceRangesByProductIds(@Param("productIds") Collection<Long> productIds);
 }
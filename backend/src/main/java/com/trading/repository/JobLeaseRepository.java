@@ -0,0 +1,61 @@
+package com.trading.repository;
+
+import com.trading.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, Long> {
+    
+    List<JobLease> findAllByOrderByJobName();
+    
+    boolean existsByJobName(String jobName);
+    
+    /**
+     * Take over an existing lease row for a new tick.
+     * Succeeds when the previous holder finished a different tick, when the
+     * previous run of the tick failed (lastError set), or when the previous
+     * holder's lease expired without completing (the node died).
+     * A tick that completed successfully is never run again.
+     */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.holder = :holder, l.tick = :tick, l.acquiredAt = :now, " +
+           "l.expiresAt = :expiresAt, l.completedAt = NULL, l.lastError = NULL " +
+           "WHERE l.jobName = :jobName AND (" +
+           "(l.completedAt IS NULL AND l.expiresAt < :now) OR " +
+           "(l.completedAt IS NOT NULL AND (l.tick <> :tick OR l.lastError IS NOT NULL)))")
+    int acquire(@Param("jobName") String jobName,
+                @Param("holder") String holder,
+                @Param("tick") String tick,
+                @Param("now") LocalDateTime now,
+                @Param("expiresAt") LocalDateTime expiresAt);
+    
+    /**
+     * Extend a lease still held by the given node
+     */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.expiresAt = :expiresAt " +
+           "WHERE l.jobName = :jobName AND l.holder = :holder AND l.tick = :tick AND l.completedAt IS NULL")
+    int renew(@Param("jobName") String jobName,
+              @Param("holder") String holder,
+              @Param("tick") String tick,
+              @Param("expiresAt") LocalDateTime expiresAt);
+    
+    /**
+     * Mark the tick as finished so it is not picked up again
+     */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.completedAt = :now, l.expiresAt = :now, l.lastError = :error " +
+           "WHERE l.jobName = :jobName AND l.holder = :holder AND l.tick = :tick AND l.completedAt IS NULL")
+    int complete(@Param("jobName") String jobName,
+                 @Param("holder") String holder,
+                 @Param("tick") String tick,
+                 @Param("now") LocalDateTime now,
+                 @Param("error") String error);
+}
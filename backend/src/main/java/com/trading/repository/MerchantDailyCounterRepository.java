@@ -0,0 +1,40 @@
+package com.trading.repository;
+
+import com.trading.entity.MerchantDailyCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface MerchantDailyCounterRepository extends JpaRepository<MerchantDailyCounter, Long> {
+    
+    /**
+     * All slot rows of a merchant's counter for the given day
+     */
+    List<MerchantDailyCounter> findByMerchantIdAndCounterDate(Long merchantId, LocalDate counterDate);
+    
+    /**
+     * Atomically add deltas to one slot row of a merchant's counter for the given day.
+     * Returns the number of rows updated (0 when the row does not exist yet).
+     */
+    @Modifying
+    @Query("UPDATE MerchantDailyCounter c SET " +
+           "c.salesAmount = c.salesAmount + :sales, " +
+           "c.refundAmount = c.refundAmount + :refunds, " +
+           "c.ledgerCredits = c.ledgerCredits + :credits, " +
+           "c.ledgerDebits = c.ledgerDebits + :debits " +
+           "WHERE c.merchantId = :merchantId AND c.counterDate = :counterDate AND c.slot = :slot")
+    int increment(@Param("merchantId") Long merchantId,
+                  @Param("counterDate") LocalDate counterDate,
+                  @Param("slot") int slot,
+                  @Param("sales") BigDecimal sales,
+                  @Param("refunds") BigDecimal refunds,
+                  @Param("credits") BigDecimal credits,
+                  @Param("debits") BigDecimal debits);
+}
@@ -2,8 +2,11 @@ package com.trading.repository;
 
 import com.trading.entity.Merchant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +15,13 @@ public interface MerchantRepository extends JpaRepository<Merchant, Long> {
     Optional<Merchant> findByUsername(String username);
     
     boolean existsByUsername(String username);
+    
+    @Query("SELECT m.id FROM Merchant m ORDER BY m.id")
+    List<Long> findAllIds();
+    
+    @Query("SELECT m.id FROM Merchant m WHERE m.id BETWEEN :fromId AND :toId ORDER BY m.id")
+    List<Long> findIdsBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Query("SELECT m.id FROM Merchant m WHERE m.id > :afterId ORDER BY m.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId);
 }
@@ -2,12 +2,31 @@ package com.trading.repository;
 
 import com.trading.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     
     List<OrderItem> findByOrderId(Long orderId);
+    
+    /**
+     * Copy the items of the given orders back from the archive table, keeping their IDs
+     */
+    @Modifying
+    @Query(value = "INSERT INTO order_items " +
+                   "(id, order_id, sku, product_name, quantity, unit_price, subtotal) " +
+                   "SELECT id, order_id, sku, product_name, quantity, unit_price, subtotal " +
+                   "FROM order_items_archive WHERE order_id IN (:orderIds)",
+           nativeQuery = true)
+    int copyFromArchive(@Param("orderIds") Collection<Long> orderIds);
+    
+    @Modifying
+    @Query("DELETE FROM OrderItem i WHERE i.order.id IN :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
 }
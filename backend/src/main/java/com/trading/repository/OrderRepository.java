@@ -2,16 +2,24 @@ package com.trading.repository;
 
 import com.trading.entity.Order;
 import com.trading.enums.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -22,8 +30,28 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     Page<Order> findByMerchantIdAndStatus(Long merchantId, OrderStatus status, Pageable pageable);
     
+    /**
+     * Slice variants read one row past the page instead of running a COUNT query
+     */
+    Slice<Order> findSliceByUserId(Long userId, Pageable pageable);
+    
+    Slice<Order> findSliceByMerchantId(Long merchantId, Pageable pageable);
+    
+    Slice<Order> findSliceByMerchantIdAndStatus(Long merchantId, OrderStatus status, Pageable pageable);
+    
+    long countByUserId(Long userId);
+    
+    long countByMerchantId(Long merchantId);
+    
     Long countByMerchantIdAndStatus(Long merchantId, OrderStatus status);
     
+    /**
+     * Count a merchant's orders per status in a single scan.
+     * Rows are [status, count].
+     */
+    @Query("SELECT o.status, COUNT(o) FROM Order o WHERE o.merchantId = :merchantId GROUP BY o.status")
+    List<Object[]> countByMerchantIdGroupByStatus(@Param("merchantId") Long merchantId);
+    
     Optional<Order> findByOrderNumber(String orderNumber);
     
     List<Order> findByMerchantIdAndStatus(Long merchantId, OrderStatus status);
@@ -35,4 +63,60 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
             @Param("status") OrderStatus status,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
+    
+    /**
+     * Sum order amounts per merchant and status over the range [startDate, endDate) in a single scan.
+     * Rows are [merchantId, status, sum(totalAmount)].
+     */
+    @Query("SELECT o.merchantId, o.status, SUM(o.totalAmount) FROM Order o " +
+           "WHERE o.status IN :statuses AND o.updatedAt >= :startDate AND o.updatedAt < :endDate " +
+           "GROUP BY o.merchantId, o.status")
+    List<Object[]> sumAmountByMerchantAndStatus(
+            @Param("statuses") Collection<OrderStatus> statuses,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+    
+    /**
+     * Stream a merchant's orders in the given statuses over a time range, ordered by ID.
+     * Rows are read-only projections so the persistence context does not grow while streaming.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT o.id AS id, o.orderNumber AS orderNumber, o.status AS status, o.totalAmount AS totalAmount " +
+           "FROM Order o WHERE o.merchantId = :merchantId AND o.status IN :statuses " +
+           "AND o.updatedAt >= :startDate AND o.updatedAt < :endDate ORDER BY o.id")
+    Stream<OrderAmountView> streamByMerchantIdAndStatusInAndDateRange(
+            @Param("merchantId") Long merchantId,
+            @Param("statuses") Collection<OrderStatus> statuses,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+    
+    /**
+     * IDs of orders in the given statuses last updated before the cutoff, in ID order
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.status IN :statuses AND o.updatedAt < :cutoff ORDER BY o.id")
+    List<Long> findArchivableIds(@Param("statuses") Collection<OrderStatus> statuses,
+                                 @Param("cutoff") LocalDateTime cutoff,
+                                 Pageable pageable);
+    
+    /**
+     * Copy orders back from the archive table, keeping their IDs
+     */
+    @Modifying
+    @Query(value = "INSERT INTO orders " +
+                   "(id, order_number, user_id, merchant_id, total_amount, status, created_at, updated_at) " +
+                   "SELECT id, order_number, user_id, merchant_id, total_amount, status, created_at, updated_at " +
+                   "FROM orders_archive WHERE id IN (:ids)",
+           nativeQuery = true)
+    int copyFromArchive(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+    
+    interface OrderAmountView {
+        Long getId();
+        String getOrderNumber();
+        OrderStatus getStatus();
+        BigDecimal getTotalAmount();
+    }
 }
@@ -30,4 +30,13 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     Page<Product> searchByKeywordAndCategory(@Param("keyword") String keyword, 
                                               @Param("category") String category, 
                                               Pageable pageable);
+    
+    /**
+     * 商品及其库存的版本戳：商品版本号、库存行数、库存ID之和、库存版本号之和
+     * 任何库存的新增、删除、改价或扣减都会改变结果；商品不存在时返回空列表
+     */
+    @Query("SELECT p.version, COUNT(i.id), COALESCE(SUM(i.id), 0), COALESCE(SUM(i.version), 0) " +
+           "FROM Product p LEFT JOIN Inventory i ON i.productId = p.id " +
+           "WHERE p.id = :productId GROUP BY p.id, p.version")
+    List<Object[]> findVersionStamp(@Param("productId") Long productId);
 }
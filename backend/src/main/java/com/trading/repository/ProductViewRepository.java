@@ -0,0 +1,84 @@
+package com.trading.repository;
+
+import com.trading.entity.ProductView;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProductViewRepository extends JpaRepository<ProductView, Long> {
+
+    String KEYWORD_MATCH = "(LOWER(v.name) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
+                           "OR LOWER(v.description) LIKE LOWER(CONCAT('%', :keyword, '%')))";
+
+    Page<ProductView> findByMerchantId(Long merchantId, Pageable pageable);
+
+    Page<ProductView> findByCategory(String category, Pageable pageable);
+
+    @Query("SELECT v FROM ProductView v WHERE " + KEYWORD_MATCH)
+    Page<ProductView> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
+
+    @Query("SELECT v FROM ProductView v WHERE " + KEYWORD_MATCH + " AND v.category = :category")
+    Page<ProductView> searchByKeywordAndCategory(@Param("keyword") String keyword,
+                                                 @Param("category") String category,
+                                                 Pageable pageable);
+
+    /**
+     * 分片查询：多读一行判断是否有下一页，不执行COUNT查询
+     */
+    Slice<ProductView> findSliceByMerchantId(Long merchantId, Pageable pageable);
+
+    Slice<ProductView> findSliceByCategory(String category, Pageable pageable);
+
+    Slice<ProductView> findSliceBy(Pageable pageable);
+
+    @Query("SELECT v FROM ProductView v WHERE " + KEYWORD_MATCH)
+    Slice<ProductView> searchSliceByKeyword(@Param("keyword") String keyword, Pageable pageable);
+
+    @Query("SELECT v FROM ProductView v WHERE " + KEYWORD_MATCH + " AND v.category = :category")
+    Slice<ProductView> searchSliceByKeywordAndCategory(@Param("keyword") String keyword,
+                                                       @Param("category") String category,
+                                                       Pageable pageable);
+
+    long countByMerchantId(Long merchantId);
+
+    long countByCategory(String category);
+
+    @Query("SELECT COUNT(v) FROM ProductView v WHERE " + KEYWORD_MATCH)
+    long countByKeyword(@Param("keyword") String keyword);
+
+    @Query("SELECT COUNT(v) FROM ProductView v WHERE " + KEYWORD_MATCH + " AND v.category = :category")
+    long countByKeywordAndCategory(@Param("keyword") String keyword, @Param("category") String category);
+
+    /**
+     * 按ID顺序加锁读取读模型行，同一商品的并发刷新依次执行，后执行者读到先提交的写入
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM ProductView v WHERE v.id IN :ids ORDER BY v.id")
+    List<ProductView> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 商家改名或删除后批量更新其商品的商家名称
+     */
+    @Modifying
+    @Query("UPDATE ProductView v SET v.merchantName = :merchantName, v.version = v.version + 1 " +
+           "WHERE v.merchantId = :merchantId AND v.merchantName <> :merchantName")
+    int updateMerchantName(@Param("merchantId") Long merchantId, @Param("merchantName") String merchantName);
+
+    /**
+     * 删除商品已不存在的读模型行
+     */
+    @Modifying
+    @Query("DELETE FROM ProductView v WHERE NOT EXISTS (SELECT p.id FROM Product p WHERE p.id = v.id)")
+    int deleteOrphans();
+}
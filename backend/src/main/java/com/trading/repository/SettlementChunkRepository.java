@@ -0,0 +1,23 @@
+package com.trading.repository;
+
+import com.trading.entity.SettlementChunk;
+import com.trading.enums.SettlementChunkStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SettlementChunkRepository extends JpaRepository<SettlementChunk, Long> {
+    
+    /**
+     * Find all chunks of a run in processing order
+     */
+    List<SettlementChunk> findByRunIdOrderByChunkIndex(Long runId);
+    
+    /**
+     * Find chunks of a run that still need processing
+     */
+    List<SettlementChunk> findByRunIdAndStatusInOrderByChunkIndex(Long runId, Collection<SettlementChunkStatus> statuses);
+}
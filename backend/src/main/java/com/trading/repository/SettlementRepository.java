@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -26,4 +27,9 @@ public interface SettlementRepository extends JpaRepository<Settlement, Long> {
      * Check if settlement exists for merchant and date
      */
     boolean existsByMerchantIdAndSettlementDate(Long merchantId, LocalDate settlementDate);
+    
+    /**
+     * Find all settlements of one day
+     */
+    List<Settlement> findBySettlementDate(LocalDate settlementDate);
 }
@@ -0,0 +1,22 @@
+package com.trading.repository;
+
+import com.trading.entity.SettlementRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface SettlementRunRepository extends JpaRepository<SettlementRun, Long> {
+    
+    /**
+     * Find the most recent run for a settlement date
+     */
+    Optional<SettlementRun> findFirstBySettlementDateOrderByIdDesc(LocalDate settlementDate);
+    
+    /**
+     * Find the most recently started run
+     */
+    Optional<SettlementRun> findFirstByOrderByIdDesc();
+}
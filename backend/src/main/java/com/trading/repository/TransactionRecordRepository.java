@@ -2,19 +2,36 @@ package com.trading.repository;
 
 import com.trading.entity.TransactionRecord;
 import com.trading.enums.TransactionType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRecordRepository extends JpaRepository<TransactionRecord, Long> {
     
     Page<TransactionRecord> findByAccountTypeAndAccountId(String accountType, Long accountId, Pageable pageable);
     
+    /**
+     * Slice variant that reads one row past the page instead of running a COUNT query
+     */
+    Slice<TransactionRecord> findSliceByAccountTypeAndAccountId(String accountType, Long accountId, Pageable pageable);
+    
+    long countByAccountTypeAndAccountId(String accountType, Long accountId);
+    
     List<TransactionRecord> findByAccountTypeAndAccountIdAndCreatedAtBetween(
             String accountType, Long accountId, LocalDateTime start, LocalDateTime end);
     
@@ -26,4 +43,76 @@ public interface TransactionRecordRepository extends JpaRepository<TransactionRe
     List<TransactionRecord> findByAccountTypeAndAccountIdAndTypeAndCreatedAtBetween(
             String accountType, Long accountId, TransactionType type, 
             LocalDateTime start, LocalDateTime end);
+    
+    /**
+     * Sum transaction amounts per account and type over the range [start, end) in a single scan.
+     * Rows are [accountId, type, sum(amount)].
+     */
+    @Query("SELECT t.accountId, t.type, SUM(t.amount) FROM TransactionRecord t " +
+           "WHERE t.accountType = :accountType AND t.type IN :types " +
+           "AND t.createdAt >= :start AND t.createdAt < :end " +
+           "GROUP BY t.accountId, t.type")
+    List<Object[]> sumAmountByAccountAndType(
+            @Param("accountType") String accountType,
+            @Param("types") Collection<TransactionType> types,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+    
+    /**
+     * Stream an account's order-related transactions of the given types over a time range,
+     * ordered by related order ID
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT t.relatedOrderId AS relatedOrderId, t.type AS type, t.amount AS amount " +
+           "FROM TransactionRecord t WHERE t.accountType = :accountType AND t.accountId = :accountId " +
+           "AND t.type IN :types AND t.relatedOrderId IS NOT NULL " +
+           "AND t.createdAt BETWEEN :start AND :end ORDER BY t.relatedOrderId, t.id")
+    Stream<LedgerEntryView> streamOrderEntries(
+            @Param("accountType") String accountType,
+            @Param("accountId") Long accountId,
+            @Param("types") Collection<TransactionType> types,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+    
+    /**
+     * Sum transactions of the given type that are not linked to any order
+     */
+    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM TransactionRecord t " +
+           "WHERE t.accountType = :accountType AND t.accountId = :accountId AND t.type = :type " +
+           "AND t.relatedOrderId IS NULL AND t.createdAt BETWEEN :start AND :end")
+    BigDecimal sumUnlinkedAmount(
+            @Param("accountType") String accountType,
+            @Param("accountId") Long accountId,
+            @Param("type") TransactionType type,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+    
+    /**
+     * IDs of transactions created before the cutoff, in ID order
+     */
+    @Query("SELECT t.id FROM TransactionRecord t WHERE t.createdAt < :cutoff ORDER BY t.id")
+    List<Long> findIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    /**
+     * Copy transactions back from the archive table, keeping their IDs
+     */
+    @Modifying
+    @Query(value = "INSERT INTO transaction_records " +
+                   "(id, transaction_id, account_type, account_id, type, amount, balance_before, balance_after, " +
+                   "related_order_id, created_at) " +
+                   "SELECT id, transaction_id, account_type, account_id, type, amount, balance_before, balance_after, " +
+                   "related_order_id, created_at " +
+                   "FROM transaction_records_archive WHERE id IN (:ids)",
+           nativeQuery = true)
+    int copyFromArchive(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Query("DELETE FROM TransactionRecord t WHERE t.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+    
+    interface LedgerEntryView {
+        Long getRelatedOrderId();
+        TransactionType getType();
+        BigDecimal getAmount();
+    }
 }
@@ -0,0 +1,94 @@
+package com.trading.scheduler;
+
+import com.trading.dto.response.ArchiveReportResponse;
+import com.trading.exception.BusinessException;
+import com.trading.service.ArchiveService;
+import com.trading.service.JobLeaseService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Actuator endpoint for the hot/archive tiers of orders and ledger rows
+ * GET  /actuator/archive  - row counts per table and tier
+ * POST /actuator/archive  - move rows, body:
+ *      {"direction":"archive"}                                         archive rows older than the max age
+ *      {"direction":"archive","to":"2024-01-01"}                       archive rows older than the given time
+ *      {"direction":"restore","from":"2023-06-01","to":"2023-07-01"}   restore rows of a time range
+ * ADMIN role only; writes run under the archive job lease
+ */
+@Component
+@Endpoint(id = "archive")
+@RequiredArgsConstructor
+public class ArchiveEndpoint {
+
+    private final ArchiveService archiveService;
+    private final JobLeaseService jobLeaseService;
+
+    /**
+     * Current row counts of each tier
+     */
+    @ReadOperation
+    public Map<String, Map<String, Long>> tiers() {
+        return archiveService.getTierCounts();
+    }
+
+    /**
+     * Archive or restore rows; runs synchronously under the archive job's lease, so it
+     * never overlaps the scheduled run on any node, and returns the moved row counts
+     */
+    @WriteOperation
+    public ArchiveReportResponse move(String direction, @Nullable String from, @Nullable String to) {
+        Supplier<ArchiveReportResponse> move = switch (direction) {
+            case "archive" -> {
+                LocalDateTime cutoff = to != null ? parse(to) : null;
+                yield () -> cutoff == null ? archiveService.archive() : archiveService.archive(cutoff);
+            }
+            case "restore" -> {
+                if (from == null || to == null) {
+                    throw new InvalidEndpointRequestException("Restore needs from and to",
+                            "Restore needs from and to");
+                }
+                LocalDateTime start = parse(from);
+                LocalDateTime end = parse(to);
+                yield () -> archiveService.restore(start, end);
+            }
+            default -> throw new InvalidEndpointRequestException("Unknown direction: " + direction,
+                    "Direction must be archive or restore");
+        };
+
+        AtomicReference<ArchiveReportResponse> report = new AtomicReference<>();
+        boolean ran;
+        try {
+            ran = jobLeaseService.runExclusively(ArchiveScheduler.ARCHIVE_JOB,
+                    "manual-" + direction + "-" + LocalDateTime.now(), () -> report.set(move.get()));
+        } catch (BusinessException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+        if (!ran) {
+            throw new InvalidEndpointRequestException("Archive job is running on another node",
+                    "The archive job is running; retry once it has finished");
+        }
+        return report.get();
+    }
+
+    private LocalDateTime parse(String value) {
+        try {
+            return value.length() == 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidEndpointRequestException("Invalid date: " + value,
+                    "Dates must be ISO-8601 (yyyy-MM-dd or yyyy-MM-ddTHH:mm:ss)");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.trading.scheduler;
+
+import com.trading.config.ArchiveProperties;
+import com.trading.service.ArchiveService;
+import com.trading.service.JobLeaseService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Moves finished orders and old ledger rows to the archive tables once a day.
+ * Schedule configured via trading.archive.cron (default: "0 30 3 * * ?"); only the
+ * node that wins the job lease for the day runs it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ArchiveScheduler {
+
+    static final String ARCHIVE_JOB = "hot-cold-archive";
+
+    private final ArchiveService archiveService;
+    private final JobLeaseService jobLeaseService;
+    private final ArchiveProperties archiveProperties;
+
+    @Scheduled(cron = "${trading.archive.cron:0 30 3 * * ?}")
+    public void runArchive() {
+        if (!archiveProperties.isEnabled()) {
+            return;
+        }
+        try {
+            jobLeaseService.runExclusively(ARCHIVE_JOB, LocalDate.now().toString(), archiveService::archive);
+        } catch (Exception e) {
+            log.error("Scheduled archive job failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.trading.scheduler;
+
+import com.trading.service.CatalogCacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint showing this node's catalog cache statistics
+ * GET /actuator/catalogcache
+ */
+@Component
+@Endpoint(id = "catalogcache")
+@RequiredArgsConstructor
+public class CatalogCacheEndpoint {
+
+    private final CatalogCacheService catalogCacheService;
+
+    /**
+     * Size, hits, misses and evictions of each cache
+     */
+    @ReadOperation
+    public Map<String, Map<String, Object>> stats() {
+        return catalogCacheService.getStats();
+    }
+}
@@ -0,0 +1,57 @@
+package com.trading.scheduler;
+
+import com.trading.service.CatalogCacheService;
+import com.trading.service.JobLeaseService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Keeps the node-local catalog caches in step with writes made on other nodes.
+ * Every node polls the cache invalidation table; purging old rows runs on a
+ * single node per hour through the job lease.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogCacheScheduler {
+
+    static final String PURGE_JOB = "cache-invalidation-purge";
+
+    private final CatalogCacheService catalogCacheService;
+    private final JobLeaseService jobLeaseService;
+
+    /**
+     * Poll the cache invalidation table
+     * Interval configured via trading.catalog-cache.poll-interval (default: 5000ms)
+     */
+    @Scheduled(fixedDelayString = "${trading.catalog-cache.poll-interval:5000}")
+    public void pollInvalidations() {
+        try {
+            int applied = catalogCacheService.refreshFromStore();
+            if (applied > 0) {
+                log.debug("Applied {} cache invalidations from other nodes", applied);
+            }
+        } catch (Exception e) {
+            log.warn("Polling cache invalidations failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Delete invalidation rows older than the retention period
+     * Schedule configured via trading.catalog-cache.purge-cron (default: "0 15 * * * ?")
+     */
+    @Scheduled(cron = "${trading.catalog-cache.purge-cron:0 15 * * * ?}")
+    public void purgeInvalidations() {
+        String tick = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).toString();
+        try {
+            jobLeaseService.runExclusively(PURGE_JOB, tick, catalogCacheService::purgeExpired);
+        } catch (Exception e) {
+            log.error("Purging cache invalidations failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.trading.scheduler;
+
+import com.trading.dto.response.JobLeaseResponse;
+import com.trading.service.JobLeaseService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint showing which node holds each scheduled job's lease
+ * GET /actuator/jobleases
+ */
+@Component
+@Endpoint(id = "jobleases")
+@RequiredArgsConstructor
+public class JobLeaseEndpoint {
+
+    private final JobLeaseService jobLeaseService;
+
+    /**
+     * This node's ID and the state of every job lease
+     */
+    @ReadOperation
+    public Map<String, Object> leases() {
+        List<JobLeaseResponse> leases = jobLeaseService.getLeases();
+        return Map.of("nodeId", jobLeaseService.getNodeId(), "leases", leases);
+    }
+}
@@ -0,0 +1,36 @@
+package com.trading.scheduler;
+
+import com.trading.service.MerchantStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reconciles the in-memory merchant dashboard counters with the database.
+ * Runs on every node, since each node keeps its own counters.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MerchantStatsScheduler {
+
+    private final MerchantStatsService merchantStatsService;
+
+    /**
+     * Recompute cached merchant counters
+     * Interval configured via trading.merchant-stats.reconcile-interval (default: 600000ms)
+     */
+    @Scheduled(fixedDelayString = "${trading.merchant-stats.reconcile-interval:600000}",
+            initialDelayString = "${trading.merchant-stats.reconcile-interval:600000}")
+    public void reconcile() {
+        try {
+            int drifted = merchantStatsService.reconcile();
+            if (drifted > 0) {
+                log.info("Corrected stats of {} merchants during reconciliation", drifted);
+            }
+        } catch (Exception e) {
+            log.warn("Reconciling merchant stats failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.trading.scheduler;
+
+import com.trading.service.JobLeaseService;
+import com.trading.service.ProductViewService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Periodic consistency check of the product read model against the product,
+ * inventory and merchant tables. The read model is shared, so the check runs
+ * on a single node per hour through the job lease. An empty read model is
+ * filled on startup rather than serving an empty catalog until the first check.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductViewScheduler {
+
+    static final String VERIFY_JOB = "product-view-verify";
+    static final String BACKFILL_JOB = "product-view-backfill";
+
+    private final ProductViewService productViewService;
+    private final JobLeaseService jobLeaseService;
+
+    /**
+     * Repair stale, missing and orphaned read model rows
+     * Schedule configured via trading.product-view.verify-cron (default: "0 30 * * * ?")
+     */
+    @Scheduled(cron = "${trading.product-view.verify-cron:0 30 * * * ?}")
+    public void verify() {
+        String tick = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).toString();
+        try {
+            jobLeaseService.runExclusively(VERIFY_JOB, tick, () -> {
+                int repaired = productViewService.verify();
+                if (repaired > 0) {
+                    log.warn("Product view consistency check repaired {} rows", repaired);
+                }
+            });
+        } catch (Exception e) {
+            log.error("Product view consistency check failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Build the read model if it is empty once the application is ready;
+     * nodes starting together leave it to the one that takes the lease
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        String tick = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).toString();
+        try {
+            jobLeaseService.runExclusively(BACKFILL_JOB, tick, productViewService::backfill);
+        } catch (Exception e) {
+            log.error("Product view backfill failed: {}", e.getMessage(), e);
+        }
+    }
+}
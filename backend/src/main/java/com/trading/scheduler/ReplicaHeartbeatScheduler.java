@@ -0,0 +1,93 @@
+package com.trading.scheduler;
+
+import com.trading.datasource.ReplicaLag;
+import com.trading.datasource.ReplicaPools;
+import com.trading.service.JobLeaseService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Measures replication lag of the read replica.
+ * Each run stamps this node's heartbeat row on the primary and reads it back from
+ * the replica; the difference is the lag used to decide whether read-only
+ * transactions may go to the replica. Every node has its own row, keyed by the
+ * job lease node id, so nodes never overwrite each other's beat. Runs only when
+ * replicas are enabled.
+ */
+@Component
+@ConditionalOnProperty(prefix = "trading.datasource.replica", name = "enabled", havingValue = "true")
+@Slf4j
+public class ReplicaHeartbeatScheduler {
+
+    /**
+     * Rows of nodes that stopped beating this long ago are removed when a node writes its first beat
+     */
+    static final Duration ABANDONED_AFTER = Duration.ofDays(1);
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final ReplicaLag replicaLag;
+    private final JobLeaseService jobLeaseService;
+
+    public ReplicaHeartbeatScheduler(ReplicaPools replicaPools, ReplicaLag replicaLag, JobLeaseService jobLeaseService) {
+        this.primary = new JdbcTemplate(replicaPools.getPrimary());
+        this.replica = new JdbcTemplate(replicaPools.getReplica());
+        this.replicaLag = replicaLag;
+        this.jobLeaseService = jobLeaseService;
+    }
+
+    /**
+     * Write a heartbeat and measure the replica's lag behind it
+     * Interval configured via trading.datasource.replica.heartbeat-interval (default: 1000ms)
+     */
+    @Scheduled(fixedDelayString = "${trading.datasource.replica.heartbeat-interval:1000}")
+    public void heartbeat() {
+        try {
+            beat(System.currentTimeMillis());
+        } catch (Exception e) {
+            log.warn("Writing the replica heartbeat failed: {}", e.getMessage());
+        }
+        measure();
+    }
+
+    /**
+     * Stamp this node's heartbeat row on the primary
+     */
+    void beat(long nowMillis) {
+        String nodeId = jobLeaseService.getNodeId();
+        int updated = primary.update("UPDATE replica_heartbeat SET beat_at_millis = ? WHERE node_id = ?",
+                nowMillis, nodeId);
+        if (updated == 0) {
+            primary.update("DELETE FROM replica_heartbeat WHERE beat_at_millis < ?",
+                    nowMillis - ABANDONED_AFTER.toMillis());
+            primary.update("INSERT INTO replica_heartbeat (node_id, beat_at_millis) VALUES (?, ?)",
+                    nodeId, nowMillis);
+        }
+    }
+
+    /**
+     * Read this node's heartbeat back from the replica; an unreachable replica or a
+     * missing row leaves the lag unknown so reads stay on the primary
+     */
+    void measure() {
+        try {
+            List<Long> beats = replica.queryForList("SELECT beat_at_millis FROM replica_heartbeat WHERE node_id = ?",
+                    Long.class, jobLeaseService.getNodeId());
+            if (beats.isEmpty() || beats.get(0) == null) {
+                replicaLag.unknown();
+                return;
+            }
+            Duration lag = Duration.ofMillis(System.currentTimeMillis() - beats.get(0));
+            replicaLag.update(lag);
+        } catch (Exception e) {
+            log.warn("Measuring replica lag failed: {}", e.getMessage());
+            replicaLag.unknown();
+        }
+    }
+}
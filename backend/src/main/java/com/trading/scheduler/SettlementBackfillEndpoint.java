@@ -0,0 +1,70 @@
+package com.trading.scheduler;
+
+import com.trading.dto.request.SettlementBackfillRequest;
+import com.trading.dto.response.SettlementBackfillProgressResponse;
+import com.trading.exception.BusinessException;
+import com.trading.service.SettlementBackfillService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+/**
+ * Actuator endpoint for re-settling date ranges after an incident
+ * GET  /actuator/settlementbackfill  - progress and mismatch summary of the latest backfill
+ * POST /actuator/settlementbackfill  - start a backfill, body:
+ *      {"startDate":"2024-01-01","endDate":"2024-01-31","merchantIds":[1,2],"force":true,"parallelism":4}
+ * Both dates are inclusive; each day covers [00:00, next day 00:00). ADMIN role only
+ */
+@Component
+@Endpoint(id = "settlementbackfill")
+@RequiredArgsConstructor
+public class SettlementBackfillEndpoint {
+
+    private final SettlementBackfillService settlementBackfillService;
+
+    /**
+     * Progress of the most recent backfill
+     * @return progress, or null (404) if no backfill has been started
+     */
+    @ReadOperation
+    public SettlementBackfillProgressResponse progress() {
+        return settlementBackfillService.getProgress();
+    }
+
+    /**
+     * Start a backfill; it runs in the background, poll the read operation for progress
+     */
+    @WriteOperation
+    public SettlementBackfillProgressResponse start(String startDate, String endDate,
+                                                    @Nullable Long[] merchantIds,
+                                                    @Nullable Boolean force,
+                                                    @Nullable Integer parallelism) {
+        try {
+            return settlementBackfillService.start(SettlementBackfillRequest.builder()
+                    .startDate(parseDate(startDate))
+                    .endDate(parseDate(endDate))
+                    .merchantIds(merchantIds != null ? Arrays.asList(merchantIds) : null)
+                    .force(Boolean.TRUE.equals(force))
+                    .parallelism(parallelism)
+                    .build());
+        } catch (BusinessException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+
+    private LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidEndpointRequestException("Invalid date: " + value, "Dates must be ISO-8601 (yyyy-MM-dd)");
+        }
+    }
+}
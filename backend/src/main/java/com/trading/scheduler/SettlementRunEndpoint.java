@@ -0,0 +1,29 @@
+package com.trading.scheduler;
+
+import com.trading.dto.response.SettlementRunProgressResponse;
+import com.trading.service.SettlementService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint exposing progress of the current settlement run
+ * GET /actuator/settlement
+ */
+@Component
+@Endpoint(id = "settlement")
+@RequiredArgsConstructor
+public class SettlementRunEndpoint {
+
+    private final SettlementService settlementService;
+
+    /**
+     * Progress, throughput and chunk failures of the most recent settlement run
+     * @return progress, or null (404) if no run has been started
+     */
+    @ReadOperation
+    public SettlementRunProgressResponse progress() {
+        return settlementService.getRunProgress();
+    }
+}
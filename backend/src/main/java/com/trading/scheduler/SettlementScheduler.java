@@ -1,22 +1,32 @@
 package com.trading.scheduler;
 
+import com.trading.service.JobLeaseService;
 import com.trading.service.SettlementService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
+
 /**
  * Scheduler for running daily settlement jobs
  * The schedule can be configured via application.yml using:
  * trading.settlement.cron property (default: "0 0 0 * * ?")
+ * When several nodes share a database, the cron fires on each of them but only
+ * the node that wins the job lease for the settlement date runs the job.
+ * A settlement date whose run failed, or whose node died mid-run, is retried on
+ * trading.settlement.retry-cron until it completes.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class SettlementScheduler {
 
+    static final String DAILY_SETTLEMENT_JOB = "daily-settlement";
+
     private final SettlementService settlementService;
+    private final JobLeaseService jobLeaseService;
 
     /**
      * Run daily settlement job
@@ -25,12 +35,38 @@ public class SettlementScheduler {
      */
     @Scheduled(cron = "${trading.settlement.cron:0 0 0 * * ?}")
     public void runDailySettlement() {
-        log.info("Starting scheduled daily settlement job");
+        String tick = LocalDate.now().minusDays(1).toString();
+        log.info("Starting scheduled daily settlement job for {}", tick);
+        settle(tick);
+    }
+
+    /**
+     * Resume the most recent settlement date if its run failed or its node stopped
+     * without completing it; only unfinished chunks are settled again
+     */
+    @Scheduled(cron = "${trading.settlement.retry-cron:0 */15 * * * ?}")
+    public void retryFailedSettlement() {
+        jobLeaseService.getLeases().stream()
+                .filter(lease -> DAILY_SETTLEMENT_JOB.equals(lease.getJobName()))
+                .filter(lease -> !lease.isActive())
+                .filter(lease -> lease.getLastError() != null || lease.getCompletedAt() == null)
+                .findFirst()
+                .ifPresent(lease -> {
+                    log.warn("Retrying daily settlement for {} (last error: {})", lease.getTick(), lease.getLastError());
+                    settle(lease.getTick());
+                });
+    }
+
+    private void settle(String tick) {
         try {
-            settlementService.runDailySettlement();
-            log.info("Scheduled daily settlement job completed successfully");
+            boolean ran = jobLeaseService.runExclusively(DAILY_SETTLEMENT_JOB, tick,
+                    () -> settlementService.runDailySettlement(LocalDate.parse(tick),
+                            () -> jobLeaseService.renew(DAILY_SETTLEMENT_JOB, tick)));
+            if (ran) {
+                log.info("Scheduled daily settlement job for {} completed successfully", tick);
+            }
         } catch (Exception e) {
-            log.error("Scheduled daily settlement job failed: {}", e.getMessage(), e);
+            log.error("Scheduled daily settlement job for {} failed: {}", tick, e.getMessage(), e);
         }
     }
 }
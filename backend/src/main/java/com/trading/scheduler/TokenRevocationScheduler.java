@@ -0,0 +1,57 @@
+package com.trading.scheduler;
+
+import com.trading.service.JobLeaseService;
+import com.trading.service.TokenRevocationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Keeps the in-memory token revocation set in sync with the revocation table.
+ * Every node polls for revocations recorded by other nodes; purging expired
+ * rows runs on a single node per hour through the job lease.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationScheduler {
+
+    static final String PURGE_JOB = "revoked-token-purge";
+
+    private final TokenRevocationService tokenRevocationService;
+    private final JobLeaseService jobLeaseService;
+
+    /**
+     * Poll the revocation table
+     * Interval configured via trading.security.jwt.revocation.poll-interval (default: 5000ms)
+     */
+    @Scheduled(fixedDelayString = "${trading.security.jwt.revocation.poll-interval:5000}")
+    public void pollRevocations() {
+        try {
+            int read = tokenRevocationService.refreshFromStore();
+            if (read > 0) {
+                log.debug("Read {} token revocations from the revocation table", read);
+            }
+        } catch (Exception e) {
+            log.warn("Polling token revocations failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Delete revocations of tokens that have expired
+     * Schedule configured via trading.security.jwt.revocation.purge-cron (default: "0 5 * * * ?")
+     */
+    @Scheduled(cron = "${trading.security.jwt.revocation.purge-cron:0 5 * * * ?}")
+    public void purgeExpiredRevocations() {
+        String tick = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).toString();
+        try {
+            jobLeaseService.runExclusively(PURGE_JOB, tick, tokenRevocationService::purgeExpired);
+        } catch (Exception e) {
+            log.error("Purging expired token revocations failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.trading.dto.response.ApiResponse;
 import com.trading.exception.InvalidTokenException;
 import com.trading.exception.MissingTokenException;
 import com.trading.exception.TokenExpiredException;
+import com.trading.service.TokenRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,7 +23,6 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -38,6 +38,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtUtil jwtUtil;
     private final ObjectMapper objectMapper;
+    private final TokenRevocationService tokenRevocationService;
     
     // 不需要认证的公开端点
     private static final List<String> PUBLIC_ENDPOINTS = Arrays.asList(
@@ -71,10 +72,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 if (token != null) {
                     try {
                         // 如果token存在且有效，设置认证上下文
-                        if (jwtUtil.validateToken(token)) {
-                            setAuthenticationContext(token, request);
-                            logSuccessfulAuthentication(request, jwtUtil.extractUsername(token), jwtUtil.extractMerchantId(token));
-                        }
+                        VerifiedToken verified = jwtUtil.verify(token);
+                        tokenRevocationService.checkNotRevoked(verified);
+                        setAuthenticationContext(verified, request);
+                        logSuccessfulAuthentication(request, verified.username(), verified.merchantId());
                     } catch (Exception e) {
                         // 对于公开端点，token验证失败不影响访问，只记录日志
                         log.debug("Token validation failed for public endpoint, continuing without authentication: {}", e.getMessage());
@@ -94,12 +95,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 throw new MissingTokenException();
             }
             
-            // 验证令牌并设置认证上下文
-            if (jwtUtil.validateToken(token)) {
-                setAuthenticationContext(token, request);
-                // 记录成功的认证事件
-                logSuccessfulAuthentication(request, jwtUtil.extractUsername(token), jwtUtil.extractMerchantId(token));
-            }
+            // 验证令牌并设置认证上下文（令牌只解析验签一次）
+            VerifiedToken verified = jwtUtil.verify(token);
+            // 已登出或已吊销的令牌在过期前同样拒绝（内存查找，不访问数据库）
+            tokenRevocationService.checkNotRevoked(verified);
+            setAuthenticationContext(verified, request);
+            // 记录成功的认证事件
+            logSuccessfulAuthentication(request, verified.username(), verified.merchantId());
             
             // 继续过滤器链
             filterChain.doFilter(request, response);
@@ -138,15 +140,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     /**
      * 设置Spring Security认证上下文
      * 
-     * @param token JWT令牌
+     * @param verified 已验证的令牌
      * @param request HTTP请求
      */
-    private void setAuthenticationContext(String token, HttpServletRequest request) {
+    private void setAuthenticationContext(VerifiedToken verified, HttpServletRequest request) {
         try {
             // 从令牌中提取用户信息
-            String username = jwtUtil.extractUsername(token);
-            Long merchantId = jwtUtil.extractMerchantId(token);
-            String role = jwtUtil.extractRole(token);
+            String username = verified.username();
+            Long merchantId = verified.merchantId();
+            String role = verified.role();
+            if (merchantId == null) {
+                throw new InvalidTokenException("Merchant ID not found in token");
+            }
             
             log.debug("Setting authentication context for user: {} (ID: {}, Role: {})", username, merchantId, role);
             
@@ -154,7 +159,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             UserDetails userDetails = User.builder()
                 .username(username)
                 .password("") // JWT认证不需要密码
-                .authorities(new ArrayList<>()) // 暂时不设置权限，后续可扩展
+                .authorities("ROLE_" + role) // 角色映射为ROLE_前缀权限，供管理端点的hasRole("ADMIN")规则使用
                 .build();
             
             // 创建认证令牌
@@ -263,17 +268,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      * @return 客户端IP地址
      */
     private String getClientIpAddress(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty() && !"unknown".equalsIgnoreCase(xForwardedFor)) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-        
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty() && !"unknown".equalsIgnoreCase(xRealIp)) {
-            return xRealIp;
-        }
-        
-        return request.getRemoteAddr();
+        return SecurityContextUtil.getClientIpAddress(request);
     }
     
     /**
@@ -1,11 +1,15 @@
 package com.trading.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.trading.config.JwtProperties;
 import com.trading.exception.InvalidTokenException;
 import com.trading.exception.TokenExpiredException;
+import com.trading.monitoring.jfr.JwtValidationEvent;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
+import io.jsonwebtoken.security.SignatureException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -13,18 +17,93 @@ import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
  * JWT工具类
  * 提供JWT令牌的生成、验证和解析功能
+ * 签名密钥和解析器在构造时创建一次；verify()对每个令牌只解析验签一次，
+ * 并将验证结果缓存到令牌过期为止
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class JwtUtil {
     
     private final JwtProperties jwtProperties;
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+    
+    public JwtUtil(JwtProperties jwtProperties) {
+        this.jwtProperties = jwtProperties;
+        this.signingKey = Keys.hmacShaKeyFor(jwtProperties.getSecretKey().getBytes());
+        this.jwtParser = Jwts.parser().verifyWith(signingKey).build();
+        
+        Integer cacheSize = jwtProperties.getVerifiedTokenCacheSize();
+        this.verifiedTokens = cacheSize != null && cacheSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(cacheSize)
+                        .expireAfter(new TokenExpiry())
+                        .build()
+                : null;
+    }
+    
+    /**
+     * 解析并验证令牌，一次得到全部声明
+     * 已验证过且未过期的令牌直接从缓存返回，不再解析和验签
+     * 
+     * @param token JWT令牌
+     * @return 验证结果
+     * @throws InvalidTokenException 令牌无效时抛出
+     * @throws TokenExpiredException 令牌过期时抛出
+     */
+    public VerifiedToken verify(String token) {
+        JwtValidationEvent event = new JwtValidationEvent();
+        event.begin();
+        event.outcome = "invalid";
+        try {
+            if (verifiedTokens != null && token != null) {
+                VerifiedToken cached = verifiedTokens.getIfPresent(token);
+                if (cached != null) {
+                    event.cached = true;
+                    if (!cached.isExpired()) {
+                        event.outcome = "valid";
+                        return cached;
+                    }
+                    verifiedTokens.invalidate(token);
+                    throw new TokenExpiredException();
+                }
+            }
+
+            VerifiedToken verified = toVerifiedToken(parseClaims(token));
+            if (verifiedTokens != null) {
+                verifiedTokens.put(token, verified);
+            }
+            event.outcome = "valid";
+            return verified;
+        } catch (TokenExpiredException e) {
+            event.outcome = "expired";
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+    
+    /**
+     * 只查询已验证令牌缓存，不解析、不验签
+     * 
+     * @param token JWT令牌
+     * @return 缓存中未过期的验证结果，没有时返回null
+     */
+    public VerifiedToken peekVerified(String token) {
+        if (verifiedTokens == null || token == null) {
+            return null;
+        }
+        VerifiedToken cached = verifiedTokens.getIfPresent(token);
+        return cached != null && !cached.isExpired() ? cached : null;
+    }
     
     /**
      * 生成JWT令牌
@@ -61,9 +140,7 @@ public class JwtUtil {
      * @return 角色
      */
     public String extractRole(String token) {
-        Claims claims = extractAllClaims(token);
-        Object roleObj = claims.get("role");
-        return roleObj != null ? roleObj.toString() : "MERCHANT";
+        return verify(token).role();
     }
     
     /**
@@ -75,28 +152,8 @@ public class JwtUtil {
      * @throws TokenExpiredException 令牌过期时抛出
      */
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token);
-            return true;
-        } catch (ExpiredJwtException e) {
-            log.warn("JWT token expired: {}", e.getMessage());
-            throw new TokenExpiredException();
-        } catch (UnsupportedJwtException e) {
-            log.warn("JWT token unsupported: {}", e.getMessage());
-            throw new InvalidTokenException("Unsupported JWT token");
-        } catch (MalformedJwtException e) {
-            log.warn("JWT token malformed: {}", e.getMessage());
-            throw new InvalidTokenException("Malformed JWT token");
-        } catch (SecurityException e) {
-            log.warn("JWT token signature invalid: {}", e.getMessage());
-            throw new InvalidTokenException("Invalid JWT signature");
-        } catch (IllegalArgumentException e) {
-            log.warn("JWT token illegal argument: {}", e.getMessage());
-            throw new InvalidTokenException("JWT token compact of handler are invalid");
-        }
+        verify(token);
+        return true;
     }
     
     /**
@@ -106,21 +163,11 @@ public class JwtUtil {
      * @return 商家ID
      */
     public Long extractMerchantId(String token) {
-        Claims claims = extractAllClaims(token);
-        Object merchantIdObj = claims.get("merchantId");
-        
-        if (merchantIdObj == null) {
+        Long merchantId = verify(token).merchantId();
+        if (merchantId == null) {
             throw new InvalidTokenException("Merchant ID not found in token");
         }
-        
-        // Handle both Integer and Long types
-        if (merchantIdObj instanceof Integer) {
-            return ((Integer) merchantIdObj).longValue();
-        } else if (merchantIdObj instanceof Long) {
-            return (Long) merchantIdObj;
-        } else {
-            throw new InvalidTokenException("Invalid merchant ID format in token");
-        }
+        return merchantId;
     }
     
     /**
@@ -130,7 +177,7 @@ public class JwtUtil {
      * @return 用户名
      */
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).username();
     }
     
     /**
@@ -140,7 +187,7 @@ public class JwtUtil {
      * @return 过期时间
      */
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return verify(token).expiration();
     }
     
     /**
@@ -179,21 +226,69 @@ public class JwtUtil {
      * @return 所有声明
      */
     private Claims extractAllClaims(String token) {
+        return parseClaims(token);
+    }
+    
+    /**
+     * 解析令牌并验证签名和有效期
+     * 
+     * @param token JWT令牌
+     * @return 所有声明
+     */
+    private Claims parseClaims(String token) {
         try {
-            return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+            return jwtParser.parseSignedClaims(token).getPayload();
         } catch (ExpiredJwtException e) {
             log.warn("JWT token expired: {}", e.getMessage());
             throw new TokenExpiredException();
-        } catch (Exception e) {
-            log.warn("Error extracting claims from token: {}", e.getMessage());
+        } catch (UnsupportedJwtException e) {
+            log.warn("JWT token unsupported: {}", e.getMessage());
+            throw new InvalidTokenException("Unsupported JWT token");
+        } catch (MalformedJwtException e) {
+            log.warn("JWT token malformed: {}", e.getMessage());
+            throw new InvalidTokenException("Malformed JWT token");
+        } catch (SignatureException e) {
+            log.warn("JWT token signature invalid: {}", e.getMessage());
+            throw new InvalidTokenException("Invalid JWT signature");
+        } catch (IllegalArgumentException e) {
+            log.warn("JWT token illegal argument: {}", e.getMessage());
+            throw new InvalidTokenException("JWT token compact of handler are invalid");
+        } catch (JwtException e) {
+            log.warn("Error parsing JWT token: {}", e.getMessage());
             throw new InvalidTokenException("Invalid JWT token");
         }
     }
     
+    /**
+     * 将声明转换为验证结果
+     * 
+     * @param claims 已验签的声明
+     * @return 验证结果
+     */
+    private VerifiedToken toVerifiedToken(Claims claims) {
+        Object merchantIdObj = claims.get("merchantId");
+        Long merchantId;
+        // Handle both Integer and Long types
+        if (merchantIdObj == null) {
+            merchantId = null;
+        } else if (merchantIdObj instanceof Integer) {
+            merchantId = ((Integer) merchantIdObj).longValue();
+        } else if (merchantIdObj instanceof Long) {
+            merchantId = (Long) merchantIdObj;
+        } else {
+            throw new InvalidTokenException("Invalid merchant ID format in token");
+        }
+        
+        Object roleObj = claims.get("role");
+        return new VerifiedToken(
+                claims.getId(),
+                claims.getSubject(),
+                merchantId,
+                roleObj != null ? roleObj.toString() : "MERCHANT",
+                claims.getIssuedAt(),
+                claims.getExpiration());
+    }
+    
     /**
      * 创建JWT令牌
      * 
@@ -207,21 +302,37 @@ public class JwtUtil {
         
         return Jwts.builder()
             .claims(claims)
+            .id(UUID.randomUUID().toString())
             .subject(subject)
             .issuer(jwtProperties.getIssuer())
             .issuedAt(now)
             .expiration(expiration)
-            .signWith(getSigningKey())
+            .signWith(signingKey)
             .compact();
     }
     
     /**
-     * 获取签名密钥
-     * 
-     * @return 签名密钥
+     * 缓存条目在令牌过期时失效
      */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtProperties.getSecretKey().getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static class TokenExpiry implements Expiry<String, VerifiedToken> {
+        
+        @Override
+        public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+            if (verified.expiration() == null) {
+                return Long.MAX_VALUE;
+            }
+            long remainingMillis = verified.expiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+        
+        @Override
+        public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+        
+        @Override
+        public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
@@ -16,14 +16,19 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import jakarta.servlet.http.HttpServletRequest;
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 商家授权切面
- * 实现AOP切面，拦截带有@RequireMerchantOwnership注解的方法
- * 验证当前认证商家是否有权访问请求的资源
+ * 实现AOP切面，拦截带有@RequireMerchantOwnership或@RequireUserOwnership注解的方法
+ * 验证当前认证商家（或用户）是否有权访问请求的资源
+ * 
+ * 每个方法的注解设置和路径参数位置只在首次调用时通过反射解析一次并缓存，
+ * 之后每次调用只需读取参数数组中的一个元素并比较
  * 
  * Requirements: 2.4, 2.6, 3.5
  */
@@ -33,8 +38,16 @@ import java.lang.reflect.Parameter;
 @RequiredArgsConstructor
 public class MerchantAuthorizationAspect {
     
+    private static final Set<String> MERCHANT_ID_PARAMETERS = Set.of("id", "merchantId");
+    private static final Set<String> USER_ID_PARAMETERS = Set.of("id", "userId");
+    
     private final AuthenticationService authenticationService;
     
+    /**
+     * 方法 -> 预先解析的授权元数据
+     */
+    private final Map<Method, OwnershipMetadata> metadataCache = new ConcurrentHashMap<>();
+    
     /**
      * 在执行带有@RequireMerchantOwnership注解的方法之前进行商家所有权检查
      * 
@@ -44,9 +57,7 @@ public class MerchantAuthorizationAspect {
      */
     @Before("@annotation(RequireMerchantOwnership)")
     public void checkMerchantOwnership(JoinPoint joinPoint) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        RequireMerchantOwnership annotation = method.getAnnotation(RequireMerchantOwnership.class);
+        OwnershipMetadata metadata = getMetadata(joinPoint);
         
         // 获取当前认证的商家ID
         Long currentMerchantId;
@@ -58,24 +69,18 @@ public class MerchantAuthorizationAspect {
         }
         
         // 从方法参数中提取商家ID
-        Long requestedMerchantId = extractMerchantIdFromArgs(joinPoint);
-        
+        Long requestedMerchantId = metadata.extractId(joinPoint.getArgs());
         if (requestedMerchantId == null) {
-            log.warn("Could not extract merchant ID from method arguments for method: {}", 
-                    method.getName());
             return; // 如果无法提取商家ID，跳过检查
         }
         
         // 验证商家ID是否匹配
         if (!currentMerchantId.equals(requestedMerchantId)) {
-            String resourceDescription = annotation.value().isEmpty() ? 
-                method.getName() : annotation.value();
-            
             log.warn("Merchant access denied: current={}, requested={}, resource={}", 
-                    currentMerchantId, requestedMerchantId, resourceDescription);
+                    currentMerchantId, requestedMerchantId, metadata.resource());
             
             // 记录安全事件
-            if (annotation.logAccess()) {
+            if (metadata.logAccess()) {
                 auditSecurityEvent("MERCHANT_MISMATCH", currentMerchantId, 
                     String.format("Attempted to access merchant %d resources", requestedMerchantId));
             }
@@ -84,11 +89,59 @@ public class MerchantAuthorizationAspect {
         }
         
         // 记录成功的访问（如果启用了日志记录）
-        if (annotation.logAccess()) {
-            String resourceDescription = annotation.value().isEmpty() ? 
-                method.getName() : annotation.value();
+        if (metadata.logAccess()) {
             log.debug("Merchant access granted: merchantId={}, resource={}", 
-                    currentMerchantId, resourceDescription);
+                    currentMerchantId, metadata.resource());
+        }
+    }
+    
+    /**
+     * 在执行带有@RequireUserOwnership注解的方法之前进行用户所有权检查
+     * 只有ID与路径中用户ID一致的用户令牌或管理员令牌才能访问
+     * 
+     * @param joinPoint 连接点
+     * @throws UnauthorizedAccessException 当用户未认证或用户ID不匹配时
+     */
+    @Before("@annotation(RequireUserOwnership)")
+    public void checkUserOwnership(JoinPoint joinPoint) {
+        OwnershipMetadata metadata = getMetadata(joinPoint);
+        
+        if (!SecurityContextUtil.isAuthenticated()) {
+            throw new UnauthorizedAccessException("Authentication required");
+        }
+        
+        // 从方法参数中提取用户ID
+        Long requestedUserId = metadata.extractId(joinPoint.getArgs());
+        if (requestedUserId == null) {
+            return; // 如果无法提取用户ID，跳过检查
+        }
+        
+        // 管理员可以访问所有用户资源
+        if (SecurityContextUtil.isAdmin()) {
+            return;
+        }
+        
+        // 商家不能访问用户资源
+        if (!SecurityContextUtil.isUser()) {
+            throw new UnauthorizedAccessException("Access denied: Merchants cannot access user resources");
+        }
+        
+        // 普通用户只能访问自己的资源（用户令牌中保存的是负的用户ID）
+        Long currentUserId = SecurityContextUtil.getCurrentUserId();
+        if (!currentUserId.equals(requestedUserId)) {
+            log.warn("User access denied: current={}, requested={}, resource={}", 
+                    currentUserId, requestedUserId, metadata.resource());
+            
+            if (metadata.logAccess()) {
+                auditSecurityEvent("USER_MISMATCH", null, 
+                    String.format("User %d attempted to access user %d resources", currentUserId, requestedUserId));
+            }
+            
+            throw new UnauthorizedAccessException("Access denied: Users can only access their own resources");
+        }
+        
+        if (metadata.logAccess()) {
+            log.debug("User access granted: userId={}, resource={}", currentUserId, metadata.resource());
         }
     }
     
@@ -117,49 +170,115 @@ public class MerchantAuthorizationAspect {
     }
     
     /**
-     * 从方法参数中提取商家ID
-     * 查找带有@PathVariable注解且名称为"id"或"merchantId"的参数
+     * 获取方法的授权元数据，首次调用时解析并缓存
      * 
      * @param joinPoint 连接点
-     * @return 提取到的商家ID，如果未找到则返回null
+     * @return 授权元数据
+     */
+    private OwnershipMetadata getMetadata(JoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        OwnershipMetadata metadata = metadataCache.get(method);
+        if (metadata == null) {
+            metadata = metadataCache.computeIfAbsent(method, OwnershipMetadata::resolve);
+        }
+        return metadata;
+    }
+    
+    /**
+     * 预先解析的方法授权元数据
+     * 
+     * @param parameterIndex 作为资源所有者ID的@PathVariable参数位置，-1表示未找到
+     * @param resource 资源描述，用于日志记录
+     * @param logAccess 是否记录访问日志
      */
-    private Long extractMerchantIdFromArgs(JoinPoint joinPoint) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        Parameter[] parameters = method.getParameters();
-        Object[] args = joinPoint.getArgs();
-        
-        for (int i = 0; i < parameters.length; i++) {
-            Parameter parameter = parameters[i];
+    record OwnershipMetadata(int parameterIndex, String resource, boolean logAccess) {
+        
+        /**
+         * 通过反射解析方法上的注解和路径参数
+         * 商家资源查找名称为"id"或"merchantId"的@PathVariable参数，
+         * 用户资源查找名称为"id"或"userId"的@PathVariable参数
+         * 
+         * @param method 被拦截的方法
+         * @return 授权元数据
+         */
+        static OwnershipMetadata resolve(Method method) {
+            RequireMerchantOwnership merchantOwnership = method.getAnnotation(RequireMerchantOwnership.class);
+            String description;
+            boolean logAccess;
+            Set<String> idParameters;
+            if (merchantOwnership != null) {
+                description = merchantOwnership.value();
+                logAccess = merchantOwnership.logAccess();
+                idParameters = MERCHANT_ID_PARAMETERS;
+            } else {
+                RequireUserOwnership userOwnership = method.getAnnotation(RequireUserOwnership.class);
+                description = userOwnership != null ? userOwnership.value() : "";
+                logAccess = userOwnership == null || userOwnership.logAccess();
+                idParameters = USER_ID_PARAMETERS;
+            }
             
-            // 检查是否有@PathVariable注解
-            PathVariable pathVariable = parameter.getAnnotation(PathVariable.class);
-            if (pathVariable != null) {
-                String paramName = pathVariable.value().isEmpty() ? 
-                    pathVariable.name() : pathVariable.value();
-                
-                // 如果参数名为空，使用参数的实际名称
-                if (paramName.isEmpty()) {
-                    paramName = parameter.getName();
-                }
+            int parameterIndex = findIdParameter(method, idParameters);
+            if (parameterIndex < 0) {
+                log.warn("Could not find owner ID path variable on method: {}, ownership check will be skipped", 
+                        method.getName());
+            }
+            return new OwnershipMetadata(parameterIndex, 
+                    description.isEmpty() ? method.getName() : description, logAccess);
+        }
+        
+        /**
+         * 查找名称在指定集合中的@PathVariable参数
+         * 
+         * @param method 方法
+         * @param names 可接受的参数名称
+         * @return 参数位置，未找到时返回-1
+         */
+        private static int findIdParameter(Method method, Set<String> names) {
+            Parameter[] parameters = method.getParameters();
+            for (int i = 0; i < parameters.length; i++) {
+                Parameter parameter = parameters[i];
                 
-                // 检查参数名是否为商家ID相关的名称
-                if ("id".equals(paramName) || "merchantId".equals(paramName)) {
-                    Object arg = args[i];
-                    if (arg instanceof Long) {
-                        return (Long) arg;
-                    } else if (arg instanceof String) {
-                        try {
-                            return Long.parseLong((String) arg);
-                        } catch (NumberFormatException e) {
-                            log.warn("Failed to parse merchant ID from string: {}", arg);
-                        }
+                // 检查是否有@PathVariable注解
+                PathVariable pathVariable = parameter.getAnnotation(PathVariable.class);
+                if (pathVariable != null) {
+                    String paramName = pathVariable.value().isEmpty() ? 
+                        pathVariable.name() : pathVariable.value();
+                    
+                    // 如果参数名为空，使用参数的实际名称
+                    if (paramName.isEmpty()) {
+                        paramName = parameter.getName();
+                    }
+                    
+                    if (names.contains(paramName)) {
+                        return i;
                     }
                 }
             }
+            return -1;
         }
         
-        return null;
+        /**
+         * 从调用参数中取出所有者ID
+         * 
+         * @param args 方法调用参数
+         * @return 所有者ID，如果无法提取则返回null
+         */
+        Long extractId(Object[] args) {
+            if (parameterIndex < 0) {
+                return null;
+            }
+            Object arg = args[parameterIndex];
+            if (arg instanceof Long id) {
+                return id;
+            } else if (arg instanceof String value) {
+                try {
+                    return Long.parseLong(value);
+                } catch (NumberFormatException e) {
+                    log.warn("Failed to parse owner ID from string: {}", value);
+                }
+            }
+            return null;
+        }
     }
     
     /**
@@ -0,0 +1,166 @@
+package com.trading.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.config.SecurityProperties;
+import com.trading.dto.response.ApiResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按客户端限流的过滤器
+ * 位于安全过滤器链前部（JWT认证之前），超限请求在JWT解析、JPA和JSON序列化之前直接返回429和Retry-After
+ * 
+ * 限流键：令牌已在已验证令牌缓存中时按认证主体限流（同一出口IP后的多个用户互不影响），
+ * 否则按连接的对端地址限流（不信任客户端自带的转发头）；每个端点分组有独立的令牌桶和上限
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String LIMITED_MESSAGE = "Too many requests, please retry later";
+
+    private final JwtUtil jwtUtil;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final List<LimitedGroup> groups = new ArrayList<>();
+
+    public RateLimitFilter(SecurityProperties securityProperties,
+                           JwtUtil jwtUtil,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.objectMapper = objectMapper;
+
+        SecurityProperties.RateLimitConfig config = securityProperties.getRateLimit();
+        this.enabled = config.getEnabled();
+        List<SecurityProperties.EndpointGroup> endpointGroups = config.getGroups();
+        if (endpointGroups == null || endpointGroups.isEmpty()) {
+            // 默认：所有API共用一个分组
+            SecurityProperties.EndpointGroup defaultGroup = new SecurityProperties.EndpointGroup();
+            defaultGroup.setName("default");
+            defaultGroup.setPatterns(List.of("/api/**"));
+            endpointGroups = List.of(defaultGroup);
+        }
+
+        for (SecurityProperties.EndpointGroup group : endpointGroups) {
+            int capacity = group.getCapacity() != null ? group.getCapacity() : config.getRequestsPerMinute();
+            Duration refillPeriod = group.getCapacity() != null ? group.getRefillPeriod() : Duration.ofMinutes(1);
+            LimitedGroup limited = new LimitedGroup(
+                    group.getName(),
+                    group.getPatterns().stream().map(PathPatternParser.defaultInstance::parse).toList(),
+                    new TokenBucketLimiter(capacity, refillPeriod, config.getMaxTrackedClients(), refillPeriod),
+                    Counter.builder("rate.limit.rejected")
+                            .description("Requests rejected with 429 by the rate limit filter")
+                            .tag("group", group.getName())
+                            .register(meterRegistry));
+            Gauge.builder("rate.limit.tracked.clients", limited.limiter(), TokenBucketLimiter::trackedKeys)
+                    .description("Clients with a live token bucket")
+                    .tag("group", group.getName())
+                    .register(meterRegistry);
+            groups.add(limited);
+        }
+
+        if (enabled) {
+            log.info("Rate limiting enabled for endpoint groups: {}", groups.stream().map(LimitedGroup::name).toList());
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        LimitedGroup group = findGroup(request);
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String clientKey = resolveClientKey(request);
+        long wait = group.limiter().tryAcquire(clientKey);
+        if (wait > 0) {
+            group.rejected().increment();
+            log.debug("Rate limit exceeded: group={}, client={}", group.name(), clientKey);
+            sendTooManyRequests(response, TokenBucketLimiter.toRetryAfterSeconds(wait));
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * 查找请求路径所属的端点分组
+     * 
+     * @param request HTTP请求
+     * @return 第一个匹配的分组，未匹配时返回null
+     */
+    private LimitedGroup findGroup(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        PathContainer pathContainer = PathContainer.parsePath(path);
+        for (LimitedGroup group : groups) {
+            for (PathPattern pattern : group.patterns()) {
+                if (pattern.matches(pathContainer)) {
+                    return group;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 确定限流键
+     * 只查询已验证令牌缓存，不在此处解析令牌；伪造或未验证过的令牌按IP限流
+     * 
+     * @param request HTTP请求
+     * @return 限流键
+     */
+    private String resolveClientKey(HttpServletRequest request) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            VerifiedToken verified = jwtUtil.peekVerified(authorization.substring(BEARER_PREFIX.length()));
+            if (verified != null && verified.merchantId() != null) {
+                // 用户令牌中的ID为负数，与商家ID不会冲突
+                return "principal:" + verified.merchantId();
+            }
+        }
+        return "ip:" + SecurityContextUtil.getClientIpAddress(request);
+    }
+
+    private void sendTooManyRequests(HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write(objectMapper.writeValueAsString(ApiResponse.error(429, LIMITED_MESSAGE)));
+        response.getWriter().flush();
+    }
+
+    private record LimitedGroup(String name, List<PathPattern> patterns, TokenBucketLimiter limiter, Counter rejected) {
+    }
+}
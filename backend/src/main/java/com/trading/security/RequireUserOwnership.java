@@ -0,0 +1,27 @@
+package com.trading.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 自定义注解，用于标记需要用户所有权验证的方法
+ * 当方法被此注解标记时，系统会验证当前认证的用户是否就是路径中的用户（如 /users/{userId}/cart）
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequireUserOwnership {
+
+    /**
+     * 可选的资源描述，用于日志记录和错误消息
+     * @return 资源描述
+     */
+    String value() default "";
+
+    /**
+     * 是否记录访问日志
+     * @return true表示记录访问日志，false表示不记录
+     */
+    boolean logAccess() default true;
+}
@@ -1,10 +1,14 @@
 package com.trading.security;
 
 import com.trading.exception.UnauthorizedAccessException;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 /**
  * 安全上下文工具类
@@ -213,4 +217,30 @@ public class SecurityContextUtil {
         SecurityContextHolder.clearContext();
         log.debug("Security context cleared");
     }
-}
\ No newline at end of file
+    
+    /**
+     * 获取客户端IP地址，用作限流和准入控制的键
+     * 只使用连接的对端地址，不读取客户端可任意设置的X-Forwarded-For/X-Real-IP；
+     * 反向代理后的真实地址由容器根据server.forward-headers-strategy和受信代理列表
+     * （server.tomcat.remoteip.internal-proxies）改写到remoteAddr
+     * 
+     * @param request HTTP请求
+     * @return 客户端IP地址
+     */
+    public static String getClientIpAddress(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+    
+    /**
+     * 获取当前请求的客户端IP地址
+     * 
+     * @return 客户端IP地址，不在HTTP请求线程中时返回null
+     */
+    public static String getCurrentClientIp() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            return getClientIpAddress(servletAttributes.getRequest());
+        }
+        return null;
+    }
+}
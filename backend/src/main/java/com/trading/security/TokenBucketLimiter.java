@@ -0,0 +1,83 @@
+package com.trading.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 按键（用户名、客户端IP等）分别限流的令牌桶
+ * 每个桶只有一个AtomicLong（GCRA算法中的理论到达时间），通过CAS无锁更新；
+ * 桶存放在有容量上限的Caffeine缓存中，空闲的桶自动淘汰，键的数量再多内存也有上界
+ */
+public class TokenBucketLimiter {
+    
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final LongSupplier nanoClock;
+    private final Cache<String, AtomicLong> buckets;
+    
+    /**
+     * @param capacity 桶容量，即允许的突发请求数
+     * @param refillPeriod 空桶完全补满所需时间
+     * @param maxKeys 同时跟踪的最大键数
+     * @param idleTimeout 桶空闲多久后淘汰（不短于refillPeriod，淘汰时桶已补满）
+     */
+    public TokenBucketLimiter(int capacity, Duration refillPeriod, long maxKeys, Duration idleTimeout) {
+        this(capacity, refillPeriod, maxKeys, idleTimeout, System::nanoTime);
+    }
+    
+    TokenBucketLimiter(int capacity, Duration refillPeriod, long maxKeys, Duration idleTimeout,
+                       LongSupplier nanoClock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Token bucket capacity must be at least 1");
+        }
+        this.emissionIntervalNanos = Math.max(1, refillPeriod.toNanos() / capacity);
+        this.burstNanos = emissionIntervalNanos * capacity;
+        this.nanoClock = nanoClock;
+        long idleNanos = Math.max(idleTimeout.toNanos(), refillPeriod.toNanos());
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleNanos, TimeUnit.NANOSECONDS)
+                .build();
+    }
+    
+    /**
+     * 尝试从键对应的桶中取一个令牌
+     * 
+     * @param key 限流键
+     * @return 0表示允许；否则为下一个令牌可用前需要等待的纳秒数
+     */
+    public long tryAcquire(String key) {
+        AtomicLong arrival = buckets.get(key, k -> new AtomicLong(nanoClock.getAsLong()));
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long current = arrival.get();
+            long next = Math.max(current, now) + emissionIntervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+    
+    /**
+     * 当前跟踪的键数（近似值）
+     */
+    public long trackedKeys() {
+        return buckets.estimatedSize();
+    }
+    
+    /**
+     * 将等待纳秒数换算为Retry-After秒数（向上取整，至少1秒）
+     */
+    public static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,24 @@
+package com.trading.security;
+
+import java.util.Date;
+
+/**
+ * 已验证的JWT令牌
+ * 一次解析并验签后得到的全部声明，供同一请求内多次读取
+ *
+ * @param tokenId 令牌ID（jti），用于吊销；旧令牌可能为空
+ * @param username 用户名（subject）
+ * @param merchantId 商家ID（用户令牌为负的用户ID），可能为空
+ * @param role 角色，缺省为MERCHANT
+ * @param issuedAt 签发时间
+ * @param expiration 过期时间
+ */
+public record VerifiedToken(String tokenId, String username, Long merchantId, String role, Date issuedAt, Date expiration) {
+    
+    /**
+     * 令牌是否已过期
+     */
+    public boolean isExpired() {
+        return expiration != null && expiration.getTime() <= System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,19 @@
+package com.trading.service;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Node-local cache of list totals for slice endpoints that ask for one.
+ * A total is counted on first request and reused until it expires, so it may
+ * lag behind the rows actually present by up to the configured TTL.
+ */
+public interface ApproximateCountService {
+
+    /**
+     * Cached total for the key, counted with the given query on a miss
+     * @param key identifies the list, e.g. "orders:user:42"
+     * @param count exact count query
+     * @return total as of the last count
+     */
+    long get(String key, LongSupplier count);
+}
@@ -0,0 +1,58 @@
+package com.trading.service;
+
+import com.trading.dto.response.ArchiveReportResponse;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Hot/cold tiering of orders and ledger rows.
+ * Orders that reached a final status (COMPLETED, REFUNDED, CANCELLED), with their
+ * items, and transaction records move to the *_archive tables once they are older
+ * than trading.archive.max-age. History reads continue into the archive tables;
+ * settlement, backfill and reconciliation scans read the hot tables only and refuse
+ * days with archived rows (see {@link #checkNotArchived}) until they are restored.
+ */
+public interface ArchiveService {
+    
+    /**
+     * Archive rows older than the configured max age
+     * @return moved row counts
+     */
+    ArchiveReportResponse archive();
+    
+    /**
+     * Archive finished orders last updated before the cutoff and transactions created before it.
+     * Rows move in batches of trading.archive.batch-size, one transaction per batch, keeping their IDs.
+     * @param cutoff rows older than this are archived
+     * @return moved row counts
+     */
+    ArchiveReportResponse archive(LocalDateTime cutoff);
+    
+    /**
+     * Move archived orders last updated in [from, to) and archived transactions created
+     * in [from, to) back to the hot tables, e.g. before re-running a settlement backfill.
+     * Rows still older than the max age are archived again by the next scheduled run.
+     * @param from start of the range (inclusive)
+     * @param to end of the range (exclusive)
+     * @return moved row counts
+     */
+    ArchiveReportResponse restore(LocalDateTime from, LocalDateTime to);
+    
+    /**
+     * Check that no order last updated and no transaction created on the given days is
+     * archived, before the hot tables are scanned for those days
+     * @param from first day (inclusive)
+     * @param to last day (inclusive)
+     * @throws com.trading.exception.InvalidOperationException if rows of these days are archived,
+     *         naming the restore request that brings them back
+     */
+    void checkNotArchived(LocalDate from, LocalDate to);
+    
+    /**
+     * Count the rows of each table in each tier and refresh the archive.rows gauges
+     * @return table -> (tier -> rows)
+     */
+    Map<String, Map<String, Long>> getTierCounts();
+}
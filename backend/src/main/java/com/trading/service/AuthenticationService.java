@@ -35,6 +35,14 @@ public interface AuthenticationService {
      */
     boolean validateToken(String token);
     
+    /**
+     * 登出
+     * 吊销令牌，使其在过期前即失效；无效令牌忽略
+     * 
+     * @param token JWT令牌
+     */
+    void logout(String token);
+    
     /**
      * 获取当前认证的商家信息
      * 
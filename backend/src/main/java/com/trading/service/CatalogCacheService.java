@@ -0,0 +1,86 @@
+package com.trading.service;
+
+import com.trading.dto.response.InventoryResponse;
+import com.trading.dto.response.ProductResponse;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Node-local caches of catalog reads: product details, merchant display names
+ * and inventory by SKU. Entries are bounded in size and expire after a TTL.
+ * Writers report what they changed; the entries are evicted on this node once
+ * the transaction commits, and an invalidation row written in the same
+ * transaction lets every other node evict them on its next poll. Repeated changes
+ * of the same entry within one transaction write one row and evict once.
+ */
+public interface CatalogCacheService {
+
+    /**
+     * Cached product details, loaded with the given loader on a miss
+     * @param productId product ID
+     * @param loader loads the product; exceptions propagate and nothing is cached
+     * @return product response
+     */
+    ProductResponse getProduct(Long productId, Function<Long, ProductResponse> loader);
+
+    /**
+     * Cached merchant display name, loaded with the given loader on a miss
+     * @param merchantId merchant ID
+     * @param loader loads the display name
+     * @return display name
+     */
+    String getMerchantName(Long merchantId, Function<Long, String> loader);
+
+    /**
+     * Cached inventory of a SKU, loaded with the given loader on a miss
+     * @param sku SKU code
+     * @param loader loads the inventory; exceptions propagate and nothing is cached
+     * @return inventory response
+     */
+    InventoryResponse getInventory(String sku, Function<String, InventoryResponse> loader);
+
+    /**
+     * A product's details changed; also evicts its SKUs, which carry the product name
+     * @param productId product ID
+     */
+    void productChanged(Long productId);
+
+    /**
+     * A merchant's display name changed; also evicts the merchant's products
+     * @param merchantId merchant ID
+     */
+    void merchantChanged(Long merchantId);
+
+    /**
+     * A SKU's price, stock or product changed
+     * @param sku SKU code
+     */
+    void inventoryChanged(String sku);
+
+    /**
+     * A SKU's stock changed through an order. Only this node's entry is evicted, after
+     * commit; other nodes keep serving theirs until the inventory TTL expires, so the
+     * order path writes no invalidation rows.
+     * @param sku SKU code
+     */
+    void stockChanged(String sku);
+
+    /**
+     * Evict entries invalidated by other nodes since the last poll
+     * @return number of invalidations read
+     */
+    int refreshFromStore();
+
+    /**
+     * Delete invalidation rows older than the retention period
+     * @return number of rows deleted
+     */
+    int purgeExpired();
+
+    /**
+     * Size, hit, miss and eviction statistics of each cache
+     * @return cache name to statistics
+     */
+    Map<String, Map<String, Object>> getStats();
+}
@@ -0,0 +1,28 @@
+package com.trading.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dumps of the JVM's flight recordings. The business JFR events (order creation,
+ * payment, inventory conflicts, merchant settlement, JWT validation) are recorded
+ * by whatever recording is running: one started with -XX:StartFlightRecording or
+ * the in-process continuous recording enabled by trading.flight-recording.continuous.
+ */
+public interface FlightRecordingService {
+
+    /**
+     * Recordings currently known to the flight recorder
+     * @return id, name, state, start time, size and retention of each recording
+     */
+    List<Map<String, Object>> getRecordings();
+
+    /**
+     * Write a snapshot of the running recordings to a .jfr file in the dump directory,
+     * deleting older dumps beyond trading.flight-recording.retained-dumps.
+     * Analyze the file offline with com.trading.monitoring.jfr.JfrAnalyzer.
+     * @return file path and size
+     * @throws com.trading.exception.InvalidOperationException if no recording is running
+     */
+    Map<String, Object> dump();
+}
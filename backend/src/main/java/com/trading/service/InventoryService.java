@@ -5,6 +5,7 @@ import com.trading.dto.request.PriceUpdateRequest;
 import com.trading.dto.response.InventoryResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public interface InventoryService {
     
@@ -48,6 +49,29 @@ public interface InventoryService {
      */
     Page<InventoryResponse> getAll(Pageable pageable);
     
+    /**
+     * Get a slice of a merchant's inventory without counting it
+     * Reads one row past the page to tell whether another follows
+     * @param merchantId merchant ID
+     * @param pageable pagination info
+     * @return slice of inventory items
+     */
+    Slice<InventoryResponse> getSliceByMerchant(Long merchantId, Pageable pageable);
+    
+    /**
+     * Get a slice of all inventory (for admin) without counting it
+     * @param pageable pagination info
+     * @return slice of inventory items
+     */
+    Slice<InventoryResponse> getSliceAll(Pageable pageable);
+    
+    /**
+     * Approximate number of a merchant's SKUs from a cached count
+     * @param merchantId merchant ID, or null for all merchants
+     * @return approximate total
+     */
+    long getApproximateCountByMerchant(Long merchantId);
+    
     /**
      * Get all inventory for a product
      * @param productId product ID
@@ -0,0 +1,46 @@
+package com.trading.service;
+
+import com.trading.dto.response.JobLeaseResponse;
+
+import java.util.List;
+
+/**
+ * Database-backed leases that make scheduled jobs run on a single node per tick
+ * when several backend nodes share one database.
+ */
+public interface JobLeaseService {
+    
+    /**
+     * Run a job on this node only if it wins the lease for the given tick.
+     * The tick identifies one scheduled execution (e.g. the settlement date), so
+     * every node whose cron fires for the same tick competes for one run, and a
+     * tick that already completed successfully is not run again; a tick whose task
+     * threw can be run again. The lease is renewed while the task runs; if the
+     * holder dies, another node can take over once it expires.
+     * @param jobName job identifier, one lease per job
+     * @param tick identifier of the scheduled execution
+     * @param task the job body
+     * @return true if this node held the lease and ran the task
+     */
+    boolean runExclusively(String jobName, String tick, Runnable task);
+    
+    /**
+     * Extend this node's lease on a running tick. Long jobs call this between units
+     * of work and stop when it returns false, so they never keep writing after
+     * another node has taken the tick over.
+     * @param jobName job identifier
+     * @param tick identifier of the scheduled execution
+     * @return true if this node still holds the lease
+     */
+    boolean renew(String jobName, String tick);
+    
+    /**
+     * ID of this node as recorded in lease holders
+     */
+    String getNodeId();
+    
+    /**
+     * Current state of all job leases
+     */
+    List<JobLeaseResponse> getLeases();
+}
@@ -0,0 +1,53 @@
+package com.trading.service;
+
+import com.trading.dto.response.MerchantStatsResponse;
+import com.trading.enums.OrderStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Per-merchant dashboard counters kept in memory.
+ * A merchant's counters are loaded from the database on first access and then
+ * maintained by the write paths (product creation, order status transitions,
+ * stock changes) after their transactions commit. Writes from other nodes, and
+ * writes that race with the initial load, are picked up by periodic reconciliation.
+ */
+public interface MerchantStatsService {
+
+    /**
+     * Current counters for a merchant, loading them from the database if not cached
+     * @param merchantId merchant ID
+     * @return statistics response
+     */
+    MerchantStatsResponse getStats(Long merchantId);
+
+    /**
+     * A product was created for the merchant
+     * @param merchantId merchant ID
+     */
+    void recordProductCreated(Long merchantId);
+
+    /**
+     * An order was created or changed status
+     * @param merchantId merchant ID
+     * @param from previous status, null for a new order
+     * @param to new status
+     * @param amount order total, counted towards today's revenue when paid and deducted when refunded
+     */
+    void recordOrderTransition(Long merchantId, OrderStatus from, OrderStatus to, BigDecimal amount);
+
+    /**
+     * A SKU's stock quantity changed
+     * @param merchantId merchant ID
+     * @param before quantity before the change, null for a new SKU
+     * @param after quantity after the change
+     */
+    void recordStockChange(Long merchantId, Integer before, Integer after);
+
+    /**
+     * Recompute the counters of every cached merchant from the database and correct drift.
+     * Changes recorded while a merchant is being recomputed are preserved.
+     * @return number of merchants whose counters had drifted
+     */
+    int reconcile();
+}
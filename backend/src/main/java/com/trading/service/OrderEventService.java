@@ -0,0 +1,31 @@
+package com.trading.service;
+
+import com.trading.entity.Order;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * In-process fan-out of order state changes to merchants over Server-Sent Events.
+ * Events are pushed after the transaction that changed the order commits; each
+ * merchant keeps a short replay buffer so a reconnecting client can resume from
+ * its Last-Event-ID instead of re-polling the order list.
+ */
+public interface OrderEventService {
+
+    /**
+     * Publish the current status of an order to the merchant's subscribers.
+     * Inside a transaction the event is delivered after commit and dropped on rollback.
+     * @param order the order after its status change (PAID, REFUNDED or CANCELLED)
+     */
+    void publish(Order order);
+
+    /**
+     * Open an event stream for a merchant
+     * @param merchantId merchant ID
+     * @param lastEventId Last-Event-ID sent by a reconnecting client, may be null;
+     *                    retained events after it are replayed first, and a "resync"
+     *                    event is sent if some of them are no longer retained
+     * @return the emitter to return from the controller
+     * @throws com.trading.exception.ThrottledException with 429 if the merchant has too many open streams
+     */
+    SseEmitter subscribe(Long merchantId, String lastEventId);
+}
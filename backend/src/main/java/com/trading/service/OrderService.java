@@ -5,6 +5,7 @@ import com.trading.dto.response.OrderResponse;
 import com.trading.enums.OrderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public interface OrderService {
     
@@ -61,7 +62,7 @@ public interface OrderService {
     OrderResponse refund(Long orderId);
     
     /**
-     * Get order by ID
+     * Get order by ID, looking in the archive when it is no longer in the hot table
      * @param orderId order ID
      * @return order response
      */
@@ -69,6 +70,7 @@ public interface OrderService {
     
     /**
      * Get orders by user ID with pagination
+     * Archived orders follow the hot ones once a page reaches past them
      * @param userId user ID
      * @param pageable pagination info
      * @return page of order responses
@@ -77,6 +79,7 @@ public interface OrderService {
     
     /**
      * Get orders by merchant ID with pagination
+     * Archived orders follow the hot ones once a page reaches past them
      * @param merchantId merchant ID
      * @param pageable pagination info
      * @return page of order responses
@@ -85,10 +88,52 @@ public interface OrderService {
     
     /**
      * 根据商家ID和订单状态获取订单列表（分页）
+     * 可归档状态的订单翻过热数据后继续读取归档表
      * @param merchantId 商家ID
      * @param status 订单状态
      * @param pageable 分页参数
      * @return 订单响应分页列表
      */
     Page<OrderResponse> getByMerchantAndStatus(Long merchantId, OrderStatus status, Pageable pageable);
+    
+    /**
+     * Get a slice of a user's orders without counting them
+     * Reads one row past the page to tell whether another follows; archived orders follow the hot ones
+     * @param userId user ID
+     * @param pageable pagination info
+     * @return slice of order responses
+     */
+    Slice<OrderResponse> getSliceByUser(Long userId, Pageable pageable);
+    
+    /**
+     * Get a slice of a merchant's orders without counting them
+     * @param merchantId merchant ID
+     * @param pageable pagination info
+     * @return slice of order responses
+     */
+    Slice<OrderResponse> getSliceByMerchant(Long merchantId, Pageable pageable);
+    
+    /**
+     * Get a slice of a merchant's orders in a status without counting them
+     * @param merchantId merchant ID
+     * @param status order status
+     * @param pageable pagination info
+     * @return slice of order responses
+     */
+    Slice<OrderResponse> getSliceByMerchantAndStatus(Long merchantId, OrderStatus status, Pageable pageable);
+    
+    /**
+     * Approximate number of a user's orders, hot and archived, from a cached count
+     * @param userId user ID
+     * @return approximate total
+     */
+    long getApproximateCountByUser(Long userId);
+    
+    /**
+     * Approximate number of a merchant's orders, hot and archived, from the dashboard counters
+     * @param merchantId merchant ID
+     * @param status order status, or null for all statuses
+     * @return approximate total
+     */
+    long getApproximateCountByMerchant(Long merchantId, OrderStatus status);
 }
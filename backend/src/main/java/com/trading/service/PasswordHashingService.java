@@ -0,0 +1,36 @@
+package com.trading.service;
+
+/**
+ * Password hashing and verification off the request threads.
+ * BCrypt runs on a dedicated bounded pool; when the pool and its queue are full
+ * the call is rejected immediately instead of tying up more request threads.
+ * Login and registration attempts are admitted through per-username and
+ * per-client-IP token buckets first.
+ */
+public interface PasswordHashingService {
+    
+    /**
+     * Admission check for a login attempt, before any database or hashing work
+     * @param username the username being logged into
+     * @throws com.trading.exception.ThrottledException with 429 if the username or client IP is over its limit
+     */
+    void checkLoginAllowed(String username);
+    
+    /**
+     * Admission check for a registration, limited per client IP
+     * @throws com.trading.exception.ThrottledException with 429 if the client IP is over its limit
+     */
+    void checkRegistrationAllowed();
+    
+    /**
+     * BCrypt-encode a password on the hashing pool
+     * @throws com.trading.exception.ThrottledException with 503 if the pool is saturated
+     */
+    String encode(String rawPassword);
+    
+    /**
+     * Verify a password against its BCrypt hash on the hashing pool
+     * @throws com.trading.exception.ThrottledException with 503 if the pool is saturated
+     */
+    boolean matches(String rawPassword, String encodedPassword);
+}
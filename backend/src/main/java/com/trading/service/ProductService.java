@@ -4,6 +4,7 @@ import com.trading.dto.request.ProductCreateRequest;
 import com.trading.dto.response.ProductResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public interface ProductService {
     
@@ -37,4 +38,45 @@ public interface ProductService {
      * @return page of products
      */
     Page<ProductResponse> getByMerchant(Long merchantId, Pageable pageable);
+    
+    /**
+     * Search products without counting the matches
+     * Reads one row past the page to tell whether another follows
+     * @param keyword search keyword (optional)
+     * @param category category filter (optional)
+     * @param pageable pagination info
+     * @return slice of products
+     */
+    Slice<ProductResponse> searchSlice(String keyword, String category, Pageable pageable);
+    
+    /**
+     * Get a slice of a merchant's products without counting them
+     * @param merchantId merchant ID
+     * @param pageable pagination info
+     * @return slice of products
+     */
+    Slice<ProductResponse> getSliceByMerchant(Long merchantId, Pageable pageable);
+    
+    /**
+     * Approximate number of products matching a search, from a cached count
+     * @param keyword search keyword (optional)
+     * @param category category filter (optional)
+     * @return approximate total
+     */
+    long getApproximateSearchCount(String keyword, String category);
+    
+    /**
+     * Approximate number of a merchant's products, from the dashboard counters
+     * @param merchantId merchant ID
+     * @return approximate total
+     */
+    long getApproximateCountByMerchant(Long merchantId);
+    
+    /**
+     * Get a version tag covering the product and its inventory rows, without loading them.
+     * It changes whenever the product or any of its SKUs is created, updated or deleted.
+     * @param productId product ID
+     * @return version tag, or null if the product does not exist
+     */
+    String getVersionTag(Long productId);
 }
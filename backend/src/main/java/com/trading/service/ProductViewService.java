@@ -0,0 +1,39 @@
+package com.trading.service;
+
+import java.util.Collection;
+
+/**
+ * Maintenance of the denormalized product read model (product_views).
+ * Catalog reads query the read model directly; product, inventory and merchant
+ * writes refresh the affected rows after they commit, and a periodic check
+ * repairs rows that drifted (bulk SQL, failed refreshes).
+ */
+public interface ProductViewService {
+
+    /**
+     * Recompute the read model rows of the given products from the source tables.
+     * Runs in its own transaction, so it can be called after the writing transaction commits.
+     * @param productIds IDs of products that were created, changed, deleted or whose SKUs changed
+     */
+    void refresh(Collection<Long> productIds);
+
+    /**
+     * Update the merchant name on every read model row of a renamed or deleted merchant
+     * @param merchantId merchant ID
+     */
+    void refreshMerchant(Long merchantId);
+
+    /**
+     * Compare every product with its read model row, repairing missing or stale rows
+     * and deleting rows of products that no longer exist
+     * @return number of rows inserted, updated or deleted
+     */
+    int verify();
+
+    /**
+     * Build the read model from the source tables when it has no rows at all,
+     * e.g. on first start after the table was created; does nothing otherwise
+     * @return number of rows inserted
+     */
+    int backfill();
+}
@@ -0,0 +1,50 @@
+package com.trading.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-endpoint and per-service-method totals of the SQL statements executed and
+ * the time spent in JDBC, on this node since startup or the last reset. Requests
+ * and method calls over the configured statement or JDBC time thresholds are
+ * logged as they happen, so a loop issuing one query per row shows up both in
+ * the log and at the top of the endpoint's ranking.
+ */
+public interface QueryStatsService {
+
+    /**
+     * Record one HTTP request
+     * @param endpoint HTTP method and route pattern, e.g. {@code GET /api/v1/products/{id}}
+     * @param statements statements executed while handling the request
+     * @param jdbcTime time spent executing them
+     */
+    void recordRequest(String endpoint, long statements, Duration jdbcTime);
+
+    /**
+     * Record one service method call, including the statements of the service methods it called
+     * @param method class and method name, e.g. {@code CartServiceImpl.getCart}
+     * @param statements statements executed during the call
+     * @param jdbcTime time spent executing them
+     */
+    void recordMethod(String method, long statements, Duration jdbcTime);
+
+    /**
+     * Endpoints ordered by the most statements a single request executed, then by average
+     * @param limit maximum number of entries
+     * @return one map per endpoint with requests, average and maximum statements and JDBC time, and flagged requests
+     */
+    List<Map<String, Object>> getTopEndpoints(int limit);
+
+    /**
+     * Service methods ordered like {@link #getTopEndpoints(int)}
+     * @param limit maximum number of entries
+     * @return one map per method
+     */
+    List<Map<String, Object>> getTopMethods(int limit);
+
+    /**
+     * Discard all totals
+     */
+    void reset();
+}
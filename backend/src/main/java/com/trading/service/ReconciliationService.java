@@ -0,0 +1,23 @@
+package com.trading.service;
+
+import com.trading.dto.response.ReconciliationReportResponse;
+
+import java.time.LocalDate;
+
+public interface ReconciliationService {
+    
+    /**
+     * Per-order reconciliation of a merchant's settlement day.
+     * COMPLETED and REFUNDED orders of the day are matched by relatedOrderId against the
+     * day's SALE and REFUND_OUT ledger entries. A COMPLETED order expects +amount and a
+     * REFUNDED order expects -amount of net ledger movement (SALE - REFUND_OUT); orders
+     * whose ledger entries are missing, extra or of a different amount are listed.
+     * Both sides are streamed in order ID order and merged, so memory use does not
+     * depend on the number of orders.
+     * @param merchantId merchant ID
+     * @param date settlement date
+     * @param limit maximum number of entries listed; all issues are still counted
+     * @return reconciliation report
+     */
+    ReconciliationReportResponse reconcile(Long merchantId, LocalDate date, int limit);
+}
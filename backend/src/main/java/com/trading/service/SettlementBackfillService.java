@@ -0,0 +1,33 @@
+package com.trading.service;
+
+import com.trading.dto.request.SettlementBackfillRequest;
+import com.trading.dto.response.SettlementBackfillProgressResponse;
+
+import java.time.Duration;
+
+public interface SettlementBackfillService {
+    
+    /**
+     * Start re-settling a date range in the background. Both dates are inclusive.
+     * Each day is processed in its own transaction, up to the configured number of
+     * days in parallel. A day's orders and ledger rows are aggregated in one scan
+     * shared by all merchants of that day. Existing settlements are skipped unless
+     * force is set, in which case they are recomputed and overwritten.
+     * @param request date range, optional merchant filter, force flag and parallelism
+     * @return initial progress of the backfill
+     */
+    SettlementBackfillProgressResponse start(SettlementBackfillRequest request);
+    
+    /**
+     * Progress and mismatch summary of the most recent backfill
+     * @return progress, or null if no backfill has been started
+     */
+    SettlementBackfillProgressResponse getProgress();
+    
+    /**
+     * Wait for the most recent backfill to finish
+     * @param timeout how long to wait at most
+     * @return progress after it finished or the timeout elapsed, or null if no backfill has been started
+     */
+    SettlementBackfillProgressResponse awaitCompletion(Duration timeout) throws InterruptedException;
+}
@@ -0,0 +1,46 @@
+package com.trading.service;
+
+import com.trading.entity.MerchantDailyCounter;
+import com.trading.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Maintains per-merchant, per-day running totals on the write path so that
+ * end-of-day settlement can read them instead of rescanning orders and ledger rows.
+ * All record methods join the caller's transaction, so a counter update commits
+ * or rolls back together with the business change it reflects. Each amount is
+ * counted on the day of the timestamp settlement uses for the row it reflects
+ * (the order's updatedAt, the ledger row's createdAt), so counters and the raw
+ * recompute agree across midnight.
+ */
+public interface SettlementCounterService {
+    
+    /**
+     * Add a completed order's amount to the sales counter of the day it completed
+     * @param completedAt the order's updatedAt after completion
+     */
+    void recordSale(Long merchantId, BigDecimal amount, LocalDateTime completedAt);
+    
+    /**
+     * Add a refunded order's amount to the refund counter of the day it was refunded
+     * @param refundedAt the order's updatedAt after the refund
+     */
+    void recordRefund(Long merchantId, BigDecimal amount, LocalDateTime refundedAt);
+    
+    /**
+     * Add a merchant ledger entry to the credit (SALE) or debit (REFUND_OUT) counter of its day.
+     * Other transaction types do not take part in settlement and are ignored.
+     * @param createdAt the ledger row's createdAt
+     */
+    void recordLedgerEntry(Long merchantId, TransactionType type, BigDecimal amount, LocalDateTime createdAt);
+    
+    /**
+     * Get the counters of a merchant for a day, summed over its slot rows;
+     * empty if nothing was recorded that day
+     */
+    Optional<MerchantDailyCounter> getCounter(Long merchantId, LocalDate date);
+}
@@ -1,22 +1,40 @@
 package com.trading.service;
 
 import com.trading.dto.response.SettlementResponse;
+import com.trading.dto.response.SettlementRunProgressResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
+import java.util.function.BooleanSupplier;
 
 public interface SettlementService {
     
     /**
      * Run daily settlement for all merchants
      * Calculates total sales from COMPLETED orders, total refunds,
-     * compares with balance changes, and creates settlement records
+     * compares with balance changes, and creates settlement records.
+     * Merchants are processed in parallel chunks, each merchant in its own transaction;
+     * an interrupted or failed run resumes with its unfinished chunks.
+     * @param date settlement date
+     * @param keepRunning checked before each chunk (e.g. renews the job lease); once it
+     *                    returns false no further chunks are started
+     * @throws IllegalStateException if the run was stopped or finished with failed chunks,
+     *                               so the scheduler records the failure and retries the date
+     */
+    void runDailySettlement(LocalDate date, BooleanSupplier keepRunning);
+    
+    /**
+     * Progress, throughput and chunk failures of the most recent settlement run
+     * @return progress, or null if no run has been started yet
      */
-    void runDailySettlement();
+    SettlementRunProgressResponse getRunProgress();
     
     /**
-     * Run settlement for a specific merchant and date
+     * Run settlement for a specific merchant and date.
+     * Totals are read from the per-day counters maintained on the order and ledger
+     * write paths; with trading.settlement.counters.audit-enabled they are also
+     * recomputed from raw rows and any drift is flagged on the settlement.
      * @param merchantId merchant ID
      * @param date settlement date
      * @return settlement response
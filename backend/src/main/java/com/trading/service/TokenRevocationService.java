@@ -0,0 +1,43 @@
+package com.trading.service;
+
+import com.trading.security.VerifiedToken;
+
+/**
+ * Revocation of issued JWTs before they expire (logout, compromised tokens).
+ * Revoked token IDs are held in memory until the token would have expired anyway,
+ * and are shared between nodes through a revocation table that every node polls.
+ */
+public interface TokenRevocationService {
+    
+    /**
+     * Revoke a verified token on this node immediately and record it for other nodes.
+     * @param token the verified token
+     * @param reason short reason, e.g. LOGOUT
+     * @return false if revocation is disabled or the token carries no ID
+     */
+    boolean revoke(VerifiedToken token, String reason);
+    
+    /**
+     * Constant-time check against the in-memory revocation set, no database access
+     * @param tokenId the jti claim, may be null for tokens issued without one
+     */
+    boolean isRevoked(String tokenId);
+    
+    /**
+     * Reject a revoked token, and a token without an ID once legacy tokens are no longer accepted
+     * @throws com.trading.exception.InvalidTokenException if the token was revoked or cannot be revoked
+     */
+    void checkNotRevoked(VerifiedToken token);
+    
+    /**
+     * Load revocations recorded by any node since the last poll
+     * @return number of revocations read from the table
+     */
+    int refreshFromStore();
+    
+    /**
+     * Delete revocation records of tokens that have expired
+     * @return number of records deleted
+     */
+    int purgeExpired();
+}
@@ -8,6 +8,7 @@ import com.trading.dto.response.TransactionResponse;
 import com.trading.dto.response.UserResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.math.BigDecimal;
 
@@ -50,10 +51,25 @@ public interface UserService {
     BalanceResponse deposit(Long userId, DepositRequest request);
     
     /**
-     * 获取用户交易记录
+     * 获取用户交易记录，翻过热数据后继续读取归档记录
      * @param userId 用户ID
      * @param pageable 分页参数
      * @return 交易记录分页列表
      */
     Page<TransactionResponse> getTransactions(Long userId, Pageable pageable);
+    
+    /**
+     * 分片获取用户交易记录，多读一行判断是否有下一页，不统计总数；翻过热数据后继续读取归档记录
+     * @param userId 用户ID
+     * @param pageable 分页参数
+     * @return 交易记录分片
+     */
+    Slice<TransactionResponse> getTransactionSlice(Long userId, Pageable pageable);
+    
+    /**
+     * 用户交易记录的近似总数（含归档记录），取自缓存的计数结果
+     * @param userId 用户ID
+     * @return 近似总数
+     */
+    long getApproximateTransactionCount(Long userId);
 }
@@ -0,0 +1,33 @@
+package com.trading.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.trading.config.PaginationProperties;
+import com.trading.service.ApproximateCountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Service;
+
+import java.util.function.LongSupplier;
+
+@Service
+public class ApproximateCountServiceImpl implements ApproximateCountService {
+
+    static final String CACHE = "pagination.approximate-counts";
+
+    private final Cache<String, Long> counts;
+
+    public ApproximateCountServiceImpl(PaginationProperties properties, MeterRegistry meterRegistry) {
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(properties.getApproximateCountMaxSize())
+                .expireAfterWrite(properties.getApproximateCountTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, CACHE);
+    }
+
+    @Override
+    public long get(String key, LongSupplier count) {
+        return counts.get(key, ignored -> count.getAsLong());
+    }
+}
@@ -0,0 +1,258 @@
+package com.trading.service.impl;
+
+import com.trading.config.ArchiveProperties;
+import com.trading.dto.response.ArchiveReportResponse;
+import com.trading.entity.ArchivedOrder;
+import com.trading.exception.InvalidOperationException;
+import com.trading.repository.ArchivedOrderItemRepository;
+import com.trading.repository.ArchivedOrderRepository;
+import com.trading.repository.ArchivedTransactionRecordRepository;
+import com.trading.repository.OrderItemRepository;
+import com.trading.repository.OrderRepository;
+import com.trading.repository.TransactionRecordRepository;
+import com.trading.service.ArchiveService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Moves rows between the hot and archive tables with INSERT ... SELECT and bulk
+ * deletes, so no entities are loaded. Each batch is copied and deleted in its own
+ * transaction; a batch whose copy does not match the selected IDs is rolled back.
+ *
+ * Metrics:
+ * archive.rows{table, tier}             row counts, refreshed at startup and after each run
+ * archive.rows.moved{table, direction}  rows moved to the archive or restored
+ */
+@Service
+@Slf4j
+public class ArchiveServiceImpl implements ArchiveService {
+
+    static final String ORDERS = "orders";
+    static final String ORDER_ITEMS = "order_items";
+    static final String TRANSACTION_RECORDS = "transaction_records";
+    static final String HOT = "hot";
+    static final String ARCHIVE = "archive";
+
+    private static final String DIRECTION_ARCHIVE = "archive";
+    private static final String DIRECTION_RESTORE = "restore";
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final TransactionRecordRepository transactionRecordRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ArchivedOrderItemRepository archivedOrderItemRepository;
+    private final ArchivedTransactionRecordRepository archivedTransactionRecordRepository;
+    private final ArchiveProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, AtomicLong> rowCounts = new LinkedHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public ArchiveServiceImpl(OrderRepository orderRepository,
+                              OrderItemRepository orderItemRepository,
+                              TransactionRecordRepository transactionRecordRepository,
+                              ArchivedOrderRepository archivedOrderRepository,
+                              ArchivedOrderItemRepository archivedOrderItemRepository,
+                              ArchivedTransactionRecordRepository archivedTransactionRecordRepository,
+                              ArchiveProperties properties,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.transactionRecordRepository = transactionRecordRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.archivedOrderItemRepository = archivedOrderItemRepository;
+        this.archivedTransactionRecordRepository = archivedTransactionRecordRepository;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        for (String table : List.of(ORDERS, ORDER_ITEMS, TRANSACTION_RECORDS)) {
+            for (String tier : List.of(HOT, ARCHIVE)) {
+                AtomicLong count = new AtomicLong();
+                rowCounts.put(table + "/" + tier, count);
+                Gauge.builder("archive.rows", count, AtomicLong::get)
+                        .description("Rows in the hot and archive tier of each table")
+                        .tag("table", table)
+                        .tag("tier", tier)
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void initTierCounts() {
+        try {
+            getTierCounts();
+        } catch (Exception e) {
+            log.warn("Counting archive tier rows failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public ArchiveReportResponse archive() {
+        return archive(LocalDateTime.now().minus(properties.getMaxAge()));
+    }
+
+    @Override
+    public ArchiveReportResponse archive(LocalDateTime cutoff) {
+        long start = System.currentTimeMillis();
+        LocalDateTime archivedAt = LocalDateTime.now();
+        long[] items = new long[1];
+        long orders = moveInBatches(page -> {
+            List<Long> ids = orderRepository.findArchivableIds(ArchivedOrder.STATUSES, cutoff, page);
+            if (!ids.isEmpty()) {
+                expectCopied(ORDERS, ids, archivedOrderRepository.copyFromOrders(ids, archivedAt));
+                items[0] += archivedOrderItemRepository.copyFromOrderItems(ids);
+                orderItemRepository.deleteByOrderIdIn(ids);
+                orderRepository.deleteByIdIn(ids);
+            }
+            return ids.size();
+        });
+        long transactions = moveInBatches(page -> {
+            List<Long> ids = transactionRecordRepository.findIdsCreatedBefore(cutoff, page);
+            if (!ids.isEmpty()) {
+                expectCopied(TRANSACTION_RECORDS, ids,
+                        archivedTransactionRecordRepository.copyFromTransactionRecords(ids, archivedAt));
+                transactionRecordRepository.deleteByIdIn(ids);
+            }
+            return ids.size();
+        });
+        return report(DIRECTION_ARCHIVE, null, cutoff, orders, items[0], transactions, start);
+    }
+
+    @Override
+    public ArchiveReportResponse restore(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new InvalidOperationException("Restore range start must be before its end");
+        }
+        long start = System.currentTimeMillis();
+        long[] items = new long[1];
+        long orders = moveInBatches(page -> {
+            List<Long> ids = archivedOrderRepository.findIdsUpdatedBetween(from, to, page);
+            if (!ids.isEmpty()) {
+                expectCopied(ORDERS, ids, orderRepository.copyFromArchive(ids));
+                items[0] += orderItemRepository.copyFromArchive(ids);
+                archivedOrderItemRepository.deleteByOrderIdIn(ids);
+                archivedOrderRepository.deleteByIdIn(ids);
+            }
+            return ids.size();
+        });
+        long transactions = moveInBatches(page -> {
+            List<Long> ids = archivedTransactionRecordRepository.findIdsCreatedBetween(from, to, page);
+            if (!ids.isEmpty()) {
+                expectCopied(TRANSACTION_RECORDS, ids, transactionRecordRepository.copyFromArchive(ids));
+                archivedTransactionRecordRepository.deleteByIdIn(ids);
+            }
+            return ids.size();
+        });
+        return report(DIRECTION_RESTORE, from, to, orders, items[0], transactions, start);
+    }
+
+    @Override
+    public void checkNotArchived(LocalDate from, LocalDate to) {
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        if (archivedOrderRepository.existsByUpdatedAtGreaterThanEqualAndUpdatedAtLessThan(start, end)
+                || archivedTransactionRecordRepository.existsByCreatedAtGreaterThanEqualAndCreatedAtLessThan(start, end)) {
+            throw new InvalidOperationException("Orders or ledger rows from " + from + " to " + to
+                    + " have been archived; restore them first with POST /actuator/archive "
+                    + "{\"direction\":\"restore\",\"from\":\"" + from + "\",\"to\":\"" + to.plusDays(1) + "\"}");
+        }
+    }
+
+    @Override
+    public Map<String, Map<String, Long>> getTierCounts() {
+        Map<String, Map<String, Long>> tiers = new LinkedHashMap<>();
+        tiers.put(ORDERS, count(ORDERS, orderRepository, archivedOrderRepository));
+        tiers.put(ORDER_ITEMS, count(ORDER_ITEMS, orderItemRepository, archivedOrderItemRepository));
+        tiers.put(TRANSACTION_RECORDS,
+                count(TRANSACTION_RECORDS, transactionRecordRepository, archivedTransactionRecordRepository));
+        return tiers;
+    }
+
+    /**
+     * Run batches until one moves nothing; every batch reads from the start again
+     * because the previous one removed its rows from the source table
+     * @return rows moved
+     */
+    private long moveInBatches(Function<Pageable, Integer> batch) {
+        Pageable firstBatch = PageRequest.of(0, properties.getBatchSize());
+        long moved = 0;
+        while (true) {
+            Integer rows = transactionTemplate.execute(status -> batch.apply(firstBatch));
+            if (rows == null || rows == 0) {
+                return moved;
+            }
+            moved += rows;
+        }
+    }
+
+    private static void expectCopied(String table, List<Long> ids, int copied) {
+        if (copied != ids.size()) {
+            throw new IllegalStateException("Copied " + copied + " of " + ids.size() + " " + table
+                    + " rows; the batch was rolled back");
+        }
+    }
+
+    private Map<String, Long> count(String table, CrudRepository<?, ?> hot, CrudRepository<?, ?> archive) {
+        long hotRows = hot.count();
+        long archiveRows = archive.count();
+        rowCounts.get(table + "/" + HOT).set(hotRows);
+        rowCounts.get(table + "/" + ARCHIVE).set(archiveRows);
+        Map<String, Long> tiers = new LinkedHashMap<>();
+        tiers.put(HOT, hotRows);
+        tiers.put(ARCHIVE, archiveRows);
+        return tiers;
+    }
+
+    private ArchiveReportResponse report(String direction, LocalDateTime from, LocalDateTime to,
+                                         long orders, long items, long transactions, long start) {
+        moved(ORDERS, direction, orders);
+        moved(ORDER_ITEMS, direction, items);
+        moved(TRANSACTION_RECORDS, direction, transactions);
+        long duration = System.currentTimeMillis() - start;
+        if (orders + transactions > 0) {
+            log.info("{} moved {} orders ({} items) and {} transaction records in {}ms",
+                    direction, orders, items, transactions, duration);
+        }
+        return ArchiveReportResponse.builder()
+                .direction(direction)
+                .from(from)
+                .to(to)
+                .orders(orders)
+                .orderItems(items)
+                .transactionRecords(transactions)
+                .durationMillis(duration)
+                .tiers(getTierCounts())
+                .build();
+    }
+
+    private void moved(String table, String direction, long rows) {
+        Counter.builder("archive.rows.moved")
+                .description("Rows moved between the hot and archive tier")
+                .tag("table", table)
+                .tag("direction", direction)
+                .register(meterRegistry)
+                .increment(rows);
+    }
+}
@@ -11,10 +11,12 @@ import com.trading.exception.UnauthorizedAccessException;
 import com.trading.repository.MerchantRepository;
 import com.trading.security.JwtUtil;
 import com.trading.security.SecurityContextUtil;
+import com.trading.security.VerifiedToken;
 import com.trading.service.AuthenticationService;
+import com.trading.service.PasswordHashingService;
+import com.trading.service.TokenRevocationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,12 +34,13 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private final MerchantRepository merchantRepository;
     private final JwtUtil jwtUtil;
     private final JwtProperties jwtProperties;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final TokenRevocationService tokenRevocationService;
     
     @Override
-    @Transactional(readOnly = true)
     public AuthResponse login(LoginRequest request) {
         log.debug("处理用户名登录请求: {}", request.getUsername());
+        passwordHashingService.checkLoginAllowed(request.getUsername());
         
         // 查找商家
         Merchant merchant = merchantRepository.findByUsername(request.getUsername())
@@ -46,8 +49,8 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                     return new BusinessException(401, "Invalid credentials");
                 });
         
-        // 验证密码 - 使用BCrypt密码编码器进行验证
-        if (!passwordEncoder.matches(request.getPassword(), merchant.getPassword())) {
+        // 验证密码 - BCrypt在专用线程池中计算，且不在事务内，哈希期间不占用数据库连接
+        if (!passwordHashingService.matches(request.getPassword(), merchant.getPassword())) {
             log.warn("用户名密码错误的登录尝试: {}", request.getUsername());
             throw new BusinessException(401, "Invalid credentials");
         }
@@ -76,14 +79,12 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         log.debug("处理刷新令牌请求");
         
         try {
-            // 验证刷新令牌
-            if (!jwtUtil.validateToken(refreshToken)) {
-                throw new InvalidTokenException("Invalid refresh token");
-            }
+            // 验证刷新令牌（已吊销的令牌不能刷新）
+            VerifiedToken verified = jwtUtil.verify(refreshToken);
+            tokenRevocationService.checkNotRevoked(verified);
             
             // 从令牌中提取商家信息
             Long merchantId = jwtUtil.extractMerchantId(refreshToken);
-            String username = jwtUtil.extractUsername(refreshToken);
             
             // 查找商家确保仍然存在
             Merchant merchant = merchantRepository.findById(merchantId)
@@ -115,13 +116,29 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     @Override
     public boolean validateToken(String token) {
         try {
-            return jwtUtil.validateToken(token);
+            tokenRevocationService.checkNotRevoked(jwtUtil.verify(token));
+            return true;
         } catch (Exception e) {
             log.debug("令牌验证失败: {}", e.getMessage());
             return false;
         }
     }
     
+    @Override
+    public void logout(String token) {
+        VerifiedToken verified;
+        try {
+            verified = jwtUtil.verify(token);
+        } catch (Exception e) {
+            log.debug("登出时令牌无效，无需吊销: {}", e.getMessage());
+            return;
+        }
+        
+        if (tokenRevocationService.revoke(verified, "LOGOUT")) {
+            log.info("登出，令牌已吊销: username={}", verified.username());
+        }
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public MerchantResponse getCurrentMerchant() {
@@ -19,7 +19,10 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -112,8 +115,14 @@ public class CartServiceImpl implements CartService {
         List<CartItemResponse> itemResponses = new ArrayList<>();
         BigDecimal totalAmount = BigDecimal.ZERO;
         
+        // Load all SKUs in one query instead of one per cart item
+        Map<String, Inventory> inventoryBySku = cartItems.isEmpty()
+                ? Map.of()
+                : inventoryRepository.findBySkuIn(cartItems.stream().map(CartItem::getSku).toList()).stream()
+                        .collect(Collectors.toMap(Inventory::getSku, Function.identity()));
+        
         for (CartItem cartItem : cartItems) {
-            Optional<Inventory> inventoryOpt = inventoryRepository.findBySku(cartItem.getSku());
+            Optional<Inventory> inventoryOpt = Optional.ofNullable(inventoryBySku.get(cartItem.getSku()));
             
             CartItemResponse itemResponse;
             if (inventoryOpt.isPresent()) {
@@ -0,0 +1,351 @@
+package com.trading.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.trading.config.CatalogCacheProperties;
+import com.trading.dto.response.InventoryResponse;
+import com.trading.dto.response.ProductResponse;
+import com.trading.entity.CacheInvalidation;
+import com.trading.repository.CacheInvalidationRepository;
+import com.trading.service.CatalogCacheService;
+import com.trading.service.JobLeaseService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+@Service
+@Slf4j
+public class CatalogCacheServiceImpl implements CatalogCacheService {
+
+    static final String PRODUCTS = "catalog.products";
+    static final String MERCHANT_NAMES = "catalog.merchant-names";
+    static final String INVENTORY = "catalog.inventory";
+
+    static final String PRODUCT = "PRODUCT";
+    static final String MERCHANT = "MERCHANT";
+    static final String SKU = "INVENTORY";
+
+    /**
+     * Each poll re-reads this much history so that rows committed late, or
+     * stamped by a node with a slightly skewed clock, are not missed
+     */
+    private static final Duration POLL_OVERLAP = Duration.ofMinutes(1);
+
+    private final CacheInvalidationRepository cacheInvalidationRepository;
+    private final JobLeaseService jobLeaseService;
+    private final CatalogCacheProperties properties;
+
+    private final Cache<Long, ProductResponse> products;
+    private final Cache<Long, String> merchantNames;
+    private final Cache<String, InventoryResponse> inventory;
+
+    /**
+     * Cached SKUs per product and cached products per merchant, so evicting a product or
+     * merchant touches only its dependent entries instead of scanning the whole cache.
+     * May list keys that are no longer cached; evicting those is a no-op.
+     */
+    private final Map<Long, Set<String>> skusByProduct = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> productsByMerchant = new ConcurrentHashMap<>();
+
+    /**
+     * IDs of invalidations already applied, so the poll overlap does not evict the same keys again
+     */
+    private final Cache<Long, Boolean> appliedInvalidations;
+
+    private volatile LocalDateTime lastPolledAt;
+
+    public CatalogCacheServiceImpl(CacheInvalidationRepository cacheInvalidationRepository,
+                                   JobLeaseService jobLeaseService,
+                                   CatalogCacheProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this.cacheInvalidationRepository = cacheInvalidationRepository;
+        this.jobLeaseService = jobLeaseService;
+        this.properties = properties;
+        this.products = Caffeine.newBuilder()
+                .maximumSize(properties.getProductMaxSize())
+                .expireAfterWrite(properties.getProductTtl())
+                .evictionListener((Long productId, ProductResponse product, RemovalCause cause) -> {
+                    if (product != null) {
+                        unindex(productsByMerchant, product.getMerchantId(), productId);
+                    }
+                })
+                .recordStats()
+                .build();
+        this.merchantNames = Caffeine.newBuilder()
+                .maximumSize(properties.getMerchantNameMaxSize())
+                .expireAfterWrite(properties.getMerchantNameTtl())
+                .recordStats()
+                .build();
+        this.inventory = Caffeine.newBuilder()
+                .maximumSize(properties.getInventoryMaxSize())
+                .expireAfterWrite(properties.getInventoryTtl())
+                .evictionListener((String sku, InventoryResponse cached, RemovalCause cause) -> {
+                    if (cached != null) {
+                        unindex(skusByProduct, cached.getProductId(), sku);
+                    }
+                })
+                .recordStats()
+                .build();
+        this.appliedInvalidations = Caffeine.newBuilder()
+                .expireAfterWrite(POLL_OVERLAP.multipliedBy(2))
+                .build();
+        // cache.gets{result=hit|miss}, cache.evictions, cache.size under /actuator/metrics
+        CaffeineCacheMetrics.monitor(meterRegistry, products, PRODUCTS);
+        CaffeineCacheMetrics.monitor(meterRegistry, merchantNames, MERCHANT_NAMES);
+        CaffeineCacheMetrics.monitor(meterRegistry, inventory, INVENTORY);
+    }
+
+    @Override
+    public ProductResponse getProduct(Long productId, Function<Long, ProductResponse> loader) {
+        if (!properties.getEnabled()) {
+            return loader.apply(productId);
+        }
+        return products.get(productId, id -> {
+            ProductResponse product = loader.apply(id);
+            if (product != null) {
+                index(productsByMerchant, product.getMerchantId(), id);
+            }
+            return product;
+        });
+    }
+
+    @Override
+    public String getMerchantName(Long merchantId, Function<Long, String> loader) {
+        return properties.getEnabled() ? merchantNames.get(merchantId, loader) : loader.apply(merchantId);
+    }
+
+    @Override
+    public InventoryResponse getInventory(String sku, Function<String, InventoryResponse> loader) {
+        if (!properties.getEnabled()) {
+            return loader.apply(sku);
+        }
+        return inventory.get(sku, key -> {
+            InventoryResponse cached = loader.apply(key);
+            if (cached != null) {
+                index(skusByProduct, cached.getProductId(), key);
+            }
+            return cached;
+        });
+    }
+
+    @Override
+    public void productChanged(Long productId) {
+        if (productId != null) {
+            record(PRODUCT, productId.toString(), true);
+        }
+    }
+
+    @Override
+    public void merchantChanged(Long merchantId) {
+        if (merchantId != null) {
+            record(MERCHANT, merchantId.toString(), true);
+        }
+    }
+
+    @Override
+    public void inventoryChanged(String sku) {
+        if (sku != null) {
+            record(SKU, sku, true);
+        }
+    }
+
+    @Override
+    public void stockChanged(String sku) {
+        if (sku != null) {
+            record(SKU, sku, false);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int refreshFromStore() {
+        if (!properties.getEnabled()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (lastPolledAt == null) {
+            // 启动时缓存为空，无需回放历史记录
+            lastPolledAt = now;
+            return 0;
+        }
+        List<CacheInvalidation> invalidations = cacheInvalidationRepository.findByCreatedAtGreaterThanEqualAndNodeIdNot(
+                lastPolledAt.minus(POLL_OVERLAP), jobLeaseService.getNodeId());
+        int applied = 0;
+        for (CacheInvalidation invalidation : invalidations) {
+            if (appliedInvalidations.asMap().putIfAbsent(invalidation.getId(), Boolean.TRUE) == null) {
+                evict(invalidation.getEntityType(), invalidation.getEntityKey());
+                applied++;
+            }
+        }
+        lastPolledAt = now;
+        return applied;
+    }
+
+    @Override
+    @Transactional
+    public int purgeExpired() {
+        int deleted = cacheInvalidationRepository.deleteCreatedBefore(
+                LocalDateTime.now().minus(properties.getRetention()));
+        if (deleted > 0) {
+            log.info("Purged {} cache invalidation records", deleted);
+        }
+        return deleted;
+    }
+
+    @Override
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        stats.put(PRODUCTS, stats(products));
+        stats.put(MERCHANT_NAMES, stats(merchantNames));
+        stats.put(INVENTORY, stats(inventory));
+        return stats;
+    }
+
+    /**
+     * 在提交后清除本节点缓存；broadcast时还在当前事务中写入失效记录供其他节点拉取，
+     * 事务回滚时两者都不会发生。同一事务内对同一条目的多次变更只写入一条记录
+     */
+    private void record(String entityType, String entityKey, boolean broadcast) {
+        if (!properties.getEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (broadcast) {
+                saveInvalidation(entityType, entityKey);
+            }
+            evict(entityType, entityKey);
+            return;
+        }
+        PendingInvalidations pending = pendingInvalidations();
+        InvalidationKey key = new InvalidationKey(entityType, entityKey);
+        if (broadcast && pending.broadcast.add(key)) {
+            saveInvalidation(entityType, entityKey);
+        }
+        pending.evictions.add(key);
+    }
+
+    private void saveInvalidation(String entityType, String entityKey) {
+        cacheInvalidationRepository.save(CacheInvalidation.builder()
+                .entityType(entityType)
+                .entityKey(entityKey)
+                .nodeId(jobLeaseService.getNodeId())
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * 当前事务的待清除条目，首次使用时注册到事务同步
+     * 按事务同步查找而不是绑定资源：提交回调中以REQUIRES_NEW开启的新事务有自己的同步列表
+     */
+    private PendingInvalidations pendingInvalidations() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingInvalidations pending && pending.owner() == this) {
+                return pending;
+            }
+        }
+        PendingInvalidations pending = new PendingInvalidations();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    private void evict(String entityType, String entityKey) {
+        switch (entityType) {
+            case PRODUCT -> {
+                Long productId = Long.valueOf(entityKey);
+                ProductResponse removed = products.asMap().remove(productId);
+                if (removed != null) {
+                    unindex(productsByMerchant, removed.getMerchantId(), productId);
+                }
+                // SKU缓存中带有商品名称
+                Set<String> skus = skusByProduct.remove(productId);
+                if (skus != null) {
+                    inventory.invalidateAll(skus);
+                }
+            }
+            case MERCHANT -> {
+                Long merchantId = Long.valueOf(entityKey);
+                merchantNames.invalidate(merchantId);
+                // 商品详情中带有商家名称
+                Set<Long> productIds = productsByMerchant.remove(merchantId);
+                if (productIds != null) {
+                    products.invalidateAll(productIds);
+                }
+            }
+            case SKU -> {
+                InventoryResponse removed = inventory.asMap().remove(entityKey);
+                if (removed != null) {
+                    unindex(skusByProduct, removed.getProductId(), entityKey);
+                }
+            }
+            default -> log.warn("Ignoring cache invalidation of unknown type {}", entityType);
+        }
+    }
+
+    private static <K, V> void index(Map<K, Set<V>> index, K owner, V key) {
+        if (owner != null) {
+            index.compute(owner, (id, keys) -> {
+                Set<V> updated = keys != null ? keys : ConcurrentHashMap.newKeySet();
+                updated.add(key);
+                return updated;
+            });
+        }
+    }
+
+    private static <K, V> void unindex(Map<K, Set<V>> index, K owner, V key) {
+        if (owner != null) {
+            index.computeIfPresent(owner, (id, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    private record InvalidationKey(String entityType, String entityKey) {
+    }
+
+    /**
+     * 一个事务内记录的失效：已写入的记录和提交后要清除的条目
+     */
+    private class PendingInvalidations implements TransactionSynchronization {
+        private final Set<InvalidationKey> broadcast = new HashSet<>();
+        private final Set<InvalidationKey> evictions = new LinkedHashSet<>();
+
+        CatalogCacheServiceImpl owner() {
+            return CatalogCacheServiceImpl.this;
+        }
+
+        @Override
+        public void afterCommit() {
+            evictions.forEach(key -> evict(key.entityType(), key.entityKey()));
+        }
+    }
+
+    private static Map<String, Object> stats(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("loadFailures", stats.loadFailureCount());
+        return result;
+    }
+}
@@ -0,0 +1,158 @@
+package com.trading.service.impl;
+
+import com.trading.config.FlightRecordingProperties;
+import com.trading.exception.InvalidOperationException;
+import com.trading.service.FlightRecordingService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Starts the optional continuous recording and dumps snapshots of the running recordings.
+ * A snapshot copies the recorded data without stopping any recording, so dumps can be
+ * taken repeatedly from a live node. Only the most recent dumps are kept, and they are
+ * analyzed offline with JfrAnalyzer rather than on the request thread.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FlightRecordingServiceImpl implements FlightRecordingService {
+
+    private static final String CONTINUOUS_RECORDING_NAME = "trading-continuous";
+    private static final String DUMP_PREFIX = "trading-";
+    private static final String DUMP_SUFFIX = ".jfr";
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final FlightRecordingProperties properties;
+
+    private Recording continuous;
+
+    @PostConstruct
+    void init() {
+        if (!properties.getContinuous()) {
+            return;
+        }
+        if (!FlightRecorder.isAvailable()) {
+            log.warn("Flight recorder is not available on this JVM, continuous recording not started");
+            return;
+        }
+        try {
+            continuous = new Recording(configuration(properties.getSettings()));
+            continuous.setName(CONTINUOUS_RECORDING_NAME);
+            continuous.setToDisk(true);
+            continuous.setMaxAge(properties.getMaxAge());
+            continuous.setMaxSize(properties.getMaxSize());
+            continuous.start();
+            log.info("Started continuous flight recording {} (settings {}, max age {}, max size {} bytes)",
+                    continuous.getId(), properties.getSettings(), properties.getMaxAge(), properties.getMaxSize());
+        } catch (IOException | ParseException e) {
+            log.warn("Could not start continuous flight recording with settings {}: {}",
+                    properties.getSettings(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (continuous != null) {
+            continuous.close();
+        }
+    }
+
+    @Override
+    public List<Map<String, Object>> getRecordings() {
+        if (!FlightRecorder.isAvailable()) {
+            return List.of();
+        }
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .map(this::describe)
+                .toList();
+    }
+
+    @Override
+    public Map<String, Object> dump() {
+        if (!FlightRecorder.isAvailable() || FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .noneMatch(recording -> recording.getState() == RecordingState.RUNNING)) {
+            throw new InvalidOperationException("No flight recording is running; start the JVM with "
+                    + "-XX:StartFlightRecording or enable trading.flight-recording.continuous");
+        }
+        Path file = Path.of(properties.getDumpDirectory(),
+                DUMP_PREFIX + LocalDateTime.now().format(FILE_TIMESTAMP) + DUMP_SUFFIX);
+        synchronized (this) {
+            try (Recording snapshot = FlightRecorder.getFlightRecorder().takeSnapshot()) {
+                Files.createDirectories(file.getParent());
+                snapshot.dump(file);
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("file", file.toAbsolutePath().toString());
+                result.put("size", Files.size(file));
+                log.info("Dumped flight recording snapshot to {}", file.toAbsolutePath());
+                deleteOldDumps(file.getParent());
+                return result;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not dump flight recording to " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Keep only the most recent dumps; file names sort by their timestamp
+     */
+    private void deleteOldDumps(Path directory) throws IOException {
+        List<Path> dumps;
+        try (Stream<Path> files = Files.list(directory)) {
+            dumps = files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(DUMP_PREFIX) && name.endsWith(DUMP_SUFFIX);
+                    })
+                    .sorted(Comparator.comparing((Path path) -> path.getFileName().toString()).reversed())
+                    .toList();
+        }
+        for (Path old : dumps.subList(Math.min(properties.getRetainedDumps(), dumps.size()), dumps.size())) {
+            try {
+                Files.deleteIfExists(old);
+                log.debug("Deleted old flight recording dump {}", old);
+            } catch (IOException e) {
+                log.warn("Could not delete old flight recording dump {}: {}", old, e.getMessage());
+            }
+        }
+    }
+
+    private Map<String, Object> describe(Recording recording) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("id", recording.getId());
+        description.put("name", recording.getName());
+        description.put("state", recording.getState().name());
+        description.put("startTime", recording.getStartTime() != null ? recording.getStartTime().toString() : null);
+        description.put("size", recording.getSize());
+        description.put("maxAge", recording.getMaxAge() != null ? recording.getMaxAge().toString() : null);
+        description.put("maxSize", recording.getMaxSize());
+        return description;
+    }
+
+    /**
+     * A JDK-provided configuration name such as default or profile, or a path to a .jfc file
+     */
+    private static Configuration configuration(String settings) throws IOException, ParseException {
+        Path path = Path.of(settings);
+        return Files.isRegularFile(path) ? Configuration.create(path) : Configuration.getConfiguration(settings);
+    }
+}
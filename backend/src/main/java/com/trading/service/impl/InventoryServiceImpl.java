@@ -10,11 +10,16 @@ import com.trading.exception.ResourceNotFoundException;
 import com.trading.repository.InventoryRepository;
 import com.trading.repository.MerchantRepository;
 import com.trading.repository.ProductRepository;
+import com.trading.service.ApproximateCountService;
+import com.trading.service.CatalogCacheService;
 import com.trading.service.InventoryService;
+import com.trading.service.MerchantStatsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,6 +37,9 @@ public class InventoryServiceImpl implements InventoryService {
     private final InventoryRepository inventoryRepository;
     private final MerchantRepository merchantRepository;
     private final ProductRepository productRepository;
+    private final MerchantStatsService merchantStatsService;
+    private final CatalogCacheService catalogCacheService;
+    private final ApproximateCountService approximateCountService;
     
     @Override
     @Transactional
@@ -53,9 +61,11 @@ public class InventoryServiceImpl implements InventoryService {
         Optional<Inventory> existingInventory = inventoryRepository.findByMerchantIdAndSku(merchantId, request.getSku());
         
         Inventory inventory;
+        Integer quantityBefore = null;
         if (existingInventory.isPresent()) {
             // 为现有SKU增加数量
             inventory = existingInventory.get();
+            quantityBefore = inventory.getQuantity();
             inventory.setQuantity(inventory.getQuantity() + request.getQuantity());
             // 如果提供了价格则更新价格
             if (request.getPrice() != null) {
@@ -75,6 +85,8 @@ public class InventoryServiceImpl implements InventoryService {
         }
         
         Inventory savedInventory = inventoryRepository.save(inventory);
+        merchantStatsService.recordStockChange(merchantId, quantityBefore, savedInventory.getQuantity());
+        catalogCacheService.inventoryChanged(savedInventory.getSku());
         return InventoryResponse.fromEntity(savedInventory);
     }
     
@@ -88,14 +100,19 @@ public class InventoryServiceImpl implements InventoryService {
         
         inventory.setPrice(request.getPrice());
         Inventory savedInventory = inventoryRepository.save(inventory);
+        catalogCacheService.inventoryChanged(sku);
         
         log.info("价格更新成功 sku={}: newPrice={}", sku, request.getPrice());
         return InventoryResponse.fromEntity(savedInventory);
     }
     
     @Override
-    @Transactional(readOnly = true)
     public InventoryResponse getBySku(String sku) {
+        // 不开启方法级事务：命中本地缓存时不占用数据库连接
+        return catalogCacheService.getInventory(sku, this::loadBySku);
+    }
+    
+    private InventoryResponse loadBySku(String sku) {
         Inventory inventory = inventoryRepository.findBySku(sku)
                 .orElseThrow(() -> new ResourceNotFoundException("Inventory with SKU: " + sku));
         
@@ -131,6 +148,29 @@ public class InventoryServiceImpl implements InventoryService {
         );
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<InventoryResponse> getSliceByMerchant(Long merchantId, Pageable pageable) {
+        Slice<Inventory> inventories = inventoryRepository.findSliceByMerchantId(merchantId, pageable);
+        return new SliceImpl<>(enrichInventoryWithProductNames(inventories.getContent()), pageable, inventories.hasNext());
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<InventoryResponse> getSliceAll(Pageable pageable) {
+        Slice<Inventory> inventories = inventoryRepository.findSliceBy(pageable);
+        return new SliceImpl<>(enrichInventoryWithProductNames(inventories.getContent()), pageable, inventories.hasNext());
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public long getApproximateCountByMerchant(Long merchantId) {
+        return merchantId != null
+                ? approximateCountService.get("inventory:merchant:" + merchantId,
+                        () -> inventoryRepository.countByMerchantId(merchantId))
+                : approximateCountService.get("inventory:all", inventoryRepository::count);
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public java.util.List<InventoryResponse> getByProductId(Long productId) {
@@ -0,0 +1,175 @@
+package com.trading.service.impl;
+
+import com.trading.config.SchedulingProperties;
+import com.trading.dto.response.JobLeaseResponse;
+import com.trading.entity.JobLease;
+import com.trading.repository.JobLeaseRepository;
+import com.trading.service.JobLeaseService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JobLeaseServiceImpl implements JobLeaseService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JobLeaseRepository jobLeaseRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final SchedulingProperties schedulingProperties;
+
+    private final ScheduledExecutorService renewalExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "job-lease-renewal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private String nodeId;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        nodeId = StringUtils.hasText(schedulingProperties.getNodeId())
+                ? schedulingProperties.getNodeId()
+                : hostName() + "-" + ProcessHandle.current().pid() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        log.info("Job lease node id: {}", nodeId);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renewalExecutor.shutdownNow();
+    }
+
+    @Override
+    public boolean runExclusively(String jobName, String tick, Runnable task) {
+        if (!tryAcquire(jobName, tick)) {
+            log.info("Job {} tick {} is held or already completed by another node, skipping", jobName, tick);
+            return false;
+        }
+        log.info("Node {} acquired lease for job {} tick {}", nodeId, jobName, tick);
+
+        long renewalPeriod = Math.max(1, schedulingProperties.getLeaseTtl().toMillis() / 3);
+        ScheduledFuture<?> renewal = renewalExecutor.scheduleAtFixedRate(
+                () -> renewLease(jobName, tick), renewalPeriod, renewalPeriod, TimeUnit.MILLISECONDS);
+        String error = null;
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            renewal.cancel(false);
+            complete(jobName, tick, error);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean renew(String jobName, String tick) {
+        LocalDateTime expiresAt = LocalDateTime.now().plus(schedulingProperties.getLeaseTtl());
+        Integer renewed = transactionTemplate.execute(status ->
+                jobLeaseRepository.renew(jobName, nodeId, tick, expiresAt));
+        return renewed != null && renewed > 0;
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public List<JobLeaseResponse> getLeases() {
+        LocalDateTime now = LocalDateTime.now();
+        return jobLeaseRepository.findAllByOrderByJobName().stream()
+                .map(lease -> {
+                    boolean active = lease.getCompletedAt() == null && lease.getExpiresAt().isAfter(now);
+                    return JobLeaseResponse.builder()
+                            .jobName(lease.getJobName())
+                            .holder(lease.getHolder())
+                            .tick(lease.getTick())
+                            .active(active)
+                            .heldByThisNode(active && nodeId.equals(lease.getHolder()))
+                            .acquiredAt(lease.getAcquiredAt())
+                            .expiresAt(lease.getExpiresAt())
+                            .completedAt(lease.getCompletedAt())
+                            .lastError(lease.getLastError())
+                            .build();
+                })
+                .toList();
+    }
+
+    /**
+     * Take over the job's lease row with a conditional update; if the job has no
+     * row yet, the first node to insert one wins (unique job name)
+     */
+    private boolean tryAcquire(String jobName, String tick) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(schedulingProperties.getLeaseTtl());
+
+        Integer updated = transactionTemplate.execute(status ->
+                jobLeaseRepository.acquire(jobName, nodeId, tick, now, expiresAt));
+        if (updated != null && updated > 0) {
+            return true;
+        }
+        return !jobLeaseRepository.existsByJobName(jobName) && insertLease(jobName, tick, now, expiresAt);
+    }
+
+    private boolean insertLease(String jobName, String tick, LocalDateTime now, LocalDateTime expiresAt) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jobLeaseRepository.saveAndFlush(JobLease.builder()
+                    .jobName(jobName)
+                    .holder(nodeId)
+                    .tick(tick)
+                    .acquiredAt(now)
+                    .expiresAt(expiresAt)
+                    .build()));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Lease for job {} was created concurrently by another node", jobName);
+            return false;
+        }
+    }
+
+    private void renewLease(String jobName, String tick) {
+        if (!renew(jobName, tick)) {
+            log.warn("Node {} lost the lease for job {} tick {} while running", nodeId, jobName, tick);
+        }
+    }
+
+    private void complete(String jobName, String tick, String error) {
+        String lastError = error != null && error.length() > MAX_ERROR_LENGTH
+                ? error.substring(0, MAX_ERROR_LENGTH)
+                : error;
+        transactionTemplate.executeWithoutResult(status ->
+                jobLeaseRepository.complete(jobName, nodeId, tick, LocalDateTime.now(), lastError));
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown-host";
+        }
+    }
+}
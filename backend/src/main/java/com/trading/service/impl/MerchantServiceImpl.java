@@ -7,17 +7,16 @@ import com.trading.dto.response.MerchantBalanceResponse;
 import com.trading.dto.response.MerchantResponse;
 import com.trading.dto.response.MerchantStatsResponse;
 import com.trading.entity.Merchant;
-import com.trading.enums.OrderStatus;
 import com.trading.exception.BusinessException;
 import com.trading.exception.ResourceNotFoundException;
 import com.trading.repository.MerchantRepository;
-import com.trading.repository.OrderRepository;
-import com.trading.repository.ProductRepository;
 import com.trading.service.AuthenticationService;
 import com.trading.service.MerchantService;
+import com.trading.service.MerchantStatsService;
+import com.trading.service.PasswordHashingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,28 +28,34 @@ import java.math.BigDecimal;
 public class MerchantServiceImpl implements MerchantService {
     
     private final MerchantRepository merchantRepository;
-    private final ProductRepository productRepository;
-    private final OrderRepository orderRepository;
+    private final MerchantStatsService merchantStatsService;
     private final AuthenticationService authenticationService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     
     @Override
-    @Transactional
     public MerchantResponse register(MerchantRegisterRequest request) {
         log.debug("Registering new merchant: {}", request.getUsername());
+        passwordHashingService.checkRegistrationAllowed();
         
         if (merchantRepository.existsByUsername(request.getUsername())) {
             throw new BusinessException(400, "Username already exists: " + request.getUsername());
         }
         
+        // BCrypt在专用线程池中计算，且不在事务内，哈希期间不占用数据库连接
         Merchant merchant = Merchant.builder()
                 .businessName(request.getBusinessName())
                 .username(request.getUsername())
-                .password(passwordEncoder.encode(request.getPassword())) // 使用BCrypt加密密码
+                .password(passwordHashingService.encode(request.getPassword())) // 使用BCrypt加密密码
                 .balance(BigDecimal.ZERO)
                 .build();
         
-        Merchant savedMerchant = merchantRepository.save(merchant);
+        Merchant savedMerchant;
+        try {
+            savedMerchant = merchantRepository.save(merchant);
+        } catch (DataIntegrityViolationException e) {
+            // 并发注册同一用户名，由唯一约束兜底
+            throw new BusinessException(400, "Username already exists: " + request.getUsername());
+        }
         log.info("Merchant registered successfully: id={}, username={}", 
                 savedMerchant.getId(), savedMerchant.getUsername());
         
@@ -58,7 +63,6 @@ public class MerchantServiceImpl implements MerchantService {
     }
     
     @Override
-    @Transactional(readOnly = true)
     public AuthResponse login(LoginRequest request) {
         log.debug("Delegating login request to AuthenticationService for username: {}", request.getUsername());
         
@@ -85,23 +89,14 @@ public class MerchantServiceImpl implements MerchantService {
     }
     
     @Override
-    @Transactional(readOnly = true)
     public MerchantStatsResponse getStats(Long merchantId) {
         log.debug("获取商家 {} 的统计数据", merchantId);
         
         // 验证商家存在
         findMerchantById(merchantId);
         
-        // 统计商品数量
-        Long productCount = productRepository.countByMerchantId(merchantId);
-        
-        // 统计待处理订单数量（状态为PAID的订单）
-        Long pendingOrders = orderRepository.countByMerchantIdAndStatus(merchantId, OrderStatus.PAID);
-        
-        return MerchantStatsResponse.builder()
-                .productCount(productCount)
-                .pendingOrders(pendingOrders)
-                .build();
+        // 统计数据由内存计数器提供，避免每次加载仪表盘都扫描商品和订单表
+        return merchantStatsService.getStats(merchantId);
     }
     
     private Merchant findMerchantById(Long merchantId) {
@@ -0,0 +1,352 @@
+package com.trading.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.trading.config.MerchantStatsProperties;
+import com.trading.dto.response.MerchantStatsResponse;
+import com.trading.enums.OrderStatus;
+import com.trading.repository.ArchivedOrderRepository;
+import com.trading.repository.InventoryRepository;
+import com.trading.repository.OrderRepository;
+import com.trading.repository.ProductRepository;
+import com.trading.service.MerchantStatsService;
+import com.trading.service.SettlementCounterService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Counters are applied only after the recording transaction commits, so a rolled back
+ * payment or cancellation never shows up on the dashboard. Merchants that are not
+ * cached are skipped by the write paths; their counters are read fresh on next access.
+ * Reconciliation replaces a merchant's counters only when no write was in flight or
+ * applied while the database was queried, so a delta is never counted twice.
+ */
+@Service
+@Slf4j
+public class MerchantStatsServiceImpl implements MerchantStatsService {
+
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final InventoryRepository inventoryRepository;
+    private final SettlementCounterService settlementCounterService;
+    private final MerchantStatsProperties properties;
+    private final Cache<Long, MerchantCounters> counters;
+    private final Counter loads;
+    private final Counter drifts;
+
+    public MerchantStatsServiceImpl(ProductRepository productRepository,
+                                    OrderRepository orderRepository,
+                                    ArchivedOrderRepository archivedOrderRepository,
+                                    InventoryRepository inventoryRepository,
+                                    SettlementCounterService settlementCounterService,
+                                    MerchantStatsProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.settlementCounterService = settlementCounterService;
+        this.properties = properties;
+        this.counters = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxCachedMerchants())
+                .expireAfterAccess(properties.getIdleExpiry())
+                .build();
+
+        Gauge.builder("merchant.stats.cached", counters, Cache::estimatedSize)
+                .description("Merchants with in-memory dashboard counters")
+                .register(meterRegistry);
+        this.loads = Counter.builder("merchant.stats.loads")
+                .description("Merchant counters loaded from the database")
+                .register(meterRegistry);
+        this.drifts = Counter.builder("merchant.stats.drift")
+                .description("Merchant counters corrected by reconciliation")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public MerchantStatsResponse getStats(Long merchantId) {
+        return counters.get(merchantId, this::load).snapshot(LocalDate.now()).toResponse();
+    }
+
+    @Override
+    public void recordProductCreated(Long merchantId) {
+        afterCommit(merchantId, merchantCounters -> merchantCounters.addProducts(1));
+    }
+
+    @Override
+    public void recordOrderTransition(Long merchantId, OrderStatus from, OrderStatus to, BigDecimal amount) {
+        LocalDate today = LocalDate.now();
+        afterCommit(merchantId, merchantCounters -> {
+            merchantCounters.moveOrder(from, to);
+            if (to == OrderStatus.PAID) {
+                merchantCounters.addRevenue(today, amount);
+            } else if (to == OrderStatus.REFUNDED) {
+                merchantCounters.addRevenue(today, amount.negate());
+            }
+        });
+    }
+
+    @Override
+    public void recordStockChange(Long merchantId, Integer before, Integer after) {
+        int threshold = properties.getLowStockThreshold();
+        boolean wasLow = before != null && before <= threshold;
+        boolean isLow = after <= threshold;
+        if (wasLow != isLow) {
+            afterCommit(merchantId, merchantCounters -> merchantCounters.addLowStock(isLow ? 1 : -1));
+        }
+    }
+
+    @Override
+    public int reconcile() {
+        int drifted = 0;
+        for (Map.Entry<Long, MerchantCounters> entry : counters.asMap().entrySet()) {
+            try {
+                if (reconcile(entry.getKey(), entry.getValue())) {
+                    drifted++;
+                }
+            } catch (Exception e) {
+                log.warn("Reconciling stats of merchant {} failed: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        return drifted;
+    }
+
+    /**
+     * 对账单个商家：在计数器没有进行中的写入时记录版本号并查询数据库，
+     * 查询期间版本号未变且仍无进行中的写入时才以数据库统计值替换计数器，否则重试；
+     * 持续有写入的商家留到下次对账
+     *
+     * @return 计数器是否与数据库不一致
+     */
+    private boolean reconcile(Long merchantId, MerchantCounters merchantCounters) {
+        for (int attempt = 0; attempt < RECONCILE_ATTEMPTS; attempt++) {
+            long version = merchantCounters.quietVersion();
+            if (version < 0) {
+                continue;
+            }
+            LocalDate today = LocalDate.now();
+            Snapshot before = merchantCounters.snapshot(today);
+            Snapshot stored = query(merchantId, today);
+            Boolean drifted = merchantCounters.reconcile(version, before, stored);
+            if (drifted == null) {
+                continue;
+            }
+            if (drifted) {
+                drifts.increment();
+                log.info("Merchant {} stats drifted: counters={}, database={}", merchantId, before, stored);
+            }
+            return drifted;
+        }
+        log.debug("Merchant {} stats kept changing during reconciliation, retrying next run", merchantId);
+        return false;
+    }
+
+    private MerchantCounters load(Long merchantId) {
+        loads.increment();
+        return new MerchantCounters(query(merchantId, LocalDate.now()));
+    }
+
+    /**
+     * 从数据库统计商家当前数据，订单数包含已归档订单；当日营业额取结算日计数器的流水入账减出账
+     */
+    private Snapshot query(Long merchantId, LocalDate today) {
+        Map<OrderStatus, Long> ordersByStatus = new EnumMap<>(OrderStatus.class);
+        for (Object[] row : orderRepository.countByMerchantIdGroupByStatus(merchantId)) {
+            ordersByStatus.put((OrderStatus) row[0], ((Number) row[1]).longValue());
+        }
+        for (Object[] row : archivedOrderRepository.countByMerchantIdGroupByStatus(merchantId)) {
+            ordersByStatus.merge((OrderStatus) row[0], ((Number) row[1]).longValue(), Long::sum);
+        }
+        BigDecimal todayRevenue = settlementCounterService.getCounter(merchantId, today)
+                .map(counter -> counter.getLedgerCredits().subtract(counter.getLedgerDebits()))
+                .orElse(BigDecimal.ZERO);
+        return new Snapshot(
+                productRepository.countByMerchantId(merchantId),
+                ordersByStatus,
+                today,
+                todayRevenue,
+                inventoryRepository.countByMerchantIdAndQuantityLessThanEqual(merchantId, properties.getLowStockThreshold()));
+    }
+
+    /**
+     * 提交后应用增量；事务进行期间计数器登记为有进行中的写入，对账不会在此期间替换计数器
+     */
+    private void afterCommit(Long merchantId, Consumer<MerchantCounters> update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            MerchantCounters merchantCounters = counters.getIfPresent(merchantId);
+            if (merchantCounters != null) {
+                merchantCounters.apply(update);
+            }
+            return;
+        }
+        MerchantCounters registered = counters.getIfPresent(merchantId);
+        if (registered != null) {
+            registered.begin();
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                MerchantCounters merchantCounters = registered != null ? registered : counters.getIfPresent(merchantId);
+                if (merchantCounters != null) {
+                    merchantCounters.apply(update);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (registered != null) {
+                    registered.end();
+                }
+            }
+        });
+    }
+
+    /**
+     * 某一时刻的商家统计值
+     */
+    record Snapshot(long productCount, Map<OrderStatus, Long> ordersByStatus,
+                    LocalDate revenueDate, BigDecimal todayRevenue, long lowStockSkus) {
+
+        long orders(OrderStatus status) {
+            return ordersByStatus.getOrDefault(status, 0L);
+        }
+
+        MerchantStatsResponse toResponse() {
+            Map<OrderStatus, Long> allStatuses = new EnumMap<>(OrderStatus.class);
+            for (OrderStatus status : OrderStatus.values()) {
+                allStatuses.put(status, orders(status));
+            }
+            return MerchantStatsResponse.builder()
+                    .productCount(productCount)
+                    .pendingOrders(orders(OrderStatus.PAID))
+                    .ordersByStatus(allStatuses)
+                    .todayRevenue(todayRevenue)
+                    .lowStockSkus(lowStockSkus)
+                    .build();
+        }
+    }
+
+    /**
+     * 单个商家的内存计数器，所有读写在对象锁内完成
+     * 每次应用增量递增版本号，pending为已登记但尚未结束的写入事务数
+     */
+    static final class MerchantCounters {
+
+        private long version;
+        private int pending;
+        private long productCount;
+        private final Map<OrderStatus, Long> ordersByStatus = new EnumMap<>(OrderStatus.class);
+        private LocalDate revenueDate;
+        private BigDecimal todayRevenue;
+        private long lowStockSkus;
+
+        MerchantCounters(Snapshot initial) {
+            set(initial);
+        }
+
+        synchronized void begin() {
+            pending++;
+        }
+
+        synchronized void end() {
+            pending--;
+        }
+
+        synchronized void apply(Consumer<MerchantCounters> update) {
+            update.accept(this);
+            version++;
+        }
+
+        /**
+         * @return 当前版本号，有进行中的写入时返回-1
+         */
+        synchronized long quietVersion() {
+            return pending == 0 ? version : -1;
+        }
+
+        synchronized void addProducts(long delta) {
+            productCount += delta;
+        }
+
+        synchronized void moveOrder(OrderStatus from, OrderStatus to) {
+            if (from != null) {
+                ordersByStatus.merge(from, -1L, Long::sum);
+            }
+            ordersByStatus.merge(to, 1L, Long::sum);
+        }
+
+        synchronized void addRevenue(LocalDate date, BigDecimal amount) {
+            rollOver(date);
+            todayRevenue = todayRevenue.add(amount);
+        }
+
+        synchronized void addLowStock(long delta) {
+            lowStockSkus += delta;
+        }
+
+        synchronized Snapshot snapshot(LocalDate today) {
+            rollOver(today);
+            return new Snapshot(productCount, new EnumMap<>(ordersByStatus), revenueDate, todayRevenue, lowStockSkus);
+        }
+
+        /**
+         * 查询数据库期间计数器未变化时以数据库统计值为准
+         *
+         * @param version 查询数据库前的版本号
+         * @param before  查询数据库前的计数器快照
+         * @param stored  数据库统计值
+         * @return 计数器是否与数据库不一致；查询期间有写入进行或已应用时返回null，计数器保持不变
+         */
+        synchronized Boolean reconcile(long version, Snapshot before, Snapshot stored) {
+            if (pending != 0 || this.version != version) {
+                return null;
+            }
+            boolean drifted = before.productCount() != stored.productCount()
+                    || before.lowStockSkus() != stored.lowStockSkus()
+                    || before.todayRevenue().compareTo(stored.todayRevenue()) != 0
+                    || !nonZero(before.ordersByStatus()).equals(nonZero(stored.ordersByStatus()));
+            set(stored);
+            return drifted;
+        }
+
+        private void set(Snapshot snapshot) {
+            productCount = snapshot.productCount();
+            ordersByStatus.clear();
+            ordersByStatus.putAll(snapshot.ordersByStatus());
+            revenueDate = snapshot.revenueDate();
+            todayRevenue = snapshot.todayRevenue();
+            lowStockSkus = snapshot.lowStockSkus();
+        }
+
+        private void rollOver(LocalDate today) {
+            if (!today.equals(revenueDate)) {
+                revenueDate = today;
+                todayRevenue = BigDecimal.ZERO;
+            }
+        }
+
+        private static Map<OrderStatus, Long> nonZero(Map<OrderStatus, Long> counts) {
+            Map<OrderStatus, Long> result = new EnumMap<>(OrderStatus.class);
+            counts.forEach((status, count) -> {
+                if (count != 0) {
+                    result.put(status, count);
+                }
+            });
+            return result;
+        }
+    }
+}
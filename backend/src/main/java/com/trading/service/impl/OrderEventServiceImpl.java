@@ -0,0 +1,453 @@
+package com.trading.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.config.OrderEventProperties;
+import com.trading.dto.response.OrderEventResponse;
+import com.trading.entity.Order;
+import com.trading.exception.ThrottledException;
+import com.trading.service.OrderEventService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Each merchant is pinned to one single-threaded dispatcher, which owns the merchant's
+ * replay buffer and queues every frame for its subscribers. Publishing, replay on
+ * subscribe and heartbeats for a merchant are therefore serialized without locks, and
+ * subscribers see events in event ID order with no gaps or duplicates across a resume.
+ * The writes to the connections happen on a separate sender pool, one drain at a time
+ * per subscriber; a subscriber whose queue fills up or whose write blocks past the send
+ * timeout is disconnected and resumes with Last-Event-ID, so a slow client never holds
+ * up the dispatcher or the other subscribers.
+ */
+@Service
+@Slf4j
+public class OrderEventServiceImpl implements OrderEventService {
+
+    private static final String RESYNC_EVENT = "resync";
+    private static final String TOO_MANY_STREAMS = "Too many open event streams for this merchant";
+    private static final String DISPATCH_BUSY = "Order event service is busy, please retry later";
+
+    private final OrderEventProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Map<Long, MerchantChannel> channels = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor[] dispatchers;
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeatExecutor;
+
+    /**
+     * Seeded from the clock so IDs keep increasing across restarts and a Last-Event-ID
+     * issued by a previous process is never mistaken for a future event
+     */
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Counter publishedCounter;
+    private final Counter droppedCounter;
+    private final Counter slowSubscriberCounter;
+
+    public OrderEventServiceImpl(OrderEventProperties properties,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+
+        this.dispatchers = new ThreadPoolExecutor[properties.getDispatchThreads()];
+        for (int i = 0; i < dispatchers.length; i++) {
+            String threadName = "order-events-" + (i + 1);
+            dispatchers[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(properties.getDispatchQueueCapacity()),
+                    runnable -> daemonThread(runnable, threadName),
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+
+        AtomicInteger senderCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(properties.getSendThreads(),
+                runnable -> daemonThread(runnable, "order-events-send-" + senderCount.incrementAndGet()));
+
+        long heartbeatMillis = Math.max(1, properties.getHeartbeatInterval().toMillis());
+        this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(
+                runnable -> daemonThread(runnable, "order-events-heartbeat"));
+        heartbeatExecutor.scheduleWithFixedDelay(
+                this::scheduleHeartbeats, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("order.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open order event streams")
+                .register(meterRegistry);
+        Gauge.builder("order.events.dispatch.queue", dispatchers,
+                        executors -> Arrays.stream(executors).mapToInt(e -> e.getQueue().size()).sum())
+                .description("Order event deliveries waiting for a dispatcher")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("order.events.published")
+                .description("Order events delivered to the merchant channels")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("order.events.dropped")
+                .description("Order events dropped because the dispatcher queue was full")
+                .register(meterRegistry);
+        this.slowSubscriberCounter = Counter.builder("order.events.slow.subscribers")
+                .description("Order event streams disconnected because the client did not keep up")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeatExecutor.shutdownNow();
+        for (ThreadPoolExecutor dispatcher : dispatchers) {
+            dispatcher.shutdownNow();
+        }
+        senders.shutdownNow();
+        channels.values().forEach(channel -> channel.subscribers.forEach(s -> s.emitter.complete()));
+    }
+
+    @Override
+    public void publish(Order order) {
+        Long merchantId = order.getMerchantId();
+        OrderEventResponse event = OrderEventResponse.builder()
+                .status(order.getStatus())
+                .orderId(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .merchantId(merchantId)
+                .userId(order.getUserId())
+                .totalAmount(order.getTotalAmount())
+                .occurredAt(LocalDateTime.now())
+                .build();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(merchantId, () -> dispatch(merchantId, event));
+                }
+            });
+        } else {
+            enqueue(merchantId, () -> dispatch(merchantId, event));
+        }
+    }
+
+    @Override
+    public SseEmitter subscribe(Long merchantId, String lastEventId) {
+        MerchantChannel channel = reserve(merchantId);
+        SseEmitter emitter = createEmitter();
+        Subscriber subscriber = new Subscriber(emitter, properties.getSubscriberQueueCapacity());
+        subscriberCount.incrementAndGet();
+
+        emitter.onCompletion(() -> release(channel, subscriber));
+        emitter.onTimeout(() -> release(channel, subscriber));
+        emitter.onError(e -> release(channel, subscriber));
+
+        Long resumeAfter = parseEventId(lastEventId);
+        try {
+            dispatcherFor(merchantId).execute(() -> attach(channel, subscriber, resumeAfter));
+        } catch (RejectedExecutionException e) {
+            release(channel, subscriber);
+            throw new ThrottledException(503, DISPATCH_BUSY, properties.getReconnectDelay().toSeconds());
+        }
+
+        log.debug("Merchant {} opened an order event stream (resume after {})", merchantId, resumeAfter);
+        return emitter;
+    }
+
+    /**
+     * 创建SSE连接，测试中可替换
+     *
+     * @return SSE连接
+     */
+    protected SseEmitter createEmitter() {
+        return new SseEmitter(properties.getEmitterTimeout().toMillis());
+    }
+
+    /**
+     * 为订阅占用商家的连接名额
+     * 商家通道可能正被心跳线程回收，回收后重新创建
+     */
+    private MerchantChannel reserve(Long merchantId) {
+        while (true) {
+            MerchantChannel channel = channels.computeIfAbsent(merchantId, id -> new MerchantChannel(id, sequence.get()));
+            synchronized (channel) {
+                if (channel.removed) {
+                    continue;
+                }
+                if (channel.reserved >= properties.getMaxSubscribersPerMerchant()) {
+                    throw new ThrottledException(429, TOO_MANY_STREAMS, properties.getReconnectDelay().toSeconds());
+                }
+                channel.reserved++;
+                return channel;
+            }
+        }
+    }
+
+    /**
+     * @return 是否由本次调用释放
+     */
+    private boolean release(MerchantChannel channel, Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return false;
+        }
+        subscriber.pending.clear();
+        channel.subscribers.remove(subscriber);
+        synchronized (channel) {
+            channel.reserved--;
+        }
+        channel.lastActivity = System.currentTimeMillis();
+        subscriberCount.decrementAndGet();
+        return true;
+    }
+
+    private void enqueue(Long merchantId, Runnable task) {
+        try {
+            dispatcherFor(merchantId).execute(task);
+        } catch (RejectedExecutionException e) {
+            droppedCounter.increment();
+            log.warn("Order event dispatcher queue is full, dropping event for merchant {}", merchantId);
+        }
+    }
+
+    private ThreadPoolExecutor dispatcherFor(Long merchantId) {
+        return dispatchers[Math.floorMod(merchantId.hashCode(), dispatchers.length)];
+    }
+
+    /**
+     * 在商家所属的推送线程上执行：分配事件ID、写入补发缓冲并推送给全部订阅者
+     * JSON只序列化一次，各订阅者共享
+     */
+    private void dispatch(Long merchantId, OrderEventResponse event) {
+        MerchantChannel channel = channels.computeIfAbsent(merchantId, id -> new MerchantChannel(id, sequence.get()));
+        event.setEventId(sequence.incrementAndGet());
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize order event for order {}", event.getOrderId(), e);
+            return;
+        }
+
+        RetainedEvent retained = new RetainedEvent(event.getEventId(), eventName(event), json);
+        channel.recent.addLast(retained);
+        while (channel.recent.size() > properties.getReplayBufferSize()) {
+            channel.evictedThrough = channel.recent.removeFirst().id();
+        }
+        channel.lastActivity = System.currentTimeMillis();
+
+        for (Subscriber subscriber : channel.subscribers) {
+            send(channel, subscriber, retained.toSse());
+        }
+        publishedCounter.increment();
+    }
+
+    /**
+     * 在商家所属的推送线程上执行：补发Last-Event-ID之后的事件，然后开始接收实时事件
+     */
+    private void attach(MerchantChannel channel, Subscriber subscriber, Long resumeAfter) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        send(channel, subscriber, SseEmitter.event()
+                .reconnectTime(properties.getReconnectDelay().toMillis())
+                .comment("connected"));
+
+        if (resumeAfter != null) {
+            if (resumeAfter < channel.evictedThrough) {
+                // 部分事件已不在缓冲中，客户端需要重新拉取订单列表
+                send(channel, subscriber, SseEmitter.event().name(RESYNC_EVENT).data(RESYNC_EVENT));
+            }
+            for (RetainedEvent retained : channel.recent) {
+                if (retained.id() > resumeAfter) {
+                    send(channel, subscriber, retained.toSse());
+                }
+            }
+        }
+        if (!subscriber.closed.get()) {
+            channel.subscribers.add(subscriber);
+        }
+    }
+
+    private void scheduleHeartbeats() {
+        for (MerchantChannel channel : channels.values()) {
+            try {
+                dispatcherFor(channel.merchantId).execute(() -> heartbeat(channel));
+            } catch (RejectedExecutionException e) {
+                // 推送线程积压时跳过本轮心跳
+            }
+        }
+    }
+
+    /**
+     * 在商家所属的推送线程上执行：发送心跳，清理已断开的订阅，回收长时间无订阅的商家通道
+     */
+    private void heartbeat(MerchantChannel channel) {
+        long now = System.currentTimeMillis();
+        long sendTimeoutMillis = properties.getSendTimeout().toMillis();
+        for (Subscriber subscriber : channel.subscribers) {
+            long sendingSince = subscriber.sendingSince;
+            if (sendingSince != 0 && now - sendingSince > sendTimeoutMillis) {
+                disconnectSlow(channel, subscriber, "a write has been blocked for " + (now - sendingSince) + " ms");
+                continue;
+            }
+            send(channel, subscriber, SseEmitter.event().comment("heartbeat"));
+        }
+        long idleMillis = System.currentTimeMillis() - channel.lastActivity;
+        synchronized (channel) {
+            if (channel.reserved == 0 && idleMillis > properties.getReplayRetention().toMillis()) {
+                channel.removed = true;
+                channels.remove(channel.merchantId, channel);
+            }
+        }
+    }
+
+    /**
+     * 将事件放入订阅者的发送队列，由发送线程写入连接；队列已满时断开该订阅者
+     */
+    private void send(MerchantChannel channel, Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        if (!subscriber.pending.offer(event)) {
+            disconnectSlow(channel, subscriber, subscriber.pending.size() + " events waiting");
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(channel, subscriber));
+            } catch (RejectedExecutionException e) {
+                // 服务正在关闭
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    /**
+     * 在发送线程上执行：按顺序写出订阅者队列中的事件，队列为空时结束
+     */
+    private void drain(MerchantChannel channel, Subscriber subscriber) {
+        while (true) {
+            SseEmitter.SseEventBuilder event;
+            while ((event = subscriber.pending.poll()) != null) {
+                if (subscriber.closed.get()) {
+                    subscriber.pending.clear();
+                    break;
+                }
+                subscriber.sendingSince = System.currentTimeMillis();
+                try {
+                    subscriber.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // 连接已断开或已完成，容器会另行回调onError/onCompletion
+                    log.debug("Dropping order event subscriber of merchant {}: {}", channel.merchantId, e.getMessage());
+                    release(channel, subscriber);
+                } finally {
+                    subscriber.sendingSince = 0;
+                }
+            }
+            subscriber.draining.set(false);
+            // 结束前再次检查，避免与入队线程错过彼此
+            if (subscriber.pending.isEmpty() || !subscriber.draining.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 断开跟不上推送的订阅者；客户端重连后按Last-Event-ID补发或收到resync
+     * SseEmitter的写入和完成互斥，完成操作交给发送线程，不阻塞推送线程
+     */
+    private void disconnectSlow(MerchantChannel channel, Subscriber subscriber, String reason) {
+        if (!release(channel, subscriber)) {
+            return;
+        }
+        slowSubscriberCounter.increment();
+        log.warn("Disconnecting slow order event subscriber of merchant {}: {}", channel.merchantId, reason);
+        try {
+            senders.execute(subscriber.emitter::complete);
+        } catch (RejectedExecutionException e) {
+            // 服务正在关闭，连接随之结束
+        }
+    }
+
+    private static String eventName(OrderEventResponse event) {
+        return "order-" + event.getStatus().name().toLowerCase(Locale.ROOT);
+    }
+
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Thread daemonThread(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * 单个商家的订阅者和补发缓冲
+     * recent和evictedThrough只在该商家的推送线程上访问；reserved和removed在通道锁内访问
+     */
+    private static final class MerchantChannel {
+
+        private final Long merchantId;
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private final ArrayDeque<RetainedEvent> recent = new ArrayDeque<>();
+        /**
+         * 不在缓冲中的最大事件ID；通道创建前的事件一律视为不在缓冲中
+         */
+        private long evictedThrough;
+        private int reserved;
+        private boolean removed;
+        private volatile long lastActivity = System.currentTimeMillis();
+
+        private MerchantChannel(Long merchantId, long createdAtSequence) {
+            this.merchantId = merchantId;
+            this.evictedThrough = createdAtSequence;
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final BlockingQueue<SseEmitter.SseEventBuilder> pending;
+        /**
+         * 是否已有发送线程在写出队列
+         */
+        private final AtomicBoolean draining = new AtomicBoolean();
+        /**
+         * 当前写入的开始时间，未在写入时为0
+         */
+        private volatile long sendingSince;
+
+        private Subscriber(SseEmitter emitter, int queueCapacity) {
+            this.emitter = emitter;
+            this.pending = new ArrayBlockingQueue<>(queueCapacity);
+        }
+    }
+
+    private record RetainedEvent(long id, String name, String json) {
+
+        SseEmitter.SseEventBuilder toSse() {
+            return SseEmitter.event().id(String.valueOf(id)).name(name).data(json);
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.trading.service.impl;
 
 import com.trading.dto.request.DirectPurchaseRequest;
-import com.trading.dto.response.OrderItemResponse;
 import com.trading.dto.response.OrderResponse;
 import com.trading.entity.*;
 import com.trading.enums.OrderStatus;
@@ -11,13 +10,25 @@ import com.trading.exception.InsufficientBalanceException;
 import com.trading.exception.InsufficientStockException;
 import com.trading.exception.InvalidOperationException;
 import com.trading.exception.ResourceNotFoundException;
+import com.trading.monitoring.StageTimers;
+import com.trading.monitoring.StageTimers.StageTimer;
+import com.trading.monitoring.jfr.InventoryConflictEvent;
+import com.trading.monitoring.jfr.OrderCreationEvent;
+import com.trading.monitoring.jfr.PaymentEvent;
 import com.trading.repository.*;
+import com.trading.service.ApproximateCountService;
+import com.trading.service.CatalogCacheService;
+import com.trading.service.MerchantStatsService;
+import com.trading.service.OrderEventService;
 import com.trading.service.OrderService;
+import com.trading.service.SettlementCounterService;
 import com.trading.service.TransactionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,6 +38,7 @@ import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -40,23 +52,37 @@ public class OrderServiceImpl implements OrderService {
 
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ArchivedOrderItemRepository archivedOrderItemRepository;
     private final CartItemRepository cartItemRepository;
     private final InventoryRepository inventoryRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
     private final MerchantRepository merchantRepository;
     private final TransactionService transactionService;
+    private final SettlementCounterService settlementCounterService;
+    private final OrderEventService orderEventService;
+    private final MerchantStatsService merchantStatsService;
+    private final CatalogCacheService catalogCacheService;
+    private final ApproximateCountService approximateCountService;
+    private final StageTimers stageTimers;
 
     @Override
     @Transactional
     public OrderResponse createFromCart(Long userId) {
         log.debug("从购物车为用户 {} 创建订单", userId);
+        StageTimer timer = stageTimers.start("createFromCart");
+        OrderCreationEvent event = new OrderCreationEvent();
+        event.source = "cart";
+        event.userId = userId;
+        event.beginInTransaction();
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", userId));
 
         List<CartItem> cartItems = cartItemRepository.findByUserId(userId);
         if (cartItems.isEmpty()) {
+            event.fail("empty_cart");
             throw new InvalidOperationException("购物车为空");
         }
 
@@ -64,18 +90,9 @@ public class OrderServiceImpl implements OrderService {
         Inventory firstInventory = inventoryRepository.findBySku(cartItems.get(0).getSku())
                 .orElseThrow(() -> new ResourceNotFoundException("Inventory", cartItems.get(0).getSku()));
         Long merchantId = firstInventory.getMerchantId();
+        timer.items(cartItems.size(), cartItems.stream().mapToInt(CartItem::getQuantity).sum()).stage("load");
 
-        // 创建订单
-        Order order = Order.builder()
-                .orderNumber(generateOrderNumber())
-                .userId(userId)
-                .merchantId(merchantId)
-                .totalAmount(BigDecimal.ZERO)
-                .status(OrderStatus.PENDING)
-                .build();
-
-        BigDecimal totalAmount = BigDecimal.ZERO;
-
+        List<OrderLine> lines = new ArrayList<>(cartItems.size());
         for (CartItem cartItem : cartItems) {
             Inventory inventory = inventoryRepository.findBySku(cartItem.getSku())
                     .orElseThrow(() -> new ResourceNotFoundException("Inventory", cartItem.getSku()));
@@ -83,22 +100,18 @@ public class OrderServiceImpl implements OrderService {
             Product product = productRepository.findById(inventory.getProductId())
                     .orElseThrow(() -> new ResourceNotFoundException("Product", inventory.getProductId()));
 
-            BigDecimal subtotal = inventory.getPrice().multiply(BigDecimal.valueOf(cartItem.getQuantity()));
-
-            OrderItem orderItem = OrderItem.builder()
-                    .sku(cartItem.getSku())
-                    .productName(product.getName())
-                    .quantity(cartItem.getQuantity())
-                    .unitPrice(inventory.getPrice())
-                    .subtotal(subtotal)
-                    .build();
-
-            order.addItem(orderItem);
-            totalAmount = totalAmount.add(subtotal);
+            lines.add(new OrderLine(cartItem.getSku(), product.getName(), cartItem.getQuantity(), inventory.getPrice()));
         }
 
-        order.setTotalAmount(totalAmount);
+        // 创建订单
+        Order order = buildOrder(generateOrderNumber(), userId, merchantId, lines);
+        BigDecimal totalAmount = order.getTotalAmount();
+        timer.stage("pricing");
+
         Order savedOrder = orderRepository.save(order);
+        merchantStatsService.recordOrderTransition(merchantId, null, OrderStatus.PENDING, totalAmount);
+        timer.stage("save");
+        describe(event, savedOrder);
 
         log.info("为用户 {} 从购物车创建订单 {}", savedOrder.getOrderNumber(), userId);
         return toOrderResponse(savedOrder);
@@ -109,6 +122,10 @@ public class OrderServiceImpl implements OrderService {
     public OrderResponse createDirect(Long userId, DirectPurchaseRequest request) {
         log.debug("为用户 {} 创建直接购买订单: sku={}, quantity={}",
                 userId, request.getSku(), request.getQuantity());
+        OrderCreationEvent event = new OrderCreationEvent();
+        event.source = "direct";
+        event.userId = userId;
+        event.beginInTransaction();
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", userId));
@@ -119,26 +136,12 @@ public class OrderServiceImpl implements OrderService {
         Product product = productRepository.findById(inventory.getProductId())
                 .orElseThrow(() -> new ResourceNotFoundException("Product", inventory.getProductId()));
 
-        BigDecimal subtotal = inventory.getPrice().multiply(BigDecimal.valueOf(request.getQuantity()));
-
-        Order order = Order.builder()
-                .orderNumber(generateOrderNumber())
-                .userId(userId)
-                .merchantId(inventory.getMerchantId())
-                .totalAmount(subtotal)
-                .status(OrderStatus.PENDING)
-                .build();
-
-        OrderItem orderItem = OrderItem.builder()
-                .sku(request.getSku())
-                .productName(product.getName())
-                .quantity(request.getQuantity())
-                .unitPrice(inventory.getPrice())
-                .subtotal(subtotal)
-                .build();
-
-        order.addItem(orderItem);
+        Order order = buildOrder(generateOrderNumber(), userId, inventory.getMerchantId(), List.of(
+                new OrderLine(request.getSku(), product.getName(), request.getQuantity(), inventory.getPrice())));
+        BigDecimal subtotal = order.getTotalAmount();
         Order savedOrder = orderRepository.save(order);
+        merchantStatsService.recordOrderTransition(savedOrder.getMerchantId(), null, OrderStatus.PENDING, subtotal);
+        describe(event, savedOrder);
 
         log.info("为用户 {} 创建直接购买订单 {}", savedOrder.getOrderNumber(), userId);
         return toOrderResponse(savedOrder);
@@ -148,11 +151,16 @@ public class OrderServiceImpl implements OrderService {
     @Transactional
     public OrderResponse confirmPayment(Long orderId) {
         log.debug("确认订单 {} 的支付", orderId);
+        StageTimer timer = stageTimers.start("confirmPayment");
+        PaymentEvent event = new PaymentEvent();
+        event.orderId = orderId;
+        event.beginInTransaction();
 
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", orderId));
 
         if (order.getStatus() != OrderStatus.PENDING) {
+            event.fail("not_pending");
             throw new InvalidOperationException("订单不在待支付状态");
         }
 
@@ -161,17 +169,28 @@ public class OrderServiceImpl implements OrderService {
 
         Merchant merchant = merchantRepository.findById(order.getMerchantId())
                 .orElseThrow(() -> new ResourceNotFoundException("Merchant", order.getMerchantId()));
+        timer.items(order.getItems().size(), order.getItems().stream().mapToInt(OrderItem::getQuantity).sum())
+                .stage("load");
+        event.userId = order.getUserId();
+        event.merchantId = order.getMerchantId();
+        event.skuCount = order.getItems().size();
+        event.itemCount = order.getItems().stream().mapToInt(OrderItem::getQuantity).sum();
+        event.amount = order.getTotalAmount().doubleValue();
 
         // 检查用户余额
         if (user.getBalance().compareTo(order.getTotalAmount()) < 0) {
+            event.fail("insufficient_balance");
             order.setStatus(OrderStatus.CANCELLED);
             orderRepository.save(order);
             throw new InsufficientBalanceException("余额不足");
         }
 
+        // 正在扣减库存的SKU，用于记录乐观锁冲突
+        String currentSku = null;
         try {
             // 检查并减少每件商品的库存
             for (OrderItem item : order.getItems()) {
+                currentSku = item.getSku();
                 Inventory inventory = inventoryRepository.findBySku(item.getSku())
                         .orElseThrow(() -> new ResourceNotFoundException("Inventory", item.getSku()));
 
@@ -180,6 +199,7 @@ public class OrderServiceImpl implements OrderService {
                 
                 // Check if new quantity would be negative
                 if (newQuantity < 0) {
+                    event.fail("insufficient_stock");
                     order.setStatus(OrderStatus.CANCELLED);
                     orderRepository.save(order);
                     throw new InsufficientStockException("SKU: " + item.getSku() + " 库存不足");
@@ -188,9 +208,14 @@ public class OrderServiceImpl implements OrderService {
                 // Set new quantity - optimistic lock check happens on save
                 // JPA will automatically include WHERE version = ? in the UPDATE statement
                 // If another transaction modified this inventory, OptimisticLockException will be thrown
+                Integer quantityBefore = inventory.getQuantity();
                 inventory.setQuantity(newQuantity);
                 inventoryRepository.saveAndFlush(inventory);
+                merchantStatsService.recordStockChange(inventory.getMerchantId(), quantityBefore, newQuantity);
+                catalogCacheService.stockChanged(inventory.getSku());
             }
+            currentSku = null;
+            timer.stage("inventory");
 
             // 扣除用户余额
             BigDecimal userBalanceBefore = user.getBalance();
@@ -201,10 +226,14 @@ public class OrderServiceImpl implements OrderService {
             BigDecimal merchantBalanceBefore = merchant.getBalance();
             merchant.setBalance(merchant.getBalance().add(order.getTotalAmount()));
             merchantRepository.save(merchant);
+            timer.stage("balances");
 
             // 更新订单状态
             order.setStatus(OrderStatus.PAID);
             Order savedOrder = orderRepository.save(order);
+            merchantStatsService.recordOrderTransition(
+                    savedOrder.getMerchantId(), OrderStatus.PENDING, OrderStatus.PAID, savedOrder.getTotalAmount());
+            timer.stage("order");
 
             // 创建交易记录
             transactionService.createUserTransaction(
@@ -224,15 +253,22 @@ public class OrderServiceImpl implements OrderService {
                     merchant.getBalance(),
                     order.getId()
             );
+            timer.stage("ledger");
 
             // 支付成功后清空购物车
             cartItemRepository.deleteByUserId(order.getUserId());
+            timer.stage("cart");
+
+            // 事务提交后推送给商家的订单事件订阅者
+            orderEventService.publish(savedOrder);
 
             log.info("订单 {} 支付确认", savedOrder.getOrderNumber());
             return toOrderResponse(savedOrder);
             
         } catch (OptimisticLockException | ObjectOptimisticLockingFailureException e) {
             // Concurrent modification detected - rollback happens automatically
+            event.fail("conflict");
+            InventoryConflictEvent.record(currentSku, orderId, order.getMerchantId());
             order.setStatus(OrderStatus.CANCELLED);
             orderRepository.save(order);
             throw new ConcurrencyException("库存已被其他交易更新，请重试");
@@ -253,6 +289,8 @@ public class OrderServiceImpl implements OrderService {
 
         order.setStatus(OrderStatus.SHIPPED);
         Order savedOrder = orderRepository.save(order);
+        merchantStatsService.recordOrderTransition(
+                savedOrder.getMerchantId(), OrderStatus.PAID, OrderStatus.SHIPPED, savedOrder.getTotalAmount());
 
         log.info("订单 {} 已发货", savedOrder.getOrderNumber());
         return toOrderResponse(savedOrder);
@@ -271,7 +309,14 @@ public class OrderServiceImpl implements OrderService {
         }
 
         order.setStatus(OrderStatus.COMPLETED);
-        Order savedOrder = orderRepository.save(order);
+        // 立即刷新，使@PreUpdate写入的完成时间可用于计数器日期
+        Order savedOrder = orderRepository.saveAndFlush(order);
+        merchantStatsService.recordOrderTransition(
+                savedOrder.getMerchantId(), OrderStatus.SHIPPED, OrderStatus.COMPLETED, savedOrder.getTotalAmount());
+
+        // 累加商家完成当日的销售额计数器，与结算按updatedAt划分日期一致
+        settlementCounterService.recordSale(savedOrder.getMerchantId(), savedOrder.getTotalAmount(),
+                savedOrder.getUpdatedAt());
 
         log.info("订单 {} 已完成", savedOrder.getOrderNumber());
         return toOrderResponse(savedOrder);
@@ -291,6 +336,10 @@ public class OrderServiceImpl implements OrderService {
 
         order.setStatus(OrderStatus.CANCELLED);
         Order savedOrder = orderRepository.save(order);
+        merchantStatsService.recordOrderTransition(
+                savedOrder.getMerchantId(), OrderStatus.PENDING, OrderStatus.CANCELLED, savedOrder.getTotalAmount());
+
+        orderEventService.publish(savedOrder);
 
         log.info("订单 {} 已取消", savedOrder.getOrderNumber());
         return toOrderResponse(savedOrder);
@@ -300,6 +349,7 @@ public class OrderServiceImpl implements OrderService {
     @Transactional
     public OrderResponse refund(Long orderId) {
         log.debug("退款订单 {}", orderId);
+        StageTimer timer = stageTimers.start("refund");
 
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", orderId));
@@ -313,6 +363,8 @@ public class OrderServiceImpl implements OrderService {
 
         Merchant merchant = merchantRepository.findById(order.getMerchantId())
                 .orElseThrow(() -> new ResourceNotFoundException("Merchant", order.getMerchantId()));
+        timer.items(order.getItems().size(), order.getItems().stream().mapToInt(OrderItem::getQuantity).sum())
+                .stage("load");
 
         // 退款给用户
         BigDecimal userBalanceBefore = user.getBalance();
@@ -323,10 +375,19 @@ public class OrderServiceImpl implements OrderService {
         BigDecimal merchantBalanceBefore = merchant.getBalance();
         merchant.setBalance(merchant.getBalance().subtract(order.getTotalAmount()));
         merchantRepository.save(merchant);
+        timer.stage("balances");
 
         // 更新订单状态
+        OrderStatus statusBefore = order.getStatus();
         order.setStatus(OrderStatus.REFUNDED);
-        Order savedOrder = orderRepository.save(order);
+        Order savedOrder = orderRepository.saveAndFlush(order);
+        merchantStatsService.recordOrderTransition(
+                savedOrder.getMerchantId(), statusBefore, OrderStatus.REFUNDED, savedOrder.getTotalAmount());
+
+        // 累加商家退款当日的退款额计数器
+        settlementCounterService.recordRefund(savedOrder.getMerchantId(), savedOrder.getTotalAmount(),
+                savedOrder.getUpdatedAt());
+        timer.stage("order");
 
         // 创建交易记录
         transactionService.createUserTransaction(
@@ -346,6 +407,9 @@ public class OrderServiceImpl implements OrderService {
                 merchant.getBalance(),
                 order.getId()
         );
+        timer.stage("ledger");
+
+        orderEventService.publish(savedOrder);
 
         log.info("订单 {} 已退款", savedOrder.getOrderNumber());
         return toOrderResponse(savedOrder);
@@ -355,6 +419,8 @@ public class OrderServiceImpl implements OrderService {
     @Transactional(readOnly = true)
     public OrderResponse getById(Long orderId) {
         Order order = orderRepository.findById(orderId)
+                .or(() -> archivedOrderRepository.findById(orderId)
+                        .map(archived -> archived.toOrder(archivedOrderItemRepository.findByOrderIdIn(List.of(orderId)))))
                 .orElseThrow(() -> new ResourceNotFoundException("Order", orderId));
         
         // 获取用户名
@@ -362,28 +428,16 @@ public class OrderServiceImpl implements OrderService {
                 .map(User::getUsername)
                 .orElse(null);
         
-        List<OrderItemResponse> itemResponses = order.getItems().stream()
-                .map(this::toOrderItemResponse)
-                .collect(Collectors.toList());
-
-        return OrderResponse.builder()
-                .id(order.getId())
-                .orderNumber(order.getOrderNumber())
-                .userId(order.getUserId())
-                .username(username)
-                .merchantId(order.getMerchantId())
-                .totalAmount(order.getTotalAmount())
-                .status(order.getStatus())
-                .items(itemResponses)
-                .createdAt(order.getCreatedAt())
-                .updatedAt(order.getUpdatedAt())
-                .build();
+        return OrderResponse.fromEntity(order, username);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<OrderResponse> getByUser(Long userId, Pageable pageable) {
-        Page<Order> orderPage = orderRepository.findByUserId(userId, pageable);
+        Page<Order> orderPage = TieredPages.concat(pageable,
+                page -> orderRepository.findByUserId(userId, page),
+                page -> toOrders(archivedOrderRepository.findByUserId(userId, page)),
+                () -> archivedOrderRepository.countByUserId(userId));
         List<OrderResponse> enrichedOrders = enrichOrdersWithUsernames(orderPage.getContent());
         return new org.springframework.data.domain.PageImpl<>(
                 enrichedOrders,
@@ -395,7 +449,10 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional(readOnly = true)
     public Page<OrderResponse> getByMerchant(Long merchantId, Pageable pageable) {
-        Page<Order> orderPage = orderRepository.findByMerchantId(merchantId, pageable);
+        Page<Order> orderPage = TieredPages.concat(pageable,
+                page -> orderRepository.findByMerchantId(merchantId, page),
+                page -> toOrders(archivedOrderRepository.findByMerchantId(merchantId, page)),
+                () -> archivedOrderRepository.countByMerchantId(merchantId));
         List<OrderResponse> enrichedOrders = enrichOrdersWithUsernames(orderPage.getContent());
         return new org.springframework.data.domain.PageImpl<>(
                 enrichedOrders,
@@ -408,7 +465,12 @@ public class OrderServiceImpl implements OrderService {
     @Transactional(readOnly = true)
     public Page<OrderResponse> getByMerchantAndStatus(Long merchantId, OrderStatus status, Pageable pageable) {
         log.debug("获取商家 {} 状态为 {} 的订单", merchantId, status);
-        Page<Order> orderPage = orderRepository.findByMerchantIdAndStatus(merchantId, status, pageable);
+        Page<Order> orderPage = ArchivedOrder.STATUSES.contains(status)
+                ? TieredPages.concat(pageable,
+                        page -> orderRepository.findByMerchantIdAndStatus(merchantId, status, page),
+                        page -> toOrders(archivedOrderRepository.findByMerchantIdAndStatus(merchantId, status, page)),
+                        () -> archivedOrderRepository.countByMerchantIdAndStatus(merchantId, status))
+                : orderRepository.findByMerchantIdAndStatus(merchantId, status, pageable);
         List<OrderResponse> enrichedOrders = enrichOrdersWithUsernames(orderPage.getContent());
         return new org.springframework.data.domain.PageImpl<>(
                 enrichedOrders,
@@ -417,13 +479,116 @@ public class OrderServiceImpl implements OrderService {
         );
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<OrderResponse> getSliceByUser(Long userId, Pageable pageable) {
+        Slice<Order> orderSlice = TieredPages.concatSlices(pageable,
+                page -> orderRepository.findSliceByUserId(userId, page),
+                page -> toOrders(archivedOrderRepository.findSliceByUserId(userId, page)),
+                () -> orderRepository.countByUserId(userId));
+        return new SliceImpl<>(enrichOrdersWithUsernames(orderSlice.getContent()), pageable, orderSlice.hasNext());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<OrderResponse> getSliceByMerchant(Long merchantId, Pageable pageable) {
+        Slice<Order> orderSlice = TieredPages.concatSlices(pageable,
+                page -> orderRepository.findSliceByMerchantId(merchantId, page),
+                page -> toOrders(archivedOrderRepository.findSliceByMerchantId(merchantId, page)),
+                () -> orderRepository.countByMerchantId(merchantId));
+        return new SliceImpl<>(enrichOrdersWithUsernames(orderSlice.getContent()), pageable, orderSlice.hasNext());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<OrderResponse> getSliceByMerchantAndStatus(Long merchantId, OrderStatus status, Pageable pageable) {
+        Slice<Order> orderSlice = ArchivedOrder.STATUSES.contains(status)
+                ? TieredPages.concatSlices(pageable,
+                        page -> orderRepository.findSliceByMerchantIdAndStatus(merchantId, status, page),
+                        page -> toOrders(archivedOrderRepository.findSliceByMerchantIdAndStatus(merchantId, status, page)),
+                        () -> orderRepository.countByMerchantIdAndStatus(merchantId, status))
+                : orderRepository.findSliceByMerchantIdAndStatus(merchantId, status, pageable);
+        return new SliceImpl<>(enrichOrdersWithUsernames(orderSlice.getContent()), pageable, orderSlice.hasNext());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getApproximateCountByUser(Long userId) {
+        return approximateCountService.get("orders:user:" + userId,
+                () -> orderRepository.countByUserId(userId) + archivedOrderRepository.countByUserId(userId));
+    }
+
+    @Override
+    public long getApproximateCountByMerchant(Long merchantId, OrderStatus status) {
+        Map<OrderStatus, Long> ordersByStatus = merchantStatsService.getStats(merchantId).getOrdersByStatus();
+        return status != null
+                ? ordersByStatus.getOrDefault(status, 0L)
+                : ordersByStatus.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * 将归档订单分页转换为订单实体分页，一次查询加载本页所有订单的商品项
+     */
+    private Page<Order> toOrders(Page<ArchivedOrder> archivedPage) {
+        Map<Long, List<ArchivedOrderItem>> itemsByOrder = loadArchivedItems(archivedPage);
+        return archivedPage.map(archived -> archived.toOrder(itemsByOrder.getOrDefault(archived.getId(), List.of())));
+    }
+
+    private Slice<Order> toOrders(Slice<ArchivedOrder> archivedSlice) {
+        Map<Long, List<ArchivedOrderItem>> itemsByOrder = loadArchivedItems(archivedSlice);
+        return archivedSlice.map(archived -> archived.toOrder(itemsByOrder.getOrDefault(archived.getId(), List.of())));
+    }
+
+    private Map<Long, List<ArchivedOrderItem>> loadArchivedItems(Slice<ArchivedOrder> archived) {
+        List<Long> orderIds = archived.map(ArchivedOrder::getId).getContent();
+        return orderIds.isEmpty()
+                ? Map.of()
+                : archivedOrderItemRepository.findByOrderIdIn(orderIds).stream()
+                        .collect(Collectors.groupingBy(ArchivedOrderItem::getOrderId));
+    }
+
+    /**
+     * 由订单行组装待支付订单
+     * 逐行计算小计（单价乘数量）并汇总为订单总额
+     * 
+     * @param orderNumber 订单号
+     * @param userId 用户ID
+     * @param merchantId 商家ID
+     * @param lines 订单行
+     * @return 未保存的订单
+     */
+    static Order buildOrder(String orderNumber, Long userId, Long merchantId, List<OrderLine> lines) {
+        Order order = Order.builder()
+                .orderNumber(orderNumber)
+                .userId(userId)
+                .merchantId(merchantId)
+                .totalAmount(BigDecimal.ZERO)
+                .status(OrderStatus.PENDING)
+                .build();
+
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (OrderLine line : lines) {
+            BigDecimal subtotal = line.unitPrice().multiply(BigDecimal.valueOf(line.quantity()));
+            order.addItem(OrderItem.builder()
+                    .sku(line.sku())
+                    .productName(line.productName())
+                    .quantity(line.quantity())
+                    .unitPrice(line.unitPrice())
+                    .subtotal(subtotal)
+                    .build());
+            totalAmount = totalAmount.add(subtotal);
+        }
+        order.setTotalAmount(totalAmount);
+        return order;
+    }
+
     /**
      * 生成订单号
      * 基于当前时间戳和UUID生成唯一的订单号
      * 
      * @return 生成的订单号
      */
-    private String generateOrderNumber() {
+    static String generateOrderNumber() {
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
         String random = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
         return "ORD" + timestamp + random;
@@ -431,27 +596,26 @@ public class OrderServiceImpl implements OrderService {
 
     /**
      * 将订单实体转换为响应对象
-     * 将Order实体对象转换为OrderResponse响应对象
      * 
      * @param order 订单实体
      * @return 订单响应对象
      */
     private OrderResponse toOrderResponse(Order order) {
-        List<OrderItemResponse> itemResponses = order.getItems().stream()
-                .map(this::toOrderItemResponse)
-                .collect(Collectors.toList());
+        return OrderResponse.fromEntity(order);
+    }
 
-        return OrderResponse.builder()
-                .id(order.getId())
-                .orderNumber(order.getOrderNumber())
-                .userId(order.getUserId())
-                .merchantId(order.getMerchantId())
-                .totalAmount(order.getTotalAmount())
-                .status(order.getStatus())
-                .items(itemResponses)
-                .createdAt(order.getCreatedAt())
-                .updatedAt(order.getUpdatedAt())
-                .build();
+    /**
+     * 将已保存订单的信息填入下单事件
+     *
+     * @param event 下单事件
+     * @param order 已保存的订单
+     */
+    private void describe(OrderCreationEvent event, Order order) {
+        event.orderId = order.getId();
+        event.merchantId = order.getMerchantId();
+        event.skuCount = order.getItems().size();
+        event.itemCount = order.getItems().stream().mapToInt(OrderItem::getQuantity).sum();
+        event.totalAmount = order.getTotalAmount().doubleValue();
     }
 
     /**
@@ -480,43 +644,13 @@ public class OrderServiceImpl implements OrderService {
 
         // 构建包含用户名的订单响应列表
         return orders.stream()
-                .map(order -> {
-                    String username = userIdToUsernameMap.get(order.getUserId());
-                    List<OrderItemResponse> itemResponses = order.getItems().stream()
-                            .map(this::toOrderItemResponse)
-                            .collect(Collectors.toList());
-
-                    return OrderResponse.builder()
-                            .id(order.getId())
-                            .orderNumber(order.getOrderNumber())
-                            .userId(order.getUserId())
-                            .username(username)  // 可能为null如果用户不存在
-                            .merchantId(order.getMerchantId())
-                            .totalAmount(order.getTotalAmount())
-                            .status(order.getStatus())
-                            .items(itemResponses)
-                            .createdAt(order.getCreatedAt())
-                            .updatedAt(order.getUpdatedAt())
-                            .build();
-                })
+                .map(order -> OrderResponse.fromEntity(order, userIdToUsernameMap.get(order.getUserId())))
                 .collect(Collectors.toList());
     }
 
     /**
-     * 将订单项实体转换为响应对象
-     * 将OrderItem实体对象转换为OrderItemResponse响应对象
-     * 
-     * @param item 订单项实体
-     * @return 订单项响应对象
+     * 订单行：下单时确定的SKU、商品名、数量和单价
      */
-    private OrderItemResponse toOrderItemResponse(OrderItem item) {
-        return OrderItemResponse.builder()
-                .id(item.getId())
-                .sku(item.getSku())
-                .productName(item.getProductName())
-                .quantity(item.getQuantity())
-                .unitPrice(item.getUnitPrice())
-                .subtotal(item.getSubtotal())
-                .build();
+    record OrderLine(String sku, String productName, int quantity, BigDecimal unitPrice) {
     }
-}
\ No newline at end of file
+}
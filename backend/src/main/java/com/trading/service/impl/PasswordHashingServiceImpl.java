@@ -0,0 +1,169 @@
+package com.trading.service.impl;
+
+import com.trading.config.PasswordHashingProperties;
+import com.trading.exception.ThrottledException;
+import com.trading.security.SecurityContextUtil;
+import com.trading.security.TokenBucketLimiter;
+import com.trading.service.PasswordHashingService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@Service
+@Slf4j
+public class PasswordHashingServiceImpl implements PasswordHashingService {
+
+    private static final String BUSY_MESSAGE = "Authentication service is busy, please retry later";
+    private static final String LIMITED_MESSAGE = "Too many attempts, please retry later";
+
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final TokenBucketLimiter usernameLimiter;
+    private final TokenBucketLimiter ipLimiter;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter saturatedRejections;
+    private final Counter timeoutRejections;
+    private final Counter usernameRejections;
+    private final Counter ipRejections;
+
+    public PasswordHashingServiceImpl(PasswordEncoder passwordEncoder,
+                                      PasswordHashingProperties properties,
+                                      MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.properties = properties;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        BlockingQueue<Runnable> queue = properties.getQueueCapacity() > 0
+                ? new ArrayBlockingQueue<>(properties.getQueueCapacity())
+                : new SynchronousQueue<>();
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                0L, TimeUnit.MILLISECONDS, queue,
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        long maxKeys = properties.getMaxTrackedKeys();
+        this.usernameLimiter = limiter(properties.getPerUsername(), maxKeys);
+        this.ipLimiter = limiter(properties.getPerIp(), maxKeys);
+
+        Gauge.builder("password.hashing.queue.depth", executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing tasks running")
+                .register(meterRegistry);
+        this.encodeTimer = hashingTimer(meterRegistry, "encode");
+        this.matchesTimer = hashingTimer(meterRegistry, "matches");
+        this.saturatedRejections = rejectionCounter(meterRegistry, "saturated");
+        this.timeoutRejections = rejectionCounter(meterRegistry, "timeout");
+        this.usernameRejections = rejectionCounter(meterRegistry, "username");
+        this.ipRejections = rejectionCounter(meterRegistry, "ip");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void checkLoginAllowed(String username) {
+        checkIpAllowed();
+        long wait = usernameLimiter.tryAcquire(username.toLowerCase(Locale.ROOT));
+        if (wait > 0) {
+            usernameRejections.increment();
+            log.warn("Login attempts for username {} exceed the limit", username);
+            throw new ThrottledException(429, LIMITED_MESSAGE, TokenBucketLimiter.toRetryAfterSeconds(wait));
+        }
+    }
+
+    @Override
+    public void checkRegistrationAllowed() {
+        checkIpAllowed();
+    }
+
+    @Override
+    public String encode(String rawPassword) {
+        return execute(() -> passwordEncoder.encode(rawPassword), encodeTimer);
+    }
+
+    @Override
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return execute(() -> passwordEncoder.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    private void checkIpAllowed() {
+        String clientIp = SecurityContextUtil.getCurrentClientIp();
+        if (clientIp == null) {
+            return;
+        }
+        long wait = ipLimiter.tryAcquire(clientIp);
+        if (wait > 0) {
+            ipRejections.increment();
+            log.warn("Authentication attempts from {} exceed the limit", clientIp);
+            throw new ThrottledException(429, LIMITED_MESSAGE, TokenBucketLimiter.toRetryAfterSeconds(wait));
+        }
+    }
+
+    private <T> T execute(Supplier<T> hashing, Timer timer) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.record(hashing));
+        } catch (RejectedExecutionException e) {
+            saturatedRejections.increment();
+            log.warn("Password hashing pool saturated ({} queued), rejecting request", executor.getQueue().size());
+            throw new ThrottledException(503, BUSY_MESSAGE, 1);
+        }
+
+        try {
+            return future.get(properties.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeoutRejections.increment();
+            throw new ThrottledException(503, BUSY_MESSAGE, 1);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ThrottledException(503, BUSY_MESSAGE, 1);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static TokenBucketLimiter limiter(PasswordHashingProperties.LimitConfig limit, long maxKeys) {
+        return new TokenBucketLimiter(limit.getCapacity(), limit.getRefillPeriod(), maxKeys, limit.getRefillPeriod());
+    }
+
+    private static Timer hashingTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("password.hashing.duration")
+                .description("Time spent hashing or verifying a password, excluding queue wait")
+                .tag("operation", operation)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("password.hashing.rejected")
+                .description("Login and registration attempts rejected before hashing")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
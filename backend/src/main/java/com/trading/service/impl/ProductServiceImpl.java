@@ -3,21 +3,29 @@ package com.trading.service.impl;
 import com.trading.dto.request.ProductCreateRequest;
 import com.trading.dto.response.ProductResponse;
 import com.trading.entity.Product;
+import com.trading.entity.ProductView;
 import com.trading.exception.ResourceNotFoundException;
 import com.trading.repository.InventoryRepository;
 import com.trading.repository.MerchantRepository;
 import com.trading.repository.ProductRepository;
+import com.trading.repository.ProductViewRepository;
+import com.trading.service.ApproximateCountService;
+import com.trading.service.CatalogCacheService;
+import com.trading.service.MerchantStatsService;
 import com.trading.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,6 +36,10 @@ public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
     private final MerchantRepository merchantRepository;
     private final InventoryRepository inventoryRepository;
+    private final ProductViewRepository productViewRepository;
+    private final MerchantStatsService merchantStatsService;
+    private final CatalogCacheService catalogCacheService;
+    private final ApproximateCountService approximateCountService;
     
     @Override
     @Transactional
@@ -47,27 +59,30 @@ public class ProductServiceImpl implements ProductService {
                 .build();
         
         Product savedProduct = productRepository.save(product);
+        merchantStatsService.recordProductCreated(savedProduct.getMerchantId());
         log.info("商品创建成功: id={}, name={}", savedProduct.getId(), savedProduct.getName());
         
         return ProductResponse.fromEntity(savedProduct);
     }
     
     @Override
-    @Transactional(readOnly = true)
     public ProductResponse getById(Long productId) {
+        // 不开启方法级事务：命中本地缓存时不占用数据库连接，未命中时各查询使用仓库自身的只读事务
+        return catalogCacheService.getProduct(productId, this::loadProduct);
+    }
+    
+    private ProductResponse loadProduct(Long productId) {
+        // 读模型一次查询即包含价格区间和商家名称
+        Optional<ProductView> view = productViewRepository.findById(productId);
+        if (view.isPresent()) {
+            return ProductResponse.fromView(view.get());
+        }
+        
+        // 读模型尚未生成该行（如绕过JPA写入的数据，等待一致性核对修复）时从源表组装
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", productId));
-        
-        // 获取该商品的价格区间
-        BigDecimal minPrice = inventoryRepository.findMinPriceByProductId(productId).orElse(BigDecimal.ZERO);
-        BigDecimal maxPrice = inventoryRepository.findMaxPriceByProductId(productId).orElse(BigDecimal.ZERO);
-        
-        // 获取商家名称
-        String merchantName = merchantRepository.findById(product.getMerchantId())
-                .map(m -> m.getBusinessName() != null ? m.getBusinessName() : m.getUsername())
-                .orElse("未知商家");
-        
-        return ProductResponse.fromEntityWithPrices(product, minPrice, maxPrice, merchantName);
+        log.debug("商品 {} 的读模型缺失，从源表读取", productId);
+        return enrichWithPrices(product);
     }
     
     @Override
@@ -75,22 +90,23 @@ public class ProductServiceImpl implements ProductService {
     public Page<ProductResponse> search(String keyword, String category, Pageable pageable) {
         log.debug("搜索商品: keyword={}, category={}", keyword, category);
         
-        Page<Product> products;
+        Page<ProductView> products;
         
         boolean hasKeyword = StringUtils.hasText(keyword);
         boolean hasCategory = StringUtils.hasText(category);
         
+        // 从读模型分页查询，每页一次查询，不再逐个商品查询价格和商家
         if (hasKeyword && hasCategory) {
-            products = productRepository.searchByKeywordAndCategory(keyword, category, pageable);
+            products = productViewRepository.searchByKeywordAndCategory(keyword, category, pageable);
         } else if (hasKeyword) {
-            products = productRepository.searchByKeyword(keyword, pageable);
+            products = productViewRepository.searchByKeyword(keyword, pageable);
         } else if (hasCategory) {
-            products = productRepository.findByCategory(category, pageable);
+            products = productViewRepository.findByCategory(category, pageable);
         } else {
-            products = productRepository.findAll(pageable);
+            products = productViewRepository.findAll(pageable);
         }
         
-        return products.map(this::enrichWithPrices);
+        return products.map(ProductResponse::fromView);
     }
     
     @Override
@@ -101,8 +117,60 @@ public class ProductServiceImpl implements ProductService {
             throw new ResourceNotFoundException("Merchant", merchantId);
         }
         
-        Page<Product> products = productRepository.findByMerchantId(merchantId, pageable);
-        return products.map(this::enrichWithPrices);
+        Page<ProductView> products = productViewRepository.findByMerchantId(merchantId, pageable);
+        return products.map(ProductResponse::fromView);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<ProductResponse> searchSlice(String keyword, String category, Pageable pageable) {
+        boolean hasKeyword = StringUtils.hasText(keyword);
+        boolean hasCategory = StringUtils.hasText(category);
+        
+        Slice<ProductView> products;
+        if (hasKeyword && hasCategory) {
+            products = productViewRepository.searchSliceByKeywordAndCategory(keyword, category, pageable);
+        } else if (hasKeyword) {
+            products = productViewRepository.searchSliceByKeyword(keyword, pageable);
+        } else if (hasCategory) {
+            products = productViewRepository.findSliceByCategory(category, pageable);
+        } else {
+            products = productViewRepository.findSliceBy(pageable);
+        }
+        return products.map(ProductResponse::fromView);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<ProductResponse> getSliceByMerchant(Long merchantId, Pageable pageable) {
+        if (!merchantRepository.existsById(merchantId)) {
+            throw new ResourceNotFoundException("Merchant", merchantId);
+        }
+        return productViewRepository.findSliceByMerchantId(merchantId, pageable).map(ProductResponse::fromView);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public long getApproximateSearchCount(String keyword, String category) {
+        boolean hasKeyword = StringUtils.hasText(keyword);
+        boolean hasCategory = StringUtils.hasText(category);
+        // 关键词按小写缓存，与查询的大小写不敏感匹配一致
+        String key = "products:" + (hasKeyword ? keyword.toLowerCase() : "") + ":" + (hasCategory ? category : "");
+        return approximateCountService.get(key, () -> {
+            if (hasKeyword && hasCategory) {
+                return productViewRepository.countByKeywordAndCategory(keyword, category);
+            } else if (hasKeyword) {
+                return productViewRepository.countByKeyword(keyword);
+            } else if (hasCategory) {
+                return productViewRepository.countByCategory(category);
+            }
+            return productViewRepository.count();
+        });
+    }
+    
+    @Override
+    public long getApproximateCountByMerchant(Long merchantId) {
+        return merchantStatsService.getStats(merchantId).getProductCount();
     }
     
     private ProductResponse enrichWithPrices(Product product) {
@@ -110,10 +178,23 @@ public class ProductServiceImpl implements ProductService {
         BigDecimal maxPrice = inventoryRepository.findMaxPriceByProductId(product.getId()).orElse(BigDecimal.ZERO);
         
         // 获取商家名称
-        String merchantName = merchantRepository.findById(product.getMerchantId())
-                .map(m -> m.getBusinessName() != null ? m.getBusinessName() : m.getUsername())
-                .orElse("未知商家");
+        String merchantName = catalogCacheService.getMerchantName(product.getMerchantId(), merchantId ->
+                merchantRepository.findById(merchantId)
+                        .map(m -> m.getBusinessName() != null ? m.getBusinessName() : m.getUsername())
+                        .orElse("未知商家"));
         
         return ProductResponse.fromEntityWithPrices(product, minPrice, maxPrice, merchantName);
     }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public String getVersionTag(Long productId) {
+        List<Object[]> stamps = productRepository.findVersionStamp(productId);
+        if (stamps.isEmpty()) {
+            return null;
+        }
+        return Arrays.stream(stamps.get(0))
+                .map(part -> part != null ? part.toString() : "0")
+                .collect(Collectors.joining("-"));
+    }
 }
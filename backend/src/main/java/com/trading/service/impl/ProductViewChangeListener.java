@@ -0,0 +1,190 @@
+package com.trading.service.impl;
+
+import com.trading.entity.Inventory;
+import com.trading.entity.Merchant;
+import com.trading.entity.Product;
+import com.trading.service.ProductViewService;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Hibernate listener that keeps the product read model in step with product,
+ * inventory and merchant writes, whichever code path (service, repository) made them.
+ * Affected product and merchant IDs are collected per transaction and refreshed
+ * once after it commits; a rolled back transaction refreshes nothing.
+ * Inventory and merchant updates that cannot change a product view (stock
+ * movements that keep an SKU in or out of stock, balance changes) are ignored,
+ * so the payment path does not pay for refreshes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductViewChangeListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ProductViewService productViewService;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Product product) {
+            productChanged(product.getId());
+        } else if (event.getEntity() instanceof Inventory inventory) {
+            productChanged(inventory.getProductId());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Product product) {
+            productChanged(product.getId());
+        } else if (event.getEntity() instanceof Inventory inventory) {
+            if (changed(event, "price") || changed(event, "productId") || stockAvailabilityChanged(event)) {
+                productChanged(inventory.getProductId());
+                Object previousProductId = previous(event, "productId");
+                if (previousProductId != null && !previousProductId.equals(inventory.getProductId())) {
+                    productChanged((Long) previousProductId);
+                }
+            }
+        } else if (event.getEntity() instanceof Merchant merchant) {
+            if (changed(event, "businessName") || changed(event, "username")) {
+                merchantChanged(merchant.getId());
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Product product) {
+            productChanged(product.getId());
+        } else if (event.getEntity() instanceof Inventory inventory) {
+            productChanged(inventory.getProductId());
+        } else if (event.getEntity() instanceof Merchant merchant) {
+            merchantChanged(merchant.getId());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void productChanged(Long productId) {
+        PendingRefresh pending = pending();
+        if (pending != null) {
+            pending.productIds.add(productId);
+        }
+    }
+
+    private void merchantChanged(Long merchantId) {
+        PendingRefresh pending = pending();
+        if (pending != null) {
+            pending.merchantIds.add(merchantId);
+        }
+    }
+
+    /**
+     * 当前事务的待刷新集合，首次使用时注册到事务同步
+     */
+    private PendingRefresh pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // 不在Spring事务内的写入（如批量脚本）由定时一致性核对修复
+            log.debug("Write outside a transaction, product view refresh left to the consistency check");
+            return null;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingRefresh pending && pending.owner() == this) {
+                return pending;
+            }
+        }
+        PendingRefresh pending = new PendingRefresh();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    /**
+     * SKU在有货和无货之间切换时，商品的在售价格区间会变化
+     */
+    private static boolean stockAvailabilityChanged(PostUpdateEvent event) {
+        Object before = previous(event, "quantity");
+        Object after = current(event, "quantity");
+        return before == null || after == null || ((Integer) before > 0) != ((Integer) after > 0);
+    }
+
+    private static boolean changed(PostUpdateEvent event, String property) {
+        if (event.getOldState() == null) {
+            return true;
+        }
+        return !Objects.equals(previous(event, property), current(event, property));
+    }
+
+    private static Object previous(PostUpdateEvent event, String property) {
+        Object[] oldState = event.getOldState();
+        return oldState != null ? oldState[indexOf(event.getPersister(), property)] : null;
+    }
+
+    private static Object current(PostUpdateEvent event, String property) {
+        return event.getState()[indexOf(event.getPersister(), property)];
+    }
+
+    private static int indexOf(EntityPersister persister, String property) {
+        String[] names = persister.getPropertyNames();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(property)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(persister.getEntityName() + " has no property " + property);
+    }
+
+    /**
+     * 一个事务内受影响的商品和商家，提交后统一刷新一次
+     */
+    private class PendingRefresh implements TransactionSynchronization {
+
+        private final Set<Long> productIds = new LinkedHashSet<>();
+        private final Set<Long> merchantIds = new LinkedHashSet<>();
+
+        ProductViewChangeListener owner() {
+            return ProductViewChangeListener.this;
+        }
+
+        @Override
+        public void afterCommit() {
+            try {
+                if (!productIds.isEmpty()) {
+                    productViewService.refresh(productIds);
+                }
+                for (Long merchantId : merchantIds) {
+                    productViewService.refreshMerchant(merchantId);
+                }
+            } catch (Exception e) {
+                // 写入已提交，读模型刷新失败只记录日志，由定时一致性核对修复
+                log.warn("Refreshing product views {} / merchants {} failed: {}",
+                        productIds, merchantIds, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.trading.service.impl;
+
+import com.trading.config.ProductViewProperties;
+import com.trading.entity.Merchant;
+import com.trading.entity.Product;
+import com.trading.entity.ProductView;
+import com.trading.repository.InventoryRepository;
+import com.trading.repository.MerchantRepository;
+import com.trading.repository.ProductRepository;
+import com.trading.repository.ProductViewRepository;
+import com.trading.service.CatalogCacheService;
+import com.trading.service.ProductViewService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class ProductViewServiceImpl implements ProductViewService {
+
+    /**
+     * 商家不存在时显示的名称，与原商品详情接口一致
+     */
+    static final String UNKNOWN_MERCHANT = "未知商家";
+
+    private final ProductViewRepository productViewRepository;
+    private final ProductRepository productRepository;
+    private final InventoryRepository inventoryRepository;
+    private final MerchantRepository merchantRepository;
+    private final ProductViewProperties properties;
+    private final CatalogCacheService catalogCacheService;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter refreshed;
+    private final Counter repaired;
+
+    public ProductViewServiceImpl(ProductViewRepository productViewRepository,
+                                  ProductRepository productRepository,
+                                  InventoryRepository inventoryRepository,
+                                  MerchantRepository merchantRepository,
+                                  ProductViewProperties properties,
+                                  CatalogCacheService catalogCacheService,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry) {
+        this.productViewRepository = productViewRepository;
+        this.productRepository = productRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.merchantRepository = merchantRepository;
+        this.properties = properties;
+        this.catalogCacheService = catalogCacheService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.refreshed = Counter.builder("product.view.refreshed")
+                .description("Product read model rows changed by write-path refreshes")
+                .register(meterRegistry);
+        this.repaired = Counter.builder("product.view.repaired")
+                .description("Product read model rows repaired by the consistency check")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void refresh(Collection<Long> productIds) {
+        List<Long> ids = productIds.stream().filter(Objects::nonNull).distinct().sorted().toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        // 先按ID顺序锁定读模型行，再读取源表，保证最后一次刷新读到所有已提交的写入
+        Map<Long, ProductView> current = index(productViewRepository.findAllByIdForUpdate(ids));
+        Map<Long, ProductView> expected = build(productRepository.findAllById(ids));
+        int changed = 0;
+        for (Long id : ids) {
+            if (apply(current.get(id), expected.get(id))) {
+                changed++;
+            }
+        }
+        refreshed.increment(changed);
+        log.debug("Refreshed product views {}: {} changed", ids, changed);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void refreshMerchant(Long merchantId) {
+        String merchantName = merchantRepository.findById(merchantId)
+                .map(ProductViewServiceImpl::displayName)
+                .orElse(UNKNOWN_MERCHANT);
+        int changed = productViewRepository.updateMerchantName(merchantId, merchantName);
+        catalogCacheService.merchantChanged(merchantId);
+        refreshed.increment(changed);
+        log.debug("Refreshed merchant name of {} product views for merchant {}", changed, merchantId);
+    }
+
+    @Override
+    public int verify() {
+        int repairedRows = 0;
+        int batchSize = properties.getVerifyBatchSize();
+        int page = 0;
+        boolean hasNext = true;
+        // 每批在独立事务中核对，避免长事务长时间持有读模型行锁
+        while (hasNext) {
+            PageRequest pageRequest = PageRequest.of(page++, batchSize, Sort.by("id"));
+            int[] batch = transactionTemplate.execute(status -> {
+                Page<Product> products = productRepository.findAll(pageRequest);
+                List<Long> ids = products.getContent().stream().map(Product::getId).toList();
+                if (ids.isEmpty()) {
+                    return new int[]{0, 0};
+                }
+                Map<Long, ProductView> current = index(productViewRepository.findAllByIdForUpdate(ids));
+                Map<Long, ProductView> expected = build(products.getContent());
+                int changed = 0;
+                for (Long id : ids) {
+                    if (apply(current.get(id), expected.get(id))) {
+                        changed++;
+                        log.info("Product view {} was stale or missing and has been rebuilt", id);
+                    }
+                }
+                return new int[]{changed, products.hasNext() ? 1 : 0};
+            });
+            repairedRows += batch[0];
+            hasNext = batch[1] == 1;
+        }
+        Integer orphans = transactionTemplate.execute(status -> productViewRepository.deleteOrphans());
+        if (orphans != null && orphans > 0) {
+            log.info("Deleted {} product views of products that no longer exist", orphans);
+            repairedRows += orphans;
+        }
+        repaired.increment(repairedRows);
+        return repairedRows;
+    }
+
+    @Override
+    public int backfill() {
+        if (productViewRepository.count() > 0) {
+            return 0;
+        }
+        int built = verify();
+        log.info("Product view read model was empty, built {} rows from the product tables", built);
+        return built;
+    }
+
+    /**
+     * 由源表数据生成读模型行：价格区间和商家名称各一次批量查询
+     */
+    private Map<Long, ProductView> build(List<Product> products) {
+        if (products.isEmpty()) {
+            return Map.of();
+        }
+        Set<Long> productIds = products.stream().map(Product::getId).collect(Collectors.toSet());
+        Map<Long, Object[]> priceRanges = inventoryRepository.findPriceRangesByProductIds(productIds).stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], Function.identity()));
+        Set<Long> merchantIds = products.stream().map(Product::getMerchantId).collect(Collectors.toSet());
+        Map<Long, String> merchantNames = merchantRepository.findAllById(merchantIds).stream()
+                .collect(Collectors.toMap(Merchant::getId, ProductViewServiceImpl::displayName));
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ProductView> views = new HashMap<>();
+        for (Product product : products) {
+            Object[] priceRange = priceRanges.get(product.getId());
+            views.put(product.getId(), ProductView.builder()
+                    .id(product.getId())
+                    .name(product.getName())
+                    .description(product.getDescription())
+                    .category(product.getCategory())
+                    .merchantId(product.getMerchantId())
+                    .merchantName(merchantNames.getOrDefault(product.getMerchantId(), UNKNOWN_MERCHANT))
+                    .minPrice(priceRange != null ? (BigDecimal) priceRange[1] : BigDecimal.ZERO)
+                    .maxPrice(priceRange != null ? (BigDecimal) priceRange[2] : BigDecimal.ZERO)
+                    .createdAt(product.getCreatedAt())
+                    .refreshedAt(now)
+                    .build());
+        }
+        return views;
+    }
+
+    /**
+     * 将读模型行更新为期望内容，有变化时使商品详情缓存失效（提交后生效）
+     *
+     * @param current 当前读模型行，不存在时为null
+     * @param expected 期望内容，商品已不存在时为null
+     * @return 是否有变化
+     */
+    private boolean apply(ProductView current, ProductView expected) {
+        if (expected == null) {
+            if (current == null) {
+                return false;
+            }
+            productViewRepository.delete(current);
+            catalogCacheService.productChanged(current.getId());
+            return true;
+        }
+        if (current == null) {
+            productViewRepository.save(expected);
+            catalogCacheService.productChanged(expected.getId());
+            return true;
+        }
+        if (sameContent(current, expected)) {
+            return false;
+        }
+        catalogCacheService.productChanged(current.getId());
+        // 托管实体，提交时按脏检查更新并递增版本号
+        current.setName(expected.getName());
+        current.setDescription(expected.getDescription());
+        current.setCategory(expected.getCategory());
+        current.setMerchantId(expected.getMerchantId());
+        current.setMerchantName(expected.getMerchantName());
+        current.setMinPrice(expected.getMinPrice());
+        current.setMaxPrice(expected.getMaxPrice());
+        current.setCreatedAt(expected.getCreatedAt());
+        current.setRefreshedAt(expected.getRefreshedAt());
+        return true;
+    }
+
+    private static boolean sameContent(ProductView a, ProductView b) {
+        return Objects.equals(a.getName(), b.getName())
+                && Objects.equals(a.getDescription(), b.getDescription())
+                && Objects.equals(a.getCategory(), b.getCategory())
+                && Objects.equals(a.getMerchantId(), b.getMerchantId())
+                && Objects.equals(a.getMerchantName(), b.getMerchantName())
+                && a.getMinPrice().compareTo(b.getMinPrice()) == 0
+                && a.getMaxPrice().compareTo(b.getMaxPrice()) == 0
+                && Objects.equals(a.getCreatedAt(), b.getCreatedAt());
+    }
+
+    private static Map<Long, ProductView> index(List<ProductView> views) {
+        return views.stream().collect(Collectors.toMap(ProductView::getId, Function.identity()));
+    }
+
+    private static String displayName(Merchant merchant) {
+        return merchant.getBusinessName() != null ? merchant.getBusinessName() : merchant.getUsername();
+    }
+}
@@ -0,0 +1,132 @@
+package com.trading.service.impl;
+
+import com.trading.config.QueryTrackingProperties;
+import com.trading.service.QueryStatsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QueryStatsServiceImpl implements QueryStatsService {
+
+    private final QueryTrackingProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Keyed by route pattern and by service method, both bounded by the code base
+     */
+    private final Map<String, Totals> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, Totals> methods = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordRequest(String endpoint, long statements, Duration jdbcTime) {
+        boolean flagged = statements > properties.getRequestStatementThreshold()
+                || jdbcTime.compareTo(properties.getRequestJdbcTimeThreshold()) > 0;
+        endpoints.computeIfAbsent(endpoint, key -> new Totals()).add(statements, jdbcTime.toNanos(), flagged);
+
+        // sql.statements.per.request{endpoint} under /actuator/metrics
+        DistributionSummary.builder("sql.statements.per.request")
+                .description("SQL statements executed per HTTP request")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(statements);
+        if (flagged) {
+            Counter.builder("sql.requests.flagged")
+                    .description("Requests over the SQL statement or JDBC time threshold")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("{} executed {} SQL statements in {} ms (thresholds: {} statements, {} ms)",
+                    endpoint, statements, jdbcTime.toMillis(),
+                    properties.getRequestStatementThreshold(), properties.getRequestJdbcTimeThreshold().toMillis());
+        }
+    }
+
+    @Override
+    public void recordMethod(String method, long statements, Duration jdbcTime) {
+        boolean flagged = statements > properties.getMethodStatementThreshold();
+        methods.computeIfAbsent(method, key -> new Totals()).add(statements, jdbcTime.toNanos(), flagged);
+        if (flagged) {
+            log.warn("{} executed {} SQL statements in {} ms (threshold: {} statements)",
+                    method, statements, jdbcTime.toMillis(), properties.getMethodStatementThreshold());
+        }
+    }
+
+    @Override
+    public List<Map<String, Object>> getTopEndpoints(int limit) {
+        return top(endpoints, "endpoint", limit);
+    }
+
+    @Override
+    public List<Map<String, Object>> getTopMethods(int limit) {
+        return top(methods, "method", limit);
+    }
+
+    @Override
+    public void reset() {
+        endpoints.clear();
+        methods.clear();
+    }
+
+    private static List<Map<String, Object>> top(Map<String, Totals> totals, String keyName, int limit) {
+        return totals.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Totals> entry) -> entry.getValue().maxStatements.get())
+                        .thenComparingDouble(entry -> entry.getValue().averageStatements())
+                        .reversed())
+                .limit(limit)
+                .map(entry -> entry.getValue().toMap(keyName, entry.getKey()))
+                .toList();
+    }
+
+    private static class Totals {
+        final LongAdder calls = new LongAdder();
+        final LongAdder statements = new LongAdder();
+        final LongAdder jdbcNanos = new LongAdder();
+        final LongAdder flagged = new LongAdder();
+        final AtomicLong maxStatements = new AtomicLong();
+        final AtomicLong maxJdbcNanos = new AtomicLong();
+
+        void add(long statementCount, long nanos, boolean overThreshold) {
+            calls.increment();
+            statements.add(statementCount);
+            jdbcNanos.add(nanos);
+            maxStatements.accumulateAndGet(statementCount, Math::max);
+            maxJdbcNanos.accumulateAndGet(nanos, Math::max);
+            if (overThreshold) {
+                flagged.increment();
+            }
+        }
+
+        double averageStatements() {
+            long count = calls.sum();
+            return count == 0 ? 0 : (double) statements.sum() / count;
+        }
+
+        Map<String, Object> toMap(String keyName, String key) {
+            long count = calls.sum();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put(keyName, key);
+            map.put("calls", count);
+            map.put("avgStatements", Math.round(averageStatements() * 10) / 10.0);
+            map.put("maxStatements", maxStatements.get());
+            map.put("avgJdbcMillis", count == 0 ? 0 : Math.round(jdbcNanos.sum() / 1e5 / count) / 10.0);
+            map.put("maxJdbcMillis", Math.round(maxJdbcNanos.get() / 1e5) / 10.0);
+            map.put("flagged", flagged.sum());
+            return map;
+        }
+    }
+}
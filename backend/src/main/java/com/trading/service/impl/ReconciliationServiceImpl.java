@@ -0,0 +1,187 @@
+package com.trading.service.impl;
+
+import com.trading.dto.response.ReconciliationReportResponse;
+import com.trading.entity.Settlement;
+import com.trading.enums.OrderStatus;
+import com.trading.enums.ReconciliationIssue;
+import com.trading.enums.TransactionType;
+import com.trading.exception.InvalidOperationException;
+import com.trading.exception.ResourceNotFoundException;
+import com.trading.repository.MerchantRepository;
+import com.trading.repository.OrderRepository;
+import com.trading.repository.OrderRepository.OrderAmountView;
+import com.trading.repository.SettlementRepository;
+import com.trading.repository.TransactionRecordRepository;
+import com.trading.repository.TransactionRecordRepository.LedgerEntryView;
+import com.trading.service.ArchiveService;
+import com.trading.service.ReconciliationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReconciliationServiceImpl implements ReconciliationService {
+
+    private static final String ACCOUNT_TYPE_MERCHANT = "MERCHANT";
+    private static final List<OrderStatus> SETTLED_ORDER_STATUSES =
+            List.of(OrderStatus.COMPLETED, OrderStatus.REFUNDED);
+    private static final List<TransactionType> LEDGER_TYPES =
+            List.of(TransactionType.SALE, TransactionType.REFUND_OUT);
+    private static final int MAX_LIMIT = 1000;
+
+    private final MerchantRepository merchantRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionRecordRepository transactionRecordRepository;
+    private final SettlementRepository settlementRepository;
+    private final ArchiveService archiveService;
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReconciliationReportResponse reconcile(Long merchantId, LocalDate date, int limit) {
+        if (limit < 0 || limit > MAX_LIMIT) {
+            throw new InvalidOperationException("Limit must be between 0 and " + MAX_LIMIT);
+        }
+        if (!merchantRepository.existsById(merchantId)) {
+            throw new ResourceNotFoundException("Merchant", merchantId);
+        }
+        // Only the hot tables are scanned; archived orders would all be reported as missing
+        archiveService.checkNotArchived(date, date);
+
+        LocalDateTime startOfDay = date.atStartOfDay();
+        LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
+
+        MergeResult result = new MergeResult(limit);
+        try (Stream<OrderAmountView> orders = orderRepository.streamByMerchantIdAndStatusInAndDateRange(
+                     merchantId, SETTLED_ORDER_STATUSES, startOfDay, endOfDay);
+             Stream<LedgerEntryView> ledger = transactionRecordRepository.streamOrderEntries(
+                     ACCOUNT_TYPE_MERCHANT, merchantId, LEDGER_TYPES, startOfDay, endOfDay)) {
+            merge(orders.iterator(), ledger.iterator(), result);
+        }
+
+        BigDecimal unlinkedAmount = transactionRecordRepository
+                .sumUnlinkedAmount(ACCOUNT_TYPE_MERCHANT, merchantId, TransactionType.SALE, startOfDay, endOfDay)
+                .subtract(transactionRecordRepository.sumUnlinkedAmount(
+                        ACCOUNT_TYPE_MERCHANT, merchantId, TransactionType.REFUND_OUT, startOfDay, endOfDay));
+        Optional<Settlement> settlement = settlementRepository.findByMerchantIdAndSettlementDate(merchantId, date);
+
+        log.debug("Reconciled merchant {} on {}: orders={}, ledgerEntries={}, issues={}",
+                merchantId, date, result.ordersChecked, result.ledgerEntriesChecked, result.issueCount);
+
+        return ReconciliationReportResponse.builder()
+                .merchantId(merchantId)
+                .date(date)
+                .settlementStatus(settlement.map(Settlement::getStatus).orElse(null))
+                .settlementDiscrepancy(settlement.map(Settlement::getDiscrepancy).orElse(null))
+                .ordersChecked(result.ordersChecked)
+                .ledgerEntriesChecked(result.ledgerEntriesChecked)
+                .matchedOrders(result.matchedOrders)
+                .issueCount(result.issueCount)
+                .totalDifference(result.totalDifference)
+                .unlinkedLedgerAmount(unlinkedAmount)
+                .truncated(result.issueCount > result.entries.size())
+                .entries(result.entries)
+                .build();
+    }
+
+    /**
+     * Merge two streams sorted by order ID. For each order ID present on either side,
+     * the expected net ledger amount comes from the order (if any) and the actual one
+     * is the sum of that order's ledger entries (if any).
+     */
+    private void merge(Iterator<OrderAmountView> orders, Iterator<LedgerEntryView> ledger, MergeResult result) {
+        OrderAmountView order = orders.hasNext() ? orders.next() : null;
+        LedgerEntryView entry = ledger.hasNext() ? ledger.next() : null;
+
+        while (order != null || entry != null) {
+            long orderId = order == null ? entry.getRelatedOrderId()
+                    : entry == null ? order.getId()
+                    : Math.min(order.getId(), entry.getRelatedOrderId());
+
+            OrderAmountView matchedOrder = null;
+            if (order != null && order.getId() == orderId) {
+                matchedOrder = order;
+                result.ordersChecked++;
+                order = orders.hasNext() ? orders.next() : null;
+            }
+
+            BigDecimal actual = BigDecimal.ZERO;
+            int entryCount = 0;
+            while (entry != null && entry.getRelatedOrderId() == orderId) {
+                actual = entry.getType() == TransactionType.SALE
+                        ? actual.add(entry.getAmount())
+                        : actual.subtract(entry.getAmount());
+                entryCount++;
+                entry = ledger.hasNext() ? ledger.next() : null;
+            }
+            result.ledgerEntriesChecked += entryCount;
+
+            result.accept(orderId, matchedOrder, actual, entryCount);
+        }
+    }
+
+    /**
+     * Running totals of the merge; only issue entries up to the limit are kept
+     */
+    private static class MergeResult {
+        private final int limit;
+        private final List<ReconciliationReportResponse.Entry> entries = new ArrayList<>();
+        private long ordersChecked;
+        private long ledgerEntriesChecked;
+        private long matchedOrders;
+        private long issueCount;
+        private BigDecimal totalDifference = BigDecimal.ZERO;
+
+        private MergeResult(int limit) {
+            this.limit = limit;
+        }
+
+        private void accept(long orderId, OrderAmountView order, BigDecimal actual, int entryCount) {
+            BigDecimal expected = BigDecimal.ZERO;
+            if (order != null) {
+                expected = order.getStatus() == OrderStatus.COMPLETED
+                        ? order.getTotalAmount()
+                        : order.getTotalAmount().negate();
+            }
+            BigDecimal difference = expected.subtract(actual);
+            totalDifference = totalDifference.add(difference);
+
+            ReconciliationIssue issue;
+            if (order == null) {
+                issue = ReconciliationIssue.EXTRA_LEDGER_ENTRY;
+            } else if (entryCount == 0) {
+                issue = ReconciliationIssue.MISSING_LEDGER_ENTRY;
+            } else if (difference.compareTo(BigDecimal.ZERO) != 0) {
+                issue = ReconciliationIssue.AMOUNT_MISMATCH;
+            } else {
+                matchedOrders++;
+                return;
+            }
+
+            issueCount++;
+            if (entries.size() < limit) {
+                entries.add(ReconciliationReportResponse.Entry.builder()
+                        .orderId(orderId)
+                        .orderNumber(order != null ? order.getOrderNumber() : null)
+                        .orderStatus(order != null ? order.getStatus() : null)
+                        .expectedLedgerAmount(expected)
+                        .actualLedgerAmount(actual)
+                        .difference(difference)
+                        .issue(issue)
+                        .build());
+            }
+        }
+    }
+}
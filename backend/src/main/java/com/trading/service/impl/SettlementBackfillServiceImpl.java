@@ -0,0 +1,361 @@
+package com.trading.service.impl;
+
+import com.trading.config.SettlementProperties;
+import com.trading.dto.request.SettlementBackfillRequest;
+import com.trading.dto.response.SettlementBackfillProgressResponse;
+import com.trading.entity.Merchant;
+import com.trading.entity.Settlement;
+import com.trading.enums.OrderStatus;
+import com.trading.enums.SettlementRunStatus;
+import com.trading.enums.SettlementStatus;
+import com.trading.enums.TransactionType;
+import com.trading.exception.InvalidOperationException;
+import com.trading.exception.ResourceNotFoundException;
+import com.trading.repository.MerchantRepository;
+import com.trading.repository.OrderRepository;
+import com.trading.repository.SettlementRepository;
+import com.trading.repository.TransactionRecordRepository;
+import com.trading.service.ArchiveService;
+import com.trading.service.SettlementBackfillService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SettlementBackfillServiceImpl implements SettlementBackfillService {
+
+    private static final String ACCOUNT_TYPE_MERCHANT = "MERCHANT";
+    private static final List<OrderStatus> SETTLED_ORDER_STATUSES =
+            List.of(OrderStatus.COMPLETED, OrderStatus.REFUNDED);
+    private static final List<TransactionType> LEDGER_TYPES =
+            List.of(TransactionType.SALE, TransactionType.REFUND_OUT);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final SettlementRepository settlementRepository;
+    private final MerchantRepository merchantRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionRecordRepository transactionRecordRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final SettlementProperties settlementProperties;
+    private final ArchiveService archiveService;
+
+    private final AtomicReference<BackfillJob> currentJob = new AtomicReference<>();
+
+    @Override
+    public SettlementBackfillProgressResponse start(SettlementBackfillRequest request) {
+        BackfillJob job = prepare(request);
+
+        BackfillJob previous = currentJob.get();
+        if ((previous != null && previous.status == SettlementRunStatus.RUNNING)
+                || !currentJob.compareAndSet(previous, job)) {
+            throw new InvalidOperationException("Settlement backfill already in progress");
+        }
+
+        log.info("Starting settlement backfill {} to {}: merchants={}, force={}, parallelism={}",
+                job.startDate, job.endDate, job.merchantIds == null ? "all" : job.merchantIds.size(),
+                job.force, job.parallelism);
+        Thread coordinator = new Thread(() -> execute(job), "settlement-backfill");
+        coordinator.setDaemon(true);
+        coordinator.start();
+        return job.toProgress();
+    }
+
+    @Override
+    public SettlementBackfillProgressResponse getProgress() {
+        BackfillJob job = currentJob.get();
+        return job != null ? job.toProgress() : null;
+    }
+
+    @Override
+    public SettlementBackfillProgressResponse awaitCompletion(Duration timeout) throws InterruptedException {
+        BackfillJob job = currentJob.get();
+        if (job == null) {
+            return null;
+        }
+        job.done.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        return job.toProgress();
+    }
+
+    private BackfillJob prepare(SettlementBackfillRequest request) {
+        if (request.getStartDate() == null || request.getEndDate() == null) {
+            throw new InvalidOperationException("Start date and end date are required");
+        }
+        if (request.getEndDate().isBefore(request.getStartDate())) {
+            throw new InvalidOperationException("End date must not be before start date");
+        }
+        if (request.getEndDate().isAfter(LocalDate.now())) {
+            throw new InvalidOperationException("Cannot settle future dates");
+        }
+
+        SettlementProperties.BackfillConfig config = settlementProperties.getBackfill();
+        List<LocalDate> days = request.getStartDate().datesUntil(request.getEndDate().plusDays(1)).toList();
+        if (days.size() > config.getMaxDays()) {
+            throw new InvalidOperationException(
+                    "Backfill range of " + days.size() + " days exceeds the limit of " + config.getMaxDays());
+        }
+        // max-days bounds the length of the range, not how far back it starts: days the archive job
+        // has emptied would be settled with zero totals and, with force, overwrite correct settlements
+        archiveService.checkNotArchived(request.getStartDate(), request.getEndDate());
+
+        int parallelism = config.getParallelism();
+        if (request.getParallelism() != null) {
+            if (request.getParallelism() < 1) {
+                throw new InvalidOperationException("Parallelism must be at least 1");
+            }
+            parallelism = Math.min(request.getParallelism(), parallelism);
+        }
+
+        List<Long> merchantIds = null;
+        if (request.getMerchantIds() != null && !request.getMerchantIds().isEmpty()) {
+            merchantIds = request.getMerchantIds().stream().distinct().sorted().toList();
+            Set<Long> found = merchantRepository.findAllById(merchantIds).stream()
+                    .map(Merchant::getId)
+                    .collect(Collectors.toSet());
+            for (Long merchantId : merchantIds) {
+                if (!found.contains(merchantId)) {
+                    throw new ResourceNotFoundException("Merchant", merchantId);
+                }
+            }
+        }
+
+        return new BackfillJob(request.getStartDate(), request.getEndDate(), days, merchantIds,
+                request.isForce(), parallelism, config.getMaxReportedMismatches());
+    }
+
+    private void execute(BackfillJob job) {
+        ExecutorService executor = Executors.newFixedThreadPool(job.parallelism, workerThreadFactory());
+        try {
+            CompletableFuture<?>[] futures = job.days.stream()
+                    .map(day -> CompletableFuture.runAsync(() -> processDay(job, day), executor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(futures).join();
+        } finally {
+            executor.shutdown();
+            job.finish();
+        }
+        log.info("Settlement backfill {} to {} finished: status={}, created={}, recomputed={}, skipped={}, mismatches={}",
+                job.startDate, job.endDate, job.status, job.created.get(), job.recomputed.get(),
+                job.skipped.get(), job.mismatchCount.get());
+    }
+
+    private void processDay(BackfillJob job, LocalDate date) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            DayResult result = transactionTemplate.execute(status -> settleDay(job, date));
+            job.record(result);
+        } catch (RuntimeException e) {
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            log.error("Settlement backfill for {} failed: {}", date, error);
+            job.failedDays.incrementAndGet();
+            job.failures.add(SettlementBackfillProgressResponse.DayFailure.builder()
+                    .settlementDate(date)
+                    .error(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error)
+                    .build());
+        }
+    }
+
+    /**
+     * Settle every target merchant for one day from a single aggregated scan of
+     * the day's orders and ledger rows
+     */
+    private DayResult settleDay(BackfillJob job, LocalDate date) {
+        // Half-open day [date 00:00, date+1 00:00), the same bounds for orders and ledger rows
+        LocalDateTime startOfDay = date.atStartOfDay();
+        LocalDateTime endOfDay = date.plusDays(1).atStartOfDay();
+        // Checked again per day in case the archive job ran after the backfill started
+        archiveService.checkNotArchived(date, date);
+
+        Map<Long, BigDecimal> sales = new HashMap<>();
+        Map<Long, BigDecimal> refunds = new HashMap<>();
+        for (Object[] row : orderRepository.sumAmountByMerchantAndStatus(SETTLED_ORDER_STATUSES, startOfDay, endOfDay)) {
+            Map<Long, BigDecimal> target = row[1] == OrderStatus.COMPLETED ? sales : refunds;
+            target.merge((Long) row[0], (BigDecimal) row[2], BigDecimal::add);
+        }
+
+        Map<Long, BigDecimal> balanceChanges = new HashMap<>();
+        for (Object[] row : transactionRecordRepository.sumAmountByAccountAndType(
+                ACCOUNT_TYPE_MERCHANT, LEDGER_TYPES, startOfDay, endOfDay)) {
+            BigDecimal amount = (BigDecimal) row[2];
+            balanceChanges.merge((Long) row[0],
+                    row[1] == TransactionType.SALE ? amount : amount.negate(), BigDecimal::add);
+        }
+
+        List<Long> merchantIds = job.merchantIds != null ? job.merchantIds : merchantRepository.findAllIds();
+        Map<Long, Settlement> existing = settlementRepository.findBySettlementDate(date).stream()
+                .collect(Collectors.toMap(Settlement::getMerchantId, Function.identity()));
+
+        DayResult result = new DayResult();
+        List<Settlement> toSave = new ArrayList<>();
+        for (Long merchantId : merchantIds) {
+            Settlement settlement = existing.get(merchantId);
+            if (settlement != null && !job.force) {
+                result.skipped++;
+                continue;
+            }
+            if (settlement == null) {
+                settlement = Settlement.builder().merchantId(merchantId).settlementDate(date).build();
+                result.created++;
+            } else {
+                result.recomputed++;
+            }
+
+            new SettlementTotals(
+                    sales.getOrDefault(merchantId, BigDecimal.ZERO),
+                    refunds.getOrDefault(merchantId, BigDecimal.ZERO),
+                    balanceChanges.getOrDefault(merchantId, BigDecimal.ZERO),
+                    null).applyTo(settlement);
+            toSave.add(settlement);
+
+            if (settlement.getStatus() == SettlementStatus.MISMATCHED) {
+                result.mismatches.add(SettlementBackfillProgressResponse.Mismatch.builder()
+                        .merchantId(merchantId)
+                        .settlementDate(date)
+                        .netAmount(settlement.getNetAmount())
+                        .balanceChange(settlement.getBalanceChange())
+                        .discrepancy(settlement.getDiscrepancy())
+                        .build());
+            }
+        }
+        settlementRepository.saveAll(toSave);
+
+        log.debug("Settlement backfill for {}: created={}, recomputed={}, skipped={}, mismatches={}",
+                date, result.created, result.recomputed, result.skipped, result.mismatches.size());
+        return result;
+    }
+
+    private ThreadFactory workerThreadFactory() {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        return runnable -> {
+            Thread thread = new Thread(runnable, "settlement-backfill-worker-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Outcome of one day, merged into the job only after the day's transaction committed
+     */
+    private static class DayResult {
+        private long created;
+        private long recomputed;
+        private long skipped;
+        private final List<SettlementBackfillProgressResponse.Mismatch> mismatches = new ArrayList<>();
+    }
+
+    /**
+     * In-memory state of a running or finished backfill
+     */
+    private static class BackfillJob {
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final List<LocalDate> days;
+        private final List<Long> merchantIds;
+        private final boolean force;
+        private final int parallelism;
+        private final int maxReportedMismatches;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+
+        private final AtomicInteger completedDays = new AtomicInteger();
+        private final AtomicInteger failedDays = new AtomicInteger();
+        private final AtomicLong created = new AtomicLong();
+        private final AtomicLong recomputed = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong mismatchCount = new AtomicLong();
+        private final AtomicReference<BigDecimal> totalDiscrepancy = new AtomicReference<>(BigDecimal.ZERO);
+        private final Queue<SettlementBackfillProgressResponse.Mismatch> mismatches = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger reportedMismatches = new AtomicInteger();
+        private final Queue<SettlementBackfillProgressResponse.DayFailure> failures = new ConcurrentLinkedQueue<>();
+
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        private volatile SettlementRunStatus status = SettlementRunStatus.RUNNING;
+        private volatile LocalDateTime finishedAt;
+
+        private BackfillJob(LocalDate startDate, LocalDate endDate, List<LocalDate> days, List<Long> merchantIds,
+                            boolean force, int parallelism, int maxReportedMismatches) {
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.days = days;
+            this.merchantIds = merchantIds;
+            this.force = force;
+            this.parallelism = parallelism;
+            this.maxReportedMismatches = maxReportedMismatches;
+        }
+
+        private void record(DayResult result) {
+            created.addAndGet(result.created);
+            recomputed.addAndGet(result.recomputed);
+            skipped.addAndGet(result.skipped);
+            for (SettlementBackfillProgressResponse.Mismatch mismatch : result.mismatches) {
+                mismatchCount.incrementAndGet();
+                totalDiscrepancy.accumulateAndGet(mismatch.getDiscrepancy(), BigDecimal::add);
+                if (reportedMismatches.getAndIncrement() < maxReportedMismatches) {
+                    mismatches.add(mismatch);
+                }
+            }
+            completedDays.incrementAndGet();
+        }
+
+        private void finish() {
+            finishedAt = LocalDateTime.now();
+            status = failedDays.get() == 0 ? SettlementRunStatus.COMPLETED : SettlementRunStatus.FAILED;
+            done.countDown();
+        }
+
+        private SettlementBackfillProgressResponse toProgress() {
+            LocalDateTime end = finishedAt != null ? finishedAt : LocalDateTime.now();
+            List<SettlementBackfillProgressResponse.Mismatch> reported = new ArrayList<>(mismatches);
+            reported.sort(Comparator
+                    .comparing(SettlementBackfillProgressResponse.Mismatch::getSettlementDate)
+                    .thenComparing(SettlementBackfillProgressResponse.Mismatch::getMerchantId));
+            List<SettlementBackfillProgressResponse.DayFailure> dayFailures = new ArrayList<>(failures);
+            dayFailures.sort(Comparator.comparing(SettlementBackfillProgressResponse.DayFailure::getSettlementDate));
+
+            return SettlementBackfillProgressResponse.builder()
+                    .status(status)
+                    .startDate(startDate)
+                    .endDate(endDate)
+                    .merchantFilterSize(merchantIds != null ? merchantIds.size() : null)
+                    .force(force)
+                    .parallelism(parallelism)
+                    .totalDays(days.size())
+                    .completedDays(completedDays.get())
+                    .failedDays(failedDays.get())
+                    .settlementsCreated(created.get())
+                    .settlementsRecomputed(recomputed.get())
+                    .settlementsSkipped(skipped.get())
+                    .mismatchCount(mismatchCount.get())
+                    .totalDiscrepancy(totalDiscrepancy.get())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .elapsedMillis(Duration.between(startedAt, end).toMillis())
+                    .mismatches(reported)
+                    .failures(dayFailures)
+                    .build();
+        }
+    }
+}
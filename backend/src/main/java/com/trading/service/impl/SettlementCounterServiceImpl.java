@@ -0,0 +1,99 @@
+package com.trading.service.impl;
+
+import com.trading.config.SettlementProperties;
+import com.trading.entity.MerchantDailyCounter;
+import com.trading.enums.TransactionType;
+import com.trading.repository.MerchantDailyCounterRepository;
+import com.trading.service.SettlementCounterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SettlementCounterServiceImpl implements SettlementCounterService {
+    
+    private static final String INSERT_COUNTER_SQL =
+            "INSERT INTO merchant_daily_counters " +
+            "(merchant_id, counter_date, slot, sales_amount, refund_amount, ledger_credits, ledger_debits) " +
+            "VALUES (?, ?, ?, 0, 0, 0, 0)";
+    
+    private final MerchantDailyCounterRepository counterRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final SettlementProperties settlementProperties;
+    
+    @Override
+    @Transactional
+    public void recordSale(Long merchantId, BigDecimal amount, LocalDateTime completedAt) {
+        increment(merchantId, completedAt, amount, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+    
+    @Override
+    @Transactional
+    public void recordRefund(Long merchantId, BigDecimal amount, LocalDateTime refundedAt) {
+        increment(merchantId, refundedAt, BigDecimal.ZERO, amount, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+    
+    @Override
+    @Transactional
+    public void recordLedgerEntry(Long merchantId, TransactionType type, BigDecimal amount, LocalDateTime createdAt) {
+        switch (type) {
+            case SALE -> increment(merchantId, createdAt, BigDecimal.ZERO, BigDecimal.ZERO, amount, BigDecimal.ZERO);
+            case REFUND_OUT -> increment(merchantId, createdAt, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, amount);
+            default -> { }
+        }
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<MerchantDailyCounter> getCounter(Long merchantId, LocalDate date) {
+        List<MerchantDailyCounter> slots = counterRepository.findByMerchantIdAndCounterDate(merchantId, date);
+        if (slots.isEmpty()) {
+            return Optional.empty();
+        }
+        MerchantDailyCounter total = MerchantDailyCounter.builder()
+                .merchantId(merchantId)
+                .counterDate(date)
+                .build();
+        for (MerchantDailyCounter slot : slots) {
+            total.setSalesAmount(total.getSalesAmount().add(slot.getSalesAmount()));
+            total.setRefundAmount(total.getRefundAmount().add(slot.getRefundAmount()));
+            total.setLedgerCredits(total.getLedgerCredits().add(slot.getLedgerCredits()));
+            total.setLedgerDebits(total.getLedgerDebits().add(slot.getLedgerDebits()));
+        }
+        return Optional.of(total);
+    }
+    
+    /**
+     * Update a random slot first; only the first write of the day to a slot creates its row.
+     * The insert goes through JdbcTemplate on the caller's connection so that losing
+     * the race against a concurrent insert only fails that statement and leaves the
+     * surrounding business transaction usable.
+     */
+    private void increment(Long merchantId, LocalDateTime at, BigDecimal sales, BigDecimal refunds,
+                           BigDecimal credits, BigDecimal debits) {
+        LocalDate day = at.toLocalDate();
+        int slot = ThreadLocalRandom.current().nextInt(settlementProperties.getCounters().getSlots());
+        if (counterRepository.increment(merchantId, day, slot, sales, refunds, credits, debits) > 0) {
+            return;
+        }
+        
+        try {
+            jdbcTemplate.update(INSERT_COUNTER_SQL, merchantId, day, slot);
+        } catch (DuplicateKeyException e) {
+            log.debug("Counter slot {} for merchant {} on {} was created concurrently", slot, merchantId, day);
+        }
+        counterRepository.increment(merchantId, day, slot, sales, refunds, credits, debits);
+    }
+}
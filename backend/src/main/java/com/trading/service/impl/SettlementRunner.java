@@ -0,0 +1,336 @@
+package com.trading.service.impl;
+
+import com.trading.config.SettlementProperties;
+import com.trading.dto.response.SettlementRunProgressResponse;
+import com.trading.entity.SettlementChunk;
+import com.trading.entity.SettlementRun;
+import com.trading.enums.SettlementChunkStatus;
+import com.trading.enums.SettlementRunStatus;
+import com.trading.exception.InvalidOperationException;
+import com.trading.repository.MerchantRepository;
+import com.trading.repository.SettlementChunkRepository;
+import com.trading.repository.SettlementRunRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Chunked, parallel settlement runner
+ * Splits merchants into contiguous ID ranges (chunks) and settles the chunks on a
+ * bounded worker pool, each merchant in its own transaction so one failing merchant
+ * does not roll back the rest of its chunk. Chunk status is persisted so a run
+ * interrupted by a crash resumes with the chunks that did not complete; merchants
+ * registered after the run was planned get chunks of their own. The caller's
+ * keep-running check is consulted before each chunk, so a node that lost its job
+ * lease stops instead of settling alongside the node that took the run over.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SettlementRunner {
+
+    private static final List<SettlementChunkStatus> UNFINISHED_STATUSES = List.of(
+            SettlementChunkStatus.PENDING,
+            SettlementChunkStatus.RUNNING,
+            SettlementChunkStatus.FAILED);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final SettlementRunRepository settlementRunRepository;
+    private final SettlementChunkRepository settlementChunkRepository;
+    private final MerchantRepository merchantRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final SettlementProperties settlementProperties;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    /**
+     * Run (or resume) settlement for all merchants on the given date
+     * @param date settlement date
+     * @param merchantSettlement settles one merchant; invoked inside a transaction of its own
+     * @return progress of the run after all chunks have been attempted
+     */
+    public SettlementRunProgressResponse run(LocalDate date, Consumer<Long> merchantSettlement) {
+        return run(date, merchantSettlement, () -> true);
+    }
+
+    /**
+     * Run (or resume) settlement for all merchants on the given date while the caller allows it
+     * @param date settlement date
+     * @param merchantSettlement settles one merchant; invoked inside a transaction of its own
+     * @param keepRunning checked before each chunk; once it returns false no further chunks
+     *                    are started and the run is left unfinished for the next attempt
+     * @return progress of the run after all chunks have been attempted
+     * @throws IllegalStateException if the run was stopped by keepRunning
+     */
+    public SettlementRunProgressResponse run(LocalDate date, Consumer<Long> merchantSettlement,
+                                             BooleanSupplier keepRunning) {
+        if (!running.compareAndSet(false, true)) {
+            throw new InvalidOperationException("Settlement run already in progress");
+        }
+        try {
+            SettlementRun run = startOrResume(date);
+            if (run.getStatus() == SettlementRunStatus.COMPLETED) {
+                log.info("Settlement run {} for {} already completed", run.getId(), date);
+                return toProgress(run);
+            }
+
+            List<SettlementChunk> chunks = new ArrayList<>(settlementChunkRepository
+                    .findByRunIdAndStatusInOrderByChunkIndex(run.getId(), UNFINISHED_STATUSES));
+            chunks.addAll(addChunksForNewMerchants(run));
+            log.info("Settlement run {} for {}: processing {} of {} chunks",
+                    run.getId(), date, chunks.size(), run.getTotalChunks());
+
+            // Merchants registered while the run was executing are picked up before it finishes
+            AtomicBoolean stopped = new AtomicBoolean(false);
+            while (!chunks.isEmpty()) {
+                executeChunks(chunks, merchantSettlement, keepRunning, stopped);
+                if (stopped.get()) {
+                    log.warn("Settlement run {} for {} stopped before finishing; its unfinished chunks are left for the next attempt",
+                            run.getId(), date);
+                    throw new IllegalStateException("Settlement run " + run.getId() + " for " + date + " was stopped");
+                }
+                chunks = addChunksForNewMerchants(run);
+            }
+            return toProgress(finish(run));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Progress of the most recent settlement run
+     * @return progress, or null if no run has been started yet
+     */
+    public SettlementRunProgressResponse getProgress() {
+        return settlementRunRepository.findFirstByOrderByIdDesc()
+                .map(this::toProgress)
+                .orElse(null);
+    }
+
+    /**
+     * Whether a run is currently executing on this node
+     */
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private SettlementRun startOrResume(LocalDate date) {
+        Optional<SettlementRun> existing = settlementRunRepository.findFirstBySettlementDateOrderByIdDesc(date);
+        if (existing.isPresent()) {
+            SettlementRun run = existing.get();
+            if (run.getStatus() != SettlementRunStatus.COMPLETED) {
+                log.info("Resuming settlement run {} for {} (previous status {})",
+                        run.getId(), date, run.getStatus());
+                run.setStatus(SettlementRunStatus.RUNNING);
+                run.setFinishedAt(null);
+                run = settlementRunRepository.save(run);
+            }
+            return run;
+        }
+
+        SettlementRun run = settlementRunRepository.save(SettlementRun.builder()
+                .settlementDate(date)
+                .status(SettlementRunStatus.RUNNING)
+                .totalChunks(0)
+                .startedAt(LocalDateTime.now())
+                .build());
+        log.info("Created settlement run {} for {}", run.getId(), date);
+        return run;
+    }
+
+    /**
+     * Plan chunks for merchants above the highest ID already covered by the run
+     * (all merchants for a new run)
+     */
+    private List<SettlementChunk> addChunksForNewMerchants(SettlementRun run) {
+        List<SettlementChunk> existing = settlementChunkRepository.findByRunIdOrderByChunkIndex(run.getId());
+        List<Long> merchantIds = existing.isEmpty()
+                ? merchantRepository.findAllIds()
+                : merchantRepository.findIdsAfter(existing.get(existing.size() - 1).getLastMerchantId());
+        if (merchantIds.isEmpty()) {
+            return List.of();
+        }
+
+        int chunkSize = settlementProperties.getRunner().getChunkSize();
+        int newChunks = (merchantIds.size() + chunkSize - 1) / chunkSize;
+        List<SettlementChunk> chunks = new ArrayList<>(newChunks);
+        for (int i = 0; i < newChunks; i++) {
+            int from = i * chunkSize;
+            int to = Math.min(from + chunkSize, merchantIds.size()) - 1;
+            chunks.add(SettlementChunk.builder()
+                    .runId(run.getId())
+                    .chunkIndex(existing.size() + i)
+                    .firstMerchantId(merchantIds.get(from))
+                    .lastMerchantId(merchantIds.get(to))
+                    .status(SettlementChunkStatus.PENDING)
+                    .build());
+        }
+        chunks = settlementChunkRepository.saveAll(chunks);
+        run.setTotalChunks(run.getTotalChunks() + newChunks);
+        settlementRunRepository.save(run);
+
+        log.info("Settlement run {} for {}: planned {} merchants in {} new chunks",
+                run.getId(), run.getSettlementDate(), merchantIds.size(), newChunks);
+        return chunks;
+    }
+
+    private void executeChunks(List<SettlementChunk> chunks, Consumer<Long> merchantSettlement,
+                               BooleanSupplier keepRunning, AtomicBoolean stopped) {
+        if (chunks.isEmpty()) {
+            return;
+        }
+
+        SettlementProperties.RunnerConfig config = settlementProperties.getRunner();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                config.getParallelism(),
+                config.getParallelism(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getQueueCapacity()),
+                workerThreadFactory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            CompletableFuture<?>[] futures = chunks.stream()
+                    .map(chunk -> CompletableFuture.runAsync(
+                            () -> {
+                                if (stopped.get() || !keepRunning.getAsBoolean()) {
+                                    stopped.set(true);
+                                    return;
+                                }
+                                processChunk(chunk, merchantSettlement);
+                            }, executor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(futures).join();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void processChunk(SettlementChunk chunk, Consumer<Long> merchantSettlement) {
+        chunk.setStatus(SettlementChunkStatus.RUNNING);
+        chunk.setAttempts(chunk.getAttempts() + 1);
+        chunk.setStartedAt(LocalDateTime.now());
+        chunk.setFinishedAt(null);
+        chunk.setLastError(null);
+        chunk = settlementChunkRepository.save(chunk);
+
+        List<Long> merchantIds = merchantRepository.findIdsBetween(
+                chunk.getFirstMerchantId(), chunk.getLastMerchantId());
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        int settled = 0;
+        List<String> errors = new ArrayList<>();
+        for (Long merchantId : merchantIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> merchantSettlement.accept(merchantId));
+                settled++;
+            } catch (RuntimeException e) {
+                log.error("Settlement for merchant {} in chunk {} failed: {}",
+                        merchantId, chunk.getChunkIndex(), e.getMessage());
+                errors.add("Merchant " + merchantId + ": " + e.getMessage());
+            }
+        }
+
+        chunk.setProcessedMerchants(settled);
+        if (errors.isEmpty()) {
+            chunk.setStatus(SettlementChunkStatus.COMPLETED);
+        } else {
+            String error = errors.size() + " of " + merchantIds.size() + " merchants failed; " + String.join("; ", errors);
+            log.error("Settlement chunk {} (merchants {}-{}) finished with failures: {}",
+                    chunk.getChunkIndex(), chunk.getFirstMerchantId(), chunk.getLastMerchantId(), error);
+            chunk.setStatus(SettlementChunkStatus.FAILED);
+            chunk.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        }
+        chunk.setFinishedAt(LocalDateTime.now());
+        settlementChunkRepository.save(chunk);
+    }
+
+    private SettlementRun finish(SettlementRun run) {
+        boolean allCompleted = settlementChunkRepository.findByRunIdOrderByChunkIndex(run.getId()).stream()
+                .allMatch(chunk -> chunk.getStatus() == SettlementChunkStatus.COMPLETED);
+        run.setStatus(allCompleted ? SettlementRunStatus.COMPLETED : SettlementRunStatus.FAILED);
+        run.setFinishedAt(LocalDateTime.now());
+        SettlementRun savedRun = settlementRunRepository.save(run);
+
+        if (allCompleted) {
+            log.info("Settlement run {} for {} completed", run.getId(), run.getSettlementDate());
+        } else {
+            log.warn("Settlement run {} for {} finished with failed chunks", run.getId(), run.getSettlementDate());
+        }
+        return savedRun;
+    }
+
+    private SettlementRunProgressResponse toProgress(SettlementRun run) {
+        List<SettlementChunk> chunks = settlementChunkRepository.findByRunIdOrderByChunkIndex(run.getId());
+
+        int completed = 0;
+        int failed = 0;
+        long merchantsProcessed = 0;
+        List<SettlementRunProgressResponse.ChunkFailure> failures = new ArrayList<>();
+        for (SettlementChunk chunk : chunks) {
+            if (chunk.getStatus() == SettlementChunkStatus.COMPLETED) {
+                completed++;
+                merchantsProcessed += chunk.getProcessedMerchants();
+            } else if (chunk.getStatus() == SettlementChunkStatus.FAILED) {
+                failed++;
+                merchantsProcessed += chunk.getProcessedMerchants();
+                failures.add(SettlementRunProgressResponse.ChunkFailure.builder()
+                        .chunkIndex(chunk.getChunkIndex())
+                        .firstMerchantId(chunk.getFirstMerchantId())
+                        .lastMerchantId(chunk.getLastMerchantId())
+                        .attempts(chunk.getAttempts())
+                        .error(chunk.getLastError())
+                        .build());
+            }
+        }
+
+        LocalDateTime end = run.getFinishedAt() != null ? run.getFinishedAt() : LocalDateTime.now();
+        long elapsedMillis = Math.max(0, Duration.between(run.getStartedAt(), end).toMillis());
+        double merchantsPerSecond = elapsedMillis > 0 ? merchantsProcessed * 1000.0 / elapsedMillis : 0.0;
+
+        return SettlementRunProgressResponse.builder()
+                .runId(run.getId())
+                .settlementDate(run.getSettlementDate())
+                .status(run.getStatus())
+                .totalChunks(run.getTotalChunks())
+                .completedChunks(completed)
+                .failedChunks(failed)
+                .pendingChunks(run.getTotalChunks() - completed - failed)
+                .merchantsProcessed(merchantsProcessed)
+                .startedAt(run.getStartedAt())
+                .finishedAt(run.getFinishedAt())
+                .elapsedMillis(elapsedMillis)
+                .merchantsPerSecond(merchantsPerSecond)
+                .failures(failures)
+                .build();
+    }
+
+    private ThreadFactory workerThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "settlement-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -1,18 +1,23 @@
 package com.trading.service.impl;
 
 import com.trading.dto.response.SettlementResponse;
+import com.trading.dto.response.SettlementRunProgressResponse;
+import com.trading.config.SettlementProperties;
 import com.trading.entity.Merchant;
-import com.trading.entity.Order;
+import com.trading.entity.MerchantDailyCounter;
 import com.trading.entity.Settlement;
-import com.trading.entity.TransactionRecord;
 import com.trading.enums.OrderStatus;
+import com.trading.enums.SettlementRunStatus;
 import com.trading.enums.SettlementStatus;
 import com.trading.enums.TransactionType;
 import com.trading.exception.ResourceNotFoundException;
+import com.trading.monitoring.jfr.MerchantSettlementEvent;
 import com.trading.repository.MerchantRepository;
 import com.trading.repository.OrderRepository;
 import com.trading.repository.SettlementRepository;
 import com.trading.repository.TransactionRecordRepository;
+import com.trading.service.ArchiveService;
+import com.trading.service.SettlementCounterService;
 import com.trading.service.SettlementService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,7 +30,8 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.List;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
 
 @Service
 @RequiredArgsConstructor
@@ -36,31 +42,52 @@ public class SettlementServiceImpl implements SettlementService {
     private final MerchantRepository merchantRepository;
     private final OrderRepository orderRepository;
     private final TransactionRecordRepository transactionRecordRepository;
+    private final SettlementRunner settlementRunner;
+    private final SettlementCounterService settlementCounterService;
+    private final SettlementProperties settlementProperties;
+    private final ArchiveService archiveService;
 
+    /**
+     * Merchants are settled in chunks by SettlementRunner, each merchant in its own
+     * transaction, so this method must not open a surrounding transaction.
+     */
     @Override
-    @Transactional
-    public void runDailySettlement() {
-        log.info("Starting daily settlement job");
-        LocalDate yesterday = LocalDate.now().minusDays(1);
+    public void runDailySettlement(LocalDate date, BooleanSupplier keepRunning) {
+        log.info("Starting daily settlement job for {}", date);
         
-        List<Merchant> merchants = merchantRepository.findAll();
-        for (Merchant merchant : merchants) {
-            try {
-                runSettlementForMerchant(merchant.getId(), yesterday);
-            } catch (Exception e) {
-                log.error("Failed to run settlement for merchant {}: {}", 
-                        merchant.getId(), e.getMessage());
-            }
-        }
+        SettlementRunProgressResponse progress = settlementRunner.run(date,
+                merchantId -> runSettlementForMerchant(merchantId, date), keepRunning);
         
-        log.info("Daily settlement job completed");
+        log.info("Daily settlement job completed: status={}, merchants={}, failedChunks={}",
+                progress.getStatus(), progress.getMerchantsProcessed(), progress.getFailedChunks());
+        if (progress.getStatus() == SettlementRunStatus.FAILED) {
+            throw new IllegalStateException("Settlement run " + progress.getRunId() + " for " + date
+                    + " finished with " + progress.getFailedChunks() + " failed chunks");
+        }
+    }
+
+    @Override
+    public SettlementRunProgressResponse getRunProgress() {
+        return settlementRunner.getProgress();
     }
 
     @Override
     @Transactional
     public SettlementResponse runSettlementForMerchant(Long merchantId, LocalDate date) {
         log.debug("Running settlement for merchant {} on date {}", merchantId, date);
-        
+        MerchantSettlementEvent event = new MerchantSettlementEvent();
+        event.begin();
+        event.merchantId = merchantId;
+        event.settlementDate = date.toString();
+        event.status = "FAILED";
+        try {
+            return settle(merchantId, date, event);
+        } finally {
+            event.commit();
+        }
+    }
+
+    private SettlementResponse settle(Long merchantId, LocalDate date, MerchantSettlementEvent event) {
         // Check if merchant exists
         Merchant merchant = merchantRepository.findById(merchantId)
                 .orElseThrow(() -> new ResourceNotFoundException("Merchant", merchantId));
@@ -68,53 +95,30 @@ public class SettlementServiceImpl implements SettlementService {
         // Check if settlement already exists for this date
         if (settlementRepository.existsByMerchantIdAndSettlementDate(merchantId, date)) {
             log.info("Settlement already exists for merchant {} on date {}", merchantId, date);
+            event.status = "EXISTING";
             return toSettlementResponse(
                     settlementRepository.findByMerchantIdAndSettlementDate(merchantId, date)
                             .orElseThrow());
         }
         
-        // Define date range for the settlement day
-        LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
-        
-        // Calculate total sales from COMPLETED orders
-        BigDecimal totalSales = calculateTotalSales(merchantId, startOfDay, endOfDay);
-        
-        // Calculate total refunds
-        BigDecimal totalRefunds = calculateTotalRefunds(merchantId, startOfDay, endOfDay);
-        
-        // Calculate net amount (sales - refunds)
-        BigDecimal netAmount = totalSales.subtract(totalRefunds);
-        
-        // Calculate actual balance change from transaction records
-        BigDecimal balanceChange = calculateBalanceChange(merchantId, startOfDay, endOfDay);
-        
-        // Determine settlement status
-        BigDecimal discrepancy = netAmount.subtract(balanceChange);
-        SettlementStatus status = discrepancy.compareTo(BigDecimal.ZERO) == 0 
-                ? SettlementStatus.MATCHED 
-                : SettlementStatus.MISMATCHED;
+        SettlementTotals totals = calculateTotals(merchantId, date);
+        Settlement settlement = totals.applyTo(Settlement.builder()
+                .merchantId(merchantId)
+                .settlementDate(date)
+                .build());
         
-        if (status == SettlementStatus.MISMATCHED) {
+        if (settlement.getStatus() == SettlementStatus.MISMATCHED) {
             log.warn("Settlement mismatch for merchant {} on {}: net={}, balanceChange={}, discrepancy={}",
-                    merchantId, date, netAmount, balanceChange, discrepancy);
+                    merchantId, date, settlement.getNetAmount(), settlement.getBalanceChange(),
+                    settlement.getDiscrepancy());
         }
         
-        // Create settlement record
-        Settlement settlement = Settlement.builder()
-                .merchantId(merchantId)
-                .settlementDate(date)
-                .totalSales(totalSales)
-                .totalRefunds(totalRefunds)
-                .netAmount(netAmount)
-                .balanceChange(balanceChange)
-                .discrepancy(discrepancy)
-                .status(status)
-                .build();
-        
         Settlement savedSettlement = settlementRepository.save(settlement);
+        event.status = savedSettlement.getStatus().name();
+        event.netAmount = savedSettlement.getNetAmount().doubleValue();
+        event.discrepancy = savedSettlement.getDiscrepancy().doubleValue();
         log.info("Created settlement for merchant {} on {}: status={}", 
-                merchantId, date, status);
+                merchantId, date, savedSettlement.getStatus());
         
         return toSettlementResponse(savedSettlement);
     }
@@ -138,53 +142,57 @@ public class SettlementServiceImpl implements SettlementService {
     }
 
     /**
-     * Calculate total sales from COMPLETED orders within the date range
+     * Day totals are read from the running counters maintained on the order and ledger
+     * write paths. A day without a counter row (no recorded activity, or rows written
+     * before counters existed) falls back to the full recompute from raw rows.
+     * In audit mode the full recompute also runs next to the counters; any drift is
+     * logged and flagged on the settlement, and the recomputed values are used.
      */
-    private BigDecimal calculateTotalSales(Long merchantId, LocalDateTime start, LocalDateTime end) {
-        List<Order> completedOrders = orderRepository
-                .findByMerchantIdAndStatusAndDateRange(merchantId, OrderStatus.COMPLETED, start, end);
+    private SettlementTotals calculateTotals(Long merchantId, LocalDate date) {
+        Optional<MerchantDailyCounter> counter = settlementCounterService.getCounter(merchantId, date);
+        if (counter.isEmpty()) {
+            return recalculateTotals(merchantId, date);
+        }
         
-        return completedOrders.stream()
-                .map(Order::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
-    /**
-     * Calculate total refunds within the date range
-     */
-    private BigDecimal calculateTotalRefunds(Long merchantId, LocalDateTime start, LocalDateTime end) {
-        List<Order> refundedOrders = orderRepository
-                .findByMerchantIdAndStatusAndDateRange(merchantId, OrderStatus.REFUNDED, start, end);
+        MerchantDailyCounter c = counter.get();
+        SettlementTotals fromCounters = new SettlementTotals(c.getSalesAmount(), c.getRefundAmount(),
+                c.getLedgerCredits().subtract(c.getLedgerDebits()), null);
+        if (!settlementProperties.getCounters().isAuditEnabled()) {
+            return fromCounters;
+        }
         
-        return refundedOrders.stream()
-                .map(Order::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        SettlementTotals recalculated = recalculateTotals(merchantId, date);
+        boolean drift = !fromCounters.sameAmountsAs(recalculated);
+        if (drift) {
+            log.warn("Settlement counter drift for merchant {} on {}: counters(sales={}, refunds={}, balanceChange={}) "
+                            + "recomputed(sales={}, refunds={}, balanceChange={})",
+                    merchantId, date,
+                    fromCounters.totalSales(), fromCounters.totalRefunds(), fromCounters.balanceChange(),
+                    recalculated.totalSales(), recalculated.totalRefunds(), recalculated.balanceChange());
+        }
+        return new SettlementTotals(recalculated.totalSales(), recalculated.totalRefunds(),
+                recalculated.balanceChange(), drift);
     }
 
     /**
-     * Calculate actual balance change from transaction records
-     * Balance change = SALE transactions - REFUND_OUT transactions
+     * Full recompute of the day totals from orders and transaction records.
+     * Reads the hot tables only, so a day with archived rows is refused until it is restored.
      */
-    private BigDecimal calculateBalanceChange(Long merchantId, LocalDateTime start, LocalDateTime end) {
-        // Get all SALE transactions (money in)
-        List<TransactionRecord> saleTransactions = transactionRecordRepository
-                .findByAccountTypeAndAccountIdAndTypeAndCreatedAtBetween(
-                        "MERCHANT", merchantId, TransactionType.SALE, start, end);
-        
-        BigDecimal totalSaleAmount = saleTransactions.stream()
-                .map(TransactionRecord::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        // Get all REFUND_OUT transactions (money out)
-        List<TransactionRecord> refundTransactions = transactionRecordRepository
-                .findByAccountTypeAndAccountIdAndTypeAndCreatedAtBetween(
-                        "MERCHANT", merchantId, TransactionType.REFUND_OUT, start, end);
-        
-        BigDecimal totalRefundAmount = refundTransactions.stream()
-                .map(TransactionRecord::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private SettlementTotals recalculateTotals(Long merchantId, LocalDate date) {
+        archiveService.checkNotArchived(date, date);
+        // Define date range for the settlement day
+        LocalDateTime startOfDay = date.atStartOfDay();
+        LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
         
-        return totalSaleAmount.subtract(totalRefundAmount);
+        return SettlementTotals.of(
+                orderRepository.findByMerchantIdAndStatusAndDateRange(
+                        merchantId, OrderStatus.COMPLETED, startOfDay, endOfDay),
+                orderRepository.findByMerchantIdAndStatusAndDateRange(
+                        merchantId, OrderStatus.REFUNDED, startOfDay, endOfDay),
+                transactionRecordRepository.findByAccountTypeAndAccountIdAndTypeAndCreatedAtBetween(
+                        "MERCHANT", merchantId, TransactionType.SALE, startOfDay, endOfDay),
+                transactionRecordRepository.findByAccountTypeAndAccountIdAndTypeAndCreatedAtBetween(
+                        "MERCHANT", merchantId, TransactionType.REFUND_OUT, startOfDay, endOfDay));
     }
 
     private SettlementResponse toSettlementResponse(Settlement settlement) {
@@ -198,6 +206,7 @@ public class SettlementServiceImpl implements SettlementService {
                 .balanceChange(settlement.getBalanceChange())
                 .discrepancy(settlement.getDiscrepancy())
                 .status(settlement.getStatus())
+                .counterDrift(settlement.getCounterDrift())
                 .createdAt(settlement.getCreatedAt())
                 .build();
     }
@@ -0,0 +1,69 @@
+package com.trading.service.impl;
+
+import com.trading.entity.Order;
+import com.trading.entity.Settlement;
+import com.trading.entity.TransactionRecord;
+import com.trading.enums.SettlementStatus;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Settlement amounts for one merchant and day; counterDrift is null unless audited
+ */
+record SettlementTotals(BigDecimal totalSales, BigDecimal totalRefunds,
+                        BigDecimal balanceChange, Boolean counterDrift) {
+
+    static final SettlementTotals ZERO =
+            new SettlementTotals(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, null);
+
+    /**
+     * Totals of a day's rows: sales from COMPLETED orders, refunds from REFUNDED orders,
+     * and the balance change as SALE minus REFUND_OUT transactions
+     */
+    static SettlementTotals of(List<Order> completedOrders, List<Order> refundedOrders,
+                               List<TransactionRecord> sales, List<TransactionRecord> refundsOut) {
+        return new SettlementTotals(
+                sumOrders(completedOrders),
+                sumOrders(refundedOrders),
+                sumTransactions(sales).subtract(sumTransactions(refundsOut)),
+                null);
+    }
+
+    boolean sameAmountsAs(SettlementTotals other) {
+        return totalSales.compareTo(other.totalSales) == 0
+                && totalRefunds.compareTo(other.totalRefunds) == 0
+                && balanceChange.compareTo(other.balanceChange) == 0;
+    }
+
+    /**
+     * Copy the amounts onto a settlement and derive net amount, discrepancy and status
+     * (net = sales - refunds; MATCHED when net equals the actual balance change)
+     */
+    Settlement applyTo(Settlement settlement) {
+        BigDecimal netAmount = totalSales.subtract(totalRefunds);
+        BigDecimal discrepancy = netAmount.subtract(balanceChange);
+        settlement.setTotalSales(totalSales);
+        settlement.setTotalRefunds(totalRefunds);
+        settlement.setNetAmount(netAmount);
+        settlement.setBalanceChange(balanceChange);
+        settlement.setDiscrepancy(discrepancy);
+        settlement.setStatus(discrepancy.compareTo(BigDecimal.ZERO) == 0
+                ? SettlementStatus.MATCHED
+                : SettlementStatus.MISMATCHED);
+        settlement.setCounterDrift(counterDrift);
+        return settlement;
+    }
+
+    private static BigDecimal sumOrders(List<Order> orders) {
+        return orders.stream()
+                .map(Order::getTotalAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static BigDecimal sumTransactions(List<TransactionRecord> transactions) {
+        return transactions.stream()
+                .map(TransactionRecord::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
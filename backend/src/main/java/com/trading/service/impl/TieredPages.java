@@ -0,0 +1,144 @@
+package com.trading.service.impl;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Pages over a hot table followed by its archive table.
+ * Hot rows come first and archive rows after them, each tier in the requested
+ * sort order; the archive is only read once a page reaches past the hot rows,
+ * otherwise it contributes just its row count to the total. Slices do the same
+ * without counting either tier, except to locate a page lying wholly in the archive.
+ */
+final class TieredPages {
+
+    private TieredPages() {
+    }
+
+    /**
+     * @param pageable requested page
+     * @param hot query of the hot table
+     * @param archive query of the archive table, called with an offset relative to the archive
+     * @param archiveCount number of matching archive rows
+     */
+    static <T> Page<T> concat(Pageable pageable,
+                              Function<Pageable, Page<T>> hot,
+                              Function<Pageable, Page<T>> archive,
+                              LongSupplier archiveCount) {
+        if (pageable.isUnpaged()) {
+            Page<T> hotPage = hot.apply(pageable);
+            Page<T> archivePage = archive.apply(pageable);
+            List<T> content = new ArrayList<>(hotPage.getContent());
+            content.addAll(archivePage.getContent());
+            return new PageImpl<>(content, pageable, content.size());
+        }
+        Page<T> hotPage = hot.apply(pageable);
+        long hotTotal = hotPage.getTotalElements();
+        int remaining = pageable.getPageSize() - hotPage.getNumberOfElements();
+        if (remaining == 0) {
+            return new PageImpl<>(hotPage.getContent(), pageable, hotTotal + archiveCount.getAsLong());
+        }
+        long archiveOffset = Math.max(0, pageable.getOffset() - hotTotal);
+        Page<T> archivePage = archive.apply(new OffsetPageRequest(archiveOffset, remaining, pageable.getSort()));
+        List<T> content = new ArrayList<>(hotPage.getContent());
+        content.addAll(archivePage.getContent());
+        return new PageImpl<>(content, pageable, hotTotal + archivePage.getTotalElements());
+    }
+
+    /**
+     * @param pageable requested slice
+     * @param hot slice query of the hot table
+     * @param archive slice query of the archive table, called with an offset relative to the archive
+     * @param hotCount number of matching hot rows, only used when the requested slice starts past them
+     */
+    static <T> Slice<T> concatSlices(Pageable pageable,
+                                     Function<Pageable, Slice<T>> hot,
+                                     Function<Pageable, Slice<T>> archive,
+                                     LongSupplier hotCount) {
+        if (pageable.isUnpaged()) {
+            List<T> content = new ArrayList<>(hot.apply(pageable).getContent());
+            content.addAll(archive.apply(pageable).getContent());
+            return new SliceImpl<>(content, pageable, false);
+        }
+        Slice<T> hotSlice = hot.apply(pageable);
+        if (hotSlice.hasNext()) {
+            return hotSlice;
+        }
+        int hotRows = hotSlice.getNumberOfElements();
+        int remaining = pageable.getPageSize() - hotRows;
+        if (remaining == 0) {
+            // The hot rows end exactly here; look for a single archive row to tell whether more follow
+            boolean archived = archive.apply(new OffsetPageRequest(0, 1, pageable.getSort())).hasContent();
+            return new SliceImpl<>(hotSlice.getContent(), pageable, archived);
+        }
+        // A partly filled hot slice ends the hot rows, so only an empty one past the first page needs the count
+        long hotTotal = hotRows > 0 || pageable.getOffset() == 0
+                ? pageable.getOffset() + hotRows
+                : hotCount.getAsLong();
+        long archiveOffset = Math.max(0, pageable.getOffset() - hotTotal);
+        Slice<T> archiveSlice = archive.apply(new OffsetPageRequest(archiveOffset, remaining, pageable.getSort()));
+        List<T> content = new ArrayList<>(hotSlice.getContent());
+        content.addAll(archiveSlice.getContent());
+        return new SliceImpl<>(content, pageable, archiveSlice.hasNext());
+    }
+
+    /**
+     * Page request starting at an arbitrary row offset
+     */
+    record OffsetPageRequest(long offset, int limit, Sort sort) implements Pageable {
+
+        @Override
+        public int getPageNumber() {
+            return (int) (offset / limit);
+        }
+
+        @Override
+        public int getPageSize() {
+            return limit;
+        }
+
+        @Override
+        public long getOffset() {
+            return offset;
+        }
+
+        @Override
+        public Sort getSort() {
+            return sort;
+        }
+
+        @Override
+        public Pageable next() {
+            return new OffsetPageRequest(offset + limit, limit, sort);
+        }
+
+        @Override
+        public Pageable previousOrFirst() {
+            return hasPrevious() ? new OffsetPageRequest(Math.max(0, offset - limit), limit, sort) : first();
+        }
+
+        @Override
+        public Pageable first() {
+            return new OffsetPageRequest(0, limit, sort);
+        }
+
+        @Override
+        public Pageable withPage(int pageNumber) {
+            return new OffsetPageRequest((long) pageNumber * limit, limit, sort);
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return offset > 0;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.trading.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.trading.config.JwtProperties;
+import com.trading.entity.RevokedToken;
+import com.trading.exception.InvalidTokenException;
+import com.trading.repository.RevokedTokenRepository;
+import com.trading.security.VerifiedToken;
+import com.trading.service.TokenRevocationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Slf4j
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    private static final double BLOOM_FALSE_POSITIVE_RATE = 0.01;
+
+    /**
+     * Each poll re-reads this much history so that rows committed late, or
+     * stamped by a node with a slightly skewed clock, are not missed
+     */
+    private static final Duration POLL_OVERLAP = Duration.ofMinutes(1);
+
+    /**
+     * Bloom filter bits cannot be cleared, so each node periodically rebuilds it
+     * from the live set once expired revocations have dropped out
+     */
+    private static final Duration BLOOM_REBUILD_INTERVAL = Duration.ofHours(1);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final JwtProperties.RevocationConfig config;
+
+    /**
+     * Tokens without a jti cannot be revoked and are rejected after this time
+     */
+    private final LocalDateTime legacyTokensAcceptedUntil;
+
+    /**
+     * Revoked token ID -> token expiration in epoch millis; entries drop out when the token expires
+     */
+    private final Cache<String, Long> revokedTokens;
+
+    private final Object bloomLock = new Object();
+    private volatile RevokedTokenBloomFilter bloomFilter;
+    private volatile LocalDateTime lastPolledAt;
+    private volatile LocalDateTime bloomBuiltAt = LocalDateTime.now();
+
+    public TokenRevocationServiceImpl(RevokedTokenRepository revokedTokenRepository, JwtProperties jwtProperties) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.config = jwtProperties.getRevocation();
+        this.legacyTokensAcceptedUntil = config.getLegacyTokensAcceptedUntil() != null
+                ? config.getLegacyTokensAcceptedUntil()
+                : LocalDateTime.now().plus(Duration.ofMillis(jwtProperties.getExpiration()));
+        this.revokedTokens = Caffeine.newBuilder()
+                .expireAfter(new UntilTokenExpires())
+                .build();
+        this.bloomFilter = newBloomFilter();
+    }
+
+    @Override
+    public boolean revoke(VerifiedToken token, String reason) {
+        if (!config.getEnabled()) {
+            log.debug("Token revocation is disabled, ignoring revoke request");
+            return false;
+        }
+        if (token.tokenId() == null || token.expiration() == null) {
+            log.warn("Token for {} has no ID or expiration and cannot be revoked", token.username());
+            return false;
+        }
+
+        remember(token.tokenId(), token.expiration().getTime());
+        if (!revokedTokenRepository.existsByTokenId(token.tokenId())) {
+            try {
+                revokedTokenRepository.save(RevokedToken.builder()
+                        .tokenId(token.tokenId())
+                        .subject(token.username())
+                        .reason(reason)
+                        .revokedAt(LocalDateTime.now())
+                        .expiresAt(LocalDateTime.ofInstant(token.expiration().toInstant(), ZoneId.systemDefault()))
+                        .build());
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Token {} was revoked concurrently", token.tokenId());
+            }
+        }
+        log.info("Revoked token {} of {} ({})", token.tokenId(), token.username(), reason);
+        return true;
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !config.getEnabled()) {
+            return false;
+        }
+        RevokedTokenBloomFilter filter = bloomFilter;
+        if (filter != null && !filter.mightContain(tokenId)) {
+            return false;
+        }
+        return revokedTokens.getIfPresent(tokenId) != null;
+    }
+
+    @Override
+    public void checkNotRevoked(VerifiedToken token) {
+        if (token.tokenId() == null) {
+            if (config.getEnabled() && LocalDateTime.now().isAfter(legacyTokensAcceptedUntil)) {
+                throw new InvalidTokenException("Token has no ID and can no longer be accepted");
+            }
+            return;
+        }
+        if (isRevoked(token.tokenId())) {
+            throw new InvalidTokenException("Token has been revoked");
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int refreshFromStore() {
+        if (!config.getEnabled()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<RevokedToken> revocations = lastPolledAt == null
+                ? revokedTokenRepository.findByExpiresAtAfter(now)
+                : revokedTokenRepository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(
+                        lastPolledAt.minus(POLL_OVERLAP), now);
+        for (RevokedToken revocation : revocations) {
+            remember(revocation.getTokenId(),
+                    revocation.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        lastPolledAt = now;
+        if (bloomBuiltAt.plus(BLOOM_REBUILD_INTERVAL).isBefore(now)) {
+            rebuildBloomFilter();
+        }
+        return revocations.size();
+    }
+
+    @Override
+    @Transactional
+    public int purgeExpired() {
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Purged {} expired token revocations", deleted);
+        }
+        return deleted;
+    }
+
+    private void remember(String tokenId, long expiresAtMillis) {
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        // Bloom updates and rebuilds are serialized so a rebuild never drops a fresh revocation
+        synchronized (bloomLock) {
+            revokedTokens.put(tokenId, expiresAtMillis);
+            if (bloomFilter != null) {
+                bloomFilter.put(tokenId);
+            }
+        }
+    }
+
+    private void rebuildBloomFilter() {
+        synchronized (bloomLock) {
+            revokedTokens.cleanUp();
+            RevokedTokenBloomFilter rebuilt = newBloomFilter();
+            if (rebuilt != null) {
+                revokedTokens.asMap().keySet().forEach(rebuilt::put);
+            }
+            bloomFilter = rebuilt;
+            bloomBuiltAt = LocalDateTime.now();
+        }
+    }
+
+    private RevokedTokenBloomFilter newBloomFilter() {
+        return config.getBloomFilterEnabled()
+                ? new RevokedTokenBloomFilter(config.getExpectedRevocations(), BLOOM_FALSE_POSITIVE_RATE)
+                : null;
+    }
+
+    private static class UntilTokenExpires implements Expiry<String, Long> {
+
+        @Override
+        public long expireAfterCreate(String tokenId, Long expiresAtMillis, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiresAtMillis - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String tokenId, Long expiresAtMillis, long currentTime, long currentDuration) {
+            return expireAfterCreate(tokenId, expiresAtMillis, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String tokenId, Long expiresAtMillis, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
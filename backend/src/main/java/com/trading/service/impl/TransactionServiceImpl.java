@@ -1,8 +1,11 @@
 package com.trading.service.impl;
 
+import com.trading.entity.ArchivedTransactionRecord;
 import com.trading.entity.TransactionRecord;
 import com.trading.enums.TransactionType;
+import com.trading.repository.ArchivedTransactionRecordRepository;
 import com.trading.repository.TransactionRecordRepository;
+import com.trading.service.SettlementCounterService;
 import com.trading.service.TransactionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -21,6 +24,8 @@ public class TransactionServiceImpl implements TransactionService {
     private static final String ACCOUNT_TYPE_MERCHANT = "MERCHANT";
     
     private final TransactionRecordRepository transactionRecordRepository;
+    private final ArchivedTransactionRecordRepository archivedTransactionRecordRepository;
+    private final SettlementCounterService settlementCounterService;
     
     @Override
     @Transactional
@@ -33,19 +38,33 @@ public class TransactionServiceImpl implements TransactionService {
     @Transactional
     public TransactionRecord createMerchantTransaction(Long merchantId, TransactionType type,
             BigDecimal amount, BigDecimal balanceBefore, BigDecimal balanceAfter, Long orderId) {
-        return createTransaction(ACCOUNT_TYPE_MERCHANT, merchantId, type, amount, balanceBefore, balanceAfter, orderId);
+        TransactionRecord record = createTransaction(ACCOUNT_TYPE_MERCHANT, merchantId, type, amount,
+                balanceBefore, balanceAfter, orderId);
+        settlementCounterService.recordLedgerEntry(merchantId, type, amount, record.getCreatedAt());
+        return record;
     }
     
     @Override
     @Transactional(readOnly = true)
     public Page<TransactionRecord> getUserTransactionHistory(Long userId, Pageable pageable) {
-        return transactionRecordRepository.findByAccountTypeAndAccountId(ACCOUNT_TYPE_USER, userId, pageable);
+        return history(ACCOUNT_TYPE_USER, userId, pageable);
     }
     
     @Override
     @Transactional(readOnly = true)
     public Page<TransactionRecord> getMerchantTransactionHistory(Long merchantId, Pageable pageable) {
-        return transactionRecordRepository.findByAccountTypeAndAccountId(ACCOUNT_TYPE_MERCHANT, merchantId, pageable);
+        return history(ACCOUNT_TYPE_MERCHANT, merchantId, pageable);
+    }
+    
+    /**
+     * An account's transactions, continuing into the archive once the hot rows run out
+     */
+    private Page<TransactionRecord> history(String accountType, Long accountId, Pageable pageable) {
+        return TieredPages.concat(pageable,
+                page -> transactionRecordRepository.findByAccountTypeAndAccountId(accountType, accountId, page),
+                page -> archivedTransactionRecordRepository.findByAccountTypeAndAccountId(accountType, accountId, page)
+                        .map(ArchivedTransactionRecord::toRecord),
+                () -> archivedTransactionRecordRepository.countByAccountTypeAndAccountId(accountType, accountId));
     }
     
     private TransactionRecord createTransaction(String accountType, Long accountId, TransactionType type,
@@ -63,7 +82,10 @@ public class TransactionServiceImpl implements TransactionService {
         return transactionRecordRepository.save(record);
     }
     
-    private String generateTransactionId() {
+    /**
+     * 生成交易流水号：时间戳加8位随机串
+     */
+    static String generateTransactionId() {
         return "TXN" + System.currentTimeMillis() + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
 }
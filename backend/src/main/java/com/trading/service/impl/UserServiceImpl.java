@@ -6,20 +6,25 @@ import com.trading.dto.request.UserRegisterRequest;
 import com.trading.dto.response.BalanceResponse;
 import com.trading.dto.response.TransactionResponse;
 import com.trading.dto.response.UserResponse;
+import com.trading.entity.ArchivedTransactionRecord;
 import com.trading.entity.TransactionRecord;
 import com.trading.entity.User;
 import com.trading.exception.BusinessException;
 import com.trading.exception.InvalidOperationException;
 import com.trading.exception.ResourceNotFoundException;
+import com.trading.repository.ArchivedTransactionRecordRepository;
 import com.trading.repository.TransactionRecordRepository;
 import com.trading.repository.UserRepository;
 import com.trading.security.JwtUtil;
+import com.trading.service.ApproximateCountService;
+import com.trading.service.PasswordHashingService;
 import com.trading.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,34 +37,43 @@ public class UserServiceImpl implements UserService {
     
     private final UserRepository userRepository;
     private final TransactionRecordRepository transactionRecordRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final ArchivedTransactionRecordRepository archivedTransactionRecordRepository;
+    private final ApproximateCountService approximateCountService;
+    private final PasswordHashingService passwordHashingService;
     private final JwtUtil jwtUtil;
     
     @Override
-    @Transactional
     public UserResponse register(UserRegisterRequest request) {
         log.debug("注册新用户: {}", request.getUsername());
+        passwordHashingService.checkRegistrationAllowed();
         
         if (userRepository.existsByUsername(request.getUsername())) {
             throw new BusinessException(400, "Username already exists: " + request.getUsername());
         }
         
+        // BCrypt在专用线程池中计算，且不在事务内，哈希期间不占用数据库连接
         User user = User.builder()
                 .username(request.getUsername())
-                .password(passwordEncoder.encode(request.getPassword())) // 使用BCrypt加密密码
+                .password(passwordHashingService.encode(request.getPassword())) // 使用BCrypt加密密码
                 .balance(BigDecimal.ZERO)
                 .build();
         
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // 并发注册同一用户名，由唯一约束兜底
+            throw new BusinessException(400, "Username already exists: " + request.getUsername());
+        }
         log.info("用户注册成功: id={}, username={}", savedUser.getId(), savedUser.getUsername());
         
         return UserResponse.fromEntity(savedUser);
     }
     
     @Override
-    @Transactional(readOnly = true)
     public UserResponse login(LoginRequest request) {
         log.debug("用户登录尝试: {}", request.getUsername());
+        passwordHashingService.checkLoginAllowed(request.getUsername());
         
         User user = userRepository.findByUsername(request.getUsername())
                 .orElseThrow(() -> {
@@ -67,8 +81,8 @@ public class UserServiceImpl implements UserService {
                     return new BusinessException(401, "Invalid credentials");
                 });
         
-        // 使用BCrypt验证密码
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        // 使用BCrypt验证密码（专用线程池，不在事务内）
+        if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
             log.warn("用户名密码错误的登录尝试: {}", request.getUsername());
             throw new BusinessException(401, "Invalid credentials");
         }
@@ -134,14 +148,37 @@ public class UserServiceImpl implements UserService {
         // 验证用户存在
         findUserById(userId);
         
-        // 查询用户的交易记录
-        Page<TransactionRecord> transactions = transactionRecordRepository
-                .findByAccountTypeAndAccountId("USER", userId, pageable);
+        // 查询用户的交易记录，翻过热数据后继续读取归档记录
+        Page<TransactionRecord> transactions = TieredPages.concat(pageable,
+                page -> transactionRecordRepository.findByAccountTypeAndAccountId("USER", userId, page),
+                page -> archivedTransactionRecordRepository.findByAccountTypeAndAccountId("USER", userId, page)
+                        .map(ArchivedTransactionRecord::toRecord),
+                () -> archivedTransactionRecordRepository.countByAccountTypeAndAccountId("USER", userId));
         
         // 转换为响应DTO
         return transactions.map(this::convertToResponse);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<TransactionResponse> getTransactionSlice(Long userId, Pageable pageable) {
+        findUserById(userId);
+        Slice<TransactionRecord> transactions = TieredPages.concatSlices(pageable,
+                page -> transactionRecordRepository.findSliceByAccountTypeAndAccountId("USER", userId, page),
+                page -> archivedTransactionRecordRepository.findSliceByAccountTypeAndAccountId("USER", userId, page)
+                        .map(ArchivedTransactionRecord::toRecord),
+                () -> transactionRecordRepository.countByAccountTypeAndAccountId("USER", userId));
+        return transactions.map(this::convertToResponse);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public long getApproximateTransactionCount(Long userId) {
+        return approximateCountService.get("transactions:user:" + userId,
+                () -> transactionRecordRepository.countByAccountTypeAndAccountId("USER", userId)
+                        + archivedTransactionRecordRepository.countByAccountTypeAndAccountId("USER", userId));
+    }
+    
     /**
      * 将交易记录实体转换为响应DTO
      */
@@ -32,39 +32,39 @@ INSERT INTO merchants (id, business_name, username, password, role, balance, cre
 -- 3. 商品数据 (Products)
 -- =====================================================
 -- 数码旗舰店商品
-INSERT INTO products (id, name, description, category, merchant_id, created_at) VALUES
-(1, 'iPhone 15 Pro', '苹果最新旗舰手机，A17 Pro芯片，钛金属边框', '手机', 1, '2024-01-10 10:00:00'),
-(2, 'MacBook Pro 14', 'M3 Pro芯片，14英寸Liquid Retina XDR显示屏', '电脑', 1, '2024-01-10 10:00:00'),
-(3, 'AirPods Pro 2', '主动降噪，自适应音频，MagSafe充电盒', '耳机', 1, '2024-01-10 10:00:00'),
-(4, 'iPad Air', 'M1芯片，10.9英寸显示屏，支持Apple Pencil', '平板', 1, '2024-01-10 10:00:00');
+INSERT INTO products (id, name, description, category, merchant_id, created_at, version) VALUES
+(1, 'iPhone 15 Pro', '苹果最新旗舰手机，A17 Pro芯片，钛金属边框', '手机', 1, '2024-01-10 10:00:00', 0),
+(2, 'MacBook Pro 14', 'M3 Pro芯片，14英寸Liquid Retina XDR显示屏', '电脑', 1, '2024-01-10 10:00:00', 0),
+(3, 'AirPods Pro 2', '主动降噪，自适应音频，MagSafe充电盒', '耳机', 1, '2024-01-10 10:00:00', 0),
+(4, 'iPad Air', 'M1芯片，10.9英寸显示屏，支持Apple Pencil', '平板', 1, '2024-01-10 10:00:00', 0);
 
 -- 时尚服饰店商品
-INSERT INTO products (id, name, description, category, merchant_id, created_at) VALUES
-(5, '男士休闲夹克', '春秋款，纯棉面料，修身版型', '男装', 2, '2024-01-11 10:00:00'),
-(6, '女士连衣裙', '夏季新款，雪纺面料，碎花图案', '女装', 2, '2024-01-11 10:00:00'),
-(7, '运动鞋', '透气网面，减震鞋底，多色可选', '鞋类', 2, '2024-01-11 10:00:00'),
-(8, '真皮手提包', '头层牛皮，大容量，商务休闲两用', '箱包', 2, '2024-01-11 10:00:00');
+INSERT INTO products (id, name, description, category, merchant_id, created_at, version) VALUES
+(5, '男士休闲夹克', '春秋款，纯棉面料，修身版型', '男装', 2, '2024-01-11 10:00:00', 0),
+(6, '女士连衣裙', '夏季新款，雪纺面料，碎花图案', '女装', 2, '2024-01-11 10:00:00', 0),
+(7, '运动鞋', '透气网面，减震鞋底，多色可选', '鞋类', 2, '2024-01-11 10:00:00', 0),
+(8, '真皮手提包', '头层牛皮，大容量，商务休闲两用', '箱包', 2, '2024-01-11 10:00:00', 0);
 
 -- 美食天地商品
-INSERT INTO products (id, name, description, category, merchant_id, created_at) VALUES
-(9, '有机大米', '东北五常大米，5kg装，新米上市', '粮油', 3, '2024-01-12 10:00:00'),
-(10, '进口牛排', '澳洲和牛M5级，200g/块，原切雪花', '肉类', 3, '2024-01-12 10:00:00'),
-(11, '精选红酒', '法国波尔多产区，2019年份，干红', '酒水', 3, '2024-01-12 10:00:00'),
-(12, '坚果礼盒', '混合坚果，500g，无添加', '零食', 3, '2024-01-12 10:00:00');
+INSERT INTO products (id, name, description, category, merchant_id, created_at, version) VALUES
+(9, '有机大米', '东北五常大米，5kg装，新米上市', '粮油', 3, '2024-01-12 10:00:00', 0),
+(10, '进口牛排', '澳洲和牛M5级，200g/块，原切雪花', '肉类', 3, '2024-01-12 10:00:00', 0),
+(11, '精选红酒', '法国波尔多产区，2019年份，干红', '酒水', 3, '2024-01-12 10:00:00', 0),
+(12, '坚果礼盒', '混合坚果，500g，无添加', '零食', 3, '2024-01-12 10:00:00', 0);
 
 -- 家居生活馆商品
-INSERT INTO products (id, name, description, category, merchant_id, created_at) VALUES
-(13, '智能台灯', 'LED护眼，无极调光，支持语音控制', '灯具', 4, '2024-01-13 10:00:00'),
-(14, '记忆棉枕头', '慢回弹，人体工学设计，透气面料', '床品', 4, '2024-01-13 10:00:00'),
-(15, '空气净化器', 'HEPA滤网，PM2.5实时显示，静音模式', '电器', 4, '2024-01-13 10:00:00'),
-(16, '咖啡机', '全自动研磨，一键萃取，奶泡功能', '厨电', 4, '2024-01-13 10:00:00');
+INSERT INTO products (id, name, description, category, merchant_id, created_at, version) VALUES
+(13, '智能台灯', 'LED护眼，无极调光，支持语音控制', '灯具', 4, '2024-01-13 10:00:00', 0),
+(14, '记忆棉枕头', '慢回弹，人体工学设计，透气面料', '床品', 4, '2024-01-13 10:00:00', 0),
+(15, '空气净化器', 'HEPA滤网，PM2.5实时显示，静音模式', '电器', 4, '2024-01-13 10:00:00', 0),
+(16, '咖啡机', '全自动研磨，一键萃取，奶泡功能', '厨电', 4, '2024-01-13 10:00:00', 0);
 
 -- 运动健身店商品
-INSERT INTO products (id, name, description, category, merchant_id, created_at) VALUES
-(17, '瑜伽垫', 'TPE材质，6mm厚度，防滑纹理', '健身器材', 5, '2024-01-14 10:00:00'),
-(18, '哑铃套装', '可调节重量，2-20kg，包胶防滑', '健身器材', 5, '2024-01-14 10:00:00'),
-(19, '跑步机', '家用静音，折叠收纳，心率监测', '健身器材', 5, '2024-01-14 10:00:00'),
-(20, '蛋白粉', '乳清蛋白，2.27kg，巧克力味', '营养补剂', 5, '2024-01-14 10:00:00');
+INSERT INTO products (id, name, description, category, merchant_id, created_at, version) VALUES
+(17, '瑜伽垫', 'TPE材质，6mm厚度，防滑纹理', '健身器材', 5, '2024-01-14 10:00:00', 0),
+(18, '哑铃套装', '可调节重量，2-20kg，包胶防滑', '健身器材', 5, '2024-01-14 10:00:00', 0),
+(19, '跑步机', '家用静音，折叠收纳，心率监测', '健身器材', 5, '2024-01-14 10:00:00', 0),
+(20, '蛋白粉', '乳清蛋白，2.27kg，巧克力味', '营养补剂', 5, '2024-01-14 10:00:00', 0);
 
 -- =====================================================
 -- 4. 库存数据 (Inventory)
@@ -106,6 +106,15 @@ INSERT INTO inventory (id, sku, product_id, merchant_id, quantity, price, versio
 (21, 'TREADMILL-HOME', 19, 5, 10, 3999.00, 0),
 (22, 'PROTEIN-WHEY-CHOC', 20, 5, 100, 399.00, 0);
 
+-- 商品读模型（由以上商品、库存和商家数据生成，运行期间由写入路径维护）
+INSERT INTO product_views (id, name, description, category, merchant_id, merchant_name, min_price, max_price, created_at, refreshed_at, version)
+SELECT p.id, p.name, p.description, p.category, p.merchant_id,
+       COALESCE(m.business_name, m.username, '未知商家'),
+       COALESCE((SELECT MIN(i.price) FROM inventory i WHERE i.product_id = p.id AND i.quantity > 0), 0),
+       COALESCE((SELECT MAX(i.price) FROM inventory i WHERE i.product_id = p.id AND i.quantity > 0), 0),
+       p.created_at, CURRENT_TIMESTAMP, 0
+FROM products p LEFT JOIN merchants m ON m.id = p.merchant_id;
+
 
 -- =====================================================
 -- 5. 购物车数据 (Cart Items)
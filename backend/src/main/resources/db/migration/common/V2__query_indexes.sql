@@ -0,0 +1,44 @@
+-- Secondary indexes for the repository queries. Unique constraints declared on the entities
+-- (cart_items(user_id, sku), settlements(merchant_id, settlement_date), settlement_chunks(run_id, chunk_index),
+-- merchant_daily_counters(merchant_id, counter_date)) and the order_items.order_id foreign key already
+-- serve lookups on their leading columns and are not repeated here.
+-- Plain CREATE INDEX so the script runs unchanged on H2 and MySQL; SchemaMigrator skips indexes that already
+-- exist, so a run that failed part-way (MySQL commits each statement) can simply be retried.
+-- QueryPlanTest checks the plans.
+
+-- Order history by user, newest first
+CREATE INDEX idx_orders_user_created ON orders (user_id, created_at);
+-- Merchant order lists, status counts and the per-merchant settlement range scan
+CREATE INDEX idx_orders_merchant_status_updated ON orders (merchant_id, status, updated_at);
+-- Settlement aggregation across merchants and archive selection
+CREATE INDEX idx_orders_status_updated ON orders (status, updated_at);
+
+-- Account history and per-account ledger sums by type and time
+CREATE INDEX idx_tx_account_type_created ON transaction_records (account_type, account_id, type, created_at);
+-- Ledger totals across accounts and archive selection
+CREATE INDEX idx_tx_created ON transaction_records (created_at);
+CREATE INDEX idx_tx_related_order ON transaction_records (related_order_id);
+
+-- Price ranges of in-stock SKUs per product
+CREATE INDEX idx_inventory_product_quantity ON inventory (product_id, quantity);
+-- Merchant inventory lists and low-stock counts
+CREATE INDEX idx_inventory_merchant_quantity ON inventory (merchant_id, quantity);
+
+CREATE INDEX idx_products_category ON products (category);
+CREATE INDEX idx_products_merchant ON products (merchant_id);
+CREATE INDEX idx_product_views_category ON product_views (category);
+CREATE INDEX idx_product_views_merchant ON product_views (merchant_id);
+
+CREATE INDEX idx_settlements_date ON settlements (settlement_date);
+CREATE INDEX idx_settlement_runs_date ON settlement_runs (settlement_date);
+
+CREATE INDEX idx_cache_invalidations_created ON cache_invalidations (created_at);
+CREATE INDEX idx_revoked_tokens_revoked_expires ON revoked_tokens (revoked_at, expires_at);
+CREATE INDEX idx_revoked_tokens_expires ON revoked_tokens (expires_at);
+
+CREATE INDEX idx_orders_archive_user_created ON orders_archive (user_id, created_at);
+CREATE INDEX idx_orders_archive_merchant_status_updated ON orders_archive (merchant_id, status, updated_at);
+CREATE INDEX idx_orders_archive_updated ON orders_archive (updated_at);
+CREATE INDEX idx_order_items_archive_order ON order_items_archive (order_id);
+CREATE INDEX idx_tx_archive_account_created ON transaction_records_archive (account_type, account_id, created_at);
+CREATE INDEX idx_tx_archive_created ON transaction_records_archive (created_at);
@@ -0,0 +1,11 @@
+-- One replica heartbeat row per node instead of a single shared row: every node stamps and reads back its own row,
+-- so nodes no longer overwrite each other's beat and each measures lag against its own clock.
+-- The heartbeat only holds the latest timestamp, so the table is recreated rather than converted;
+-- a failed run can simply be retried.
+
+DROP TABLE IF EXISTS replica_heartbeat;
+CREATE TABLE IF NOT EXISTS replica_heartbeat (
+    node_id varchar(200) not null,
+    beat_at_millis bigint not null,
+    primary key (node_id)
+);
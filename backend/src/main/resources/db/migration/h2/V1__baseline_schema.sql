@@ -0,0 +1,250 @@
+-- Baseline schema: every table mapped by the JPA entities. Tables that already exist are left as they are,
+-- so databases created before versioned migrations (by ddl-auto or by hand) pick up only the missing ones.
+-- Hibernate validates the result at startup (ddl-auto: validate); keep the h2 and mysql variants in step.
+-- schema_migrations itself is created by SchemaMigrator before any script runs.
+
+create table if not exists users (
+    id bigint generated by default as identity,
+    balance numeric(19,2) not null,
+    created_at timestamp(6) not null,
+    version bigint,
+    password varchar(255) not null,
+    username varchar(255) not null,
+    primary key (id),
+    constraint uk_users_username unique (username)
+);
+
+create table if not exists merchants (
+    id bigint generated by default as identity,
+    balance numeric(19,2) not null,
+    created_at timestamp(6) not null,
+    version bigint,
+    business_name varchar(255) not null,
+    password varchar(255) not null,
+    role varchar(255) not null,
+    username varchar(255) not null,
+    primary key (id),
+    constraint uk_merchants_username unique (username)
+);
+
+create table if not exists products (
+    id bigint generated by default as identity,
+    created_at timestamp(6) not null,
+    merchant_id bigint not null,
+    version bigint,
+    description varchar(1000),
+    category varchar(255) not null,
+    name varchar(255) not null,
+    primary key (id)
+);
+
+create table if not exists inventory (
+    id bigint generated by default as identity,
+    price numeric(19,2) not null,
+    quantity integer not null,
+    merchant_id bigint not null,
+    product_id bigint not null,
+    version bigint,
+    sku varchar(255) not null,
+    primary key (id),
+    constraint uk_inventory_sku unique (sku)
+);
+
+create table if not exists cart_items (
+    id bigint generated by default as identity,
+    quantity integer not null,
+    created_at timestamp(6) not null,
+    user_id bigint not null,
+    sku varchar(255) not null,
+    primary key (id),
+    constraint uk_cart_items_user_id_sku unique (user_id, sku)
+);
+
+create table if not exists orders (
+    id bigint generated by default as identity,
+    total_amount numeric(19,2) not null,
+    created_at timestamp(6) not null,
+    merchant_id bigint not null,
+    updated_at timestamp(6),
+    user_id bigint not null,
+    order_number varchar(255) not null,
+    status varchar(255) not null check (status in ('PENDING','PAID','SHIPPED','COMPLETED','CANCELLED','REFUNDED')),
+    primary key (id),
+    constraint uk_orders_order_number unique (order_number)
+);
+
+create table if not exists order_items (
+    id bigint generated by default as identity,
+    quantity integer not null,
+    subtotal numeric(19,2) not null,
+    unit_price numeric(19,2) not null,
+    order_id bigint not null,
+    product_name varchar(255) not null,
+    sku varchar(255) not null,
+    primary key (id),
+    constraint fk_order_items_order foreign key (order_id) references orders (id)
+);
+
+create table if not exists transaction_records (
+    id bigint generated by default as identity,
+    amount numeric(19,2) not null,
+    balance_after numeric(19,2) not null,
+    balance_before numeric(19,2) not null,
+    account_id bigint not null,
+    created_at timestamp(6) not null,
+    related_order_id bigint,
+    account_type varchar(255) not null,
+    transaction_id varchar(255) not null,
+    type varchar(255) not null check (type in ('DEPOSIT','PURCHASE','SALE','REFUND_OUT','REFUND_IN')),
+    primary key (id),
+    constraint uk_transaction_records_transaction_id unique (transaction_id)
+);
+
+create table if not exists settlements (
+    id bigint generated by default as identity,
+    balance_change numeric(19,2) not null,
+    counter_drift boolean,
+    discrepancy numeric(19,2),
+    net_amount numeric(19,2) not null,
+    settlement_date date not null,
+    total_refunds numeric(19,2) not null,
+    total_sales numeric(19,2) not null,
+    created_at timestamp(6) not null,
+    merchant_id bigint not null,
+    status varchar(255) not null check (status in ('MATCHED','MISMATCHED')),
+    primary key (id),
+    constraint uk_settlements_merchant_id_settlement_date unique (merchant_id, settlement_date)
+);
+
+create table if not exists settlement_runs (
+    id bigint generated by default as identity,
+    settlement_date date not null,
+    total_chunks integer not null,
+    finished_at timestamp(6),
+    started_at timestamp(6) not null,
+    status varchar(255) not null check (status in ('RUNNING','COMPLETED','FAILED')),
+    primary key (id)
+);
+
+create table if not exists settlement_chunks (
+    id bigint generated by default as identity,
+    attempts integer not null,
+    chunk_index integer not null,
+    processed_merchants integer not null,
+    finished_at timestamp(6),
+    first_merchant_id bigint not null,
+    last_merchant_id bigint not null,
+    run_id bigint not null,
+    started_at timestamp(6),
+    last_error varchar(1000),
+    status varchar(255) not null check (status in ('PENDING','RUNNING','COMPLETED','FAILED')),
+    primary key (id),
+    constraint uk_settlement_chunks_run_id_chunk_index unique (run_id, chunk_index)
+);
+
+create table if not exists merchant_daily_counters (
+    id bigint generated by default as identity,
+    counter_date date not null,
+    ledger_credits numeric(19,2) not null,
+    ledger_debits numeric(19,2) not null,
+    refund_amount numeric(19,2) not null,
+    sales_amount numeric(19,2) not null,
+    merchant_id bigint not null,
+    primary key (id),
+    constraint uk_merchant_daily_counters_merchant_id_counter_date unique (merchant_id, counter_date)
+);
+
+create table if not exists job_leases (
+    id bigint generated by default as identity,
+    acquired_at timestamp(6) not null,
+    completed_at timestamp(6),
+    expires_at timestamp(6) not null,
+    job_name varchar(100) not null,
+    tick varchar(100) not null,
+    holder varchar(200) not null,
+    last_error varchar(1000),
+    primary key (id),
+    constraint uk_job_leases_job_name unique (job_name)
+);
+
+create table if not exists revoked_tokens (
+    id bigint generated by default as identity,
+    expires_at timestamp(6) not null,
+    revoked_at timestamp(6) not null,
+    reason varchar(50) not null,
+    token_id varchar(64) not null,
+    subject varchar(100),
+    primary key (id),
+    constraint uk_revoked_tokens_token_id unique (token_id)
+);
+
+create table if not exists product_views (
+    id bigint not null,
+    max_price numeric(19,2) not null,
+    min_price numeric(19,2) not null,
+    created_at timestamp(6) not null,
+    merchant_id bigint not null,
+    refreshed_at timestamp(6) not null,
+    version bigint,
+    description varchar(1000),
+    category varchar(255) not null,
+    merchant_name varchar(255) not null,
+    name varchar(255) not null,
+    primary key (id)
+);
+
+create table if not exists cache_invalidations (
+    id bigint generated by default as identity,
+    created_at timestamp(6) not null,
+    entity_type varchar(20) not null,
+    entity_key varchar(100) not null,
+    node_id varchar(100) not null,
+    primary key (id)
+);
+
+create table if not exists orders_archive (
+    id bigint not null,
+    total_amount numeric(19,2) not null,
+    archived_at timestamp(6) not null,
+    created_at timestamp(6) not null,
+    merchant_id bigint not null,
+    updated_at timestamp(6),
+    user_id bigint not null,
+    order_number varchar(255) not null,
+    status varchar(255) not null check (status in ('PENDING','PAID','SHIPPED','COMPLETED','CANCELLED','REFUNDED')),
+    primary key (id),
+    constraint uk_orders_archive_order_number unique (order_number)
+);
+
+create table if not exists order_items_archive (
+    id bigint not null,
+    quantity integer not null,
+    subtotal numeric(19,2) not null,
+    unit_price numeric(19,2) not null,
+    order_id bigint not null,
+    product_name varchar(255) not null,
+    sku varchar(255) not null,
+    primary key (id)
+);
+
+create table if not exists transaction_records_archive (
+    id bigint not null,
+    amount numeric(19,2) not null,
+    balance_after numeric(19,2) not null,
+    balance_before numeric(19,2) not null,
+    account_id bigint not null,
+    archived_at timestamp(6) not null,
+    created_at timestamp(6) not null,
+    related_order_id bigint,
+    account_type varchar(255) not null,
+    transaction_id varchar(255) not null,
+    type varchar(255) not null check (type in ('DEPOSIT','PURCHASE','SALE','REFUND_OUT','REFUND_IN')),
+    primary key (id),
+    constraint uk_transaction_records_archive_transaction_id unique (transaction_id)
+);
+
+create table if not exists replica_heartbeat (
+    id bigint not null,
+    beat_at_millis bigint not null,
+    primary key (id)
+);
@@ -0,0 +1,9 @@
+-- Settlement counters are striped: each merchant and day has up to trading.settlement.counters.slots rows,
+-- writers pick one at random and readers sum them, so a busy merchant's completions and ledger entries
+-- do not all queue on one row lock. Existing rows become slot 0.
+-- Each statement can be re-run, so a failed run can simply be retried.
+
+ALTER TABLE merchant_daily_counters ADD COLUMN IF NOT EXISTS slot integer default 0 not null;
+ALTER TABLE merchant_daily_counters DROP CONSTRAINT IF EXISTS uk_merchant_daily_counters_merchant_id_counter_date;
+ALTER TABLE merchant_daily_counters ADD CONSTRAINT IF NOT EXISTS uk_merchant_daily_counters_merchant_id_counter_date_slot
+    UNIQUE (merchant_id, counter_date, slot);
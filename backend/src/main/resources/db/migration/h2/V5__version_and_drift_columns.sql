@@ -0,0 +1,11 @@
+-- Columns added to baseline tables after databases were first created by ddl-auto: products.version (optimistic
+-- locking of product updates) and settlements.counter_drift (settlement counter audit). V1 skips tables that
+-- already exist, so such databases lack them and fail schema validation. Databases created by V1 already have
+-- both columns and SchemaMigrator skips the ADD COLUMN statements.
+-- A null version makes Spring Data treat a product as new, so existing rows start at version 0.
+-- Each statement can be re-run, so a failed run can simply be retried.
+
+ALTER TABLE products ADD COLUMN version bigint default 0;
+UPDATE products SET version = 0 WHERE version IS NULL;
+ALTER TABLE products ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE settlements ADD COLUMN counter_drift boolean;
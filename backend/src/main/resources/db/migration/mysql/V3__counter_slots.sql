@@ -0,0 +1,11 @@
+-- Settlement counters are striped: each merchant and day has up to trading.settlement.counters.slots rows,
+-- writers pick one at random and readers sum them, so a busy merchant's completions and ledger entries
+-- do not all queue on one row lock. Existing rows become slot 0.
+-- One ALTER statement, so the change is applied completely or not at all and a failed run can be retried.
+-- Tables created by ddl-auto before versioned migrations carry a generated name for the old unique key;
+-- rename it to uk_merchant_daily_counters_merchant_id_counter_date before upgrading.
+
+ALTER TABLE merchant_daily_counters
+    ADD COLUMN slot integer default 0 not null,
+    DROP INDEX uk_merchant_daily_counters_merchant_id_counter_date,
+    ADD CONSTRAINT uk_merchant_daily_counters_merchant_id_counter_date_slot UNIQUE (merchant_id, counter_date, slot);
@@ -0,0 +1,159 @@
+package com.trading.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Compares JMH JSON results ({@code -rf json}) against a stored baseline and
+ * renders a Markdown report. A result is a regression when it is worse than
+ * the baseline by more than the threshold and by more than the two scores'
+ * combined error, so that run-to-run noise is not reported.
+ *
+ * Usage: {@code BenchmarkComparison <baseline.json> <current.json> [report.md] [thresholdPercent]}
+ */
+public final class BenchmarkComparison {
+
+    public static final double DEFAULT_THRESHOLD_PERCENT = 10.0;
+
+    private final Map<String, Result> baseline;
+    private final Map<String, Result> current;
+    private final double thresholdPercent;
+
+    public BenchmarkComparison(Path baselineFile, Path currentFile, double thresholdPercent) throws IOException {
+        this.baseline = read(baselineFile);
+        this.current = read(currentFile);
+        this.thresholdPercent = thresholdPercent;
+    }
+
+    /**
+     * Benchmarks that got slower than the baseline beyond the threshold and the error margin
+     */
+    public List<String> regressions() {
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result before = baseline.get(entry.getKey());
+            if (before != null && status(before, entry.getValue()) == Status.REGRESSION) {
+                regressions.add(entry.getKey());
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * Markdown table of every benchmark in either file with its change against the baseline
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        report.append("# Benchmark comparison\n\n");
+        report.append(String.format(Locale.ROOT,
+                "Regression threshold: %.1f%% and outside the combined score error.%n%n", thresholdPercent));
+        report.append("| Benchmark | Mode | Baseline | Current | Change (+ is better) | Status |\n");
+        report.append("|---|---|---:|---:|---:|---|\n");
+        Set<String> keys = new TreeSet<>(baseline.keySet());
+        keys.addAll(current.keySet());
+        for (String key : keys) {
+            Result before = baseline.get(key);
+            Result after = current.get(key);
+            Result any = after != null ? after : before;
+            report.append("| ").append(any.name())
+                    .append(" | ").append(any.mode())
+                    .append(" | ").append(before != null ? before.format() : "-")
+                    .append(" | ").append(after != null ? after.format() : "-")
+                    .append(" | ").append(before != null && after != null
+                            ? String.format(Locale.ROOT, "%+.1f%%", change(before, after)) : "-")
+                    .append(" | ").append(before == null ? "new" : after == null ? "not run" : status(before, after).label)
+                    .append(" |\n");
+        }
+        List<String> regressions = regressions();
+        report.append('\n').append(regressions.isEmpty()
+                ? "No regressions.\n"
+                : regressions.size() + " regression(s): " + String.join(", ", regressions) + "\n");
+        return report.toString();
+    }
+
+    /**
+     * Change in percent, positive when the benchmark got better
+     */
+    private static double change(Result before, Result after) {
+        double delta = (after.score() - before.score()) / before.score() * 100.0;
+        return after.higherIsBetter() ? delta : -delta;
+    }
+
+    private Status status(Result before, Result after) {
+        double change = change(before, after);
+        double margin = Math.abs(after.score() - before.score()) - before.error() - after.error();
+        if (Math.abs(change) <= thresholdPercent || margin <= 0) {
+            return Status.UNCHANGED;
+        }
+        return change < 0 ? Status.REGRESSION : Status.IMPROVED;
+    }
+
+    private static Map<String, Result> read(Path file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        if (!Files.exists(file)) {
+            return results;
+        }
+        for (JsonNode node : new ObjectMapper().readTree(file.toFile())) {
+            // Class and method without the package, so a benchmark keeps its name when it moves
+            String benchmark = node.path("benchmark").asText();
+            int method = benchmark.lastIndexOf('.');
+            StringBuilder name = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.', method - 1) + 1));
+            JsonNode params = node.path("params");
+            if (params.isObject()) {
+                List<String> pairs = new ArrayList<>();
+                params.fields().forEachRemaining(param -> pairs.add(param.getKey() + "=" + param.getValue().asText()));
+                Collections.sort(pairs);
+                name.append(pairs.stream().collect(Collectors.joining(", ", " (", ")")));
+            }
+            String mode = node.path("mode").asText();
+            JsonNode metric = node.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble(0);
+            Result result = new Result(name.toString(), mode, metric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error, metric.path("scoreUnit").asText());
+            results.put(result.name() + " [" + mode + "]", result);
+        }
+        return results;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <current.json> [report.md] [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 3 ? Double.parseDouble(args[3]) : DEFAULT_THRESHOLD_PERCENT;
+        BenchmarkComparison comparison = new BenchmarkComparison(Path.of(args[0]), Path.of(args[1]), threshold);
+        String report = comparison.report();
+        if (args.length > 2) {
+            Files.writeString(Path.of(args[2]), report);
+        }
+        System.out.println(report);
+        System.exit(comparison.regressions().isEmpty() ? 0 : 1);
+    }
+
+    private enum Status {
+        UNCHANGED("ok"), IMPROVED("improved"), REGRESSION("**regression**");
+
+        private final String label;
+
+        Status(String label) {
+            this.label = label;
+        }
+    }
+
+    private record Result(String name, String mode, double score, double error, String unit) {
+
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+
+        String format() {
+            return String.format(Locale.ROOT, "%.3f +/- %.3f %s", score, error, unit);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.trading.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the hot-path benchmarks and compares them with the baseline stored in
+ * {@code benchmarks/baseline.json}, writing {@code target/benchmarks/report.md}.
+ *
+ * Not matched by the default surefire includes; run with {@code mvn test -Pbenchmark}.
+ * System properties:
+ * <ul>
+ *   <li>{@code benchmark.include}: JMH include regex (default: the baseline benchmarks)</li>
+ *   <li>{@code benchmark.threshold}: regression threshold in percent (default: 10)</li>
+ *   <li>{@code benchmark.failOnRegression}: fail the build on a regression (default: false, report only)</li>
+ *   <li>{@code benchmark.updateBaseline}: replace the baseline with this run's results (default: false)</li>
+ * </ul>
+ */
+class BenchmarkRegressionCheck {
+
+    static final String DEFAULT_INCLUDE = "JwtUtilBenchmark|OrderHotPathBenchmark";
+
+    private static final Path BASELINE = Path.of("benchmarks", "baseline.json");
+    private static final Path OUTPUT_DIR = Path.of("target", "benchmarks");
+
+    @Test
+    void hotPathsShouldNotRegress() throws Exception {
+        Files.createDirectories(OUTPUT_DIR);
+        Path results = OUTPUT_DIR.resolve("results.json");
+        Options options = new OptionsBuilder()
+                .include(System.getProperty("benchmark.include", DEFAULT_INCLUDE))
+                .resultFormat(ResultFormatType.JSON)
+                .result(results.toString())
+                .build();
+        new Runner(options).run();
+
+        BenchmarkComparison comparison = new BenchmarkComparison(BASELINE, results,
+                Double.parseDouble(System.getProperty("benchmark.threshold",
+                        String.valueOf(BenchmarkComparison.DEFAULT_THRESHOLD_PERCENT))));
+        String report = comparison.report();
+        Files.writeString(OUTPUT_DIR.resolve("report.md"), report);
+        System.out.println(report);
+
+        if (Boolean.getBoolean("benchmark.updateBaseline")) {
+            Files.createDirectories(BASELINE.getParent());
+            Files.copy(results, BASELINE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (Boolean.getBoolean("benchmark.failOnRegression")) {
+            List<String> regressions = comparison.regressions();
+            assertThat(regressions).as("Benchmarks slower than the baseline").isEmpty();
+        }
+    }
+}
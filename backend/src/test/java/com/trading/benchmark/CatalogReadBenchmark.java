@@ -0,0 +1,165 @@
+package com.trading.benchmark;
+
+import com.trading.TradingApplication;
+import com.trading.dto.response.ProductResponse;
+import com.trading.entity.Inventory;
+import com.trading.entity.Merchant;
+import com.trading.entity.Product;
+import com.trading.repository.InventoryRepository;
+import com.trading.repository.MerchantRepository;
+import com.trading.repository.ProductRepository;
+import com.trading.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency of catalog reads served from the product read model
+ * compared with assembling the same response from the source tables (the product,
+ * min price, max price and merchant lookups ProductServiceImpl used to make per
+ * product). Covers a product detail read and a 20-product search page, against an
+ * in-memory H2 database seeded with {@code products} products of three SKUs each.
+ * Both variants run in a read-only transaction, as the service methods do.
+ *
+ * Not part of the test suite. Run {@link #main(String[])} from the IDE, or after
+ * {@code mvn test-compile} run {@code org.openjdk.jmh.Main CatalogReadBenchmark} on the test classpath.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CatalogReadBenchmark {
+
+    private static final String CATEGORY = "benchmark-catalog";
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"2000"})
+    public int products;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private ProductRepository productRepository;
+    private InventoryRepository inventoryRepository;
+    private MerchantRepository merchantRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private long firstProductId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(TradingApplication.class)
+                .profiles("test")
+                .properties("server.port=0",
+                        "logging.level.root=OFF",
+                        "logging.level.com.trading=OFF",
+                        "logging.level.com.trading.security=OFF")
+                .run();
+        productService = context.getBean(ProductService.class);
+        productRepository = context.getBean(ProductRepository.class);
+        inventoryRepository = context.getBean(InventoryRepository.class);
+        merchantRepository = context.getBean(MerchantRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        Merchant merchant = merchantRepository.save(Merchant.builder()
+                .businessName("Benchmark Store")
+                .username("benchmark_merchant")
+                .password("password123")
+                .balance(BigDecimal.ZERO)
+                .build());
+        List<Product> catalog = new ArrayList<>();
+        for (int i = 0; i < products; i++) {
+            catalog.add(Product.builder()
+                    .name("Benchmark Product " + i)
+                    .description("Benchmark description " + i)
+                    .category(CATEGORY)
+                    .merchantId(merchant.getId())
+                    .build());
+        }
+        catalog = productRepository.saveAll(catalog);
+        firstProductId = catalog.get(0).getId();
+
+        List<Inventory> skus = new ArrayList<>();
+        for (Product product : catalog) {
+            for (int variant = 0; variant < 3; variant++) {
+                skus.add(Inventory.builder()
+                        .sku("BENCH-" + product.getId() + "-" + variant)
+                        .productId(product.getId())
+                        .merchantId(merchant.getId())
+                        .quantity(100)
+                        .price(BigDecimal.valueOf(100 + variant * 50))
+                        .build());
+            }
+        }
+        inventoryRepository.saveAll(skus);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProductResponse getByIdReadModel() {
+        return productService.getById(randomProductId());
+    }
+
+    @Benchmark
+    public ProductResponse getByIdSourceTables() {
+        long productId = randomProductId();
+        return readOnlyTransaction.execute(status ->
+                fromSourceTables(productRepository.findById(productId).orElseThrow()));
+    }
+
+    @Benchmark
+    public Page<ProductResponse> searchPageReadModel() {
+        return productService.search(null, CATEGORY, randomPage());
+    }
+
+    @Benchmark
+    public Page<ProductResponse> searchPageSourceTables() {
+        Pageable page = randomPage();
+        return readOnlyTransaction.execute(status ->
+                productRepository.findByCategory(CATEGORY, page).map(this::fromSourceTables));
+    }
+
+    private ProductResponse fromSourceTables(Product product) {
+        BigDecimal minPrice = inventoryRepository.findMinPriceByProductId(product.getId()).orElse(BigDecimal.ZERO);
+        BigDecimal maxPrice = inventoryRepository.findMaxPriceByProductId(product.getId()).orElse(BigDecimal.ZERO);
+        String merchantName = merchantRepository.findById(product.getMerchantId())
+                .map(m -> m.getBusinessName() != null ? m.getBusinessName() : m.getUsername())
+                .orElse("未知商家");
+        return ProductResponse.fromEntityWithPrices(product, minPrice, maxPrice, merchantName);
+    }
+
+    private long randomProductId() {
+        return firstProductId + ThreadLocalRandom.current().nextInt(products);
+    }
+
+    private Pageable randomPage() {
+        return PageRequest.of(ThreadLocalRandom.current().nextInt(products / PAGE_SIZE), PAGE_SIZE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CatalogReadBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,102 @@
+package com.trading.benchmark;
+
+import com.trading.config.JwtProperties;
+import com.trading.security.JwtUtil;
+import com.trading.security.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token in the JWT filter.
+ *
+ * <ul>
+ *   <li>{@code legacyPerRequest}: the previous filter path, six independent parses
+ *       (validate, username and merchant id twice, role), each deriving the key and
+ *       building a parser</li>
+ *   <li>{@code verifyOnce}: one parse with the prebuilt key and parser, cache disabled</li>
+ *   <li>{@code verifyCached}: repeat requests with the same token hit the verified-token cache</li>
+ *   <li>{@code generateToken}: signing a new token at login</li>
+ * </ul>
+ *
+ * Not part of the test suite. Run {@link #main(String[])} from the IDE, or after
+ * {@code mvn test-compile} run {@code org.openjdk.jmh.Main JwtUtilBenchmark} on the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-must-be-at-least-32-characters-long";
+
+    private JwtUtil uncachedJwtUtil;
+    private JwtUtil cachedJwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncachedJwtUtil = new JwtUtil(properties(0));
+        cachedJwtUtil = new JwtUtil(properties(10000));
+        token = cachedJwtUtil.generateToken(42L, "benchmark_merchant");
+    }
+
+    @Benchmark
+    public void legacyPerRequest(Blackhole blackhole) {
+        blackhole.consume(legacyParse(token));
+        blackhole.consume(legacyParse(token).getSubject());
+        blackhole.consume(legacyParse(token).get("merchantId"));
+        blackhole.consume(legacyParse(token).get("role"));
+        blackhole.consume(legacyParse(token).getSubject());
+        blackhole.consume(legacyParse(token).get("merchantId"));
+    }
+
+    @Benchmark
+    public VerifiedToken verifyOnce() {
+        return uncachedJwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyCached() {
+        return cachedJwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachedJwtUtil.generateToken(42L, "benchmark_merchant");
+    }
+
+    private Claims legacyParse(String jwt) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(jwt)
+                .getPayload();
+    }
+
+    private static JwtProperties properties(int cacheSize) {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecretKey(SECRET);
+        properties.setExpiration(3600000L);
+        properties.setIssuer("benchmark");
+        properties.setVerifiedTokenCacheSize(cacheSize);
+        return properties;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtUtilBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
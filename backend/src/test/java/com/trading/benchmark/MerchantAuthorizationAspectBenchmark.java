@@ -0,0 +1,125 @@
+package com.trading.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.trading.security.JwtAuthenticationFilter;
+import com.trading.security.MerchantAuthorizationAspect;
+import com.trading.security.RequireMerchantOwnership;
+import com.trading.security.RequireUserOwnership;
+import com.trading.service.impl.AuthenticationServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead the ownership aspect adds to an annotated controller method: a plain
+ * call on the target, the same call through the AOP proxy without the aspect,
+ * and through the proxy with {@link MerchantAuthorizationAspect} applied, for a
+ * merchant-owned and a user-owned resource. The authenticated principal owns the
+ * requested resource (the common case).
+ *
+ * Not part of the test suite. Run {@link #main(String[])} from the IDE, or after
+ * {@code mvn test-compile} run {@code org.openjdk.jmh.Main MerchantAuthorizationAspectBenchmark} on the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MerchantAuthorizationAspectBenchmark {
+
+    private static final long MERCHANT_ID = 42L;
+    private static final long USER_ID = 7L;
+
+    @Param({"MERCHANT", "USER"})
+    public String principal;
+
+    private OwnedResources direct;
+    private OwnedResources proxiedWithoutAspect;
+    private OwnedResources proxiedWithAspect;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.OFF);
+
+        // User tokens carry the negated user ID, as issued by UserServiceImpl.login
+        long principalId = "USER".equals(principal) ? -USER_ID : MERCHANT_ID;
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                "benchmark_principal", null, List.of(new SimpleGrantedAuthority("ROLE_" + principal)));
+        authentication.setDetails(new JwtAuthenticationFilter.MerchantAuthenticationDetails(
+                principalId, "benchmark_principal", principal, new MockHttpServletRequest()));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        direct = new OwnedResources();
+
+        AspectJProxyFactory plainFactory = new AspectJProxyFactory(new OwnedResources());
+        plainFactory.setProxyTargetClass(true);
+        proxiedWithoutAspect = plainFactory.getProxy();
+
+        AspectJProxyFactory aspectFactory = new AspectJProxyFactory(new OwnedResources());
+        aspectFactory.setProxyTargetClass(true);
+        // getCurrentMerchantId only reads the security context, so no collaborators are needed
+        aspectFactory.addAspect(new MerchantAuthorizationAspect(
+                new AuthenticationServiceImpl(null, null, null, null, null)));
+        proxiedWithAspect = aspectFactory.getProxy();
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public long directCall() {
+        return call(direct);
+    }
+
+    @Benchmark
+    public long proxyWithoutAspect() {
+        return call(proxiedWithoutAspect);
+    }
+
+    @Benchmark
+    public long proxyWithAspect() {
+        return call(proxiedWithAspect);
+    }
+
+    private long call(OwnedResources resources) {
+        return "USER".equals(principal)
+                ? resources.cart(USER_ID, "SKU-1")
+                : resources.balance(MERCHANT_ID, "SKU-1");
+    }
+
+    public static class OwnedResources {
+
+        @RequireMerchantOwnership(value = "merchant balance", logAccess = false)
+        public long balance(@PathVariable Long id, @PathVariable String sku) {
+            return id + sku.length();
+        }
+
+        @RequireUserOwnership(value = "user cart", logAccess = false)
+        public long cart(@PathVariable Long userId, @PathVariable String sku) {
+            return userId + sku.length();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MerchantAuthorizationAspectBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
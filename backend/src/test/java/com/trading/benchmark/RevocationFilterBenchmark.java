@@ -0,0 +1,106 @@
+package com.trading.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.config.JwtProperties;
+import com.trading.repository.RevokedTokenRepository;
+import com.trading.security.JwtAuthenticationFilter;
+import com.trading.security.JwtUtil;
+import com.trading.security.VerifiedToken;
+import com.trading.service.impl.TokenRevocationServiceImpl;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the JWT filter on an authenticated endpoint with token
+ * revocation disabled, enabled with the Bloom filter in front of the revoked set,
+ * and enabled without the Bloom filter. The revoked set holds {@code revokedTokens}
+ * other tokens; the request's own token is not revoked (the common case).
+ * {@code revocationCheck} isolates the lookup the filter adds to each request.
+ *
+ * Not part of the test suite. Run {@link #main(String[])} from the IDE, or after
+ * {@code mvn test-compile} run {@code org.openjdk.jmh.Main RevocationFilterBenchmark} on the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RevocationFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-must-be-at-least-32-characters-long";
+
+    @Param({"disabled", "bloom", "noBloom"})
+    public String revocation;
+
+    @Param({"10000"})
+    public int revokedTokens;
+
+    private JwtAuthenticationFilter filter;
+    private TokenRevocationServiceImpl revocationService;
+    private String authorization;
+    private String tokenId;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.OFF);
+
+        JwtProperties properties = new JwtProperties();
+        properties.setSecretKey(SECRET);
+        properties.setExpiration(3600000L);
+        properties.setIssuer("benchmark");
+        properties.getRevocation().setEnabled(!"disabled".equals(revocation));
+        properties.getRevocation().setBloomFilterEnabled("bloom".equals(revocation));
+
+        JwtUtil jwtUtil = new JwtUtil(properties);
+        revocationService =
+                new TokenRevocationServiceImpl(Mockito.mock(RevokedTokenRepository.class), properties);
+        Date expiration = new Date(System.currentTimeMillis() + 3600000L);
+        for (int i = 0; i < revokedTokens; i++) {
+            revocationService.revoke(new VerifiedToken(UUID.randomUUID().toString(), "revoked_" + i, (long) i,
+                    "MERCHANT", new Date(), expiration), "LOGOUT");
+        }
+
+        filter = new JwtAuthenticationFilter(jwtUtil, new ObjectMapper(), revocationService);
+        String token = jwtUtil.generateToken(42L, "benchmark_merchant");
+        authorization = "Bearer " + token;
+        tokenId = jwtUtil.verify(token).tokenId();
+    }
+
+    @Benchmark
+    public int authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/merchants/42/balance");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        SecurityContextHolder.clearContext();
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public boolean revocationCheck() {
+        return revocationService.isRevoked(tokenId);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RevocationFilterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -5,6 +5,8 @@ import com.trading.dto.request.MerchantRegisterRequest;
 import com.trading.dto.request.ProductCreateRequest;
 import com.trading.dto.response.MerchantResponse;
 import com.trading.dto.response.ProductResponse;
+import com.trading.entity.Inventory;
+import com.trading.repository.InventoryRepository;
 import com.trading.repository.MerchantRepository;
 import com.trading.repository.ProductRepository;
 import com.trading.service.MerchantService;
@@ -18,6 +20,8 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
+
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -45,10 +49,14 @@ public class ProductControllerTest {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
     private MerchantResponse testMerchant;
 
     @BeforeEach
     void setUp() {
+        inventoryRepository.deleteAll();
         productRepository.deleteAll();
         merchantRepository.deleteAll();
 
@@ -114,6 +122,70 @@ public class ProductControllerTest {
                 .andExpect(jsonPath("$.data.category").value("Computers"));
     }
 
+    @Test
+    void getProductById_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        ProductResponse product = createTestProduct("iPad Air", "Tablet", "Electronics");
+
+        String etag = mockMvc.perform(get("/api/v1/products/{id}", product.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", containsString("max-age=30")))
+                .andExpect(header().string("ETag", startsWith("W/\"product-")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/products/{id}", product.getId())
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        // 新增SKU会改变商品的价格区间，ETag随之变化
+        Inventory inventory = inventoryRepository.save(Inventory.builder()
+                .sku("ETAG-SKU-1")
+                .productId(product.getId())
+                .merchantId(testMerchant.getId())
+                .quantity(10)
+                .price(new BigDecimal("499.00"))
+                .build());
+
+        mockMvc.perform(get("/api/v1/products/{id}", product.getId())
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$.data.minPrice").value(499.00));
+
+        String inventoryEtag = mockMvc.perform(get("/api/v1/products/{id}/inventory", product.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", containsString("no-cache")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/products/{id}/inventory", product.getId())
+                        .header("If-None-Match", inventoryEtag))
+                .andExpect(status().isNotModified());
+
+        // 库存扣减（版本号递增）后返回新内容
+        inventory.setQuantity(9);
+        inventoryRepository.save(inventory);
+
+        mockMvc.perform(get("/api/v1/products/{id}/inventory", product.getId())
+                        .header("If-None-Match", inventoryEtag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].quantity").value(9));
+    }
+
+    @Test
+    void searchProducts_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        createTestProduct("Kindle", "E-reader", "Electronics");
+
+        String etag = mockMvc.perform(get("/api/v1/products").param("keyword", "Kindle"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", containsString("max-age=15")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/products").param("keyword", "Kindle")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     void getProductById_NotFound() throws Exception {
         mockMvc.perform(get("/api/v1/products/{id}", 99999L))
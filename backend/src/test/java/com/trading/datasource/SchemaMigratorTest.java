@@ -0,0 +1,140 @@
+package com.trading.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the versioned migration runner: scripts that failed part-way can be retried,
+ * a migration left unfinished by a node that died is re-run once it is stale, and databases
+ * created before versioned migrations gain the columns added to their tables since
+ */
+class SchemaMigratorTest {
+
+    @TempDir
+    Path scripts;
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:migrator-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void failedScript_ShouldBeRetriedOverTheStatementsItAlreadyApplied() throws IOException {
+        write("V1__tables.sql", "CREATE TABLE IF NOT EXISTS widgets (id bigint not null, name varchar(20), primary key (id));");
+        write("V2__indexes.sql", """
+                -- the first index commits before the second statement fails
+                CREATE INDEX idx_widgets_name ON widgets (name);
+                CREATE INDEX idx_widgets_missing ON widgets (missing);
+                """);
+        assertThatThrownBy(() -> migrator(Duration.ofMinutes(10)).migrate())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("V2__indexes.sql");
+        assertThat(versions()).containsExactly(1);
+
+        jdbcTemplate.execute("ALTER TABLE widgets ADD COLUMN missing varchar(20)");
+        assertThat(migrator(Duration.ofMinutes(10)).migrate()).containsExactly(2);
+        assertThat(migrator(Duration.ofMinutes(10)).migrate()).isEmpty();
+    }
+
+    @Test
+    void unfinishedMigration_ShouldBeAppliedAgainOnceStale() throws IOException {
+        write("V1__tables.sql", "CREATE TABLE IF NOT EXISTS widgets (id bigint not null, primary key (id));");
+        migrator(Duration.ofMinutes(10)).migrate();
+        jdbcTemplate.execute("DROP TABLE widgets");
+        // A node that died mid-script leaves its claim without execution_millis
+        jdbcTemplate.update("UPDATE schema_migrations SET execution_millis = NULL, installed_at = ?, installed_by = 'dead-node'",
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(11)));
+
+        assertThat(migrator(Duration.ofMinutes(10)).migrate()).containsExactly(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM widgets", Integer.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT installed_by FROM schema_migrations", String.class))
+                .isNotEqualTo("dead-node");
+    }
+
+    @Test
+    void editedScript_ShouldFailStartup() throws IOException {
+        write("V1__tables.sql", "CREATE TABLE IF NOT EXISTS widgets (id bigint not null, primary key (id));");
+        migrator(Duration.ofMinutes(10)).migrate();
+
+        write("V1__tables.sql", "CREATE TABLE IF NOT EXISTS widgets (id bigint not null, name varchar(20), primary key (id));");
+        assertThatThrownBy(() -> migrator(Duration.ofMinutes(10)).migrate())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("was changed after it was applied");
+    }
+
+    @Test
+    void baselineDatabase_ShouldGainTheColumnsAddedToExistingTables() throws IOException {
+        // Tables as ddl-auto created them before products.version and settlements.counter_drift
+        jdbcTemplate.execute("""
+                CREATE TABLE products (
+                    id bigint generated by default as identity,
+                    created_at timestamp(6) not null,
+                    merchant_id bigint not null,
+                    description varchar(1000),
+                    category varchar(255) not null,
+                    name varchar(255) not null,
+                    primary key (id)
+                )""");
+        jdbcTemplate.execute("""
+                CREATE TABLE settlements (
+                    id bigint generated by default as identity,
+                    balance_change numeric(19,2) not null,
+                    discrepancy numeric(19,2),
+                    net_amount numeric(19,2) not null,
+                    settlement_date date not null,
+                    total_refunds numeric(19,2) not null,
+                    total_sales numeric(19,2) not null,
+                    created_at timestamp(6) not null,
+                    merchant_id bigint not null,
+                    status varchar(255) not null,
+                    primary key (id)
+                )""");
+        jdbcTemplate.update("INSERT INTO products (created_at, merchant_id, category, name) " +
+                "VALUES (CURRENT_TIMESTAMP, 1, 'Electronics', 'Existing Product')");
+
+        SchemaMigrator migrator = new SchemaMigrator(dataSource,
+                List.of("classpath:db/migration/common", "classpath:db/migration/{vendor}"), Duration.ofMinutes(10));
+        assertThat(migrator.migrate()).contains(1, 5);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM products WHERE name = 'Existing Product'", Long.class))
+                .isZero();
+        jdbcTemplate.update("INSERT INTO products (created_at, merchant_id, category, name) " +
+                "VALUES (CURRENT_TIMESTAMP, 1, 'Electronics', 'New Product')");
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM products WHERE name = 'New Product'", Long.class))
+                .isZero();
+        jdbcTemplate.update("UPDATE settlements SET counter_drift = TRUE");
+        assertThat(migrator.migrate()).isEmpty();
+    }
+
+    private SchemaMigrator migrator(Duration staleAfter) {
+        return new SchemaMigrator(dataSource, List.of("file:" + scripts.toAbsolutePath()), staleAfter);
+    }
+
+    private List<Integer> versions() {
+        return jdbcTemplate.queryForList("SELECT version FROM schema_migrations ORDER BY version", Integer.class);
+    }
+
+    private void write(String name, String sql) throws IOException {
+        Files.writeString(scripts.resolve(name), sql);
+    }
+}
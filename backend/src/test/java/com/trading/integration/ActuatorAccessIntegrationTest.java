@@ -0,0 +1,93 @@
+package com.trading.integration;
+
+import com.trading.security.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Operational actuator endpoints start background work and are restricted to the ADMIN role
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ActuatorAccessIntegrationTest {
+
+    private static final String INVALID_BACKFILL = "{\"startDate\":\"not-a-date\",\"endDate\":\"2024-01-31\",\"force\":true}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void settlementBackfill_ShouldRequireAdminRole() throws Exception {
+        mockMvc.perform(post("/actuator/settlementbackfill")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INVALID_BACKFILL))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(post("/actuator/settlementbackfill")
+                        .header("Authorization", "Bearer " + merchantToken())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INVALID_BACKFILL))
+                .andExpect(status().isForbidden());
+
+        // Admins get through to the endpoint, which rejects the date
+        mockMvc.perform(post("/actuator/settlementbackfill")
+                        .header("Authorization", "Bearer " + adminToken())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INVALID_BACKFILL))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void flightRecording_ShouldRequireAdminRole() throws Exception {
+        mockMvc.perform(post("/actuator/flightrecording"))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(post("/actuator/flightrecording")
+                        .header("Authorization", "Bearer " + merchantToken()))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/flightrecording")
+                        .header("Authorization", "Bearer " + merchantToken()))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/actuator/flightrecording")
+                        .header("Authorization", "Bearer " + adminToken()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void archive_ShouldRequireAdminRole() throws Exception {
+        mockMvc.perform(get("/actuator/archive"))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(post("/actuator/archive")
+                        .header("Authorization", "Bearer " + merchantToken())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"direction\":\"archive\"}"))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/actuator/archive")
+                        .header("Authorization", "Bearer " + adminToken()))
+                .andExpect(status().isOk());
+    }
+
+    private String merchantToken() {
+        return jwtUtil.generateToken(11L, "plain_merchant");
+    }
+
+    private String adminToken() {
+        return jwtUtil.generateToken(12L, "ops_admin", "ADMIN");
+    }
+}
@@ -288,9 +288,10 @@ class JwtLifecycleIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message").exists());
 
-        // Note: In a stateless JWT implementation, logout typically doesn't invalidate the token
-        // unless there's a blacklist mechanism. This test verifies the logout endpoint works.
-        // The token would still be valid until expiration in a pure stateless implementation.
+        // The token is revoked and rejected even though it has not expired
+        mockMvc.perform(get("/api/v1/merchants/" + merchantId)
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isUnauthorized());
     }
 
     @Test
@@ -0,0 +1,145 @@
+package com.trading.integration;
+
+import com.trading.dto.request.LoginRequest;
+import com.trading.dto.request.UserRegisterRequest;
+import com.trading.entity.*;
+import com.trading.exception.BusinessException;
+import com.trading.exception.ThrottledException;
+import com.trading.service.UserService;
+import com.trading.support.TradingFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test: checkout latency while a flood of logins hits the BCrypt pool.
+ * The pool is bounded to one thread with a short queue, so the flood is turned
+ * away with 503 instead of piling BCrypt work onto every available thread.
+ * The latency bound depends on the machine, so this runs with -Pload-test only.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "trading.security.password-hashing.threads=1",
+        "trading.security.password-hashing.queue-capacity=2"
+})
+class LoginFloodLoadTest {
+
+    private static final int FLOOD_THREADS = 16;
+    private static final int FLOOD_USERS = 8;
+    private static final int CHECKOUTS = 30;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TradingFixture fixture;
+
+    private User buyer;
+    private String sku;
+    private List<String> floodUsernames;
+
+    @BeforeEach
+    void setUp() {
+        fixture.clear();
+        String suffix = TradingFixture.suffix();
+        buyer = fixture.user("flood", new BigDecimal("100000.00"));
+        Merchant merchant = fixture.merchant("flood", "Flood Store");
+        sku = fixture.stock(merchant, "FL", 10000, "1.00");
+
+        floodUsernames = new ArrayList<>();
+        for (int i = 0; i < FLOOD_USERS; i++) {
+            String username = "flood_user_" + i + "_" + suffix;
+            userService.register(UserRegisterRequest.builder()
+                    .username(username)
+                    .password(TradingFixture.PASSWORD)
+                    .build());
+            floodUsernames.add(username);
+        }
+    }
+
+    @Test
+    void checkoutLatency_ShouldStayFlatDuringLoginFlood() throws Exception {
+        // Warm up the checkout path before measuring
+        measureCheckouts(10);
+        long[] baseline = measureCheckouts(CHECKOUTS);
+
+        AtomicBoolean flooding = new AtomicBoolean(true);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger throttled = new AtomicInteger();
+        ExecutorService flood = Executors.newFixedThreadPool(FLOOD_THREADS);
+        long[] underFlood;
+        try {
+            for (int i = 0; i < FLOOD_THREADS; i++) {
+                flood.submit(() -> {
+                    while (flooding.get()) {
+                        String username = floodUsernames.get(ThreadLocalRandom.current().nextInt(FLOOD_USERS));
+                        try {
+                            userService.login(LoginRequest.builder()
+                                    .username(username)
+                                    .password(TradingFixture.PASSWORD)
+                                    .build());
+                            succeeded.incrementAndGet();
+                        } catch (ThrottledException e) {
+                            throttled.incrementAndGet();
+                        } catch (BusinessException e) {
+                            // not expected with valid credentials; keep flooding
+                        }
+                    }
+                });
+            }
+            // Let the flood saturate the pool before measuring
+            Thread.sleep(500);
+            underFlood = measureCheckouts(CHECKOUTS);
+        } finally {
+            flooding.set(false);
+            flood.shutdown();
+            flood.awaitTermination(30, TimeUnit.SECONDS);
+        }
+
+        long baselineP95 = percentile(baseline, 95);
+        long floodP95 = percentile(underFlood, 95);
+        System.out.printf("Checkout p50/p95 baseline %d/%d ms, during login flood %d/%d ms; logins ok=%d throttled=%d%n",
+                percentile(baseline, 50), baselineP95, percentile(underFlood, 50), floodP95,
+                succeeded.get(), throttled.get());
+
+        assertThat(succeeded.get()).isPositive();
+        assertThat(throttled.get()).isPositive();
+        // Generous bound: the single hashing thread may take a share of the CPU,
+        // but checkout must not queue behind the flood
+        assertThat(floodP95).isLessThan(baselineP95 * 4 + 200);
+    }
+
+    private long[] measureCheckouts(int count) {
+        long[] millis = new long[count];
+        for (int i = 0; i < count; i++) {
+            long start = System.nanoTime();
+            fixture.paidOrder(buyer, sku, 1);
+            millis[i] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        }
+        return millis;
+    }
+
+    private static long percentile(long[] values, int percentile) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+}
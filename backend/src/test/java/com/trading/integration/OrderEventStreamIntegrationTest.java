@@ -0,0 +1,139 @@
+package com.trading.integration;
+
+import com.trading.dto.request.*;
+import com.trading.dto.response.*;
+import com.trading.security.JwtUtil;
+import com.trading.service.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 商家订单事件流（SSE）集成测试
+ * 验证订单状态变更在事务提交后推送给商家，以及按Last-Event-ID续传
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderEventStreamIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MerchantService merchantService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Test
+    void merchantStream_ShouldReceivePaymentAndRefundAndResumeFromLastEventId() throws Exception {
+        MerchantResponse merchant = createMerchant();
+        String token = jwtUtil.generateToken(merchant.getId(), merchant.getUsername());
+        String sku = createInventory(merchant.getId());
+        UserResponse user = userService.register(UserRegisterRequest.builder()
+                .username("user_" + UUID.randomUUID().toString().substring(0, 8))
+                .password("password123")
+                .build());
+        userService.deposit(user.getId(), DepositRequest.builder().amount(new BigDecimal("100.00")).build());
+
+        MvcResult stream = mockMvc.perform(get("/api/v1/merchants/{id}/orders/events", merchant.getId())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        OrderResponse order = orderService.createDirect(user.getId(), DirectPurchaseRequest.builder()
+                .sku(sku)
+                .quantity(1)
+                .build());
+        orderService.confirmPayment(order.getId());
+        orderService.refund(order.getId());
+
+        String events = awaitContent(stream, "event:order-refunded");
+        assertThat(stream.getResponse().getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        assertThat(events).contains("event:order-paid", "\"orderId\":" + order.getId(), "\"status\":\"PAID\"");
+
+        // 断线重连：从已支付事件之后续传，只补发退款事件
+        String paidEventId = events.substring(events.indexOf("id:") + 3, events.indexOf("\nevent:order-paid"));
+        MvcResult resumed = mockMvc.perform(get("/api/v1/merchants/{id}/orders/events", merchant.getId())
+                        .header("Authorization", "Bearer " + token)
+                        .header("Last-Event-ID", paidEventId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertThat(awaitContent(resumed, "event:order-refunded")).doesNotContain("event:order-paid");
+    }
+
+    @Test
+    void merchantStream_OfAnotherMerchant_ShouldBeForbidden() throws Exception {
+        MerchantResponse merchant = createMerchant();
+        MerchantResponse other = createMerchant();
+        String token = jwtUtil.generateToken(merchant.getId(), merchant.getUsername());
+
+        mockMvc.perform(get("/api/v1/merchants/{id}/orders/events", other.getId())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    private MerchantResponse createMerchant() {
+        String username = "merchant_" + UUID.randomUUID().toString().substring(0, 8);
+        return merchantService.register(MerchantRegisterRequest.builder()
+                .businessName("Business " + username)
+                .username(username)
+                .password("password123")
+                .build());
+    }
+
+    private String createInventory(Long merchantId) {
+        ProductResponse product = productService.create(ProductCreateRequest.builder()
+                .merchantId(merchantId)
+                .name("Product " + UUID.randomUUID().toString().substring(0, 8))
+                .description("Test product description")
+                .category("Electronics")
+                .build());
+        String sku = "SKU" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        inventoryService.addInventory(merchantId, InventoryAddRequest.builder()
+                .sku(sku)
+                .productId(product.getId())
+                .quantity(10)
+                .price(new BigDecimal("25.00"))
+                .build());
+        return sku;
+    }
+
+    private static String awaitContent(MvcResult stream, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        String content = stream.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = stream.getResponse().getContentAsString();
+        }
+        assertThat(content).contains(expected);
+        return content;
+    }
+}
@@ -0,0 +1,95 @@
+package com.trading.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Minimal JSON client for the trading API over real HTTP, so each request goes
+ * through the servlet container, the security filter chain and serialization.
+ */
+class ApiClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(TIMEOUT)
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+
+    ApiClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    Response get(String path, String token) {
+        return send("GET", path, null, token);
+    }
+
+    Response post(String path, Map<String, ?> body, String token) {
+        return send("POST", path, body, token);
+    }
+
+    /**
+     * Send a request; transport failures are returned as status -1 rather than thrown
+     */
+    Response send(String method, String path, Map<String, ?> body, String token) {
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(TIMEOUT)
+                    .header("Accept", "application/json");
+            if (token != null) {
+                request.header("Authorization", "Bearer " + token);
+            }
+            if (body != null) {
+                request.header("Content-Type", "application/json")
+                        .method(method, HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+            } else {
+                request.method(method, HttpRequest.BodyPublishers.noBody());
+            }
+            HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            JsonNode json = response.body() == null || response.body().isEmpty()
+                    ? MissingNode.getInstance()
+                    : objectMapper.readTree(response.body());
+            return new Response(response.statusCode(), json);
+        } catch (IOException e) {
+            return new Response(-1, MissingNode.getInstance());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(-1, MissingNode.getInstance());
+        }
+    }
+
+    record Response(int status, JsonNode json) {
+
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+
+        /**
+         * The {@code data} field of the ApiResponse envelope
+         */
+        JsonNode data() {
+            return json.path("data");
+        }
+
+        /**
+         * Response data, failing setup when the request did not succeed
+         */
+        JsonNode require(String action) {
+            if (!ok()) {
+                throw new IllegalStateException(action + " failed with HTTP " + status + ": " + json);
+            }
+            return data();
+        }
+    }
+}
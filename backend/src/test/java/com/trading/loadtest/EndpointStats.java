@@ -0,0 +1,54 @@
+package com.trading.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latencies and outcomes of one endpoint during the measured part of a run.
+ * Latencies are kept raw (microseconds) and sorted once for the report.
+ */
+class EndpointStats {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+    private int conflicts;
+    private int throttled;
+
+    synchronized void record(long latencyMicros, int status) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyMicros;
+        if (status == 409) {
+            conflicts++;
+        } else if (status == 429 || status == 503) {
+            throttled++;
+        }
+        if (status >= 400 || status < 100) {
+            errors++;
+        }
+    }
+
+    synchronized Summary summarize(double seconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return new Summary(count, count / seconds, errors, conflicts, throttled,
+                percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99),
+                count > 0 ? sorted[count - 1] / 1000.0 : 0);
+    }
+
+    /**
+     * Nearest-rank percentile in milliseconds
+     */
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1000.0;
+    }
+
+    record Summary(int requests, double throughput, int errors, int conflicts, int throttled,
+                   double p50, double p95, double p99, double max) {
+    }
+}
@@ -0,0 +1,391 @@
+package com.trading.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.trading.TradingApplication;
+import com.trading.loadtest.ApiClient.Response;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * One load test run: boots the application on a random port with authentication
+ * enabled, seeds merchants, products, SKUs and funded buyers through the API, then
+ * drives the {@link Workload} from concurrent virtual clients.
+ *
+ * <p>With a target rate, each request is timed from its scheduled start rather than from
+ * when a client got to send it, so a stalled server shows up in the percentiles instead
+ * of silently lowering the offered load.
+ */
+class LoadGenerator {
+
+    private static final String PASSWORD = "loadtest-password";
+    private static final BigDecimal UNIT_PRICE = new BigDecimal("9.90");
+
+    private final Workload workload;
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final Operation[] weighted;
+
+    private ApiClient api;
+    private final List<Account> merchants = new ArrayList<>();
+    private final List<Account> users = new ArrayList<>();
+    private final List<Long> productIds = new ArrayList<>();
+    private final List<String> categories = new ArrayList<>();
+    /** SKUs of each merchant, indexed like {@link #merchants} */
+    private final List<List<String>> skus = new ArrayList<>();
+
+    /** Per-client state; each client acts for its own buyers only, so clients never race on a cart */
+    private final List<ClientState> clients = new ArrayList<>();
+
+    private volatile boolean measuring;
+
+    LoadGenerator(Workload workload) {
+        this.workload = workload;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats());
+        }
+        List<Operation> expanded = new ArrayList<>();
+        workload.getMix().forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                expanded.add(operation);
+            }
+        });
+        this.weighted = expanded.toArray(new Operation[0]);
+        for (int t = 0; t < workload.getThreads(); t++) {
+            clients.add(new ClientState());
+        }
+    }
+
+    LoadTestReport execute() throws Exception {
+        // Passed as command-line arguments so they take precedence over application.yml
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("trading.security.authentication.enabled", "true");
+        properties.put("logging.level.com.trading", "WARN");
+        properties.put("logging.level.com.trading.security", "WARN");
+        properties.put("logging.level.org.springframework.security", "WARN");
+        // Statement logging would dominate the latencies being measured
+        properties.put("logging.level.org.hibernate.SQL", "WARN");
+        properties.put("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN");
+        properties.putAll(workload.getProperties());
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TradingApplication.class)
+                .profiles("test")
+                .run(args)) {
+            String port = context.getEnvironment().getProperty("local.server.port");
+            api = new ApiClient("http://localhost:" + port);
+
+            long seedStart = System.nanoTime();
+            seed();
+            System.out.printf("Seeded %d merchants, %d products, %d users in %d ms%n", merchants.size(),
+                    productIds.size(), users.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart));
+
+            drive(workload.getWarmupSeconds());
+            measuring = true;
+            LocalDateTime startedAt = LocalDateTime.now();
+            long start = System.nanoTime();
+            drive(workload.getDurationSeconds());
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            LoadTestReport report = new LoadTestReport(workload, startedAt, seconds, stats);
+            String output = System.getProperty("loadtest.output", "target/loadtest/" + workload.getName());
+            String compareWith = System.getProperty("loadtest.compareWith");
+            report.write(Path.of(output), compareWith != null && !compareWith.isBlank() ? Path.of(compareWith) : null);
+            return report;
+        }
+    }
+
+    private void seed() {
+        long runId = System.currentTimeMillis() % 1_000_000;
+        for (int c = 0; c < 4; c++) {
+            categories.add("loadtest-" + c);
+        }
+        for (int m = 0; m < workload.getMerchants(); m++) {
+            String username = "lt_merchant_" + runId + "_" + m;
+            long merchantId = api.post("/api/v1/merchants/register",
+                    Map.of("businessName", "Load Test Shop " + m, "username", username, "password", PASSWORD), null)
+                    .require("Merchant registration").path("id").asLong();
+            String token = api.post("/api/v1/auth/login", Map.of("username", username, "password", PASSWORD), null)
+                    .require("Merchant login").path("accessToken").asText();
+            merchants.add(new Account(merchantId, token));
+
+            List<String> merchantSkus = new ArrayList<>();
+            for (int p = 0; p < workload.getProductsPerMerchant(); p++) {
+                long productId = api.post("/api/v1/products", Map.of(
+                                "merchantId", merchantId,
+                                "name", "Load test product " + m + "-" + p,
+                                "description", "Seeded by the load test",
+                                "category", categories.get(p % categories.size())), null)
+                        .require("Product creation").path("id").asLong();
+                productIds.add(productId);
+                for (int s = 0; s < workload.getSkusPerProduct(); s++) {
+                    String sku = "LT-" + runId + "-" + m + "-" + p + "-" + s;
+                    api.post("/api/v1/merchants/" + merchantId + "/inventory", Map.of(
+                                    "sku", sku,
+                                    "productId", productId,
+                                    "quantity", workload.getInitialStock(),
+                                    "price", UNIT_PRICE), token)
+                            .require("Inventory creation");
+                    merchantSkus.add(sku);
+                }
+            }
+            skus.add(merchantSkus);
+        }
+        for (int u = 0; u < workload.getUsers(); u++) {
+            String username = "lt_user_" + runId + "_" + u;
+            api.post("/api/v1/users/register", Map.of("username", username, "password", PASSWORD), null)
+                    .require("User registration");
+            JsonNode login = api.post("/api/v1/users/login", Map.of("username", username, "password", PASSWORD), null)
+                    .require("User login");
+            Account user = new Account(login.path("id").asLong(), login.path("token").asText());
+            api.post("/api/v1/users/" + user.id() + "/deposit", Map.of("amount", workload.getUserBalance()), user.token())
+                    .require("Deposit");
+            users.add(user);
+        }
+    }
+
+    /**
+     * Run the virtual clients for the given time; each paces itself to its share of the target rate
+     */
+    private void drive(int seconds) throws InterruptedException {
+        if (seconds <= 0) {
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        int threads = workload.getThreads();
+        long interval = workload.getTargetRate() > 0
+                ? TimeUnit.SECONDS.toNanos(threads) / workload.getTargetRate()
+                : 0;
+        List<Thread> running = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int client = t;
+            Thread thread = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                // Stagger the first request of each client
+                long next = System.nanoTime() + (interval > 0 ? random.nextLong(interval) : 0);
+                while (next < deadline) {
+                    long intendedStart;
+                    if (interval > 0) {
+                        LockSupport.parkNanos(next - System.nanoTime());
+                        intendedStart = next;
+                        next += interval;
+                    } else {
+                        intendedStart = System.nanoTime();
+                        next = intendedStart;
+                    }
+                    perform(client, weighted[random.nextInt(weighted.length)], intendedStart);
+                }
+            }, "loadtest-client-" + t);
+            thread.start();
+            running.add(thread);
+        }
+        for (Thread thread : running) {
+            thread.join();
+        }
+    }
+
+    /**
+     * Perform one operation. Order operations whose pool is empty fall back to the
+     * operation that fills it, and are recorded under what was actually sent.
+     */
+    private void perform(int client, Operation operation, long intendedStart) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ClientState state = clients.get(client);
+        switch (operation) {
+            case BROWSE -> {
+                String query = random.nextBoolean()
+                        ? "category=" + categories.get(random.nextInt(categories.size()))
+                        : "keyword=product";
+                timed(operation, intendedStart,
+                        () -> api.get("/api/v1/products?" + query + "&page=" + random.nextInt(3) + "&size=20", null));
+            }
+            case PRODUCT_DETAIL -> timed(operation, intendedStart,
+                    () -> api.get("/api/v1/products/" + randomProduct(), null));
+            case PRODUCT_INVENTORY -> timed(operation, intendedStart,
+                    () -> api.get("/api/v1/products/" + randomProduct() + "/inventory", null));
+            case ADD_TO_CART -> addToCart(client, intendedStart);
+            case CHECKOUT -> {
+                Integer userIndex = state.usersWithCart.poll();
+                if (userIndex == null) {
+                    addToCart(client, intendedStart);
+                    return;
+                }
+                state.queuedCarts.remove(userIndex);
+                Account user = users.get(userIndex);
+                Response response = timed(operation, intendedStart,
+                        () -> api.post("/api/v1/users/" + user.id() + "/orders/from-cart", Map.of(), user.token()));
+                if (response.ok()) {
+                    state.pendingOrders.add(new OrderRef(response.data().path("id").asLong(), userIndex, merchantOf(userIndex)));
+                }
+            }
+            case DIRECT_PURCHASE -> directPurchase(client, intendedStart);
+            case PAY -> {
+                OrderRef order = state.pendingOrders.poll();
+                if (order == null) {
+                    directPurchase(client, intendedStart);
+                    return;
+                }
+                pay(state, order, intendedStart);
+            }
+            case SHIP -> {
+                OrderRef order = state.paidOrders.poll();
+                if (order == null) {
+                    perform(client, Operation.PAY, intendedStart);
+                    return;
+                }
+                Response response = timed(operation, intendedStart,
+                        () -> api.post("/api/v1/orders/" + order.id() + "/ship", Map.of(), merchants.get(order.merchantIndex()).token()));
+                if (response.ok()) {
+                    state.shippedOrders.add(order);
+                }
+            }
+            case COMPLETE -> {
+                OrderRef order = state.shippedOrders.poll();
+                if (order == null) {
+                    perform(client, Operation.SHIP, intendedStart);
+                    return;
+                }
+                timed(operation, intendedStart,
+                        () -> api.post("/api/v1/orders/" + order.id() + "/complete", Map.of(), users.get(order.userIndex()).token()));
+            }
+            case REFUND -> {
+                OrderRef order = random.nextBoolean() ? state.paidOrders.poll() : state.shippedOrders.poll();
+                if (order == null) {
+                    perform(client, Operation.PAY, intendedStart);
+                    return;
+                }
+                timed(operation, intendedStart,
+                        () -> api.post("/api/v1/orders/" + order.id() + "/refund", Map.of(), users.get(order.userIndex()).token()));
+            }
+            case MERCHANT_ORDERS -> {
+                Account merchant = merchants.get(random.nextInt(merchants.size()));
+                timed(operation, intendedStart,
+                        () -> api.get("/api/v1/merchants/" + merchant.id() + "/orders?page=0&size=20", merchant.token()));
+            }
+            case MERCHANT_STATS -> {
+                Account merchant = merchants.get(random.nextInt(merchants.size()));
+                timed(operation, intendedStart,
+                        () -> api.get("/api/v1/merchants/" + merchant.id() + "/stats", merchant.token()));
+            }
+        }
+    }
+
+    /**
+     * Add one of the user's merchant's SKUs; each buyer shops at one merchant so
+     * checkout produces single-merchant orders
+     */
+    private void addToCart(int client, long intendedStart) {
+        int userIndex = randomUser(client);
+        Account user = users.get(userIndex);
+        List<String> merchantSkus = skus.get(merchantOf(userIndex));
+        String sku = merchantSkus.get(ThreadLocalRandom.current().nextInt(merchantSkus.size()));
+        Response response = timed(Operation.ADD_TO_CART, intendedStart,
+                () -> api.post("/api/v1/users/" + user.id() + "/cart/items", Map.of("sku", sku, "quantity", 1), user.token()));
+        ClientState state = clients.get(client);
+        if (response.ok() && state.queuedCarts.add(userIndex)) {
+            state.usersWithCart.add(userIndex);
+        }
+    }
+
+    /**
+     * Buy one unit directly; {@code hotSkuShare} of these go to the first merchant's first SKU
+     */
+    private void directPurchase(int client, long intendedStart) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int userIndex = randomUser(client);
+        Account user = users.get(userIndex);
+        int merchantIndex;
+        String sku;
+        if (random.nextDouble() < workload.getHotSkuShare()) {
+            merchantIndex = 0;
+            sku = skus.get(0).get(0);
+        } else {
+            merchantIndex = random.nextInt(merchants.size());
+            List<String> merchantSkus = skus.get(merchantIndex);
+            sku = merchantSkus.get(random.nextInt(merchantSkus.size()));
+        }
+        Response response = timed(Operation.DIRECT_PURCHASE, intendedStart,
+                () -> api.post("/api/v1/users/" + user.id() + "/orders/direct", Map.of("sku", sku, "quantity", 1), user.token()));
+        if (response.ok()) {
+            clients.get(client).pendingOrders.add(new OrderRef(response.data().path("id").asLong(), userIndex, merchantIndex));
+        }
+    }
+
+    private void pay(ClientState state, OrderRef order, long intendedStart) {
+        Response response = timed(Operation.PAY, intendedStart,
+                () -> api.post("/api/v1/orders/" + order.id() + "/pay", Map.of(), users.get(order.userIndex()).token()));
+        if (response.ok()) {
+            state.paidOrders.add(order);
+            // A successful payment empties the buyer's cart
+            if (state.queuedCarts.remove(order.userIndex())) {
+                state.usersWithCart.remove(order.userIndex());
+            }
+        } else if (response.status() == 409) {
+            // Lost an optimistic-lock race; the order is still pending, retry it later
+            state.pendingOrders.add(order);
+        }
+    }
+
+    private Response timed(Operation operation, long intendedStart, Supplier<Response> request) {
+        Response response = request.get();
+        if (measuring) {
+            stats.get(operation).record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart), response.status());
+        }
+        return response;
+    }
+
+    /**
+     * A buyer owned by the client, so no two clients race on the same cart
+     */
+    private int randomUser(int client) {
+        int threads = workload.getThreads();
+        if (users.size() < threads) {
+            return ThreadLocalRandom.current().nextInt(users.size());
+        }
+        int owned = (users.size() - client + threads - 1) / threads;
+        return client + threads * ThreadLocalRandom.current().nextInt(owned);
+    }
+
+    private long randomProduct() {
+        return productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+    }
+
+    private int merchantOf(int userIndex) {
+        return userIndex % merchants.size();
+    }
+
+    private record Account(long id, String token) {
+    }
+
+    /**
+     * Orders a client created, by the state its next operation needs, and its buyers with a non-empty cart
+     */
+    private static class ClientState {
+        final Queue<OrderRef> pendingOrders = new ArrayDeque<>();
+        final Queue<OrderRef> paidOrders = new ArrayDeque<>();
+        final Queue<OrderRef> shippedOrders = new ArrayDeque<>();
+        final Queue<Integer> usersWithCart = new ArrayDeque<>();
+        final Set<Integer> queuedCarts = new HashSet<>();
+    }
+
+    private record OrderRef(long id, int userIndex, int merchantIndex) {
+    }
+}
@@ -0,0 +1,145 @@
+package com.trading.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.trading.loadtest.EndpointStats.Summary;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-endpoint results of a load test run, written as JSON (for later comparison)
+ * and as a markdown table. When a previous results file is given, the table adds
+ * the change in throughput and p95/p99 latency per endpoint.
+ */
+class LoadTestReport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Workload workload;
+    private final LocalDateTime startedAt;
+    private final double seconds;
+    private final Map<Operation, Summary> endpoints = new LinkedHashMap<>();
+
+    LoadTestReport(Workload workload, LocalDateTime startedAt, double seconds, Map<Operation, EndpointStats> stats) {
+        this.workload = workload;
+        this.startedAt = startedAt;
+        this.seconds = seconds;
+        stats.forEach((operation, endpointStats) -> {
+            Summary summary = endpointStats.summarize(seconds);
+            if (summary.requests() > 0) {
+                endpoints.put(operation, summary);
+            }
+        });
+    }
+
+    int totalRequests() {
+        return endpoints.values().stream().mapToInt(Summary::requests).sum();
+    }
+
+    /**
+     * Share of all requests rejected with 409 (optimistic-lock or idempotency conflicts)
+     */
+    double conflictRate() {
+        int requests = totalRequests();
+        return requests == 0 ? 0 : (double) endpoints.values().stream().mapToInt(Summary::conflicts).sum() / requests;
+    }
+
+    /**
+     * Share of payment attempts rejected with 409 because the stock row or account
+     * had been updated concurrently
+     */
+    double paymentConflictRate() {
+        Summary pay = endpoints.get(Operation.PAY);
+        return pay == null || pay.requests() == 0 ? 0 : (double) pay.conflicts() / pay.requests();
+    }
+
+    Map<String, Object> toJson() {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("workload", workload.getName());
+        json.put("startedAt", startedAt);
+        json.put("durationSeconds", seconds);
+        json.put("threads", workload.getThreads());
+        json.put("targetRate", workload.getTargetRate());
+        json.put("totalRequests", totalRequests());
+        json.put("throughput", totalRequests() / seconds);
+        json.put("conflictRate", conflictRate());
+        json.put("paymentConflictRate", paymentConflictRate());
+        Map<String, Summary> byName = new LinkedHashMap<>();
+        endpoints.forEach((operation, summary) -> byName.put(operation.name(), summary));
+        json.put("endpoints", byName);
+        return json;
+    }
+
+    String toMarkdown(JsonNode previous) {
+        StringBuilder md = new StringBuilder();
+        md.append("# Load test: ").append(workload.getName()).append("\n\n");
+        if (workload.getDescription() != null) {
+            md.append(workload.getDescription()).append("\n\n");
+        }
+        md.append(String.format(Locale.ROOT, "Started %s, measured %.0f s with %d threads, %s.%n%n",
+                startedAt.withNano(0), seconds, workload.getThreads(),
+                workload.getTargetRate() > 0 ? "target " + workload.getTargetRate() + " req/s" : "closed loop"));
+        md.append(String.format(Locale.ROOT, "Total %d requests, %.1f req/s. Conflict rate (409): %.2f%% of all requests, %.2f%% of payments.%n%n",
+                totalRequests(), totalRequests() / seconds, conflictRate() * 100, paymentConflictRate() * 100));
+
+        md.append("| Endpoint | Requests | req/s | p50 ms | p95 ms | p99 ms | max ms | Errors | 409 | 429/503 |");
+        if (previous != null) {
+            md.append(" req/s vs prev | p95 vs prev | p99 vs prev |");
+        }
+        md.append("\n|---|---:|---:|---:|---:|---:|---:|---:|---:|---:|");
+        if (previous != null) {
+            md.append("---:|---:|---:|");
+        }
+        md.append("\n");
+        endpoints.forEach((operation, s) -> {
+            md.append(String.format(Locale.ROOT, "| %s | %d | %.1f | %.1f | %.1f | %.1f | %.1f | %d | %d | %d |",
+                    operation.endpoint(), s.requests(), s.throughput(), s.p50(), s.p95(), s.p99(), s.max(),
+                    s.errors(), s.conflicts(), s.throttled()));
+            if (previous != null) {
+                JsonNode before = previous.path("endpoints").path(operation.name());
+                md.append(' ').append(change(before.path("throughput"), s.throughput()))
+                        .append(" | ").append(change(before.path("p95"), s.p95()))
+                        .append(" | ").append(change(before.path("p99"), s.p99())).append(" |");
+            }
+            md.append("\n");
+        });
+        return md.toString();
+    }
+
+    private static String change(JsonNode before, double current) {
+        if (!before.isNumber() || before.asDouble() == 0) {
+            return "n/a";
+        }
+        return String.format(Locale.ROOT, "%+.1f%%", (current - before.asDouble()) / before.asDouble() * 100);
+    }
+
+    /**
+     * Write {@code <output>-results.json} and {@code <output>-report.md}
+     *
+     * @param output      path prefix of the two files
+     * @param compareWith previous results file, or null
+     */
+    void write(Path output, Path compareWith) throws IOException {
+        JsonNode previous = compareWith != null ? MAPPER.readTree(compareWith.toFile()) : null;
+        Path directory = output.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path json = directory.resolve(output.getFileName() + "-results.json");
+        Path markdown = directory.resolve(output.getFileName() + "-report.md");
+        MAPPER.writeValue(json.toFile(), toJson());
+        String report = toMarkdown(previous);
+        Files.writeString(markdown, report);
+        System.out.println(report);
+        System.out.println("Results written to " + json + " and " + markdown);
+    }
+}
@@ -0,0 +1,37 @@
+package com.trading.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs a {@link LoadGenerator} for the workload named by {@code -Dloadtest.workload}
+ * (a file in {@code loadtest/}, default {@code mixed}) and writes
+ * {@code target/loadtest/<workload>-report.md} and {@code -results.json}.
+ *
+ * <p>Not part of the regular test run; use the {@code load-test} profile:
+ *
+ * <pre>
+ * mvn test -Pload-test -Dloadtest.workload=checkout-heavy
+ * mvn test -Pload-test -Dloadtest.workload=hot-sku -Dloadtest.compareWith=previous/hot-sku-results.json
+ * </pre>
+ *
+ * Other options: {@code -Dloadtest.threads}, {@code -Dloadtest.rate} (requests per second,
+ * 0 for closed loop), {@code -Dloadtest.warmup} and {@code -Dloadtest.duration} (seconds),
+ * and {@code -Dloadtest.output} (path prefix of the report files).
+ */
+class LoadTestRunner {
+
+    @Test
+    void run() throws Exception {
+        Workload workload = Workload.load(System.getProperty("loadtest.workload", "mixed")).withOverrides();
+        LoadTestReport report = new LoadGenerator(workload).execute();
+        assertThat(report.totalRequests()).isPositive();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Workload workload = Workload.load(args.length > 0 ? args[0] : "mixed").withOverrides();
+        new LoadGenerator(workload).execute();
+        System.exit(0);
+    }
+}
@@ -0,0 +1,33 @@
+package com.trading.loadtest;
+
+/**
+ * Requests a virtual client can make, keyed by the endpoint they exercise.
+ * Operations that act on an order (pay, ship, complete, refund) take one from
+ * the matching pool of orders created earlier in the run, and create one first
+ * when the pool is empty.
+ */
+public enum Operation {
+
+    BROWSE("GET /api/v1/products"),
+    PRODUCT_DETAIL("GET /api/v1/products/{id}"),
+    PRODUCT_INVENTORY("GET /api/v1/products/{id}/inventory"),
+    ADD_TO_CART("POST /api/v1/users/{userId}/cart/items"),
+    CHECKOUT("POST /api/v1/users/{userId}/orders/from-cart"),
+    DIRECT_PURCHASE("POST /api/v1/users/{userId}/orders/direct"),
+    PAY("POST /api/v1/orders/{id}/pay"),
+    SHIP("POST /api/v1/orders/{id}/ship"),
+    COMPLETE("POST /api/v1/orders/{id}/complete"),
+    REFUND("POST /api/v1/orders/{id}/refund"),
+    MERCHANT_ORDERS("GET /api/v1/merchants/{merchantId}/orders"),
+    MERCHANT_STATS("GET /api/v1/merchants/{id}/stats");
+
+    private final String endpoint;
+
+    Operation(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public String endpoint() {
+        return endpoint;
+    }
+}
@@ -0,0 +1,81 @@
+package com.trading.loadtest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Data;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A load test workload, read from a JSON file under {@code loadtest/}.
+ * The catalog and account sizes are seeded through the API before the run;
+ * {@code mix} gives the relative weight of each {@link Operation}.
+ */
+@Data
+public class Workload {
+
+    static final Path DIRECTORY = Path.of("loadtest");
+
+    private String name;
+    private String description;
+
+    /** Buyer accounts, each logged in once and funded with {@code userBalance} */
+    private int users = 50;
+    private int merchants = 5;
+    private int productsPerMerchant = 20;
+    private int skusPerProduct = 2;
+    private int initialStock = 1_000_000;
+    private long userBalance = 10_000_000L;
+
+    /** Share of purchases that target one hot SKU, to provoke optimistic-lock conflicts on its stock row */
+    private double hotSkuShare = 0.0;
+
+    /** Concurrent virtual clients */
+    private int threads = 8;
+
+    /** Requests per second across all clients; 0 runs closed-loop as fast as the clients can go */
+    private int targetRate = 0;
+
+    private int warmupSeconds = 10;
+    private int durationSeconds = 60;
+
+    private Map<Operation, Integer> mix = new LinkedHashMap<>();
+
+    /** Extra Spring properties for the application under test */
+    private Map<String, String> properties = new LinkedHashMap<>();
+
+    /**
+     * Load a workload by name (a file in {@code loadtest/}) or by path
+     */
+    static Workload load(String nameOrPath) throws IOException {
+        Path file = Path.of(nameOrPath);
+        if (!Files.exists(file)) {
+            file = DIRECTORY.resolve(nameOrPath.endsWith(".json") ? nameOrPath : nameOrPath + ".json");
+        }
+        Workload workload = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true)
+                .readValue(file.toFile(), Workload.class);
+        if (workload.getName() == null) {
+            workload.setName(file.getFileName().toString().replace(".json", ""));
+        }
+        if (workload.getMix().isEmpty()) {
+            throw new IllegalArgumentException("Workload " + workload.getName() + " has an empty mix");
+        }
+        return workload;
+    }
+
+    /**
+     * Apply -Dloadtest.threads, -Dloadtest.rate, -Dloadtest.warmup and -Dloadtest.duration overrides
+     */
+    Workload withOverrides() {
+        threads = Integer.getInteger("loadtest.threads", threads);
+        targetRate = Integer.getInteger("loadtest.rate", targetRate);
+        warmupSeconds = Integer.getInteger("loadtest.warmup", warmupSeconds);
+        durationSeconds = Integer.getInteger("loadtest.duration", durationSeconds);
+        return this;
+    }
+}
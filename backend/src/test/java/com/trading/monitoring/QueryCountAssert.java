@@ -0,0 +1,57 @@
+package com.trading.monitoring;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Asserts how many SQL statements an operation executes, to catch queries issued
+ * in loops. Counts every statement the calling thread runs through the application
+ * data source, JPA and JdbcTemplate alike, so the operation must run on the test
+ * thread and must not be inside a test-managed transaction whose flush is deferred
+ * past the check.
+ *
+ * <pre>
+ * CartResponse cart = QueryCountAssert.assertMaxQueries(3, "getCart",
+ *         () -> cartService.getCart(userId));
+ * </pre>
+ */
+public final class QueryCountAssert {
+
+    private QueryCountAssert() {
+    }
+
+    /**
+     * Run the operation and fail if it executed more than {@code max} statements
+     *
+     * @return the operation's result
+     */
+    public static <T> T assertMaxQueries(int max, String operation, Supplier<T> action) {
+        QueryCounter.Snapshot start = QueryCounter.snapshot();
+        T result = action.get();
+        long executed = QueryCounter.snapshot().since(start).statements();
+        assertThat(executed)
+                .as("SQL statements executed by %s", operation)
+                .isLessThanOrEqualTo(max);
+        return result;
+    }
+
+    /**
+     * Run the operation and fail if it executed more than {@code max} statements
+     */
+    public static void assertMaxQueries(int max, String operation, Runnable action) {
+        assertMaxQueries(max, operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Number of statements the operation executed
+     */
+    public static long countQueries(Runnable action) {
+        QueryCounter.Snapshot start = QueryCounter.snapshot();
+        action.run();
+        return QueryCounter.snapshot().since(start).statements();
+    }
+}
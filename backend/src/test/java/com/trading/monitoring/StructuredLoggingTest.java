@@ -0,0 +1,120 @@
+package com.trading.monitoring;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.read.ListAppender;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for per-logger log sampling and the JSON log layout
+ */
+class StructuredLoggingTest {
+
+    private static final String SAMPLED = "com.trading.service.impl.OrderServiceImpl";
+
+    private LoggerContext context;
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        LogSamplingFilter filter = new LogSamplingFilter();
+        filter.setLoggers(SAMPLED + ", SECURITY");
+        filter.setRate(10);
+        filter.setContext(context);
+        filter.start();
+        context.addTurboFilter(filter);
+
+        appender = new ListAppender<>();
+        appender.setContext(context);
+        appender.start();
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.DEBUG);
+        root.addAppender(appender);
+    }
+
+    @Test
+    void sampledLogger_ShouldKeepOneInRatePerMessageTemplate() {
+        Logger logger = context.getLogger(SAMPLED);
+        for (int i = 0; i < 25; i++) {
+            logger.info("Order {} paid", i);
+            logger.debug("Confirming payment of order {}", i);
+        }
+
+        assertThat(appender.list).filteredOn(event -> event.getMessage().equals("Order {} paid"))
+                .extracting(ILoggingEvent::getFormattedMessage)
+                .containsExactly("Order 0 paid", "Order 10 paid", "Order 20 paid");
+        assertThat(appender.list).filteredOn(event -> event.getMessage().startsWith("Confirming"))
+                .hasSize(3);
+    }
+
+    @Test
+    void warningsAndOtherLoggers_ShouldNeverBeSampled() {
+        Logger sampled = context.getLogger(SAMPLED);
+        Logger other = context.getLogger("com.trading.service.impl.ProductServiceImpl");
+        for (int i = 0; i < 25; i++) {
+            sampled.warn("Order {} conflicted", i);
+            other.info("Product {} viewed", i);
+        }
+
+        assertThat(appender.list).filteredOn(event -> event.getLevel() == Level.WARN).hasSize(25);
+        assertThat(appender.list).filteredOn(event -> event.getLoggerName().endsWith("ProductServiceImpl")).hasSize(25);
+    }
+
+    @Test
+    void disabledLevels_ShouldNotUseUpTheSample() {
+        Logger logger = context.getLogger(SAMPLED);
+        logger.setLevel(Level.INFO);
+        for (int i = 0; i < 25; i++) {
+            logger.debug("Loading order {}", i);
+        }
+        logger.setLevel(Level.DEBUG);
+        logger.debug("Loading order {}", 25);
+
+        assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly("Loading order 25");
+    }
+
+    @Test
+    void rateBelowOne_ShouldBeRejected() {
+        assertThatThrownBy(() -> new LogSamplingFilter().setRate(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void jsonLayout_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        JsonLogLayout layout = new JsonLogLayout();
+        layout.setContext(context);
+        layout.setApp("trading-system");
+        layout.start();
+
+        Logger logger = context.getLogger("com.trading.service.impl.CartServiceImpl");
+        String line;
+        context.getMDCAdapter().put("requestId", "r-1");
+        try {
+            logger.error("Cart of user {} is \"broken\"", 42, new IllegalStateException("boom"));
+            line = layout.doLayout(appender.list.get(0));
+        } finally {
+            context.getMDCAdapter().remove("requestId");
+        }
+
+        assertThat(line).endsWith(System.lineSeparator());
+        assertThat(line.strip()).doesNotContain("\n");
+        JsonNode json = new ObjectMapper().readTree(line);
+        assertThat(json.path("level").asText()).isEqualTo("ERROR");
+        assertThat(json.path("logger").asText()).isEqualTo("com.trading.service.impl.CartServiceImpl");
+        assertThat(json.path("message").asText()).isEqualTo("Cart of user 42 is \"broken\"");
+        assertThat(json.path("app").asText()).isEqualTo("trading-system");
+        assertThat(json.path("mdc").path("requestId").asText()).isEqualTo("r-1");
+        assertThat(json.path("exception").asText()).contains("IllegalStateException: boom");
+        assertThat(json.path("timestamp").asText()).endsWith("Z");
+    }
+}
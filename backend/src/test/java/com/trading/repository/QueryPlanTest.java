@@ -0,0 +1,280 @@
+package com.trading.repository;
+
+import com.trading.entity.ArchivedOrder;
+import com.trading.enums.OrderStatus;
+import com.trading.enums.SettlementChunkStatus;
+import com.trading.enums.TransactionType;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs each repository query against H2, captures the SQL Hibernate sent and checks
+ * its EXPLAIN plan: the queried table must be read through an index lookup (not a
+ * table scan or a full index scan), and through the expected index where one is named.
+ * Keyword (LIKE '%...%') searches are not covered; they scan by design.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class QueryPlanTest {
+
+    private static final Pageable PAGE = PageRequest.of(0, 20);
+    private static final LocalDateTime FROM = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2000, 2, 1, 0, 0);
+    private static final LocalDate DAY = LocalDate.of(2000, 1, 1);
+    private static final String USER = "USER";
+
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+    @Autowired
+    private TransactionRecordRepository transactionRecordRepository;
+    @Autowired
+    private InventoryRepository inventoryRepository;
+    @Autowired
+    private CartItemRepository cartItemRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductViewRepository productViewRepository;
+    @Autowired
+    private SettlementRepository settlementRepository;
+    @Autowired
+    private SettlementRunRepository settlementRunRepository;
+    @Autowired
+    private SettlementChunkRepository settlementChunkRepository;
+    @Autowired
+    private MerchantDailyCounterRepository merchantDailyCounterRepository;
+    @Autowired
+    private CacheInvalidationRepository cacheInvalidationRepository;
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MerchantRepository merchantRepository;
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+    @Autowired
+    private ArchivedOrderItemRepository archivedOrderItemRepository;
+    @Autowired
+    private ArchivedTransactionRecordRepository archivedTransactionRecordRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @TestFactory
+    Stream<DynamicTest> hotQueries_ShouldUseAnIndex() {
+        Pageable newestFirst = PageRequest.of(0, 20, Sort.by("createdAt").descending());
+        Set<OrderStatus> finished = ArchivedOrder.STATUSES;
+        Set<TransactionType> sales = Set.of(TransactionType.SALE, TransactionType.REFUND_OUT);
+        return Stream.of(
+                query("orders by user", "orders", "IDX_ORDERS_USER_CREATED",
+                        () -> orderRepository.findByUserId(1L, newestFirst)),
+                query("orders by merchant", "orders", "IDX_ORDERS_MERCHANT_STATUS_UPDATED",
+                        () -> orderRepository.findByMerchantId(1L, PAGE)),
+                query("orders by merchant and status", "orders", "IDX_ORDERS_MERCHANT_STATUS_UPDATED",
+                        () -> orderRepository.findByMerchantIdAndStatus(1L, OrderStatus.PAID, PAGE)),
+                query("order count by merchant and status", "orders", "IDX_ORDERS_MERCHANT_STATUS_UPDATED",
+                        () -> orderRepository.countByMerchantIdAndStatus(1L, OrderStatus.PAID)),
+                query("order counts by status", "orders", "IDX_ORDERS_MERCHANT_STATUS_UPDATED",
+                        () -> orderRepository.countByMerchantIdGroupByStatus(1L)),
+                query("orders by merchant, status and date range", "orders", "IDX_ORDERS_MERCHANT_STATUS_UPDATED",
+                        () -> orderRepository.findByMerchantIdAndStatusAndDateRange(1L, OrderStatus.COMPLETED, FROM, TO)),
+                query("order stream for settlement", "orders", "IDX_ORDERS_MERCHANT_STATUS_UPDATED",
+                        () -> consume(orderRepository.streamByMerchantIdAndStatusInAndDateRange(1L, finished, FROM, TO))),
+                query("order sums for settlement", "orders", "IDX_ORDERS_STATUS_UPDATED",
+                        () -> orderRepository.sumAmountByMerchantAndStatus(finished, FROM, TO)),
+                query("archivable orders", "orders", "IDX_ORDERS_STATUS_UPDATED",
+                        () -> orderRepository.findArchivableIds(finished, FROM, PAGE)),
+                query("order by number", "orders", null,
+                        () -> orderRepository.findByOrderNumber("ORD-1")),
+                query("order items by order", "order_items", null,
+                        () -> orderItemRepository.findByOrderId(1L)),
+
+                query("account history", "transaction_records", "IDX_TX_ACCOUNT_TYPE_CREATED",
+                        () -> transactionRecordRepository.findByAccountTypeAndAccountId(USER, 1L, newestFirst)),
+                query("account history by date range", "transaction_records", "IDX_TX_ACCOUNT_TYPE_CREATED",
+                        () -> transactionRecordRepository.findByAccountTypeAndAccountIdAndCreatedAtBetween(USER, 1L, FROM, TO)),
+                query("account history by type", "transaction_records", "IDX_TX_ACCOUNT_TYPE_CREATED",
+                        () -> transactionRecordRepository.findByAccountTypeAndAccountIdAndType(USER, 1L, TransactionType.DEPOSIT)),
+                query("account history by type and date range", "transaction_records", "IDX_TX_ACCOUNT_TYPE_CREATED",
+                        () -> transactionRecordRepository.findByAccountTypeAndAccountIdAndTypeAndCreatedAtBetween(
+                                USER, 1L, TransactionType.DEPOSIT, FROM, TO)),
+                query("ledger stream for reconciliation", "transaction_records", "IDX_TX_ACCOUNT_TYPE_CREATED",
+                        () -> consume(transactionRecordRepository.streamOrderEntries("MERCHANT", 1L, sales, FROM, TO))),
+                query("unlinked ledger sum", "transaction_records", "IDX_TX_ACCOUNT_TYPE_CREATED",
+                        () -> transactionRecordRepository.sumUnlinkedAmount("MERCHANT", 1L, TransactionType.REFUND_OUT, FROM, TO)),
+                query("ledger sums across accounts", "transaction_records", null,
+                        () -> transactionRecordRepository.sumAmountByAccountAndType("MERCHANT", sales, FROM, TO)),
+                query("transactions by order", "transaction_records", "IDX_TX_RELATED_ORDER",
+                        () -> transactionRecordRepository.findByRelatedOrderId(1L)),
+                query("archivable transactions", "transaction_records", "IDX_TX_CREATED",
+                        () -> transactionRecordRepository.findIdsCreatedBefore(FROM, PAGE)),
+
+                query("inventory by product", "inventory", "IDX_INVENTORY_PRODUCT_QUANTITY",
+                        () -> inventoryRepository.findByProductId(1L)),
+                query("lowest price by product", "inventory", "IDX_INVENTORY_PRODUCT_QUANTITY",
+                        () -> inventoryRepository.findMinPriceByProductId(1L)),
+                query("highest price by product", "inventory", "IDX_INVENTORY_PRODUCT_QUANTITY",
+                        () -> inventoryRepository.findMaxPriceByProductId(1L)),
+                query("price ranges by products", "inventory", "IDX_INVENTORY_PRODUCT_QUANTITY",
+                        () -> inventoryRepository.findPriceRangesByProductIds(List.of(1L, 2L))),
+                query("inventory page by merchant", "inventory", "IDX_INVENTORY_MERCHANT_QUANTITY",
+                        () -> inventoryRepository.findByMerchantId(1L, PAGE)),
+                query("inventory by merchant", "inventory", "IDX_INVENTORY_MERCHANT_QUANTITY",
+                        () -> inventoryRepository.findByMerchantId(1L)),
+                query("low stock count", "inventory", "IDX_INVENTORY_MERCHANT_QUANTITY",
+                        () -> inventoryRepository.countByMerchantIdAndQuantityLessThanEqual(1L, 10)),
+                query("inventory by sku", "inventory", null,
+                        () -> inventoryRepository.findBySku("SKU-1")),
+                query("inventory by skus", "inventory", null,
+                        () -> inventoryRepository.findBySkuIn(List.of("SKU-1", "SKU-2"))),
+                query("inventory by merchant and sku", "inventory", null,
+                        () -> inventoryRepository.findByMerchantIdAndSku(1L, "SKU-1")),
+
+                query("cart by user", "cart_items", null,
+                        () -> cartItemRepository.findByUserId(1L)),
+                query("cart item by user and sku", "cart_items", null,
+                        () -> cartItemRepository.findByUserIdAndSku(1L, "SKU-1")),
+
+                query("products by category", "products", "IDX_PRODUCTS_CATEGORY",
+                        () -> productRepository.findByCategory("Electronics", PAGE)),
+                query("products by merchant", "products", "IDX_PRODUCTS_MERCHANT",
+                        () -> productRepository.findByMerchantId(1L, PAGE)),
+                query("product count by merchant", "products", "IDX_PRODUCTS_MERCHANT",
+                        () -> productRepository.countByMerchantId(1L)),
+                query("product views by category", "product_views", "IDX_PRODUCT_VIEWS_CATEGORY",
+                        () -> productViewRepository.findByCategory("Electronics", PAGE)),
+                query("product views by merchant", "product_views", "IDX_PRODUCT_VIEWS_MERCHANT",
+                        () -> productViewRepository.findByMerchantId(1L, PAGE)),
+                query("product view merchant rename", "product_views", "IDX_PRODUCT_VIEWS_MERCHANT",
+                        () -> productViewRepository.updateMerchantName(-1L, "Renamed")),
+
+                query("settlements by date", "settlements", "IDX_SETTLEMENTS_DATE",
+                        () -> settlementRepository.findBySettlementDate(DAY)),
+                query("settlements by merchant", "settlements", null,
+                        () -> settlementRepository.findByMerchantIdOrderBySettlementDateDesc(1L, PAGE)),
+                query("settlement by merchant and date", "settlements", null,
+                        () -> settlementRepository.findByMerchantIdAndSettlementDate(1L, DAY)),
+                query("latest settlement run for date", "settlement_runs", "IDX_SETTLEMENT_RUNS_DATE",
+                        () -> settlementRunRepository.findFirstBySettlementDateOrderByIdDesc(DAY)),
+                query("settlement chunks by run", "settlement_chunks", null,
+                        () -> settlementChunkRepository.findByRunIdAndStatusInOrderByChunkIndex(1L,
+                                Set.of(SettlementChunkStatus.PENDING, SettlementChunkStatus.FAILED))),
+                query("daily counter", "merchant_daily_counters", null,
+                        () -> merchantDailyCounterRepository.findByMerchantIdAndCounterDate(1L, DAY)),
+
+                query("cache invalidations since", "cache_invalidations", "IDX_CACHE_INVALIDATIONS_CREATED",
+                        () -> cacheInvalidationRepository.findByCreatedAtGreaterThanEqualAndNodeIdNot(TO, "node-1")),
+                query("cache invalidation purge", "cache_invalidations", "IDX_CACHE_INVALIDATIONS_CREATED",
+                        () -> cacheInvalidationRepository.deleteCreatedBefore(FROM)),
+                query("revocations since", "revoked_tokens", "IDX_REVOKED_TOKENS_REVOKED_EXPIRES",
+                        () -> revokedTokenRepository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(TO, TO)),
+                query("revocation purge", "revoked_tokens", "IDX_REVOKED_TOKENS_EXPIRES",
+                        () -> revokedTokenRepository.deleteExpired(FROM)),
+                query("revocation by token", "revoked_tokens", null,
+                        () -> revokedTokenRepository.existsByTokenId("jti")),
+                query("user by username", "users", null,
+                        () -> userRepository.findByUsername("user_alice")),
+                query("merchant by username", "merchants", null,
+                        () -> merchantRepository.findByUsername("merchant_digital")),
+
+                query("archived orders by user", "orders_archive", "IDX_ORDERS_ARCHIVE_USER_CREATED",
+                        () -> archivedOrderRepository.findByUserId(1L, newestFirst)),
+                query("archived orders by merchant and status", "orders_archive", "IDX_ORDERS_ARCHIVE_MERCHANT_STATUS_UPDATED",
+                        () -> archivedOrderRepository.findByMerchantIdAndStatus(1L, OrderStatus.COMPLETED, PAGE)),
+                query("archived order counts by status", "orders_archive", "IDX_ORDERS_ARCHIVE_MERCHANT_STATUS_UPDATED",
+                        () -> archivedOrderRepository.countByMerchantIdGroupByStatus(1L)),
+                query("archived orders to restore", "orders_archive", "IDX_ORDERS_ARCHIVE_UPDATED",
+                        () -> archivedOrderRepository.findIdsUpdatedBetween(FROM, TO, PAGE)),
+                query("archived orders of a settled day", "orders_archive", "IDX_ORDERS_ARCHIVE_UPDATED",
+                        () -> archivedOrderRepository.existsByUpdatedAtGreaterThanEqualAndUpdatedAtLessThan(FROM, TO)),
+                query("archived order items", "order_items_archive", "IDX_ORDER_ITEMS_ARCHIVE_ORDER",
+                        () -> archivedOrderItemRepository.findByOrderIdIn(List.of(1L, 2L))),
+                query("archived account history", "transaction_records_archive", "IDX_TX_ARCHIVE_ACCOUNT_CREATED",
+                        () -> archivedTransactionRecordRepository.findByAccountTypeAndAccountId(USER, 1L, newestFirst)),
+                query("archived transactions to restore", "transaction_records_archive", "IDX_TX_ARCHIVE_CREATED",
+                        () -> archivedTransactionRecordRepository.findIdsCreatedBetween(FROM, TO, PAGE)),
+                query("archived transactions of a settled day", "transaction_records_archive", "IDX_TX_ARCHIVE_CREATED",
+                        () -> archivedTransactionRecordRepository.existsByCreatedAtGreaterThanEqualAndCreatedAtLessThan(FROM, TO))
+        );
+    }
+
+    private DynamicTest query(String name, String table, String index, Runnable call) {
+        return DynamicTest.dynamicTest(name, () -> {
+            List<String> statements = capture(table, call);
+            assertThat(statements).as("SQL reading %s", table).isNotEmpty();
+            for (String sql : statements) {
+                String access = access(table, sql);
+                assertThat(access).as("%s%n%s", sql, access)
+                        .doesNotContain("tableScan")
+                        .contains(":");
+                if (index != null) {
+                    assertThat(access).as(sql).contains("PUBLIC." + index + ":");
+                }
+            }
+        });
+    }
+
+    /**
+     * Run the repository call in a rolled-back transaction with H2 query statistics on,
+     * returning the statements that read the table
+     */
+    private List<String> capture(String table, Runnable call) {
+        Pattern reads = Pattern.compile("(?i)\\b(from|join|update)\\s+" + table + "\\b");
+        jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+        jdbcTemplate.execute("SET QUERY_STATISTICS TRUE");
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                call.run();
+                status.setRollbackOnly();
+            });
+            return jdbcTemplate.queryForList("SELECT SQL_STATEMENT FROM INFORMATION_SCHEMA.QUERY_STATISTICS", String.class)
+                    .stream()
+                    .filter(sql -> reads.matcher(sql).find())
+                    .filter(sql -> !sql.regionMatches(true, 0, "insert", 0, 6))
+                    .toList();
+        } finally {
+            jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+        }
+    }
+
+    /**
+     * The access method H2 chose for the table, e.g. "PUBLIC.IDX_ORDERS_USER_CREATED: USER_ID = ?1"
+     * for an index lookup, "PUBLIC.ORDERS.tableScan" for a scan
+     */
+    private String access(String table, String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        Matcher matcher = Pattern.compile("\"PUBLIC\"\\.\"" + table.toUpperCase() + "\"(?: \"\\w+\")?\\s*/\\* ([^*]+) \\*/")
+                .matcher(plan);
+        assertThat(matcher.find()).as("plan for %s%n%s", table, plan).isTrue();
+        return matcher.group(1);
+    }
+
+    private static void consume(Stream<?> stream) {
+        try (stream) {
+            stream.forEach(row -> {
+            });
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.trading.scheduler;
+
+import com.trading.TradingApplication;
+import com.trading.dto.response.JobLeaseResponse;
+import com.trading.entity.JobLease;
+import com.trading.repository.JobLeaseRepository;
+import com.trading.service.JobLeaseService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Two application contexts ("nodes") sharing one H2 database compete for job leases
+ */
+class JobLeaseMultiNodeTest {
+
+    private static final String JOB = "test-sweeper";
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    private static JobLeaseService leasesA;
+    private static JobLeaseService leasesB;
+    private static JobLeaseRepository jobLeaseRepository;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode("node-a");
+        nodeB = startNode("node-b");
+        leasesA = nodeA.getBean(JobLeaseService.class);
+        leasesB = nodeB.getBean(JobLeaseService.class);
+        jobLeaseRepository = nodeA.getBean(JobLeaseRepository.class);
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        jobLeaseRepository.deleteAll();
+    }
+
+    @Test
+    void sameTick_ShouldRunOnExactlyOneNode() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+
+        // First tick creates the lease row, second tick takes over the completed row
+        for (String tick : List.of("tick-1", "tick-2")) {
+            List<Boolean> results = race(tick, () -> {
+                executions.incrementAndGet();
+                sleep(300);
+            });
+            assertThat(results).containsExactlyInAnyOrder(true, false);
+        }
+        assertThat(executions.get()).isEqualTo(2);
+    }
+
+    @Test
+    void completedTick_ShouldNotRunAgainOnAnotherNode() {
+        assertThat(leasesA.runExclusively(JOB, "2024-03-01", () -> { })).isTrue();
+        assertThat(leasesB.runExclusively(JOB, "2024-03-01", () -> { })).isFalse();
+        assertThat(leasesB.runExclusively(JOB, "2024-03-02", () -> { })).isTrue();
+    }
+
+    @Test
+    void failedTick_ShouldBeRunAgainUntilItCompletes() {
+        assertThatThrownBy(() -> leasesA.runExclusively(JOB, "2024-03-01", () -> {
+            throw new IllegalStateException("chunk failed");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(leasesA.getLeases().get(0).getLastError()).isEqualTo("chunk failed");
+
+        assertThat(leasesB.runExclusively(JOB, "2024-03-01", () -> { })).isTrue();
+        assertThat(leasesA.runExclusively(JOB, "2024-03-01", () -> { })).isFalse();
+    }
+
+    @Test
+    void renew_ShouldOnlySucceedForTheHolder() {
+        AtomicReference<Boolean> renewedByHolder = new AtomicReference<>();
+        AtomicReference<Boolean> renewedByOther = new AtomicReference<>();
+        leasesA.runExclusively(JOB, "tick-1", () -> {
+            renewedByHolder.set(leasesA.renew(JOB, "tick-1"));
+            renewedByOther.set(leasesB.renew(JOB, "tick-1"));
+        });
+
+        assertThat(renewedByHolder.get()).isTrue();
+        assertThat(renewedByOther.get()).isFalse();
+        // A completed tick cannot be renewed either
+        assertThat(leasesA.renew(JOB, "tick-1")).isFalse();
+    }
+
+    @Test
+    void expiredLease_ShouldBeTakenOverAndHolderVisible() {
+        jobLeaseRepository.save(lease("dead-node", LocalDateTime.now().minusSeconds(1)));
+
+        AtomicReference<JobLeaseResponse> seenFromA = new AtomicReference<>();
+        boolean ran = leasesB.runExclusively(JOB, "tick-1",
+                () -> seenFromA.set(leasesA.getLeases().get(0)));
+
+        assertThat(ran).isTrue();
+        assertThat(seenFromA.get().getHolder()).isEqualTo("node-b");
+        assertThat(seenFromA.get().isActive()).isTrue();
+        assertThat(seenFromA.get().isHeldByThisNode()).isFalse();
+        assertThat(leasesA.getLeases().get(0).getCompletedAt()).isNotNull();
+    }
+
+    @Test
+    void liveLease_ShouldBlockOtherNodes() {
+        jobLeaseRepository.save(lease("other-node", LocalDateTime.now().plusMinutes(1)));
+
+        assertThat(leasesA.runExclusively(JOB, "tick-1", () -> { })).isFalse();
+        assertThat(leasesB.runExclusively(JOB, "tick-2", () -> { })).isFalse();
+    }
+
+    @Test
+    void runningHolder_ShouldRenewLeaseBeyondTtl() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Runs well past the 600ms TTL; renewals keep node B out
+            Future<Boolean> holder = executor.submit(() -> leasesA.runExclusively(JOB, "tick-1", () -> {
+                started.countDown();
+                sleep(1500);
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            sleep(1000);
+
+            assertThat(leasesB.runExclusively(JOB, "tick-1", () -> { })).isFalse();
+            assertThat(holder.get(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId) {
+        return new SpringApplicationBuilder(TradingApplication.class)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:jobleasetest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.hibernate.ddl-auto=update",
+                        "--spring.sql.init.mode=never",
+                        "--server.port=0",
+                        "--trading.scheduling.node-id=" + nodeId,
+                        "--trading.scheduling.lease-ttl=600ms");
+    }
+
+    private List<Boolean> race(String tick, Runnable task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> a = executor.submit(() -> {
+                start.await();
+                return leasesA.runExclusively(JOB, tick, task);
+            });
+            Future<Boolean> b = executor.submit(() -> {
+                start.await();
+                return leasesB.runExclusively(JOB, tick, task);
+            });
+            start.countDown();
+            return List.of(a.get(10, TimeUnit.SECONDS), b.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private JobLease lease(String holder, LocalDateTime expiresAt) {
+        return JobLease.builder()
+                .jobName(JOB)
+                .holder(holder)
+                .tick("tick-0")
+                .acquiredAt(LocalDateTime.now().minusMinutes(5))
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.trading.security;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.trading.config.JwtProperties;
+import com.trading.exception.InvalidTokenException;
+import com.trading.service.TokenRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -14,6 +16,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.Date;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -38,6 +41,9 @@ class JwtAuthenticationFilterTest {
     @Mock
     private FilterChain filterChain;
     
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+    
     private ObjectMapper objectMapper;
     private JwtAuthenticationFilter filter;
     
@@ -45,7 +51,7 @@ class JwtAuthenticationFilterTest {
     void setUp() {
         objectMapper = new ObjectMapper();
         objectMapper.findAndRegisterModules(); // This will register JSR310 module for LocalDateTime
-        filter = new JwtAuthenticationFilter(jwtUtil, objectMapper);
+        filter = new JwtAuthenticationFilter(jwtUtil, objectMapper, tokenRevocationService);
         SecurityContextHolder.clearContext();
     }
     
@@ -88,7 +94,7 @@ class JwtAuthenticationFilterTest {
         // Given
         when(request.getRequestURI()).thenReturn("/api/v1/merchants/123/balance");
         when(request.getHeader("Authorization")).thenReturn("Bearer invalid-token");
-        when(jwtUtil.validateToken("invalid-token")).thenThrow(new com.trading.exception.InvalidTokenException("Invalid token"));
+        when(jwtUtil.verify("invalid-token")).thenThrow(new com.trading.exception.InvalidTokenException("Invalid token"));
         
         StringWriter stringWriter = new StringWriter();
         PrintWriter writer = new PrintWriter(stringWriter);
@@ -110,9 +116,7 @@ class JwtAuthenticationFilterTest {
         String validToken = "valid-jwt-token";
         when(request.getRequestURI()).thenReturn("/api/v1/merchants/123/balance");
         when(request.getHeader("Authorization")).thenReturn("Bearer " + validToken);
-        when(jwtUtil.validateToken(validToken)).thenReturn(true);
-        when(jwtUtil.extractUsername(validToken)).thenReturn("merchant123");
-        when(jwtUtil.extractMerchantId(validToken)).thenReturn(123L);
+        when(jwtUtil.verify(validToken)).thenReturn(verifiedToken("merchant123", 123L));
         when(request.getRemoteAddr()).thenReturn("127.0.0.1");
         when(request.getSession(false)).thenReturn(null);
         
@@ -131,9 +135,7 @@ class JwtAuthenticationFilterTest {
         String token = "test-token";
         when(request.getRequestURI()).thenReturn("/api/v1/merchants/123/balance");
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtUtil.validateToken(token)).thenReturn(true);
-        when(jwtUtil.extractUsername(token)).thenReturn("merchant123");
-        when(jwtUtil.extractMerchantId(token)).thenReturn(123L);
+        when(jwtUtil.verify(token)).thenReturn(verifiedToken("merchant123", 123L));
         when(request.getRemoteAddr()).thenReturn("127.0.0.1");
         when(request.getSession(false)).thenReturn(null);
         
@@ -141,9 +143,33 @@ class JwtAuthenticationFilterTest {
         filter.doFilterInternal(request, response, filterChain);
         
         // Then
-        verify(jwtUtil).validateToken(token);
-        verify(jwtUtil, times(2)).extractUsername(token); // Called once in setAuthenticationContext and once in logSuccessfulAuthentication
-        verify(jwtUtil, times(2)).extractMerchantId(token); // Called once in setAuthenticationContext and once in logSuccessfulAuthentication
+        verify(jwtUtil, times(1)).verify(token); // Parsed once; context and audit log reuse the verified claims
+        verifyNoMoreInteractions(jwtUtil);
+    }
+    
+    @Test
+    void shouldReturnUnauthorizedWhenTokenIsRevoked() throws Exception {
+        // Given
+        String token = "revoked-token";
+        VerifiedToken verified = verifiedToken("merchant123", 123L);
+        when(request.getRequestURI()).thenReturn("/api/v1/merchants/123/balance");
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtUtil.verify(token)).thenReturn(verified);
+        doThrow(new InvalidTokenException("Token has been revoked"))
+                .when(tokenRevocationService).checkNotRevoked(verified);
+        
+        StringWriter stringWriter = new StringWriter();
+        PrintWriter writer = new PrintWriter(stringWriter);
+        when(response.getWriter()).thenReturn(writer);
+        
+        // When
+        filter.doFilterInternal(request, response, filterChain);
+        
+        // Then
+        verify(response).setStatus(401);
+        verifyNoInteractions(filterChain);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertTrue(stringWriter.toString().contains("Invalid authentication token"));
     }
     
     @Test
@@ -151,7 +177,7 @@ class JwtAuthenticationFilterTest {
         // Given
         when(request.getRequestURI()).thenReturn("/api/v1/merchants/123/balance");
         when(request.getHeader("Authorization")).thenReturn("Bearer expired-token");
-        when(jwtUtil.validateToken("expired-token")).thenThrow(new com.trading.exception.TokenExpiredException());
+        when(jwtUtil.verify("expired-token")).thenThrow(new com.trading.exception.TokenExpiredException());
         
         StringWriter stringWriter = new StringWriter();
         PrintWriter writer = new PrintWriter(stringWriter);
@@ -166,4 +192,9 @@ class JwtAuthenticationFilterTest {
         verifyNoInteractions(filterChain);
         assertTrue(stringWriter.toString().contains("Token has expired"));
     }
+    
+    private VerifiedToken verifiedToken(String username, Long merchantId) {
+        Date now = new Date();
+        return new VerifiedToken("test-jti", username, merchantId, "MERCHANT", now, new Date(now.getTime() + 3600000L));
+    }
 }
\ No newline at end of file
@@ -142,4 +142,48 @@ class JwtUtilTest {
         assertTrue(shortExpirationJwtUtil.isTokenExpired(token));
         assertThrows(TokenExpiredException.class, () -> shortExpirationJwtUtil.validateToken(token));
     }
-}
\ No newline at end of file
+    
+    @Test
+    void testVerifyCachesVerifiedToken() {
+        // Given
+        String token = jwtUtil.generateToken(123L, "testmerchant", "ADMIN");
+        
+        // When
+        VerifiedToken first = jwtUtil.verify(token);
+        VerifiedToken second = jwtUtil.verify(token);
+        
+        // Then
+        assertSame(first, second);
+        assertEquals("testmerchant", first.username());
+        assertEquals(123L, first.merchantId());
+        assertEquals("ADMIN", first.role());
+    }
+    
+    @Test
+    void testVerifyWithCacheDisabled() {
+        // Given
+        jwtProperties.setVerifiedTokenCacheSize(0);
+        JwtUtil uncachedJwtUtil = new JwtUtil(jwtProperties);
+        String token = uncachedJwtUtil.generateToken(123L, "testmerchant");
+        
+        // When & Then
+        assertNotSame(uncachedJwtUtil.verify(token), uncachedJwtUtil.verify(token));
+        assertEquals(123L, uncachedJwtUtil.verify(token).merchantId());
+        assertThrows(InvalidTokenException.class, () -> uncachedJwtUtil.verify("invalid.token.here"));
+    }
+    
+    @Test
+    void testCachedTokenExpires() throws InterruptedException {
+        // Given - JWT expiration has second precision
+        jwtProperties.setExpiration(1000L);
+        JwtUtil shortExpirationJwtUtil = new JwtUtil(jwtProperties);
+        String token = shortExpirationJwtUtil.generateToken(123L, "testmerchant");
+        
+        // When
+        shortExpirationJwtUtil.verify(token);
+        Thread.sleep(2100);
+        
+        // Then
+        assertThrows(TokenExpiredException.class, () -> shortExpirationJwtUtil.verify(token));
+    }
+}
@@ -0,0 +1,61 @@
+package com.trading.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 授权元数据解析单元测试
+ */
+class MerchantAuthorizationAspectTest {
+
+    @Test
+    void resolve_ShouldLocateOwnerPathVariable() throws Exception {
+        Method merchantMethod = Resources.class.getMethod("inventoryPrice", String.class, Long.class);
+        MerchantAuthorizationAspect.OwnershipMetadata merchant =
+                MerchantAuthorizationAspect.OwnershipMetadata.resolve(merchantMethod);
+
+        assertThat(merchant.parameterIndex()).isEqualTo(1);
+        assertThat(merchant.resource()).isEqualTo("inventory price update");
+        assertThat(merchant.logAccess()).isFalse();
+        assertThat(merchant.extractId(new Object[]{"SKU-1", 7L})).isEqualTo(7L);
+
+        Method userMethod = Resources.class.getMethod("cart", String.class);
+        MerchantAuthorizationAspect.OwnershipMetadata user =
+                MerchantAuthorizationAspect.OwnershipMetadata.resolve(userMethod);
+
+        assertThat(user.parameterIndex()).isZero();
+        assertThat(user.resource()).isEqualTo("cart");
+        assertThat(user.logAccess()).isTrue();
+        assertThat(user.extractId(new Object[]{"12"})).isEqualTo(12L);
+        assertThat(user.extractId(new Object[]{"not-a-number"})).isNull();
+    }
+
+    @Test
+    void resolve_WithoutOwnerPathVariable_ShouldSkipCheck() throws Exception {
+        Method method = Resources.class.getMethod("unrelated", Long.class);
+        MerchantAuthorizationAspect.OwnershipMetadata metadata =
+                MerchantAuthorizationAspect.OwnershipMetadata.resolve(method);
+
+        assertThat(metadata.parameterIndex()).isEqualTo(-1);
+        assertThat(metadata.extractId(new Object[]{5L})).isNull();
+    }
+
+    static class Resources {
+
+        @RequireMerchantOwnership(value = "inventory price update", logAccess = false)
+        public void inventoryPrice(@PathVariable("sku") String sku, @PathVariable("id") Long id) {
+        }
+
+        @RequireUserOwnership
+        public void cart(@PathVariable("userId") String userId) {
+        }
+
+        @RequireMerchantOwnership
+        public void unrelated(@PathVariable("orderId") Long orderId) {
+        }
+    }
+}
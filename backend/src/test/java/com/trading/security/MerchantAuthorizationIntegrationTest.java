@@ -3,9 +3,11 @@ package com.trading.security;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.trading.dto.request.LoginRequest;
 import com.trading.dto.request.MerchantRegisterRequest;
+import com.trading.dto.request.UserRegisterRequest;
 import com.trading.dto.response.ApiResponse;
 import com.trading.dto.response.AuthResponse;
 import com.trading.dto.response.MerchantResponse;
+import com.trading.dto.response.UserResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -174,4 +176,59 @@ public class MerchantAuthorizationIntegrationTest {
                 .header("Authorization", "Bearer invalid-token"))
                 .andExpect(status().isUnauthorized());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testUserCanOnlyAccessOwnResources() throws Exception {
+        UserResponse user1 = registerAndLoginUser("owner_user1");
+        UserResponse user2 = registerAndLoginUser("owner_user2");
+
+        // 用户1可以访问自己的购物车和余额
+        mockMvc.perform(get("/api/v1/users/" + user1.getId() + "/cart")
+                .header("Authorization", "Bearer " + user1.getToken()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/users/" + user1.getId() + "/balance")
+                .header("Authorization", "Bearer " + user1.getToken()))
+                .andExpect(status().isOk());
+
+        // 用户1不能访问用户2的资源
+        mockMvc.perform(get("/api/v1/users/" + user2.getId() + "/cart")
+                .header("Authorization", "Bearer " + user1.getToken()))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/api/v1/users/" + user2.getId() + "/orders")
+                .header("Authorization", "Bearer " + user1.getToken()))
+                .andExpect(status().isForbidden());
+
+        // 商家不能访问用户资源
+        mockMvc.perform(get("/api/v1/users/" + user1.getId() + "/cart")
+                .header("Authorization", "Bearer " + merchant1Token))
+                .andExpect(status().isForbidden());
+    }
+
+    private UserResponse registerAndLoginUser(String username) throws Exception {
+        UserRegisterRequest registerRequest = UserRegisterRequest.builder()
+                .username(username)
+                .password("password123")
+                .build();
+        mockMvc.perform(post("/api/v1/users/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(registerRequest)))
+                .andExpect(status().isCreated());
+
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setUsername(username);
+        loginRequest.setPassword("password123");
+        MvcResult loginResult = mockMvc.perform(post("/api/v1/users/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        ApiResponse<UserResponse> response = objectMapper.readValue(
+                loginResult.getResponse().getContentAsString(),
+                objectMapper.getTypeFactory().constructParametricType(ApiResponse.class, UserResponse.class)
+        );
+        return response.getData();
+    }
+}
@@ -0,0 +1,107 @@
+package com.trading.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 限流过滤器集成测试
+ * 验证按端点分组和客户端限流，超限返回429和Retry-After
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "trading.security.rate-limit.enabled=true",
+        "trading.security.rate-limit.groups[0].name=catalog",
+        "trading.security.rate-limit.groups[0].patterns[0]=/api/v1/products/**",
+        "trading.security.rate-limit.groups[0].capacity=3",
+        "trading.security.rate-limit.groups[0].refill-period=1m",
+        "trading.security.rate-limit.groups[1].name=default",
+        "trading.security.rate-limit.groups[1].patterns[0]=/api/**",
+        "trading.security.rate-limit.groups[1].capacity=100"
+})
+class RateLimitFilterIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void exceedingGroupLimit_ShouldReturn429WithRetryAfter() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/v1/products").with(remoteAddr("203.0.113.10")))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/api/v1/products").with(remoteAddr("203.0.113.10")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.code").value(429));
+
+        // 其他客户端和其他端点分组不受影响
+        mockMvc.perform(get("/api/v1/products").with(remoteAddr("203.0.113.11")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/auth/validate").with(remoteAddr("203.0.113.10")))
+                .andExpect(status().is(not(429)));
+    }
+
+    @Test
+    void authenticatedClients_ShouldHaveOwnBucketsBehindSharedIp() throws Exception {
+        String token = jwtUtil.generateToken(77L, "rate_limited_merchant");
+        jwtUtil.verify(token);
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/v1/products").with(remoteAddr("203.0.113.20")))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/v1/products").with(remoteAddr("203.0.113.20")))
+                .andExpect(status().isTooManyRequests());
+
+        // 同一IP后的已认证客户端按认证主体限流
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/v1/products")
+                            .with(remoteAddr("203.0.113.20"))
+                            .header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/v1/products")
+                        .with(remoteAddr("203.0.113.20"))
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void rotatingForwardedHeader_ShouldNotGetFreshBuckets() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/v1/products")
+                            .with(remoteAddr("203.0.113.30"))
+                            .header("X-Forwarded-For", "198.51.100." + i))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/v1/products")
+                        .with(remoteAddr("203.0.113.30"))
+                        .header("X-Forwarded-For", "198.51.100.99"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    private static RequestPostProcessor remoteAddr(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.trading.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TokenBucketLimiter单元测试
+ */
+class TokenBucketLimiterTest {
+    
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    
+    @Test
+    void testBurstUpToCapacityThenRefillOverTime() {
+        // Given - 3 tokens, refilled over 3 seconds (one per second)
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, Duration.ofSeconds(3), 100, Duration.ofMinutes(1), clock::get);
+        
+        // When & Then
+        assertEquals(0, limiter.tryAcquire("alice"));
+        assertEquals(0, limiter.tryAcquire("alice"));
+        assertEquals(0, limiter.tryAcquire("alice"));
+        long wait = limiter.tryAcquire("alice");
+        assertEquals(TimeUnit.SECONDS.toNanos(1), wait);
+        assertEquals(1, TokenBucketLimiter.toRetryAfterSeconds(wait));
+        
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(0, limiter.tryAcquire("alice"));
+        assertTrue(limiter.tryAcquire("alice") > 0);
+    }
+    
+    @Test
+    void testKeysHaveIndependentBuckets() {
+        // Given
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, Duration.ofMinutes(1), 100, Duration.ofMinutes(1), clock::get);
+        
+        // When & Then
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        assertTrue(limiter.tryAcquire("10.0.0.1") > 0);
+        assertEquals(0, limiter.tryAcquire("10.0.0.2"));
+        assertEquals(60, TokenBucketLimiter.toRetryAfterSeconds(limiter.tryAcquire("10.0.0.2")));
+    }
+    
+    @Test
+    void testIdleBucketRefillsCompletely() {
+        // Given
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, Duration.ofSeconds(2), 100, Duration.ofMinutes(1), clock::get);
+        limiter.tryAcquire("bob");
+        limiter.tryAcquire("bob");
+        
+        // When - idle far longer than the refill period
+        clock.addAndGet(TimeUnit.HOURS.toNanos(1));
+        
+        // Then - capacity is not exceeded by the idle time
+        assertEquals(0, limiter.tryAcquire("bob"));
+        assertEquals(0, limiter.tryAcquire("bob"));
+        assertTrue(limiter.tryAcquire("bob") > 0);
+    }
+}
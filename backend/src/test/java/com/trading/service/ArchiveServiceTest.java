@@ -0,0 +1,227 @@
+package com.trading.service;
+
+import com.trading.dto.response.ArchiveReportResponse;
+import com.trading.dto.response.OrderResponse;
+import com.trading.dto.response.ReconciliationReportResponse;
+import com.trading.dto.response.TransactionResponse;
+import com.trading.entity.ArchivedOrder;
+import com.trading.entity.Merchant;
+import com.trading.entity.User;
+import com.trading.enums.OrderStatus;
+import com.trading.exception.InvalidOperationException;
+import com.trading.repository.ArchivedOrderItemRepository;
+import com.trading.repository.ArchivedOrderRepository;
+import com.trading.repository.OrderRepository;
+import com.trading.scheduler.ArchiveEndpoint;
+import com.trading.support.TradingFixture;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for hot/cold tiering: finished orders and old ledger rows move to the
+ * archive tables, history reads continue into them, and restore moves them back
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ArchiveServiceTest {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.now().minusDays(400).truncatedTo(ChronoUnit.HOURS);
+    private static final String ARCHIVE_JOB = "hot-cold-archive";
+    private static final AtomicInteger RUNS = new AtomicInteger();
+
+    /**
+     * Each test backdates its rows to its own hour so restores do not pick up rows archived by other tests
+     */
+    private final LocalDateTime backdated = CUTOFF.minusDays(30).minusHours(RUNS.incrementAndGet());
+
+    @Autowired
+    private ArchiveService archiveService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private ArchivedOrderItemRepository archivedOrderItemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ArchiveEndpoint archiveEndpoint;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private TradingFixture fixture;
+
+    private User user;
+    private Merchant merchant;
+    private Long completedId;
+    private Long cancelledId;
+    private Long pendingId;
+
+    @BeforeEach
+    void setUp() {
+        user = fixture.user("archive");
+        merchant = fixture.merchant("archive", "Archive Store");
+        String sku = fixture.stock(merchant, "ARC", 10, "25.00");
+
+        completedId = fixture.completedOrder(user, sku, 2);
+        cancelledId = fixture.order(user, sku, 2);
+        orderService.cancel(cancelledId);
+        pendingId = fixture.order(user, sku, 2);
+
+        // Age everything of this user and merchant past the cutoff
+        Timestamp old = Timestamp.valueOf(backdated);
+        jdbcTemplate.update("UPDATE orders SET created_at = ?, updated_at = ? WHERE user_id = ?", old, old, user.getId());
+        jdbcTemplate.update("UPDATE transaction_records SET created_at = ? " +
+                "WHERE (account_type = 'USER' AND account_id = ?) OR (account_type = 'MERCHANT' AND account_id = ?)",
+                old, user.getId(), merchant.getId());
+    }
+
+    @Test
+    void archive_ShouldMoveFinishedOrdersAndOldLedgerRowsAndKeepThemReadable() {
+        ArchiveReportResponse report = archiveService.archive(CUTOFF);
+
+        // Rows restored by other tests are still past the cutoff and are archived again
+        assertThat(report.getOrders()).isGreaterThanOrEqualTo(2);
+        assertThat(report.getOrderItems()).isGreaterThanOrEqualTo(2);
+        assertThat(report.getTransactionRecords()).isGreaterThanOrEqualTo(2);
+        assertThat(archivedOrderRepository.findAllById(List.of(completedId, cancelledId, pendingId)))
+                .extracting(ArchivedOrder::getId).containsExactlyInAnyOrder(completedId, cancelledId);
+        assertThat(orderRepository.findById(completedId)).isEmpty();
+        assertThat(orderRepository.findById(pendingId)).isPresent();
+        assertThat(archivedOrderItemRepository.findByOrderIdIn(List.of(completedId))).hasSize(1);
+        assertThat(report.getTiers().get("orders").get("archive")).isGreaterThanOrEqualTo(2);
+        assertThat(meterRegistry.get("archive.rows").tags("table", "orders", "tier", "archive").gauge().value())
+                .isGreaterThanOrEqualTo(2);
+
+        OrderResponse completed = orderService.getById(completedId);
+        assertThat(completed.getStatus()).isEqualTo(OrderStatus.COMPLETED);
+        assertThat(completed.getItems()).singleElement()
+                .satisfies(item -> assertThat(item.getQuantity()).isEqualTo(2));
+
+        Pageable newestFirst = PageRequest.of(0, 2, Sort.by("createdAt").descending().and(Sort.by("id")));
+        Page<OrderResponse> first = orderService.getByUser(user.getId(), newestFirst);
+        assertThat(first.getTotalElements()).isEqualTo(3);
+        assertThat(first.getContent()).extracting(OrderResponse::getId).first().isEqualTo(pendingId);
+        assertThat(first.getContent().get(1).getUsername()).isEqualTo(user.getUsername());
+        Page<OrderResponse> second = orderService.getByUser(user.getId(), newestFirst.next());
+        assertThat(second.getContent()).hasSize(1);
+        assertThat(first.getContent().get(1).getId()).isNotEqualTo(second.getContent().get(0).getId());
+        assertThat(orderService.getByMerchantAndStatus(merchant.getId(), OrderStatus.CANCELLED, newestFirst)
+                .getContent()).extracting(OrderResponse::getId).containsExactly(cancelledId);
+
+        Page<TransactionResponse> transactions = userService.getTransactions(user.getId(), PageRequest.of(0, 10));
+        assertThat(transactions.getTotalElements()).isEqualTo(1);
+        assertThat(transactions.getContent().get(0).getRelatedOrderId()).isEqualTo(completedId);
+    }
+
+    @Test
+    void restore_ShouldMoveRowsBackWithTheirIds() {
+        archiveService.archive(CUTOFF);
+
+        ArchiveReportResponse report = archiveService.restore(backdated, backdated.plusMinutes(1));
+
+        assertThat(report.getOrders()).isEqualTo(2);
+        assertThat(report.getOrderItems()).isEqualTo(2);
+        assertThat(report.getTransactionRecords()).isEqualTo(2);
+        assertThat(archivedOrderRepository.findById(completedId)).isEmpty();
+        assertThat(orderRepository.findById(completedId)).isPresent();
+        assertThat(orderService.getById(completedId).getItems()).hasSize(1);
+        assertThat(orderService.getByUser(user.getId(), PageRequest.of(0, 10)).getTotalElements()).isEqualTo(3);
+        assertThat(userService.getTransactions(user.getId(), PageRequest.of(0, 10)).getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    void manualRestore_ShouldRunUnderTheArchiveJobLease() {
+        archiveService.archive(CUTOFF);
+        String from = backdated.toString();
+        String to = backdated.plusMinutes(1).toString();
+
+        // Another node is running the archive job
+        jdbcTemplate.update("DELETE FROM job_leases WHERE job_name = ?", ARCHIVE_JOB);
+        jdbcTemplate.update("INSERT INTO job_leases (job_name, holder, tick, acquired_at, expires_at) VALUES (?, ?, ?, ?, ?)",
+                ARCHIVE_JOB, "other-node", "2024-01-01", Timestamp.valueOf(LocalDateTime.now()),
+                Timestamp.valueOf(LocalDateTime.now().plusMinutes(10)));
+        try {
+            assertThatThrownBy(() -> archiveEndpoint.move("restore", from, to))
+                    .isInstanceOf(InvalidEndpointRequestException.class)
+                    .hasMessageContaining("running on another node");
+            assertThat(orderRepository.findById(completedId)).isEmpty();
+        } finally {
+            jdbcTemplate.update("DELETE FROM job_leases WHERE job_name = ?", ARCHIVE_JOB);
+        }
+
+        assertThat(archiveEndpoint.move("restore", from, to).getOrders()).isEqualTo(2);
+        assertThat(orderRepository.findById(completedId)).isPresent();
+        assertThat(jdbcTemplate.queryForObject("SELECT holder FROM job_leases WHERE job_name = ? AND completed_at IS NOT NULL",
+                String.class, ARCHIVE_JOB)).isEqualTo(jobLeaseService.getNodeId());
+    }
+
+    @Test
+    void hotTableScans_ShouldRefuseAnArchivedDayUntilItIsRestored() {
+        archiveService.archive(CUTOFF);
+        LocalDate day = backdated.toLocalDate();
+
+        assertThatThrownBy(() -> settlementService.runSettlementForMerchant(merchant.getId(), day))
+                .isInstanceOf(InvalidOperationException.class)
+                .hasMessageContaining("restore them first");
+        assertThatThrownBy(() -> reconciliationService.reconcile(merchant.getId(), day, 10))
+                .isInstanceOf(InvalidOperationException.class)
+                .hasMessageContaining("restore them first");
+
+        archiveService.restore(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+
+        assertThat(settlementService.runSettlementForMerchant(merchant.getId(), day).getTotalSales())
+                .isEqualByComparingTo("50.00");
+        ReconciliationReportResponse report = reconciliationService.reconcile(merchant.getId(), day, 10);
+        assertThat(report.getMatchedOrders()).isEqualTo(1);
+        assertThat(report.getIssueCount()).isZero();
+    }
+
+    @Test
+    void restore_ShouldRejectAnEmptyRange() {
+        assertThatThrownBy(() -> archiveService.restore(CUTOFF, CUTOFF))
+                .isInstanceOf(InvalidOperationException.class);
+    }
+}
@@ -0,0 +1,204 @@
+package com.trading.service;
+
+import com.trading.dto.request.DirectPurchaseRequest;
+import com.trading.dto.request.InventoryAddRequest;
+import com.trading.dto.request.PriceUpdateRequest;
+import com.trading.dto.request.ProductCreateRequest;
+import com.trading.entity.CacheInvalidation;
+import com.trading.entity.Merchant;
+import com.trading.entity.Product;
+import com.trading.entity.ProductView;
+import com.trading.entity.User;
+import com.trading.repository.CacheInvalidationRepository;
+import com.trading.repository.MerchantRepository;
+import com.trading.repository.ProductRepository;
+import com.trading.repository.ProductViewRepository;
+import com.trading.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the node-local catalog caches: hits served without reloading,
+ * eviction after writes commit, and eviction of entries invalidated by other nodes
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogCacheServiceTest {
+
+    @Autowired
+    private CatalogCacheService catalogCacheService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Autowired
+    private CacheInvalidationRepository cacheInvalidationRepository;
+
+    @Autowired
+    private ProductViewRepository productViewRepository;
+
+    @Autowired
+    private MerchantRepository merchantRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Merchant merchant;
+    private Long productId;
+    private String suffix;
+
+    @BeforeEach
+    void setUp() {
+        suffix = UUID.randomUUID().toString().substring(0, 8);
+        merchant = merchantRepository.save(Merchant.builder()
+                .businessName("Cache Store")
+                .username("cache_merchant_" + suffix)
+                .password("password123")
+                .balance(BigDecimal.ZERO)
+                .build());
+        productId = productService.create(ProductCreateRequest.builder()
+                .merchantId(merchant.getId())
+                .name("Cache Product")
+                .category("Electronics")
+                .build()).getId();
+        addInventory(10, "20.00");
+    }
+
+    @Test
+    void productReads_ShouldBeServedFromCacheUntilTheViewChanges() {
+        assertThat(productService.getById(productId).getMinPrice()).isEqualByComparingTo("20.00");
+        long hits = hits("catalog.products");
+
+        assertThat(productService.getById(productId).getMinPrice()).isEqualByComparingTo("20.00");
+        assertThat(hits("catalog.products")).isEqualTo(hits + 1);
+
+        inventoryService.updatePrice(merchant.getId(), sku(), PriceUpdateRequest.builder()
+                .price(new BigDecimal("15.00"))
+                .build());
+        assertThat(productService.getById(productId).getMinPrice()).isEqualByComparingTo("15.00");
+
+        Merchant stored = merchantRepository.findById(merchant.getId()).orElseThrow();
+        stored.setBusinessName("Renamed Cache Store");
+        merchantRepository.save(stored);
+        assertThat(productService.getById(productId).getMerchantName()).isEqualTo("Renamed Cache Store");
+    }
+
+    @Test
+    void inventoryReads_ShouldSeeStockAndPriceChanges() {
+        assertThat(inventoryService.getBySku(sku()).getQuantity()).isEqualTo(10);
+        assertThat(inventoryService.getBySku(sku()).getProductName()).isEqualTo("Cache Product");
+
+        addInventory(5, "25.00");
+        assertThat(inventoryService.getBySku(sku()).getQuantity()).isEqualTo(15);
+        assertThat(inventoryService.getBySku(sku()).getPrice()).isEqualByComparingTo("25.00");
+
+        User user = userRepository.save(User.builder()
+                .username("cache_user_" + suffix)
+                .password("password123")
+                .balance(new BigDecimal("1000.00"))
+                .build());
+        Long orderId = orderService.createDirect(user.getId(), DirectPurchaseRequest.builder()
+                .sku(sku())
+                .quantity(4)
+                .build()).getId();
+        orderService.confirmPayment(orderId);
+        assertThat(inventoryService.getBySku(sku()).getQuantity()).isEqualTo(11);
+    }
+
+    @Test
+    void payment_ShouldEvictStockLocallyWithoutWritingInvalidationRows() {
+        User user = userRepository.save(User.builder()
+                .username("cache_payer_" + suffix)
+                .password("password123")
+                .balance(new BigDecimal("1000.00"))
+                .build());
+        Long orderId = orderService.createDirect(user.getId(), DirectPurchaseRequest.builder()
+                .sku(sku())
+                .quantity(2)
+                .build()).getId();
+        assertThat(inventoryService.getBySku(sku()).getQuantity()).isEqualTo(10);
+        long rowsForSku = invalidationRows(sku());
+
+        orderService.confirmPayment(orderId);
+        assertThat(inventoryService.getBySku(sku()).getQuantity()).isEqualTo(8);
+        assertThat(invalidationRows(sku())).isEqualTo(rowsForSku);
+    }
+
+    @Test
+    void productChange_ShouldEvictItsSkus() {
+        assertThat(inventoryService.getBySku(sku()).getProductName()).isEqualTo("Cache Product");
+
+        Product product = productRepository.findById(productId).orElseThrow();
+        product.setName("Renamed Cache Product");
+        productRepository.save(product);
+        assertThat(inventoryService.getBySku(sku()).getProductName()).isEqualTo("Renamed Cache Product");
+    }
+
+    @Test
+    void invalidationFromAnotherNode_ShouldEvictOnPoll() {
+        catalogCacheService.refreshFromStore();
+        assertThat(productService.getById(productId).getName()).isEqualTo("Cache Product");
+
+        // Another node refreshed the read model and recorded the invalidation
+        ProductView view = productViewRepository.findById(productId).orElseThrow();
+        view.setName("Renamed Elsewhere");
+        productViewRepository.save(view);
+        assertThat(productService.getById(productId).getName()).isEqualTo("Cache Product");
+
+        cacheInvalidationRepository.save(CacheInvalidation.builder()
+                .entityType("PRODUCT")
+                .entityKey(productId.toString())
+                .nodeId("other-" + jobLeaseService.getNodeId())
+                .createdAt(LocalDateTime.now())
+                .build());
+        catalogCacheService.refreshFromStore();
+        assertThat(productService.getById(productId).getName()).isEqualTo("Renamed Elsewhere");
+
+        // The same invalidation is not applied again by the overlapping next poll
+        assertThat(catalogCacheService.refreshFromStore()).isZero();
+    }
+
+    private long invalidationRows(String key) {
+        return cacheInvalidationRepository.findAll().stream()
+                .filter(row -> key.equals(row.getEntityKey()))
+                .count();
+    }
+
+    private long hits(String cache) {
+        return (Long) catalogCacheService.getStats().get(cache).get("hits");
+    }
+
+    private void addInventory(int quantity, String price) {
+        inventoryService.addInventory(merchant.getId(), InventoryAddRequest.builder()
+                .sku(sku())
+                .productId(productId)
+                .quantity(quantity)
+                .price(new BigDecimal(price))
+                .build());
+    }
+
+    private String sku() {
+        return "CACHE-" + suffix.toUpperCase();
+    }
+}
@@ -0,0 +1,172 @@
+package com.trading.service;
+
+import com.trading.config.FlightRecordingProperties;
+import com.trading.entity.Merchant;
+import com.trading.entity.User;
+import com.trading.exception.InvalidOperationException;
+import com.trading.monitoring.jfr.InventoryConflictEvent;
+import com.trading.monitoring.jfr.JfrAnalyzer;
+import com.trading.monitoring.jfr.JwtValidationEvent;
+import com.trading.monitoring.jfr.MerchantSettlementEvent;
+import com.trading.monitoring.jfr.OrderCreationEvent;
+import com.trading.monitoring.jfr.PaymentEvent;
+import com.trading.security.JwtUtil;
+import com.trading.support.TradingFixture;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the business JFR events, the recording dump and the offline analyzer
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class FlightRecordingServiceTest {
+
+    @Autowired
+    private FlightRecordingService flightRecordingService;
+
+    @Autowired
+    private FlightRecordingProperties properties;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private TradingFixture fixture;
+
+    private Merchant merchant;
+    private User user;
+    private String sku;
+
+    @BeforeEach
+    void setUp() {
+        merchant = fixture.merchant("jfr", "Recorded Store");
+        user = fixture.user("jfr");
+        sku = fixture.stock(merchant, "JFR", 10, "25.00");
+    }
+
+    @Test
+    void dump_ShouldContainBusinessEventsAndSummarizeThem() throws Exception {
+        JfrAnalyzer.Summary summary;
+        Path file;
+        try (Recording recording = new Recording()) {
+            for (Class<? extends jdk.jfr.Event> type : List.of(OrderCreationEvent.class, PaymentEvent.class,
+                    InventoryConflictEvent.class, MerchantSettlementEvent.class, JwtValidationEvent.class)) {
+                recording.enable(type);
+            }
+            recording.start();
+
+            fixture.addToCart(user, sku, 3);
+            Long orderId = orderService.createFromCart(user.getId()).getId();
+            orderService.confirmPayment(orderId);
+            assertThatThrownBy(() -> orderService.confirmPayment(orderId))
+                    .isInstanceOf(InvalidOperationException.class);
+            settlementService.runSettlementForMerchant(merchant.getId(), LocalDate.now());
+
+            String token = jwtUtil.generateToken(user.getId(), user.getUsername(), "USER");
+            jwtUtil.verify(token);
+            jwtUtil.verify(token);
+
+            InventoryConflictEvent.record(sku, orderId, merchant.getId());
+            InventoryConflictEvent.record(sku, orderId, merchant.getId());
+
+            Map<String, Object> dump = flightRecordingService.dump();
+            file = Path.of((String) dump.get("file"));
+            assertThat(dump).containsOnlyKeys("file", "size");
+            assertThat(dump.get("size")).isEqualTo(Files.size(file));
+        }
+        summary = JfrAnalyzer.analyze(file, 10);
+
+        try {
+            List<RecordedEvent> payments = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals(PaymentEvent.NAME))
+                    .toList();
+            assertThat(payments).extracting(event -> event.getString("outcome"))
+                    .contains("committed", "not_pending");
+            RecordedEvent paid = payments.stream()
+                    .filter(event -> "committed".equals(event.getString("outcome")))
+                    .findFirst().orElseThrow();
+            assertThat(paid.getLong("merchantId")).isEqualTo(merchant.getId());
+            assertThat(paid.getInt("skuCount")).isEqualTo(1);
+            assertThat(paid.getInt("itemCount")).isEqualTo(3);
+            assertThat(paid.getDouble("amount")).isEqualTo(75.0);
+
+            assertThat(summary.operations()).extracting(JfrAnalyzer.OperationStats::operation)
+                    .contains("Order Creation", "Payment", "Merchant Settlement", "JWT Validation");
+            JfrAnalyzer.OperationStats paymentStats = summary.operations().stream()
+                    .filter(stats -> stats.operation().equals("Payment"))
+                    .findFirst().orElseThrow();
+            assertThat(paymentStats.count()).isGreaterThanOrEqualTo(2);
+            assertThat(paymentStats.failures()).isGreaterThanOrEqualTo(1);
+            assertThat(summary.slowest()).isNotEmpty();
+
+            JfrAnalyzer.ContendedSku contended = summary.contendedSkus().get(0);
+            assertThat(contended.sku()).isEqualTo(sku);
+            assertThat(contended.conflicts()).isEqualTo(2);
+            assertThat(contended.orders()).isEqualTo(1);
+            assertThat(contended.maxRetries()).isEqualTo(1);
+            assertThat(summary.toText()).contains("Most contended SKUs", sku);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void dump_ShouldKeepOnlyTheMostRecentDumps(@TempDir Path directory) throws Exception {
+        String dumpDirectory = properties.getDumpDirectory();
+        Integer retainedDumps = properties.getRetainedDumps();
+        properties.setDumpDirectory(directory.toString());
+        properties.setRetainedDumps(2);
+        Files.writeString(directory.resolve("unrelated.jfr"), "kept");
+        try (Recording recording = new Recording()) {
+            recording.enable(PaymentEvent.class);
+            recording.start();
+
+            List<String> dumped = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                dumped.add((String) flightRecordingService.dump().get("file"));
+                Thread.sleep(2); // dump files are named by millisecond
+            }
+
+            try (Stream<Path> files = Files.list(directory)) {
+                assertThat(files.map(Path::toString))
+                        .containsExactlyInAnyOrder(dumped.get(2), dumped.get(3),
+                                directory.resolve("unrelated.jfr").toString());
+            }
+        } finally {
+            properties.setDumpDirectory(dumpDirectory);
+            properties.setRetainedDumps(retainedDumps);
+        }
+    }
+
+    @Test
+    void dump_ShouldBeRejectedWhenNothingIsRecording() {
+        assertThatThrownBy(() -> flightRecordingService.dump())
+                .isInstanceOf(InvalidOperationException.class)
+                .hasMessageContaining("No flight recording is running");
+    }
+}
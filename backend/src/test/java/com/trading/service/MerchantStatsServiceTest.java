@@ -0,0 +1,182 @@
+package com.trading.service;
+
+import com.trading.dto.response.MerchantStatsResponse;
+import com.trading.entity.*;
+import com.trading.enums.OrderStatus;
+import com.trading.repository.*;
+import com.trading.support.TradingFixture;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the in-memory merchant dashboard counters: write paths keep them
+ * current without reloading, rolled back writes are ignored, and reconciliation
+ * corrects writes that bypassed the service layer without counting in-flight writes twice
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class MerchantStatsServiceTest {
+
+    @Autowired
+    private MerchantService merchantService;
+
+    @Autowired
+    private MerchantStatsService merchantStatsService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TradingFixture fixture;
+
+    private User user;
+    private Merchant merchant;
+    private Long productId;
+    private String sku;
+
+    @BeforeEach
+    void setUp() {
+        fixture.clear();
+        user = fixture.user("stats");
+        merchant = fixture.merchant("stats", "Stats Store");
+        productId = fixture.product(merchant, "Stats Product");
+        sku = fixture.inventory(merchant, productId, TradingFixture.sku("STS"), 12, "25.00");
+    }
+
+    @Test
+    void getStats_ShouldLoadCountersFromDatabase() {
+        orderService.refund(paidOrder(1));
+        Long shipped = paidOrder(1);
+        orderService.ship(shipped);
+        createOrder(1);
+
+        MerchantStatsResponse stats = merchantService.getStats(merchant.getId());
+
+        assertThat(stats.getProductCount()).isEqualTo(1L);
+        assertThat(stats.getPendingOrders()).isZero();
+        assertThat(stats.getOrdersByStatus())
+                .containsEntry(OrderStatus.REFUNDED, 1L)
+                .containsEntry(OrderStatus.SHIPPED, 1L)
+                .containsEntry(OrderStatus.PENDING, 1L);
+        assertThat(stats.getTodayRevenue()).isEqualByComparingTo("25.00");
+        // Two paid orders took the SKU from 12 down to the threshold of 10
+        assertThat(stats.getLowStockSkus()).isEqualTo(1L);
+    }
+
+    @Test
+    void writePaths_ShouldUpdateCachedCountersWithoutReloading() {
+        merchantStatsService.getStats(merchant.getId());
+        double loads = meterRegistry.get("merchant.stats.loads").counter().count();
+
+        fixture.product(merchant, "Second Product");
+        fixture.inventory(merchant, productId, sku + "-LOW", 3, "25.00");
+        // 12 -> 9 crosses the low-stock threshold of 10
+        Long paid = paidOrder(3);
+        Long cancelled = createOrder(1);
+        orderService.cancel(cancelled);
+        Long refunded = paidOrder(1);
+        orderService.refund(refunded);
+        orderService.ship(paid);
+        orderService.complete(paid);
+
+        MerchantStatsResponse stats = merchantStatsService.getStats(merchant.getId());
+
+        assertThat(meterRegistry.get("merchant.stats.loads").counter().count()).isEqualTo(loads);
+        assertThat(stats.getProductCount()).isEqualTo(2L);
+        assertThat(stats.getLowStockSkus()).isEqualTo(2L);
+        assertThat(stats.getPendingOrders()).isZero();
+        assertThat(stats.getOrdersByStatus())
+                .containsEntry(OrderStatus.PENDING, 0L)
+                .containsEntry(OrderStatus.PAID, 0L)
+                .containsEntry(OrderStatus.COMPLETED, 1L)
+                .containsEntry(OrderStatus.CANCELLED, 1L)
+                .containsEntry(OrderStatus.REFUNDED, 1L);
+        assertThat(stats.getTodayRevenue()).isEqualByComparingTo("75.00");
+
+        // The maintained counters agree with a fresh count
+        merchantStatsService.reconcile();
+        assertThat(merchantStatsService.getStats(merchant.getId())).isEqualTo(stats);
+    }
+
+    @Test
+    void rolledBackWrites_ShouldNotChangeCounters() {
+        MerchantStatsResponse before = merchantStatsService.getStats(merchant.getId());
+        Long orderId = createOrder(1);
+        user.setBalance(BigDecimal.ZERO);
+        userRepository.save(user);
+
+        assertThatThrownBy(() -> orderService.confirmPayment(orderId));
+
+        MerchantStatsResponse after = merchantStatsService.getStats(merchant.getId());
+        assertThat(after.getOrdersByStatus()).containsEntry(OrderStatus.PENDING, 1L);
+        assertThat(after.getOrdersByStatus().getOrDefault(OrderStatus.PAID, 0L)).isZero();
+        assertThat(after.getTodayRevenue()).isEqualByComparingTo(before.getTodayRevenue());
+        assertThat(after.getLowStockSkus()).isEqualTo(before.getLowStockSkus());
+    }
+
+    @Test
+    void reconcile_ShouldCorrectWritesThatBypassedTheServiceLayer() {
+        merchantStatsService.getStats(merchant.getId());
+        double drift = meterRegistry.get("merchant.stats.drift").counter().count();
+
+        productRepository.save(Product.builder()
+                .name("Imported Product")
+                .description("Written by a batch import")
+                .category("Electronics")
+                .merchantId(merchant.getId())
+                .build());
+        assertThat(merchantStatsService.getStats(merchant.getId()).getProductCount()).isEqualTo(1L);
+
+        assertThat(merchantStatsService.reconcile()).isGreaterThanOrEqualTo(1);
+
+        assertThat(merchantStatsService.getStats(merchant.getId()).getProductCount()).isEqualTo(2L);
+        assertThat(meterRegistry.get("merchant.stats.drift").counter().count()).isGreaterThan(drift);
+    }
+
+    @Test
+    void reconcile_ShouldNotCountAWriteThatCommitsDuringTheQueryTwice() {
+        merchantStatsService.getStats(merchant.getId());
+
+        // The query inside the writing transaction already sees the new product,
+        // and the counter delta is applied once that transaction commits
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            fixture.product(merchant, "Second Product");
+            merchantStatsService.reconcile();
+        });
+
+        assertThat(merchantStatsService.getStats(merchant.getId()).getProductCount()).isEqualTo(2L);
+        merchantStatsService.reconcile();
+        assertThat(merchantStatsService.getStats(merchant.getId()).getProductCount()).isEqualTo(2L);
+    }
+
+    private Long createOrder(int quantity) {
+        return fixture.order(user, sku, quantity);
+    }
+
+    private Long paidOrder(int quantity) {
+        return fixture.paidOrder(user, sku, quantity);
+    }
+}
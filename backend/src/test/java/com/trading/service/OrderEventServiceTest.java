@@ -0,0 +1,318 @@
+package com.trading.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.config.OrderEventProperties;
+import com.trading.entity.Order;
+import com.trading.enums.OrderStatus;
+import com.trading.exception.ThrottledException;
+import com.trading.service.impl.OrderEventServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the in-process order event fan-out: thousands of concurrent streams,
+ * resume by Last-Event-ID, after-commit delivery, cleanup of dead streams and
+ * disconnection of clients that do not keep up
+ */
+class OrderEventServiceTest {
+
+    private final AtomicLong orderIds = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+
+    @Test
+    void thousandsOfSubscribers_ShouldEachReceiveTheirMerchantsEventsInOrder() throws Exception {
+        int merchants = 50;
+        int subscribersPerMerchant = 100;
+        int eventsPerMerchant = 20;
+        OrderEventService service = newService(properties -> {
+            properties.setMaxSubscribersPerMerchant(subscribersPerMerchant);
+            properties.setDispatchThreads(4);
+        });
+
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<RecordingEmitter>> subscriptions = new ArrayList<>();
+            for (int m = 1; m <= merchants; m++) {
+                long merchantId = m;
+                for (int s = 0; s < subscribersPerMerchant; s++) {
+                    subscriptions.add(clients.submit(() -> (RecordingEmitter) service.subscribe(merchantId, null)));
+                }
+            }
+            List<RecordingEmitter> emitters = new ArrayList<>();
+            for (Future<RecordingEmitter> subscription : subscriptions) {
+                emitters.add(subscription.get(30, TimeUnit.SECONDS));
+            }
+            assertThat(meterRegistry.get("order.events.subscribers").gauge().value())
+                    .isEqualTo(merchants * subscribersPerMerchant);
+            awaitTrue(() -> emitters.stream().allMatch(e -> e.frames.size() == 1));
+
+            List<Future<?>> publications = new ArrayList<>();
+            for (int m = 1; m <= merchants; m++) {
+                long merchantId = m;
+                publications.add(clients.submit(() -> {
+                    for (int i = 0; i < eventsPerMerchant; i++) {
+                        service.publish(order(merchantId, i % 2 == 0 ? OrderStatus.PAID : OrderStatus.REFUNDED));
+                    }
+                }));
+            }
+            for (Future<?> publication : publications) {
+                publication.get(30, TimeUnit.SECONDS);
+            }
+
+            awaitTrue(() -> emitters.stream().allMatch(e -> e.eventIds().size() == eventsPerMerchant));
+            for (int i = 0; i < emitters.size(); i++) {
+                RecordingEmitter emitter = emitters.get(i);
+                long merchantId = i / subscribersPerMerchant + 1;
+                List<Long> ids = emitter.eventIds();
+                for (int j = 1; j < ids.size(); j++) {
+                    assertThat(ids.get(j)).isGreaterThan(ids.get(j - 1));
+                }
+                assertThat(emitter.frames).filteredOn(frame -> frame.contains("data:"))
+                        .allMatch(frame -> frame.contains("\"merchantId\":" + merchantId));
+            }
+            assertThat(emitters.get(0).frames).anyMatch(frame -> frame.contains("event:order-paid"))
+                    .anyMatch(frame -> frame.contains("event:order-refunded"));
+            assertThat(meterRegistry.get("order.events.published").counter().count())
+                    .isEqualTo(merchants * eventsPerMerchant);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    void subscribeWithLastEventId_ShouldReplayMissedEventsOrRequestResync() {
+        OrderEventService service = newService(properties -> properties.setReplayBufferSize(5));
+        RecordingEmitter live = (RecordingEmitter) service.subscribe(1L, null);
+        awaitTrue(() -> live.frames.size() == 1);
+
+        for (int i = 0; i < 8; i++) {
+            service.publish(order(1L, OrderStatus.PAID));
+        }
+        awaitTrue(() -> live.eventIds().size() == 8);
+        List<Long> ids = live.eventIds();
+
+        // 断开前收到的最后一个事件仍在缓冲中：只补发之后的事件
+        RecordingEmitter resumed = (RecordingEmitter) service.subscribe(1L, String.valueOf(ids.get(5)));
+        awaitTrue(() -> resumed.eventIds().size() == 2);
+        assertThat(resumed.eventIds()).containsExactly(ids.get(6), ids.get(7));
+        assertThat(resumed.frames).noneMatch(frame -> frame.contains("event:resync"));
+
+        // 部分事件已被挤出缓冲：先发resync，再补发缓冲中的事件
+        RecordingEmitter stale = (RecordingEmitter) service.subscribe(1L, String.valueOf(ids.get(0)));
+        awaitTrue(() -> stale.eventIds().size() == 5);
+        assertThat(stale.frames).anyMatch(frame -> frame.contains("event:resync"));
+        assertThat(stale.eventIds()).containsExactlyElementsOf(ids.subList(3, 8));
+
+        // 新事件按顺序推送给全部订阅者
+        service.publish(order(1L, OrderStatus.CANCELLED));
+        awaitTrue(() -> live.eventIds().size() == 9 && resumed.eventIds().size() == 3 && stale.eventIds().size() == 6);
+        assertThat(resumed.frames.stream().reduce((first, second) -> second).orElseThrow())
+                .contains("event:order-cancelled");
+    }
+
+    @Test
+    void publishInsideTransaction_ShouldDeliverOnlyAfterCommit() throws Exception {
+        OrderEventService service = newService(properties -> { });
+        RecordingEmitter emitter = (RecordingEmitter) service.subscribe(3L, null);
+        awaitTrue(() -> emitter.frames.size() == 1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.publish(order(3L, OrderStatus.PAID));
+            Thread.sleep(200);
+            assertThat(emitter.eventIds()).isEmpty();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        awaitTrue(() -> emitter.eventIds().size() == 1);
+    }
+
+    @Test
+    void subscribe_ShouldLimitStreamsPerMerchantAndDropDeadStreams() {
+        OrderEventService service = newService(properties -> {
+            properties.setMaxSubscribersPerMerchant(2);
+            properties.setHeartbeatInterval(Duration.ofMillis(50));
+        });
+        RecordingEmitter first = (RecordingEmitter) service.subscribe(5L, null);
+        RecordingEmitter second = (RecordingEmitter) service.subscribe(5L, null);
+
+        assertThatThrownBy(() -> service.subscribe(5L, null))
+                .isInstanceOfSatisfying(ThrottledException.class, e -> assertThat(e.getCode()).isEqualTo(429));
+        awaitTrue(() -> first.frames.stream().anyMatch(frame -> frame.contains("heartbeat")));
+
+        // 客户端断开后，下一次心跳写入失败即释放名额
+        first.failing = true;
+        awaitTrue(() -> meterRegistry.get("order.events.subscribers").gauge().value() == 1);
+        RecordingEmitter third = (RecordingEmitter) service.subscribe(5L, null);
+        assertThat(third).isNotSameAs(second);
+    }
+
+    @Test
+    void slowSubscriber_ShouldBeDisconnectedWithoutDelayingOthers() {
+        OrderEventService service = newService(properties -> {
+            properties.setSubscriberQueueCapacity(4);
+            properties.setSendThreads(2);
+        });
+        RecordingEmitter slow = (RecordingEmitter) service.subscribe(7L, null);
+        RecordingEmitter fast = (RecordingEmitter) service.subscribe(7L, null);
+        awaitTrue(() -> slow.frames.size() == 1 && fast.frames.size() == 1);
+
+        // The slow client's write blocks one sender thread while its queue fills up
+        CountDownLatch unblock = new CountDownLatch(1);
+        slow.blocked = unblock;
+        try {
+            service.publish(order(7L, OrderStatus.PAID));
+            awaitTrue(() -> slow.sending && fast.eventIds().size() == 1);
+            for (int i = 2; i <= 11; i++) {
+                service.publish(order(7L, OrderStatus.PAID));
+                int expected = i;
+                awaitTrue(() -> fast.eventIds().size() == expected);
+            }
+            awaitTrue(() -> meterRegistry.get("order.events.slow.subscribers").counter().count() == 1);
+            assertThat(meterRegistry.get("order.events.subscribers").gauge().value()).isEqualTo(1);
+        } finally {
+            unblock.countDown();
+        }
+
+        awaitTrue(() -> fast.eventIds().size() == 11);
+        awaitTrue(() -> slow.completed);
+        assertThat(slow.eventIds()).hasSizeLessThan(11);
+    }
+
+    @Test
+    void blockedWrite_ShouldDisconnectTheSubscriberAfterTheSendTimeout() {
+        OrderEventService service = newService(properties -> {
+            properties.setHeartbeatInterval(Duration.ofMillis(50));
+            properties.setSendTimeout(Duration.ofMillis(200));
+        });
+        RecordingEmitter stuck = (RecordingEmitter) service.subscribe(8L, null);
+        awaitTrue(() -> stuck.frames.size() == 1);
+
+        CountDownLatch unblock = new CountDownLatch(1);
+        stuck.blocked = unblock;
+        try {
+            service.publish(order(8L, OrderStatus.PAID));
+            awaitTrue(() -> meterRegistry.get("order.events.slow.subscribers").counter().count() == 1);
+            assertThat(meterRegistry.get("order.events.subscribers").gauge().value()).isZero();
+        } finally {
+            unblock.countDown();
+        }
+    }
+
+    private OrderEventService newService(Consumer<OrderEventProperties> customizer) {
+        OrderEventProperties properties = new OrderEventProperties();
+        properties.setHeartbeatInterval(Duration.ofMinutes(1));
+        customizer.accept(properties);
+        meterRegistry = new SimpleMeterRegistry();
+        return new OrderEventServiceImpl(properties, new ObjectMapper().findAndRegisterModules(), meterRegistry) {
+            @Override
+            protected SseEmitter createEmitter() {
+                return new RecordingEmitter();
+            }
+        };
+    }
+
+    private Order order(long merchantId, OrderStatus status) {
+        long orderId = orderIds.incrementAndGet();
+        return Order.builder()
+                .id(orderId)
+                .orderNumber("ORD-EVENT-" + orderId)
+                .userId(1L)
+                .merchantId(merchantId)
+                .totalAmount(new BigDecimal("10.00"))
+                .status(status)
+                .build();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within 30 seconds");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    /**
+     * Captures the SSE frames that would have been written to the response
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final Queue<String> frames = new ConcurrentLinkedQueue<>();
+        private volatile boolean failing;
+        /**
+         * Writes wait on this latch, like a client that stopped reading
+         */
+        private volatile CountDownLatch blocked;
+        private volatile boolean sending;
+        private volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            CountDownLatch latch = blocked;
+            if (latch != null) {
+                sending = true;
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                } finally {
+                    sending = false;
+                }
+            }
+            StringBuilder frame = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType data : builder.build()) {
+                frame.append(data.getData());
+            }
+            frames.add(frame.toString());
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+            super.complete();
+        }
+
+        private List<Long> eventIds() {
+            List<Long> ids = new ArrayList<>();
+            for (String frame : frames) {
+                for (String line : frame.split("\n")) {
+                    if (line.startsWith("id:")) {
+                        ids.add(Long.parseLong(line.substring(3)));
+                    }
+                }
+            }
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.trading.service;
+
+import com.trading.entity.Merchant;
+import com.trading.entity.User;
+import com.trading.support.TradingFixture;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the stage timers on order creation, payment and refund: one timer per
+ * stage tagged with bucketed SKU and item counts, and a total including the commit
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderStageTimingTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TradingFixture fixture;
+
+    private Merchant merchant;
+    private User user;
+    private Long productId;
+    private String suffix;
+
+    @BeforeEach
+    void setUp() {
+        suffix = TradingFixture.suffix();
+        merchant = fixture.merchant("timing", "Timing Store");
+        user = fixture.user("timing");
+        productId = fixture.product(merchant, "Timing Product");
+    }
+
+    @Test
+    void checkoutPaymentAndRefund_ShouldRecordEachStage() {
+        long payments = operationCount("confirmPayment", "2-5", "6-20");
+        long refunds = operationCount("refund", "2-5", "6-20");
+
+        // Three SKUs, seven items
+        addToCart(1, 2);
+        addToCart(2, 2);
+        addToCart(3, 3);
+        Long orderId = orderService.createFromCart(user.getId()).getId();
+        orderService.confirmPayment(orderId);
+        orderService.refund(orderId);
+
+        for (String stage : new String[]{"load", "pricing", "save", "commit"}) {
+            assertThat(stageCount("createFromCart", stage)).as("createFromCart %s", stage).isPositive();
+        }
+        for (String stage : new String[]{"load", "inventory", "balances", "order", "ledger", "cart", "commit"}) {
+            assertThat(stageCount("confirmPayment", stage)).as("confirmPayment %s", stage).isPositive();
+        }
+        for (String stage : new String[]{"load", "balances", "order", "ledger", "commit"}) {
+            assertThat(stageCount("refund", stage)).as("refund %s", stage).isPositive();
+        }
+        assertThat(operationCount("confirmPayment", "2-5", "6-20")).isEqualTo(payments + 1);
+        assertThat(operationCount("refund", "2-5", "6-20")).isEqualTo(refunds + 1);
+
+        // Percentiles are published alongside each timer
+        assertThat(meterRegistry.find("order.stage.duration.percentile")
+                .tag("operation", "confirmPayment")
+                .tag("stage", "inventory")
+                .tag("phi", "0.99")
+                .gauge()).isNotNull();
+    }
+
+    @Test
+    void failedPayment_ShouldBeRecordedAsRolledBack() {
+        addToCart(1, 1);
+        Long orderId = orderService.createFromCart(user.getId()).getId();
+        orderService.confirmPayment(orderId);
+        long rolledBack = rolledBackPayments();
+
+        try {
+            orderService.confirmPayment(orderId);
+        } catch (RuntimeException expected) {
+            // Already paid
+        }
+        assertThat(rolledBackPayments()).isEqualTo(rolledBack + 1);
+    }
+
+    private long stageCount(String operation, String stage) {
+        return meterRegistry.find("order.stage.duration")
+                .tag("operation", operation)
+                .tag("stage", stage)
+                .timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+    }
+
+    private long operationCount(String operation, String skus, String items) {
+        Timer timer = meterRegistry.find("order.operation.duration")
+                .tag("operation", operation)
+                .tag("skus", skus)
+                .tag("items", items)
+                .tag("outcome", "committed")
+                .timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private long rolledBackPayments() {
+        return meterRegistry.find("order.operation.duration")
+                .tag("operation", "confirmPayment")
+                .tag("outcome", "rolled_back")
+                .timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+    }
+
+    private void addToCart(int index, int quantity) {
+        String sku = fixture.inventory(merchant, productId, "TIMING-" + suffix.toUpperCase() + "-" + index, 10, "5.00");
+        fixture.addToCart(user, sku, quantity);
+    }
+}
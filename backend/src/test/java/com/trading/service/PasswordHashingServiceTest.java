@@ -0,0 +1,126 @@
+package com.trading.service;
+
+import com.trading.exception.ThrottledException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the bounded password hashing pool and its admission limits
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "trading.security.password-hashing.threads=1",
+        "trading.security.password-hashing.queue-capacity=1",
+        "trading.security.password-hashing.per-username.capacity=3",
+        "trading.security.password-hashing.per-ip.capacity=5"
+})
+class PasswordHashingServiceTest {
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void encodeAndMatches_ShouldRoundTripOnThePool() {
+        String encoded = passwordHashingService.encode("password123");
+
+        assertThat(encoded).startsWith("$2");
+        assertThat(passwordHashingService.matches("password123", encoded)).isTrue();
+        assertThat(passwordHashingService.matches("wrong", encoded)).isFalse();
+        assertThat(meterRegistry.get("password.hashing.duration").tag("operation", "matches").timer().count())
+                .isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void checkLoginAllowed_ShouldLimitEachUsername() {
+        String username = "limited_" + UUID.randomUUID().toString().substring(0, 8);
+        for (int i = 0; i < 3; i++) {
+            passwordHashingService.checkLoginAllowed(username);
+        }
+
+        assertThatThrownBy(() -> passwordHashingService.checkLoginAllowed(username.toUpperCase()))
+                .isInstanceOfSatisfying(ThrottledException.class, e -> {
+                    assertThat(e.getCode()).isEqualTo(429);
+                    assertThat(e.getRetryAfterSeconds()).isPositive();
+                });
+        passwordHashingService.checkLoginAllowed("other_" + username);
+    }
+
+    @Test
+    void checkRegistrationAllowed_ShouldLimitEachClientIp() {
+        bindRequestFrom("203.0.113.7");
+        for (int i = 0; i < 5; i++) {
+            passwordHashingService.checkRegistrationAllowed();
+        }
+        assertThatThrownBy(() -> passwordHashingService.checkRegistrationAllowed())
+                .isInstanceOfSatisfying(ThrottledException.class, e -> assertThat(e.getCode()).isEqualTo(429));
+
+        bindRequestFrom("203.0.113.8");
+        passwordHashingService.checkRegistrationAllowed();
+    }
+
+    @Test
+    void matches_ShouldRejectImmediatelyWhenPoolAndQueueAreFull() throws Exception {
+        String encoded = passwordHashingService.encode("password123");
+        double rejectedBefore = meterRegistry.get("password.hashing.rejected").tag("reason", "saturated").counter().count();
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(() -> passwordHashingService.matches("password123", encoded)));
+            }
+
+            int verified = 0;
+            int rejected = 0;
+            for (Future<Boolean> result : results) {
+                try {
+                    assertThat(result.get(30, TimeUnit.SECONDS)).isTrue();
+                    verified++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOfSatisfying(ThrottledException.class,
+                            t -> assertThat(t.getCode()).isEqualTo(503));
+                    rejected++;
+                }
+            }
+
+            // One running plus one queued at a time; the rest are turned away
+            assertThat(verified).isGreaterThanOrEqualTo(2);
+            assertThat(rejected).isPositive();
+            assertThat(meterRegistry.get("password.hashing.rejected").tag("reason", "saturated").counter().count())
+                    .isEqualTo(rejectedBefore + rejected);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private void bindRequestFrom(String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(ip);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
@@ -0,0 +1,190 @@
+package com.trading.service;
+
+import com.trading.dto.request.PriceUpdateRequest;
+import com.trading.dto.response.ProductResponse;
+import com.trading.entity.*;
+import com.trading.repository.*;
+import com.trading.support.TradingFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the denormalized product read model: refresh after product, inventory
+ * and merchant writes, no refresh for writes that cannot change a view, and the
+ * consistency check repairing rows written around the listener
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductViewServiceTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductViewService productViewService;
+
+    @Autowired
+    private ProductViewRepository productViewRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MerchantRepository merchantRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TradingFixture fixture;
+
+    private Merchant merchant;
+    private Long productId;
+    private String suffix;
+
+    @BeforeEach
+    void setUp() {
+        fixture.clear();
+        suffix = TradingFixture.suffix();
+        merchant = fixture.merchant("view", "View Store");
+        productId = fixture.product(merchant, "View Product");
+    }
+
+    @Test
+    void productAndInventoryWrites_ShouldRefreshTheView() {
+        ProductView created = productViewRepository.findById(productId).orElseThrow();
+        assertThat(created.getMerchantName()).isEqualTo("View Store");
+        assertThat(created.getMinPrice()).isEqualByComparingTo("0");
+
+        addInventory("A", 5, "30.00");
+        addInventory("B", 5, "10.00");
+        assertThat(productService.getById(productId).getMinPrice()).isEqualByComparingTo("10.00");
+        assertThat(productService.getById(productId).getMaxPrice()).isEqualByComparingTo("30.00");
+
+        inventoryService.updatePrice(merchant.getId(), sku("A"), PriceUpdateRequest.builder()
+                .price(new BigDecimal("50.00"))
+                .build());
+        assertThat(productService.getById(productId).getMaxPrice()).isEqualByComparingTo("50.00");
+
+        // A sold out SKU no longer counts towards the price range
+        Inventory cheapest = inventoryRepository.findBySku(sku("B")).orElseThrow();
+        cheapest.setQuantity(0);
+        inventoryRepository.save(cheapest);
+        assertThat(productService.getById(productId).getMinPrice()).isEqualByComparingTo("50.00");
+
+        Product product = productRepository.findById(productId).orElseThrow();
+        product.setName("Renamed Product");
+        productRepository.save(product);
+        ProductResponse renamed = productService.search("Renamed", null, PageRequest.of(0, 10)).getContent().get(0);
+        assertThat(renamed.getId()).isEqualTo(productId);
+        assertThat(renamed.getMinPrice()).isEqualByComparingTo("50.00");
+
+        productRepository.deleteById(productId);
+        assertThat(productViewRepository.findById(productId)).isEmpty();
+    }
+
+    @Test
+    void merchantRename_ShouldUpdateEveryViewOfTheMerchant() {
+        Merchant stored = merchantRepository.findById(merchant.getId()).orElseThrow();
+        stored.setBusinessName("Renamed Store");
+        merchantRepository.save(stored);
+
+        assertThat(productService.getById(productId).getMerchantName()).isEqualTo("Renamed Store");
+    }
+
+    @Test
+    void stockMovementWithinStock_ShouldNotRefreshTheView() {
+        addInventory("A", 10, "20.00");
+        User user = fixture.user("view");
+        Long version = productViewRepository.findById(productId).orElseThrow().getVersion();
+
+        fixture.paidOrder(user, sku("A"), 3);
+
+        assertThat(productViewRepository.findById(productId).orElseThrow().getVersion()).isEqualTo(version);
+    }
+
+    @Test
+    void rolledBackWrite_ShouldNotRefreshTheView() {
+        addInventory("A", 10, "20.00");
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            Inventory inventory = inventoryRepository.findBySku(sku("A")).orElseThrow();
+            inventory.setPrice(new BigDecimal("99.00"));
+            inventoryRepository.saveAndFlush(inventory);
+            throw new IllegalStateException("rollback");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(productService.getById(productId).getMinPrice()).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    void verify_ShouldRepairStaleMissingAndOrphanedRows() {
+        // Start from a consistent read model regardless of what other tests left behind
+        productViewService.verify();
+        addInventory("A", 10, "20.00");
+        Long other = fixture.product(merchant, "Other Product");
+        assertThat(productViewService.verify()).isZero();
+
+        // Rows changed around the listener: a stale price, a missing row and an orphan
+        ProductView stale = productViewRepository.findById(productId).orElseThrow();
+        stale.setMinPrice(new BigDecimal("1.00"));
+        productViewRepository.save(stale);
+        productViewRepository.deleteById(other);
+        productViewRepository.save(ProductView.builder()
+                .id(999_999L)
+                .name("Ghost")
+                .category("Electronics")
+                .merchantId(merchant.getId())
+                .merchantName("View Store")
+                .minPrice(BigDecimal.ZERO)
+                .maxPrice(BigDecimal.ZERO)
+                .createdAt(stale.getCreatedAt())
+                .refreshedAt(stale.getRefreshedAt())
+                .build());
+
+        assertThat(productViewService.verify()).isEqualTo(3);
+
+        assertThat(productService.getById(productId).getMinPrice()).isEqualByComparingTo("20.00");
+        assertThat(productViewRepository.findById(other)).isPresent();
+        assertThat(productViewRepository.findById(999_999L)).isEmpty();
+        assertThat(productViewService.verify()).isZero();
+    }
+
+    @Test
+    void backfill_ShouldBuildAnEmptyReadModelAndLeaveAFilledOneAlone() {
+        addInventory("A", 10, "20.00");
+        fixture.product(merchant, "Other Product");
+        productViewRepository.deleteAll();
+
+        assertThat(productViewService.backfill()).isEqualTo((int) productRepository.count());
+        assertThat(productService.getById(productId).getMinPrice()).isEqualByComparingTo("20.00");
+
+        productViewRepository.deleteById(productId);
+        assertThat(productViewService.backfill()).as("only an empty read model is backfilled").isZero();
+        assertThat(productViewRepository.findById(productId)).isEmpty();
+    }
+
+    private void addInventory(String variant, int quantity, String price) {
+        fixture.inventory(merchant, productId, sku(variant), quantity, price);
+    }
+
+    private String sku(String variant) {
+        return "VIEW-" + suffix.toUpperCase() + "-" + variant;
+    }
+}
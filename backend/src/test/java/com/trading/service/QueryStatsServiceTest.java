@@ -0,0 +1,129 @@
+package com.trading.service;
+
+import com.trading.config.QueryTrackingProperties;
+import com.trading.dto.response.CartResponse;
+import com.trading.entity.Merchant;
+import com.trading.entity.User;
+import com.trading.support.TradingFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static com.trading.monitoring.QueryCountAssert.assertMaxQueries;
+import static com.trading.monitoring.QueryCountAssert.countQueries;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for SQL statement counting: query budgets of catalog and cart reads,
+ * and per-endpoint and per-method totals with threshold flagging
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QueryStatsServiceTest {
+
+    @Autowired
+    private QueryStatsService queryStatsService;
+
+    @Autowired
+    private QueryTrackingProperties queryTrackingProperties;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TradingFixture fixture;
+
+    private Merchant merchant;
+    private User user;
+    private Long productId;
+    private String suffix;
+
+    @BeforeEach
+    void setUp() {
+        suffix = TradingFixture.suffix();
+        merchant = fixture.merchant("query", "Query Store");
+        user = fixture.user("query");
+        productId = fixture.product(merchant, "Query Product", "Query-" + suffix);
+    }
+
+    @Test
+    void getCart_ShouldNotIssueOneQueryPerItem() {
+        addToCart(1);
+        long oneItem = countQueries(() -> cartService.getCart(user.getId()));
+
+        addToCart(2);
+        addToCart(3);
+        addToCart(4);
+        CartResponse cart = assertMaxQueries((int) oneItem, "getCart with four items",
+                () -> cartService.getCart(user.getId()));
+        assertThat(cart.getItemCount()).isEqualTo(4);
+    }
+
+    @Test
+    void search_ShouldRunWithinItsQueryBudget() {
+        assertMaxQueries(2, "product search",
+                () -> productService.search(null, "Query-" + suffix, PageRequest.of(0, 20)));
+    }
+
+    @Test
+    void requestsAndServiceMethods_ShouldBeTotaledPerEndpointAndMethod() throws Exception {
+        queryStatsService.reset();
+
+        mockMvc.perform(get("/api/v1/products/" + productId)).andExpect(status().isOk());
+
+        Map<String, Object> endpoint = find(queryStatsService.getTopEndpoints(100), "endpoint", "GET /api/v1/products/{id}");
+        assertThat(endpoint.get("calls")).isEqualTo(1L);
+        assertThat((Long) endpoint.get("maxStatements")).isPositive();
+        assertThat(endpoint.get("flagged")).isEqualTo(0L);
+
+        Map<String, Object> method = find(queryStatsService.getTopMethods(100), "method", "ProductServiceImpl.getVersionTag");
+        assertThat(method.get("calls")).isEqualTo(1L);
+        assertThat((Long) method.get("maxStatements")).isPositive()
+                .isLessThanOrEqualTo((Long) endpoint.get("maxStatements"));
+    }
+
+    @Test
+    void requestsOverTheThreshold_ShouldBeFlaggedAndRankedFirst() {
+        queryStatsService.reset();
+        int threshold = queryTrackingProperties.getRequestStatementThreshold();
+        queryStatsService.recordRequest("GET /quiet", 1, Duration.ofMillis(1));
+        queryStatsService.recordRequest("GET /chatty", threshold + 5, Duration.ofMillis(3));
+        queryStatsService.recordRequest("GET /chatty", 2, Duration.ofMillis(1));
+
+        List<Map<String, Object>> top = queryStatsService.getTopEndpoints(10);
+        assertThat(top).extracting(entry -> entry.get("endpoint")).containsExactly("GET /chatty", "GET /quiet");
+        assertThat(top.get(0).get("maxStatements")).isEqualTo((long) threshold + 5);
+        assertThat(top.get(0).get("flagged")).isEqualTo(1L);
+        assertThat(top.get(1).get("flagged")).isEqualTo(0L);
+    }
+
+    private void addToCart(int index) {
+        String sku = fixture.inventory(merchant, productId, "QUERY-" + suffix.toUpperCase() + "-" + index, 10, "5.00");
+        fixture.addToCart(user, sku, 1);
+    }
+
+    private static Map<String, Object> find(List<Map<String, Object>> entries, String key, String value) {
+        return entries.stream()
+                .filter(entry -> value.equals(entry.get(key)))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError(value + " not in " + entries));
+    }
+}
@@ -0,0 +1,164 @@
+package com.trading.service;
+
+import com.trading.datasource.ReplicaLag;
+import com.trading.datasource.ReplicaPools;
+import com.trading.dto.request.ProductCreateRequest;
+import com.trading.entity.Merchant;
+import com.trading.exception.ResourceNotFoundException;
+import com.trading.repository.MerchantRepository;
+import com.trading.scheduler.ReplicaHeartbeatScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for read/write splitting against two H2 databases: the replica holds
+ * the schema but no data, so a read that finds the merchant ran on the primary
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routingprimary;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "trading.datasource.replica.enabled=true",
+        "trading.datasource.replica.url=jdbc:h2:mem:routingreplica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "trading.datasource.replica.max-lag=5s",
+        "trading.datasource.replica.heartbeat-interval=3600000"
+})
+class ReadWriteRoutingTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private MerchantRepository merchantRepository;
+
+    @Autowired
+    private ReplicaHeartbeatScheduler replicaHeartbeatScheduler;
+
+    @Autowired
+    private ReplicaLag replicaLag;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Autowired
+    private ReplicaPools replicaPools;
+
+    private JdbcTemplate replica;
+    private Merchant merchant;
+
+    @BeforeEach
+    void setUp() {
+        // Stand-in for replication: copy the primary's schema, but no rows, to the replica
+        JdbcTemplate primary = new JdbcTemplate(replicaPools.getPrimary());
+        List<String> schema = primary.queryForList("SCRIPT NODATA", String.class);
+        replica = new JdbcTemplate(replicaPools.getReplica());
+        replica.execute("DROP ALL OBJECTS");
+        schema.forEach(replica::execute);
+
+        merchant = merchantRepository.save(Merchant.builder()
+                .businessName("Routed Store")
+                .username("routing_merchant_" + UUID.randomUUID().toString().substring(0, 8))
+                .password("password123")
+                .balance(BigDecimal.ZERO)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactions_ShouldUseTheReplicaOnlyWhileItsLagIsAcceptable() {
+        replica.update("DELETE FROM replica_heartbeat");
+        replicaHeartbeatScheduler.heartbeat();
+        assertThat(replicaLag.getLagMillis()).isEqualTo(-1);
+        assertThat(readsFromPrimary()).as("no heartbeat on the replica").isTrue();
+
+        replicate(System.currentTimeMillis());
+        assertThat(replicaLag.isAcceptable()).isTrue();
+        assertThat(readsFromPrimary()).as("replica in sync").isFalse();
+
+        replicate(System.currentTimeMillis() - 60_000);
+        assertThat(replicaLag.getLagMillis()).isGreaterThanOrEqualTo(60_000);
+        assertThat(readsFromPrimary()).as("replica lagging").isTrue();
+    }
+
+    @Test
+    void heartbeat_ShouldStampAndMeasureOnlyThisNodesRow() {
+        JdbcTemplate primary = new JdbcTemplate(replicaPools.getPrimary());
+        long otherBeat = System.currentTimeMillis() - 1_000;
+        primary.update("DELETE FROM replica_heartbeat");
+        primary.update("INSERT INTO replica_heartbeat (node_id, beat_at_millis) VALUES ('other-node', ?)", otherBeat);
+        primary.update("INSERT INTO replica_heartbeat (node_id, beat_at_millis) VALUES ('stopped-node', ?)",
+                System.currentTimeMillis() - Duration.ofDays(2).toMillis());
+        replica.update("DELETE FROM replica_heartbeat");
+        replica.update("INSERT INTO replica_heartbeat (node_id, beat_at_millis) VALUES ('other-node', ?)", otherBeat);
+
+        replicaHeartbeatScheduler.heartbeat();
+
+        assertThat(replicaLag.getLagMillis()).as("another node's beat says nothing about this node").isEqualTo(-1);
+        assertThat(primary.queryForList("SELECT node_id FROM replica_heartbeat ORDER BY node_id", String.class))
+                .containsExactlyInAnyOrder("other-node", jobLeaseService.getNodeId());
+        assertThat(primary.queryForObject("SELECT beat_at_millis FROM replica_heartbeat WHERE node_id = 'other-node'",
+                Long.class)).isEqualTo(otherBeat);
+    }
+
+        @Test
+    void readsAfterAWrite_ShouldStayOnThePrimaryForTheWriter() {
+        replicate(System.currentTimeMillis());
+        authenticate("routing_alice");
+        assertThat(readsFromPrimary()).isFalse();
+
+        productService.create(ProductCreateRequest.builder()
+                .merchantId(merchant.getId())
+                .name("Routed Product")
+                .category("Electronics")
+                .build());
+
+        assertThat(readsFromPrimary()).as("writer reads its own write").isTrue();
+        authenticate("routing_bob");
+        assertThat(readsFromPrimary()).as("other users keep reading the replica").isFalse();
+    }
+
+    /**
+     * Write a heartbeat on the replica as replication would have, then measure the lag
+     */
+    private void replicate(long beatAtMillis) {
+        replica.update("DELETE FROM replica_heartbeat");
+        replica.update("INSERT INTO replica_heartbeat (node_id, beat_at_millis) VALUES (?, ?)",
+                jobLeaseService.getNodeId(), beatAtMillis);
+        replicaHeartbeatScheduler.heartbeat();
+    }
+
+    private boolean readsFromPrimary() {
+        try {
+            productService.getByMerchant(merchant.getId(), PageRequest.of(0, 10));
+            return true;
+        } catch (ResourceNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+    }
+}
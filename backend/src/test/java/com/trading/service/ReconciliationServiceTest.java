@@ -0,0 +1,125 @@
+package com.trading.service;
+
+import com.trading.dto.response.ReconciliationReportResponse;
+import com.trading.entity.*;
+import com.trading.enums.ReconciliationIssue;
+import com.trading.enums.SettlementStatus;
+import com.trading.enums.TransactionType;
+import com.trading.repository.*;
+import com.trading.support.TradingFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Tests for the per-order settlement reconciliation report
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "trading.settlement.counters.audit-enabled=true")
+class ReconciliationServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TransactionRecordRepository transactionRecordRepository;
+
+    @Autowired
+    private TradingFixture fixture;
+
+    private User user;
+    private Merchant merchant;
+    private String sku;
+
+    @BeforeEach
+    void setUp() {
+        fixture.clear();
+        user = fixture.user("recon");
+        merchant = fixture.merchant("recon", "Recon Store");
+        sku = fixture.stock(merchant, "RC", 100, "10.00");
+    }
+
+    @Test
+    void reconcile_ShouldMatchCompletedOrdersWithTheirSaleEntries() {
+        completedOrder(1);
+        completedOrder(2);
+
+        ReconciliationReportResponse report = reconciliationService.reconcile(merchant.getId(), TODAY, 100);
+
+        assertThat(report.getOrdersChecked()).isEqualTo(2);
+        assertThat(report.getLedgerEntriesChecked()).isEqualTo(2);
+        assertThat(report.getMatchedOrders()).isEqualTo(2);
+        assertThat(report.getIssueCount()).isZero();
+        assertThat(report.getEntries()).isEmpty();
+        assertThat(report.getTotalDifference()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void reconcile_ShouldListMissingExtraAndMismatchedEntriesThatExplainTheDiscrepancy() {
+        Long missing = completedOrder(1);
+        Long extra = paidOrder(2);
+        Long refunded = paidOrder(3);
+        orderService.refund(refunded);
+        completedOrder(4);
+
+        // Lose the SALE entry of one completed order (audit mode settles from raw rows)
+        transactionRecordRepository.deleteAll(transactionRecordRepository.findByRelatedOrderId(missing).stream()
+                .filter(record -> record.getType() == TransactionType.SALE)
+                .toList());
+
+        settlementService.runSettlementForMerchant(merchant.getId(), TODAY);
+        ReconciliationReportResponse report = reconciliationService.reconcile(merchant.getId(), TODAY, 100);
+
+        assertThat(report.getMatchedOrders()).isEqualTo(1);
+        assertThat(report.getIssueCount()).isEqualTo(3);
+        assertThat(report.getEntries())
+                .extracting(ReconciliationReportResponse.Entry::getOrderId,
+                        ReconciliationReportResponse.Entry::getIssue)
+                .containsExactly(
+                        tuple(missing, ReconciliationIssue.MISSING_LEDGER_ENTRY),
+                        tuple(extra, ReconciliationIssue.EXTRA_LEDGER_ENTRY),
+                        tuple(refunded, ReconciliationIssue.AMOUNT_MISMATCH));
+
+        assertThat(report.getSettlementStatus()).isEqualTo(SettlementStatus.MISMATCHED);
+        assertThat(report.getTotalDifference().add(report.getUnlinkedLedgerAmount().negate()))
+                .isEqualByComparingTo(report.getSettlementDiscrepancy());
+    }
+
+    @Test
+    void reconcile_ShouldCountAllIssuesButListOnlyUpToLimit() {
+        paidOrder(1);
+        paidOrder(1);
+        paidOrder(1);
+
+        ReconciliationReportResponse report = reconciliationService.reconcile(merchant.getId(), TODAY, 2);
+
+        assertThat(report.getIssueCount()).isEqualTo(3);
+        assertThat(report.getEntries()).hasSize(2);
+        assertThat(report.isTruncated()).isTrue();
+    }
+
+    private Long completedOrder(int quantity) {
+        return fixture.completedOrder(user, sku, quantity);
+    }
+
+    private Long paidOrder(int quantity) {
+        return fixture.paidOrder(user, sku, quantity);
+    }
+}
@@ -0,0 +1,219 @@
+package com.trading.service;
+
+import com.trading.dto.request.SettlementBackfillRequest;
+import com.trading.dto.response.SettlementBackfillProgressResponse;
+import com.trading.entity.*;
+import com.trading.enums.SettlementRunStatus;
+import com.trading.enums.SettlementStatus;
+import com.trading.exception.InvalidOperationException;
+import com.trading.repository.*;
+import com.trading.support.TradingFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for settlement backfill over date ranges
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SettlementBackfillServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private SettlementBackfillService settlementBackfillService;
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Autowired
+    private ArchiveService archiveService;
+
+    @Autowired
+    private SettlementRepository settlementRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TradingFixture fixture;
+
+    private User user;
+    private Merchant sellingMerchant;
+    private Merchant refundingMerchant;
+    private String sellingSku;
+    private String refundingSku;
+
+    @BeforeEach
+    void setUp() {
+        fixture.clear();
+        user = fixture.user("backfill");
+        sellingMerchant = fixture.merchant("backfill", "Backfill Store");
+        refundingMerchant = fixture.merchant("backfill", "Backfill Store");
+        sellingSku = fixture.stock(sellingMerchant, "BF", 100, "10.00");
+        refundingSku = fixture.stock(refundingMerchant, "BF", 100, "10.00");
+    }
+
+    @Test
+    void backfill_ShouldSettleEveryMerchantForEveryDayAndSummarizeMismatches() throws InterruptedException {
+        fixture.completedOrder(user, sellingSku, 2);
+        // Refund of a paid order: the refund counts against sales that were never completed
+        fixture.refundedOrder(user, refundingSku, 1);
+
+        SettlementBackfillProgressResponse progress = runBackfill(SettlementBackfillRequest.builder()
+                .startDate(TODAY.minusDays(2))
+                .endDate(TODAY)
+                .build());
+
+        assertThat(progress.getStatus()).isEqualTo(SettlementRunStatus.COMPLETED);
+        assertThat(progress.getTotalDays()).isEqualTo(3);
+        assertThat(progress.getCompletedDays()).isEqualTo(3);
+        assertThat(progress.getSettlementsCreated()).isEqualTo(6);
+        assertThat(progress.getMismatchCount()).isEqualTo(1);
+        assertThat(progress.getMismatches()).singleElement().satisfies(mismatch -> {
+            assertThat(mismatch.getMerchantId()).isEqualTo(refundingMerchant.getId());
+            assertThat(mismatch.getSettlementDate()).isEqualTo(TODAY);
+            assertThat(mismatch.getDiscrepancy()).isEqualByComparingTo("-10.00");
+        });
+
+        Settlement selling = settlementRepository
+                .findByMerchantIdAndSettlementDate(sellingMerchant.getId(), TODAY).orElseThrow();
+        assertThat(selling.getStatus()).isEqualTo(SettlementStatus.MATCHED);
+        assertThat(selling.getTotalSales()).isEqualByComparingTo("20.00");
+        assertThat(selling.getBalanceChange()).isEqualByComparingTo("20.00");
+        assertThat(settlementRepository
+                .findByMerchantIdAndSettlementDate(sellingMerchant.getId(), TODAY.minusDays(1)).orElseThrow()
+                .getTotalSales()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void backfill_ShouldSkipExistingSettlementsUnlessForced() throws InterruptedException {
+        fixture.completedOrder(user, sellingSku, 1);
+        settlementService.runSettlementForMerchant(sellingMerchant.getId(), TODAY);
+        fixture.completedOrder(user, sellingSku, 2);
+
+        SettlementBackfillProgressResponse skipped = runBackfill(SettlementBackfillRequest.builder()
+                .startDate(TODAY)
+                .endDate(TODAY)
+                .merchantIds(List.of(sellingMerchant.getId()))
+                .build());
+        assertThat(skipped.getSettlementsSkipped()).isEqualTo(1);
+        assertThat(settlementRepository.findByMerchantIdAndSettlementDate(sellingMerchant.getId(), TODAY)
+                .orElseThrow().getTotalSales()).isEqualByComparingTo("10.00");
+
+        SettlementBackfillProgressResponse forced = runBackfill(SettlementBackfillRequest.builder()
+                .startDate(TODAY)
+                .endDate(TODAY)
+                .merchantIds(List.of(sellingMerchant.getId()))
+                .force(true)
+                .build());
+        assertThat(forced.getSettlementsRecomputed()).isEqualTo(1);
+        assertThat(forced.getMerchantFilterSize()).isEqualTo(1);
+        assertThat(settlementRepository.findByMerchantIdAndSettlementDate(sellingMerchant.getId(), TODAY)
+                .orElseThrow().getTotalSales()).isEqualByComparingTo("30.00");
+        assertThat(settlementRepository.existsByMerchantIdAndSettlementDate(refundingMerchant.getId(), TODAY))
+                .isFalse();
+    }
+
+    @Test
+    void forcedBackfill_ShouldBeRejectedForAnArchivedDayUntilItIsRestored() throws InterruptedException {
+        LocalDate archivedDay = TODAY.minusDays(700);
+        fixture.completedOrder(user, sellingSku, 2);
+        stampMerchantRows(sellingMerchant, archivedDay.atTime(12, 0));
+        settlementService.runSettlementForMerchant(sellingMerchant.getId(), archivedDay);
+        archiveService.archive(archivedDay.plusDays(1).atStartOfDay());
+
+        // The hot tables no longer hold the day: a forced re-settle would overwrite the settlement with zeros
+        assertThatThrownBy(() -> settlementBackfillService.start(SettlementBackfillRequest.builder()
+                .startDate(archivedDay)
+                .endDate(archivedDay)
+                .force(true)
+                .build()))
+                .isInstanceOf(InvalidOperationException.class)
+                .hasMessageContaining("restore them first");
+        assertThat(settlementRepository.findByMerchantIdAndSettlementDate(sellingMerchant.getId(), archivedDay)
+                .orElseThrow().getTotalSales()).isEqualByComparingTo("20.00");
+
+        archiveService.restore(archivedDay.atStartOfDay(), archivedDay.plusDays(1).atStartOfDay());
+        SettlementBackfillProgressResponse progress = runBackfill(SettlementBackfillRequest.builder()
+                .startDate(archivedDay)
+                .endDate(archivedDay)
+                .merchantIds(List.of(sellingMerchant.getId()))
+                .force(true)
+                .build());
+
+        assertThat(progress.getSettlementsRecomputed()).isEqualTo(1);
+        assertThat(settlementRepository.findByMerchantIdAndSettlementDate(sellingMerchant.getId(), archivedDay)
+                .orElseThrow().getTotalSales()).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    void backfill_ShouldAssignOrdersAndLedgerRowsToTheSameDay() throws InterruptedException {
+        // Orders and ledger rows stamped on either side of midnight land on the same day
+        fixture.completedOrder(user, sellingSku, 1);
+        stampMerchantRows(sellingMerchant, TODAY.atStartOfDay().minusNanos(1000));
+        fixture.completedOrder(user, refundingSku, 2);
+        stampMerchantRows(refundingMerchant, TODAY.atStartOfDay());
+
+        SettlementBackfillProgressResponse progress = runBackfill(SettlementBackfillRequest.builder()
+                .startDate(TODAY.minusDays(1))
+                .endDate(TODAY)
+                .build());
+
+        assertThat(progress.getMismatchCount()).isZero();
+        Settlement lastMicrosecond = settlementRepository
+                .findByMerchantIdAndSettlementDate(sellingMerchant.getId(), TODAY.minusDays(1)).orElseThrow();
+        assertThat(lastMicrosecond.getTotalSales()).isEqualByComparingTo("10.00");
+        assertThat(lastMicrosecond.getBalanceChange()).isEqualByComparingTo("10.00");
+        Settlement midnight = settlementRepository
+                .findByMerchantIdAndSettlementDate(refundingMerchant.getId(), TODAY).orElseThrow();
+        assertThat(midnight.getTotalSales()).isEqualByComparingTo("20.00");
+        assertThat(midnight.getBalanceChange()).isEqualByComparingTo("20.00");
+        assertThat(settlementRepository
+                .findByMerchantIdAndSettlementDate(refundingMerchant.getId(), TODAY.minusDays(1)).orElseThrow()
+                .getTotalSales()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void backfill_ShouldRejectInvalidRanges() {
+        assertThatThrownBy(() -> settlementBackfillService.start(SettlementBackfillRequest.builder()
+                .startDate(TODAY)
+                .endDate(TODAY.minusDays(1))
+                .build()))
+                .isInstanceOf(InvalidOperationException.class);
+
+        assertThatThrownBy(() -> settlementBackfillService.start(SettlementBackfillRequest.builder()
+                .startDate(TODAY.minusYears(2))
+                .endDate(TODAY)
+                .build()))
+                .isInstanceOf(InvalidOperationException.class)
+                .hasMessageContaining("exceeds the limit");
+    }
+
+    private SettlementBackfillProgressResponse runBackfill(SettlementBackfillRequest request) throws InterruptedException {
+        settlementBackfillService.start(request);
+        SettlementBackfillProgressResponse progress = settlementBackfillService.awaitCompletion(Duration.ofSeconds(30));
+        assertThat(progress.getStatus()).as("backfill finished").isNotEqualTo(SettlementRunStatus.RUNNING);
+        return progress;
+    }
+
+    private void stampMerchantRows(Merchant merchant, LocalDateTime at) {
+        jdbcTemplate.update("UPDATE orders SET updated_at = ? WHERE merchant_id = ?",
+                Timestamp.valueOf(at), merchant.getId());
+        jdbcTemplate.update("UPDATE transaction_records SET created_at = ? WHERE account_type = 'MERCHANT' AND account_id = ?",
+                Timestamp.valueOf(at), merchant.getId());
+    }
+}
@@ -0,0 +1,180 @@
+package com.trading.service;
+
+import com.trading.config.SettlementProperties;
+import com.trading.dto.response.SettlementResponse;
+import com.trading.entity.*;
+import com.trading.enums.TransactionType;
+import com.trading.repository.*;
+import com.trading.support.TradingFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the running settlement counters and the audit mode that compares
+ * them against the full recompute
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "trading.settlement.counters.audit-enabled=true")
+class SettlementCounterServiceTest {
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Autowired
+    private SettlementCounterService settlementCounterService;
+
+    @Autowired
+    private SettlementProperties settlementProperties;
+
+    @Autowired
+    private MerchantDailyCounterRepository merchantDailyCounterRepository;
+
+    @Autowired
+    private SettlementRepository settlementRepository;
+
+    @Autowired
+    private TransactionRecordRepository transactionRecordRepository;
+
+    @Autowired
+    private TradingFixture fixture;
+
+    private User user;
+    private Merchant merchant;
+    private String sku;
+
+    @BeforeEach
+    void setUp() {
+        fixture.clear();
+        user = fixture.user("counter");
+        merchant = fixture.merchant("counter", "Counter Store");
+        sku = fixture.stock(merchant, "CNT", 100, "25.00");
+    }
+
+    @AfterEach
+    void tearDown() {
+        settlementProperties.getCounters().setAuditEnabled(true);
+        settlementProperties.getCounters().setSlots(8);
+    }
+
+    @Test
+    void counters_ShouldFollowCompletionRefundAndLedgerWrites() {
+        completedOrder(2);
+        refundedOrder(1);
+
+        MerchantDailyCounter counter = settlementCounterService
+                .getCounter(merchant.getId(), LocalDate.now()).orElseThrow();
+
+        assertThat(counter.getSalesAmount()).isEqualByComparingTo("50.00");
+        assertThat(counter.getRefundAmount()).isEqualByComparingTo("25.00");
+        // Both orders were paid (SALE credits), one was refunded (REFUND_OUT debit)
+        assertThat(counter.getLedgerCredits()).isEqualByComparingTo("75.00");
+        assertThat(counter.getLedgerDebits()).isEqualByComparingTo("25.00");
+    }
+
+    @Test
+    void counters_ShouldSpreadWritesOverSlotRowsAndSumThemOnRead() {
+        for (int i = 0; i < 40; i++) {
+            settlementCounterService.recordSale(merchant.getId(), new BigDecimal("1.25"), LocalDateTime.now());
+        }
+
+        assertThat(merchantDailyCounterRepository.findByMerchantIdAndCounterDate(merchant.getId(), LocalDate.now()))
+                .hasSizeGreaterThan(1)
+                .allSatisfy(row -> assertThat(row.getSlot()).isBetween(0, 7));
+        assertThat(settlementCounterService.getCounter(merchant.getId(), LocalDate.now()).orElseThrow()
+                .getSalesAmount()).isEqualByComparingTo("50.00");
+
+        // Fewer slots later: rows written to the old slots are still counted
+        settlementProperties.getCounters().setSlots(1);
+        settlementCounterService.recordSale(merchant.getId(), new BigDecimal("5.00"), LocalDateTime.now());
+        assertThat(settlementCounterService.getCounter(merchant.getId(), LocalDate.now()).orElseThrow()
+                .getSalesAmount()).isEqualByComparingTo("55.00");
+    }
+
+    @Test
+    void counters_ShouldUseTheDayOfTheRecordedTimestamp() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        settlementCounterService.recordRefund(merchant.getId(), new BigDecimal("7.00"),
+                LocalDate.now().atStartOfDay().minusNanos(1000));
+        settlementCounterService.recordLedgerEntry(merchant.getId(), TransactionType.REFUND_OUT, new BigDecimal("7.00"),
+                LocalDate.now().atStartOfDay());
+
+        assertThat(settlementCounterService.getCounter(merchant.getId(), yesterday).orElseThrow()
+                .getRefundAmount()).isEqualByComparingTo("7.00");
+        assertThat(settlementCounterService.getCounter(merchant.getId(), yesterday).orElseThrow()
+                .getLedgerDebits()).isEqualByComparingTo("0.00");
+        assertThat(settlementCounterService.getCounter(merchant.getId(), LocalDate.now()).orElseThrow()
+                .getLedgerDebits()).isEqualByComparingTo("7.00");
+    }
+
+    @Test
+    void auditMode_ShouldReportNoDrift_WhenCountersMatchRawRows() {
+        completedOrder(3);
+        refundedOrder(1);
+
+        SettlementResponse settlement = settlementService
+                .runSettlementForMerchant(merchant.getId(), LocalDate.now());
+
+        assertThat(settlement.getCounterDrift()).isFalse();
+        assertThat(settlement.getTotalSales()).isEqualByComparingTo("75.00");
+        assertThat(settlement.getTotalRefunds()).isEqualByComparingTo("25.00");
+        assertThat(settlement.getBalanceChange()).isEqualByComparingTo("75.00");
+    }
+
+    @Test
+    void auditMode_ShouldFlagDriftAndUseRecomputedTotals_WhenRawRowsBypassCounters() {
+        completedOrder(2);
+
+        // A ledger row written outside the service layer is invisible to the counters
+        transactionRecordRepository.save(TransactionRecord.builder()
+                .transactionId("TXN-MANUAL-" + UUID.randomUUID().toString().substring(0, 8))
+                .accountType("MERCHANT")
+                .accountId(merchant.getId())
+                .type(TransactionType.SALE)
+                .amount(new BigDecimal("10.00"))
+                .balanceBefore(BigDecimal.ZERO)
+                .balanceAfter(new BigDecimal("10.00"))
+                .build());
+
+        SettlementResponse settlement = settlementService
+                .runSettlementForMerchant(merchant.getId(), LocalDate.now());
+
+        assertThat(settlement.getCounterDrift()).isTrue();
+        assertThat(settlement.getBalanceChange()).isEqualByComparingTo("60.00");
+        assertThat(settlementRepository.findByMerchantIdAndSettlementDate(merchant.getId(), LocalDate.now())
+                .orElseThrow().getCounterDrift()).isTrue();
+    }
+
+    @Test
+    void countersMode_ShouldSettleFromCountersWithoutAudit() {
+        settlementProperties.getCounters().setAuditEnabled(false);
+        completedOrder(4);
+
+        SettlementResponse settlement = settlementService
+                .runSettlementForMerchant(merchant.getId(), LocalDate.now());
+
+        assertThat(settlement.getCounterDrift()).isNull();
+        assertThat(settlement.getTotalSales()).isEqualByComparingTo("100.00");
+        assertThat(settlement.getBalanceChange()).isEqualByComparingTo("100.00");
+    }
+
+    private void completedOrder(int quantity) {
+        fixture.completedOrder(user, sku, quantity);
+    }
+
+    private void refundedOrder(int quantity) {
+        fixture.refundedOrder(user, sku, quantity);
+    }
+}
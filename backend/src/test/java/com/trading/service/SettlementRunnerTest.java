@@ -0,0 +1,287 @@
+package com.trading.service;
+
+import com.trading.config.SettlementProperties;
+import com.trading.dto.response.SettlementRunProgressResponse;
+import com.trading.entity.JobLease;
+import com.trading.entity.Merchant;
+import com.trading.entity.SettlementChunk;
+import com.trading.entity.SettlementRun;
+import com.trading.enums.SettlementChunkStatus;
+import com.trading.enums.SettlementRunStatus;
+import com.trading.repository.*;
+import com.trading.scheduler.SettlementScheduler;
+import com.trading.service.impl.SettlementRunner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the chunked, parallel settlement runner
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "trading.settlement.runner.chunk-size=2",
+        "trading.settlement.runner.parallelism=3"
+})
+class SettlementRunnerTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 3, 1);
+
+    @Autowired
+    private SettlementRunner settlementRunner;
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Autowired
+    private SettlementRunRepository settlementRunRepository;
+
+    @Autowired
+    private SettlementChunkRepository settlementChunkRepository;
+
+    @Autowired
+    private SettlementRepository settlementRepository;
+
+    @Autowired
+    private TransactionRecordRepository transactionRecordRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MerchantRepository merchantRepository;
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    @Autowired
+    private SettlementScheduler settlementScheduler;
+
+    @Autowired
+    private SettlementProperties settlementProperties;
+
+    private List<Long> merchantIds;
+
+    @BeforeEach
+    void setUp() {
+        settlementChunkRepository.deleteAll();
+        settlementRunRepository.deleteAll();
+        settlementRepository.deleteAll();
+        transactionRecordRepository.deleteAll();
+        cartItemRepository.deleteAll();
+        orderRepository.deleteAll();
+        inventoryRepository.deleteAll();
+        productRepository.deleteAll();
+        merchantRepository.deleteAll();
+
+        merchantIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Merchant merchant = merchantRepository.save(Merchant.builder()
+                    .businessName("Runner Store " + i)
+                    .username("runner_" + UUID.randomUUID().toString().substring(0, 8))
+                    .password("password123")
+                    .balance(BigDecimal.ZERO)
+                    .build());
+            merchantIds.add(merchant.getId());
+        }
+    }
+
+    @Test
+    void run_ShouldSettleAllMerchantsInChunks() {
+        SettlementRunProgressResponse progress = settlementRunner.run(DATE,
+                merchantId -> settlementService.runSettlementForMerchant(merchantId, DATE));
+
+        assertThat(progress.getStatus()).isEqualTo(SettlementRunStatus.COMPLETED);
+        assertThat(progress.getTotalChunks()).isEqualTo(3);
+        assertThat(progress.getCompletedChunks()).isEqualTo(3);
+        assertThat(progress.getMerchantsProcessed()).isEqualTo(5);
+        assertThat(progress.getFailures()).isEmpty();
+
+        for (Long merchantId : merchantIds) {
+            assertThat(settlementRepository.existsByMerchantIdAndSettlementDate(merchantId, DATE)).isTrue();
+        }
+        assertThat(settlementRunner.getProgress().getRunId()).isEqualTo(progress.getRunId());
+    }
+
+    @Test
+    void run_FailingMerchantShouldNotAffectOtherMerchants() {
+        Long failingMerchantId = merchantIds.get(2);
+
+        SettlementRunProgressResponse progress = settlementRunner.run(DATE, merchantId -> {
+            settlementService.runSettlementForMerchant(merchantId, DATE);
+            if (merchantId.equals(failingMerchantId)) {
+                throw new IllegalStateException("boom");
+            }
+        });
+
+        assertThat(progress.getStatus()).isEqualTo(SettlementRunStatus.FAILED);
+        assertThat(progress.getCompletedChunks()).isEqualTo(2);
+        assertThat(progress.getFailedChunks()).isEqualTo(1);
+        assertThat(progress.getMerchantsProcessed()).isEqualTo(4);
+        assertThat(progress.getFailures()).hasSize(1);
+        assertThat(progress.getFailures().get(0).getError())
+                .contains(String.valueOf(failingMerchantId))
+                .contains("boom");
+
+        // Only the failing merchant's transaction rolled back, not the rest of its chunk
+        assertThat(settlementRepository.existsByMerchantIdAndSettlementDate(merchantIds.get(2), DATE)).isFalse();
+        assertThat(settlementRepository.existsByMerchantIdAndSettlementDate(merchantIds.get(3), DATE)).isTrue();
+        assertThat(settlementRepository.existsByMerchantIdAndSettlementDate(merchantIds.get(0), DATE)).isTrue();
+        assertThat(settlementRepository.existsByMerchantIdAndSettlementDate(merchantIds.get(4), DATE)).isTrue();
+
+        // Resuming retries the failed chunk; its settled merchant is not settled twice
+        progress = settlementRunner.run(DATE,
+                merchantId -> settlementService.runSettlementForMerchant(merchantId, DATE));
+        assertThat(progress.getStatus()).isEqualTo(SettlementRunStatus.COMPLETED);
+        assertThat(settlementRepository.existsByMerchantIdAndSettlementDate(failingMerchantId, DATE)).isTrue();
+        assertThat(settlementRepository.count()).isEqualTo(5);
+    }
+
+    @Test
+    void run_ShouldResumeOnlyUnfinishedChunksOfInterruptedRun() {
+        // Simulate a crash: chunk 0 completed, chunk 1 was running, chunk 2 never started
+        SettlementRun run = settlementRunRepository.save(SettlementRun.builder()
+                .settlementDate(DATE)
+                .status(SettlementRunStatus.RUNNING)
+                .totalChunks(3)
+                .startedAt(DATE.plusDays(1).atStartOfDay())
+                .build());
+        settlementChunkRepository.saveAll(List.of(
+                chunk(run.getId(), 0, merchantIds.get(0), merchantIds.get(1), SettlementChunkStatus.COMPLETED),
+                chunk(run.getId(), 1, merchantIds.get(2), merchantIds.get(3), SettlementChunkStatus.RUNNING),
+                chunk(run.getId(), 2, merchantIds.get(4), merchantIds.get(4), SettlementChunkStatus.PENDING)));
+
+        Set<Long> settled = ConcurrentHashMap.newKeySet();
+        SettlementRunProgressResponse progress = settlementRunner.run(DATE, merchantId -> {
+            settled.add(merchantId);
+            settlementService.runSettlementForMerchant(merchantId, DATE);
+        });
+
+        assertThat(progress.getRunId()).isEqualTo(run.getId());
+        assertThat(progress.getStatus()).isEqualTo(SettlementRunStatus.COMPLETED);
+        assertThat(settled).containsExactlyInAnyOrder(merchantIds.get(2), merchantIds.get(3), merchantIds.get(4));
+        assertThat(settlementRunRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void run_ResumeShouldSettleMerchantsRegisteredAfterTheRunWasPlanned() {
+        SettlementRun run = settlementRunRepository.save(SettlementRun.builder()
+                .settlementDate(DATE)
+                .status(SettlementRunStatus.RUNNING)
+                .totalChunks(1)
+                .startedAt(DATE.plusDays(1).atStartOfDay())
+                .build());
+        settlementChunkRepository.save(
+                chunk(run.getId(), 0, merchantIds.get(0), merchantIds.get(4), SettlementChunkStatus.COMPLETED));
+        Long late = merchantRepository.save(Merchant.builder()
+                .businessName("Late Store")
+                .username("runner_" + UUID.randomUUID().toString().substring(0, 8))
+                .password("password123")
+                .balance(BigDecimal.ZERO)
+                .build()).getId();
+
+        Set<Long> settled = ConcurrentHashMap.newKeySet();
+        SettlementRunProgressResponse progress = settlementRunner.run(DATE, merchantId -> {
+            settled.add(merchantId);
+            settlementService.runSettlementForMerchant(merchantId, DATE);
+        });
+
+        assertThat(progress.getStatus()).isEqualTo(SettlementRunStatus.COMPLETED);
+        assertThat(progress.getTotalChunks()).isEqualTo(2);
+        assertThat(settled).containsExactly(late);
+    }
+
+    @Test
+    void run_ShouldStopBeforeTheNextChunkOnceItMayNotContinue() {
+        // One worker, so chunks start one after another
+        settlementProperties.getRunner().setParallelism(1);
+        AtomicInteger checks = new AtomicInteger();
+        try {
+            assertThatThrownBy(() -> settlementRunner.run(DATE,
+                    merchantId -> settlementService.runSettlementForMerchant(merchantId, DATE),
+                    () -> checks.incrementAndGet() == 1))
+                    .isInstanceOf(IllegalStateException.class);
+        } finally {
+            settlementProperties.getRunner().setParallelism(3);
+        }
+
+        SettlementRun run = settlementRunRepository.findFirstByOrderByIdDesc().orElseThrow();
+        assertThat(run.getStatus()).isEqualTo(SettlementRunStatus.RUNNING);
+        assertThat(settlementChunkRepository.findByRunIdOrderByChunkIndex(run.getId()))
+                .extracting(SettlementChunk::getStatus)
+                .containsExactly(SettlementChunkStatus.COMPLETED, SettlementChunkStatus.PENDING, SettlementChunkStatus.PENDING);
+        assertThat(settlementRepository.count()).isEqualTo(2);
+
+        SettlementRunProgressResponse progress = settlementRunner.run(DATE,
+                merchantId -> settlementService.runSettlementForMerchant(merchantId, DATE));
+        assertThat(progress.getStatus()).isEqualTo(SettlementRunStatus.COMPLETED);
+        assertThat(settlementRepository.count()).isEqualTo(5);
+    }
+
+    @Test
+    void scheduler_ShouldRetryTheLastFailedSettlementDate() {
+        jobLeaseRepository.deleteAll();
+        jobLeaseRepository.save(JobLease.builder()
+                .jobName("daily-settlement")
+                .holder("other-node")
+                .tick(DATE.toString())
+                .acquiredAt(LocalDateTime.now().minusMinutes(10))
+                .expiresAt(LocalDateTime.now().minusMinutes(5))
+                .completedAt(LocalDateTime.now().minusMinutes(5))
+                .lastError("Settlement run 1 for " + DATE + " finished with 1 failed chunks")
+                .build());
+        try {
+            settlementScheduler.retryFailedSettlement();
+
+            for (Long merchantId : merchantIds) {
+                assertThat(settlementRepository.existsByMerchantIdAndSettlementDate(merchantId, DATE)).isTrue();
+            }
+            JobLease lease = jobLeaseRepository.findAll().get(0);
+            assertThat(lease.getCompletedAt()).isNotNull();
+            assertThat(lease.getLastError()).isNull();
+
+            // A completed date is not retried
+            settlementRepository.deleteAll();
+            settlementScheduler.retryFailedSettlement();
+            assertThat(settlementRepository.count()).isZero();
+        } finally {
+            jobLeaseRepository.deleteAll();
+        }
+    }
+
+    private SettlementChunk chunk(Long runId, int index, Long first, Long last, SettlementChunkStatus status) {
+        return SettlementChunk.builder()
+                .runId(runId)
+                .chunkIndex(index)
+                .firstMerchantId(first)
+                .lastMerchantId(last)
+                .status(status)
+                .build();
+    }
+}
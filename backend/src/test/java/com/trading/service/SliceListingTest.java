@@ -0,0 +1,192 @@
+package com.trading.service;
+
+import com.trading.dto.response.InventoryResponse;
+import com.trading.dto.response.OrderResponse;
+import com.trading.dto.response.ProductResponse;
+import com.trading.dto.response.TransactionResponse;
+import com.trading.entity.Merchant;
+import com.trading.entity.User;
+import com.trading.enums.OrderStatus;
+import com.trading.support.TradingFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the slice list variants: they page by reading one row ahead instead of
+ * counting, continue from hot into archived rows, and report approximate totals on request
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SliceListingTest {
+
+    private static final Sort NEWEST_FIRST = Sort.by("createdAt").descending().and(Sort.by("id").descending());
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ArchiveService archiveService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TradingFixture fixture;
+
+    private String suffix;
+    private User user;
+    private Merchant merchant;
+    private String sku;
+
+    @BeforeEach
+    void setUp() {
+        suffix = TradingFixture.suffix();
+        user = fixture.user("slice");
+        merchant = fixture.merchant("slice", "Slice Store");
+        sku = "SLC-" + suffix.toUpperCase();
+        for (int i = 0; i < 3; i++) {
+            Long productId = fixture.product(merchant, "Sliced " + suffix + " " + i);
+            fixture.inventory(merchant, productId, i == 0 ? sku : sku + "-" + i, 50, "5.00");
+        }
+    }
+
+    @Test
+    void orderSlices_ShouldContinueIntoTheArchiveWithoutCounting() {
+        List<Long> archived = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Long orderId = fixture.order(user, sku, 1);
+            orderService.cancel(orderId);
+            archived.add(orderId);
+        }
+        Timestamp old = Timestamp.valueOf(LocalDateTime.now().minusDays(500));
+        jdbcTemplate.update("UPDATE orders SET created_at = ?, updated_at = ? WHERE user_id = ?", old, old, user.getId());
+        List<Long> hot = List.of(
+                fixture.order(user, sku, 1),
+                fixture.order(user, sku, 1));
+        archiveService.archive(LocalDateTime.now().minusDays(400));
+
+        List<Long> seen = new ArrayList<>();
+        Slice<OrderResponse> first = orderService.getSliceByUser(user.getId(), PageRequest.of(0, 2, NEWEST_FIRST));
+        assertThat(first.getContent()).extracting(OrderResponse::getId).containsExactlyInAnyOrderElementsOf(hot);
+        assertThat(first.hasNext()).as("archived orders follow").isTrue();
+        seen.addAll(first.map(OrderResponse::getId).getContent());
+
+        Slice<OrderResponse> second = orderService.getSliceByUser(user.getId(), PageRequest.of(1, 2, NEWEST_FIRST));
+        assertThat(second.getNumberOfElements()).isEqualTo(2);
+        assertThat(second.hasNext()).isTrue();
+        seen.addAll(second.map(OrderResponse::getId).getContent());
+
+        Slice<OrderResponse> last = orderService.getSliceByUser(user.getId(), PageRequest.of(2, 2, NEWEST_FIRST));
+        assertThat(last.getNumberOfElements()).isEqualTo(1);
+        assertThat(last.hasNext()).isFalse();
+        seen.addAll(last.map(OrderResponse::getId).getContent());
+
+        assertThat(seen).doesNotHaveDuplicates().containsAll(hot).containsAll(archived).hasSize(5);
+        assertThat(last.getContent().get(0).getItems()).as("archived items are loaded").hasSize(1);
+
+        Slice<OrderResponse> straddling = orderService.getSliceByUser(user.getId(), PageRequest.of(0, 3, NEWEST_FIRST));
+        assertThat(straddling.getContent()).extracting(OrderResponse::getId)
+                .containsAll(hot).containsAnyElementsOf(archived).hasSize(3);
+        assertThat(straddling.hasNext()).isTrue();
+
+        Slice<OrderResponse> cancelled = orderService.getSliceByMerchantAndStatus(
+                merchant.getId(), OrderStatus.CANCELLED, PageRequest.of(0, 10, NEWEST_FIRST));
+        assertThat(cancelled.getContent()).extracting(OrderResponse::getId).containsExactlyInAnyOrderElementsOf(archived);
+        assertThat(cancelled.hasNext()).isFalse();
+    }
+
+    @Test
+    void firstSlice_ShouldNotRunACountQuery() {
+        for (int i = 0; i < 3; i++) {
+            fixture.order(user, sku, 1);
+        }
+
+        List<String> statements;
+        jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+        jdbcTemplate.execute("SET QUERY_STATISTICS TRUE");
+        try {
+            Slice<OrderResponse> orders = orderService.getSliceByUser(user.getId(), PageRequest.of(0, 2, NEWEST_FIRST));
+            assertThat(orders.hasNext()).isTrue();
+            statements = jdbcTemplate.queryForList(
+                    "SELECT SQL_STATEMENT FROM INFORMATION_SCHEMA.QUERY_STATISTICS", String.class);
+        } finally {
+            jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+        }
+        assertThat(statements).anyMatch(sql -> sql.contains("from orders"));
+        assertThat(statements).filteredOn(sql -> sql.contains("orders"))
+                .noneMatch(sql -> sql.toLowerCase().contains("count("));
+    }
+
+    @Test
+    void otherSlices_ShouldReportWhetherMoreRowsFollow() {
+        for (int i = 0; i < 3; i++) {
+            fixture.paidOrder(user, sku, 1);
+        }
+        Pageable firstTwo = PageRequest.of(0, 2, NEWEST_FIRST);
+        Pageable nextTwo = PageRequest.of(1, 2, NEWEST_FIRST);
+
+        Slice<TransactionResponse> transactions = userService.getTransactionSlice(user.getId(), firstTwo);
+        assertThat(transactions.getNumberOfElements()).isEqualTo(2);
+        assertThat(transactions.hasNext()).isTrue();
+        assertThat(userService.getTransactionSlice(user.getId(), nextTwo).hasNext()).isFalse();
+
+        Slice<InventoryResponse> inventory = inventoryService.getSliceByMerchant(merchant.getId(), PageRequest.of(0, 2));
+        assertThat(inventory.getContent()).extracting(InventoryResponse::getProductName).doesNotContainNull();
+        assertThat(inventory.hasNext()).isTrue();
+        assertThat(inventoryService.getSliceByMerchant(merchant.getId(), PageRequest.of(1, 2)).hasNext()).isFalse();
+
+        Slice<ProductResponse> products = productService.searchSlice(suffix, "Electronics", PageRequest.of(0, 2));
+        assertThat(products.getNumberOfElements()).isEqualTo(2);
+        assertThat(products.hasNext()).isTrue();
+        assertThat(productService.getSliceByMerchant(merchant.getId(), PageRequest.of(1, 2)).hasNext()).isFalse();
+    }
+
+    @Test
+    void approximateTotals_ShouldComeFromCountersAndCachedCounts() {
+        for (int i = 0; i < 2; i++) {
+            fixture.order(user, sku, 1);
+        }
+
+        assertThat(orderService.getApproximateCountByUser(user.getId())).isEqualTo(2);
+        fixture.order(user, sku, 1);
+        assertThat(orderService.getApproximateCountByUser(user.getId())).as("cached").isEqualTo(2);
+        assertThat(orderService.getByUser(user.getId(), PageRequest.of(0, 10)).getTotalElements()).isEqualTo(3);
+
+        // The dashboard counters are maintained by the write paths, so they are current
+        assertThat(orderService.getApproximateCountByMerchant(merchant.getId(), null)).isEqualTo(3);
+        assertThat(orderService.getApproximateCountByMerchant(merchant.getId(), OrderStatus.PENDING)).isEqualTo(3);
+        assertThat(orderService.getApproximateCountByMerchant(merchant.getId(), OrderStatus.PAID)).isZero();
+        assertThat(productService.getApproximateCountByMerchant(merchant.getId())).isEqualTo(3);
+
+        assertThat(productService.getApproximateSearchCount(suffix.toUpperCase(), null)).isEqualTo(3);
+        assertThat(inventoryService.getApproximateCountByMerchant(merchant.getId())).isEqualTo(3);
+        Long paid = orderService.getByUser(user.getId(), PageRequest.of(0, 1)).getContent().get(0).getId();
+        orderService.confirmPayment(paid);
+        assertThat(orderService.getApproximateCountByMerchant(merchant.getId(), OrderStatus.PAID)).isEqualTo(1);
+        assertThat(userService.getApproximateTransactionCount(user.getId())).isEqualTo(1);
+    }
+}
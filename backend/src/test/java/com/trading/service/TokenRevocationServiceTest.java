@@ -0,0 +1,130 @@
+package com.trading.service;
+
+import com.trading.config.JwtProperties;
+import com.trading.entity.RevokedToken;
+import com.trading.exception.InvalidTokenException;
+import com.trading.repository.RevokedTokenRepository;
+import com.trading.security.JwtUtil;
+import com.trading.security.VerifiedToken;
+import com.trading.service.impl.TokenRevocationServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for token revocation on logout, its propagation through the revocation table,
+ * and the cutover after which tokens without an ID are rejected
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TokenRevocationServiceTest {
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @BeforeEach
+    void setUp() {
+        revokedTokenRepository.deleteAll();
+    }
+
+    @Test
+    void logout_ShouldRevokeOnlyThatToken() {
+        String token = jwtUtil.generateToken(1L, "revocation_merchant");
+        String otherToken = jwtUtil.generateToken(1L, "revocation_merchant");
+        assertThat(authenticationService.validateToken(token)).isTrue();
+
+        authenticationService.logout(token);
+
+        VerifiedToken verified = jwtUtil.verify(token);
+        assertThat(authenticationService.validateToken(token)).isFalse();
+        assertThat(authenticationService.validateToken(otherToken)).isTrue();
+        assertThatThrownBy(() -> tokenRevocationService.checkNotRevoked(verified))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessageContaining("revoked");
+
+        assertThat(revokedTokenRepository.findAll()).singleElement().satisfies(row -> {
+            assertThat(row.getTokenId()).isEqualTo(verified.tokenId());
+            assertThat(row.getSubject()).isEqualTo("revocation_merchant");
+            assertThat(row.getReason()).isEqualTo("LOGOUT");
+        });
+    }
+
+    @Test
+    void refreshFromStore_ShouldPickUpRevocationsRecordedByOtherNodes() {
+        String token = jwtUtil.generateToken(2L, "polled_merchant");
+        String tokenId = jwtUtil.verify(token).tokenId();
+
+        // Written by another node: this node only learns about it by polling
+        revokedTokenRepository.save(revocation(tokenId, LocalDateTime.now().plusHours(1)));
+
+        assertThat(tokenRevocationService.refreshFromStore()).isPositive();
+
+        assertThat(tokenRevocationService.isRevoked(tokenId)).isTrue();
+        assertThat(authenticationService.validateToken(token)).isFalse();
+    }
+
+    @Test
+    void purgeExpired_ShouldDeleteOnlyExpiredRevocations() {
+        String expiredId = UUID.randomUUID().toString();
+        String liveId = UUID.randomUUID().toString();
+        revokedTokenRepository.save(revocation(expiredId, LocalDateTime.now().minusMinutes(1)));
+        revokedTokenRepository.save(revocation(liveId, LocalDateTime.now().plusHours(1)));
+
+        tokenRevocationService.refreshFromStore();
+        assertThat(tokenRevocationService.purgeExpired()).isEqualTo(1);
+
+        assertThat(revokedTokenRepository.existsByTokenId(expiredId)).isFalse();
+        assertThat(revokedTokenRepository.existsByTokenId(liveId)).isTrue();
+        assertThat(tokenRevocationService.isRevoked(expiredId)).isFalse();
+        assertThat(tokenRevocationService.isRevoked(liveId)).isTrue();
+    }
+
+    @Test
+    void tokensWithoutAnId_ShouldBeRejectedAfterTheCutover() {
+        Date now = new Date();
+        VerifiedToken legacy = new VerifiedToken(null, "legacy_merchant", 3L, "MERCHANT",
+                now, new Date(now.getTime() + 3_600_000));
+
+        // Default cutover is one token lifetime after startup, when every pre-jti token has expired
+        tokenRevocationService.checkNotRevoked(legacy);
+        assertThat(tokenRevocationService.revoke(legacy, "LOGOUT")).isFalse();
+
+        JwtProperties properties = new JwtProperties();
+        properties.getRevocation().setLegacyTokensAcceptedUntil(LocalDateTime.now().minusMinutes(1));
+        TokenRevocationService afterCutover = new TokenRevocationServiceImpl(revokedTokenRepository, properties);
+        assertThatThrownBy(() -> afterCutover.checkNotRevoked(legacy))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessageContaining("no ID");
+
+        String current = jwtUtil.generateToken(3L, "legacy_merchant");
+        afterCutover.checkNotRevoked(jwtUtil.verify(current));
+    }
+
+    private RevokedToken revocation(String tokenId, LocalDateTime expiresAt) {
+        return RevokedToken.builder()
+                .tokenId(tokenId)
+                .subject("other_node_user")
+                .reason("COMPROMISED")
+                .revokedAt(LocalDateTime.now())
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.trading.service.impl;
+
+import com.trading.dto.response.OrderResponse;
+import com.trading.entity.Order;
+import com.trading.entity.TransactionRecord;
+import com.trading.enums.OrderStatus;
+import com.trading.enums.TransactionType;
+import com.trading.service.impl.OrderServiceImpl.OrderLine;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU cost of the in-memory work on the order and settlement paths, without the database:
+ *
+ * <ul>
+ *   <li>{@code orderNumber}, {@code transactionId}: ID generation for every order and ledger entry</li>
+ *   <li>{@code buildOrderFromCart}: {@link OrderServiceImpl#buildOrder}, which createFromCart calls
+ *       once the cart's inventory and products are loaded</li>
+ *   <li>{@code toOrderResponse}: mapping an order and its items to the response DTO</li>
+ *   <li>{@code settlementTotals}: {@link SettlementTotals#of} over a day of {@code settlementRows}
+ *       orders and ledger entries, as a settlement recompute does</li>
+ * </ul>
+ *
+ * Lives next to the services so it calls their package-private helpers rather than a copy.
+ * Part of the regression baseline, see {@code com.trading.benchmark.BenchmarkRegressionCheck}. Run {@link #main(String[])}
+ * from the IDE to run it alone.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderHotPathBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Cart {
+
+        @Param({"1", "10"})
+        public int cartItems;
+
+        private List<OrderLine> lines;
+        private Order order;
+
+        @Setup
+        public void setUp() {
+            lines = new ArrayList<>();
+            for (int i = 0; i < cartItems; i++) {
+                lines.add(new OrderLine("SKU-" + i, "Product " + i, 1 + i % 3,
+                        new BigDecimal("19.99").add(BigDecimal.valueOf(i))));
+            }
+            order = OrderServiceImpl.buildOrder("ORD-BENCHMARK", 1L, 1L, lines);
+            order.setId(1L);
+            order.setCreatedAt(LocalDateTime.now());
+            order.setUpdatedAt(LocalDateTime.now());
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class SettlementDay {
+
+        @Param({"1000"})
+        public int settlementRows;
+
+        private final List<Order> completedOrders = new ArrayList<>();
+        private final List<Order> refundedOrders = new ArrayList<>();
+        private final List<TransactionRecord> sales = new ArrayList<>();
+        private final List<TransactionRecord> refundsOut = new ArrayList<>();
+
+        @Setup
+        public void setUp() {
+            for (int i = 0; i < settlementRows; i++) {
+                BigDecimal amount = new BigDecimal("10.00").add(BigDecimal.valueOf(i % 500, 2));
+                boolean refunded = i % 20 == 0;
+                (refunded ? refundedOrders : completedOrders).add(Order.builder()
+                        .totalAmount(amount)
+                        .status(refunded ? OrderStatus.REFUNDED : OrderStatus.COMPLETED)
+                        .build());
+                sales.add(TransactionRecord.builder().type(TransactionType.SALE).amount(amount).build());
+                if (refunded) {
+                    refundsOut.add(TransactionRecord.builder().type(TransactionType.REFUND_OUT).amount(amount).build());
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public String orderNumber() {
+        return OrderServiceImpl.generateOrderNumber();
+    }
+
+    @Benchmark
+    public String transactionId() {
+        return TransactionServiceImpl.generateTransactionId();
+    }
+
+    @Benchmark
+    public Order buildOrderFromCart(Cart cart) {
+        return OrderServiceImpl.buildOrder("ORD-BENCHMARK", 1L, 1L, cart.lines);
+    }
+
+    @Benchmark
+    public OrderResponse toOrderResponse(Cart cart) {
+        return OrderResponse.fromEntity(cart.order);
+    }
+
+    @Benchmark
+    public SettlementTotals settlementTotals(SettlementDay day) {
+        return SettlementTotals.of(day.completedOrders, day.refundedOrders, day.sales, day.refundsOut);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(OrderHotPathBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,193 @@
+package com.trading.support;
+
+import com.trading.dto.request.CartAddRequest;
+import com.trading.dto.request.DirectPurchaseRequest;
+import com.trading.dto.request.InventoryAddRequest;
+import com.trading.dto.request.ProductCreateRequest;
+import com.trading.entity.Merchant;
+import com.trading.entity.User;
+import com.trading.repository.*;
+import com.trading.service.CartService;
+import com.trading.service.InventoryService;
+import com.trading.service.OrderService;
+import com.trading.service.ProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Shared test data: users, merchants, products, inventory, cart items and orders.
+ * Accounts are saved directly; catalog, cart and order data go through the services
+ * so their listeners, caches and counters see the same writes as in production.
+ * Names get a random suffix so tests that do not clear the tables do not collide.
+ */
+@Component
+public class TradingFixture {
+
+    public static final String PASSWORD = "password123";
+    public static final BigDecimal USER_BALANCE = new BigDecimal("1000.00");
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MerchantDailyCounterRepository merchantDailyCounterRepository;
+
+    @Autowired
+    private SettlementRepository settlementRepository;
+
+    @Autowired
+    private TransactionRecordRepository transactionRecordRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MerchantRepository merchantRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Deletes counters, settlements, ledger rows, carts, orders, inventory, products,
+     * merchants and users, dependents first
+     */
+    public void clear() {
+        merchantDailyCounterRepository.deleteAll();
+        settlementRepository.deleteAll();
+        transactionRecordRepository.deleteAll();
+        cartItemRepository.deleteAll();
+        orderRepository.deleteAll();
+        inventoryRepository.deleteAll();
+        productRepository.deleteAll();
+        merchantRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    public static String suffix() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * A unique SKU such as {@code CNT-1A2B3C4D}
+     */
+    public static String sku(String prefix) {
+        return prefix + "-" + suffix().toUpperCase();
+    }
+
+    public User user(String prefix) {
+        return user(prefix, USER_BALANCE);
+    }
+
+    public User user(String prefix, BigDecimal balance) {
+        return userRepository.save(User.builder()
+                .username(prefix + "_user_" + suffix())
+                .password(PASSWORD)
+                .balance(balance)
+                .build());
+    }
+
+    public Merchant merchant(String prefix, String businessName) {
+        return merchantRepository.save(Merchant.builder()
+                .businessName(businessName)
+                .username(prefix + "_merchant_" + suffix())
+                .password(PASSWORD)
+                .balance(BigDecimal.ZERO)
+                .build());
+    }
+
+    public Long product(Merchant merchant, String name) {
+        return product(merchant, name, "Electronics");
+    }
+
+    public Long product(Merchant merchant, String name, String category) {
+        return productService.create(ProductCreateRequest.builder()
+                .merchantId(merchant.getId())
+                .name(name)
+                .category(category)
+                .build()).getId();
+    }
+
+    /**
+     * Adds stock of a product under the given SKU
+     *
+     * @return the SKU
+     */
+    public String inventory(Merchant merchant, Long productId, String sku, int quantity, String price) {
+        inventoryService.addInventory(merchant.getId(), InventoryAddRequest.builder()
+                .sku(sku)
+                .productId(productId)
+                .quantity(quantity)
+                .price(new BigDecimal(price))
+                .build());
+        return sku;
+    }
+
+    /**
+     * Creates a product with one SKU in stock
+     *
+     * @return the SKU, {@code skuPrefix} followed by a random suffix
+     */
+    public String stock(Merchant merchant, String skuPrefix, int quantity, String price) {
+        Long productId = product(merchant, skuPrefix + " Product");
+        return inventory(merchant, productId, sku(skuPrefix), quantity, price);
+    }
+
+    public void addToCart(User user, String sku, int quantity) {
+        cartService.addItem(user.getId(), CartAddRequest.builder()
+                .sku(sku)
+                .quantity(quantity)
+                .build());
+    }
+
+    /**
+     * Places a direct order that is left pending
+     *
+     * @return the order id
+     */
+    public Long order(User user, String sku, int quantity) {
+        return orderService.createDirect(user.getId(), DirectPurchaseRequest.builder()
+                .sku(sku)
+                .quantity(quantity)
+                .build()).getId();
+    }
+
+    public Long paidOrder(User user, String sku, int quantity) {
+        Long orderId = order(user, sku, quantity);
+        orderService.confirmPayment(orderId);
+        return orderId;
+    }
+
+    public Long completedOrder(User user, String sku, int quantity) {
+        Long orderId = paidOrder(user, sku, quantity);
+        orderService.ship(orderId);
+        orderService.complete(orderId);
+        return orderId;
+    }
+
+    public Long refundedOrder(User user, String sku, int quantity) {
+        Long orderId = paidOrder(user, sku, quantity);
+        orderService.refund(orderId);
+        return orderId;
+    }
+}